@@ -41,8 +41,13 @@ public interface MinioConstants extends BaseConstants {
     String PRESIGNED_OBJECT_URL_PROXY = MINIO_CHUNK_UPLOAD_REQUEST_MAPPING + MINIO_PRESIGNED_OBJECT_REQUEST_MAPPING;
 
     String PROPERTY_OSS_MINIO = PROPERTY_PREFIX_OSS + ".minio";
+    String PROPERTY_OSS_MINIO_SCENARIO = PROPERTY_OSS_MINIO + ".scenario";
 
     String ITEM_MINIO_ENDPOINT = PROPERTY_OSS_MINIO + ".endpoint";
     String ITEM_MINIO_ACCESSKEY = PROPERTY_OSS_MINIO + ".access-key";
     String ITEM_MINIO_SECRETKEY = PROPERTY_OSS_MINIO + ".secret-key";
+    String ITEM_MINIO_METRICS_ENABLED = PROPERTY_OSS_MINIO + ".metrics.enabled";
+    String ITEM_MINIO_SCENARIO_REAPER_ENABLED = PROPERTY_OSS_MINIO_SCENARIO + ".reaper.enabled";
+    String ITEM_MINIO_SCENARIO_METADATA_INDEX_ENABLED = PROPERTY_OSS_MINIO_SCENARIO + ".metadata-index.enabled";
+    String ITEM_MINIO_SCENARIO_NOTIFICATION_ENABLED = PROPERTY_OSS_MINIO_SCENARIO + ".notification.enabled";
 }
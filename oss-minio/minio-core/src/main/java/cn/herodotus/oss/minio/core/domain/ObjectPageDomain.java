@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.core.domain;
+
+import cn.herodotus.engine.assistant.core.definition.domain.Entity;
+import com.google.common.base.MoreObjects;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * <p>Description: 单页对象列表 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 14:10
+ */
+public class ObjectPageDomain implements Entity {
+
+    @Schema(name = "当前页对象", description = "包含对象以及非递归查询时的目录")
+    private List<ObjectDomain> items;
+    @Schema(name = "当前页数量")
+    private Integer keyCount;
+    @Schema(name = "是否还有下一页")
+    private Boolean truncated;
+    @Schema(name = "下一页标记", description = "作为 continuationToken 传入即可获取下一页")
+    private String nextContinuationToken;
+
+    public List<ObjectDomain> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ObjectDomain> items) {
+        this.items = items;
+    }
+
+    public Integer getKeyCount() {
+        return keyCount;
+    }
+
+    public void setKeyCount(Integer keyCount) {
+        this.keyCount = keyCount;
+    }
+
+    public Boolean getTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(Boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public String getNextContinuationToken() {
+        return nextContinuationToken;
+    }
+
+    public void setNextContinuationToken(String nextContinuationToken) {
+        this.nextContinuationToken = nextContinuationToken;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("keyCount", keyCount)
+                .add("truncated", truncated)
+                .add("nextContinuationToken", nextContinuationToken)
+                .toString();
+    }
+}
@@ -25,9 +25,15 @@
 
 package cn.herodotus.oss.minio.logic.configuration;
 
+import cn.herodotus.oss.minio.logic.definition.cache.DiskObjectCache;
+import cn.herodotus.oss.minio.logic.definition.cache.ObjectContentCache;
+import cn.herodotus.oss.minio.logic.definition.cache.PresignedUrlCache;
+import cn.herodotus.oss.minio.logic.definition.cache.SettingCache;
+import cn.herodotus.oss.minio.logic.definition.cache.StatObjectCache;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioAdminClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioHttpClientFactory;
 import cn.herodotus.oss.minio.logic.properties.MinioProperties;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
@@ -54,25 +60,73 @@ public class MinioClientConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public MinioClientObjectPool minioClientPool(MinioProperties minioProperties) {
-        MinioClientObjectPool minioClientObjectPool = new MinioClientObjectPool(minioProperties);
+    public MinioHttpClientFactory minioHttpClientFactory(MinioProperties minioProperties) {
+        MinioHttpClientFactory minioHttpClientFactory = new MinioHttpClientFactory(minioProperties);
+        log.trace("[Herodotus] |- Bean [Minio Http Client Factory] Auto Configure.");
+        return minioHttpClientFactory;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MinioClientObjectPool minioClientPool(MinioProperties minioProperties, MinioHttpClientFactory minioHttpClientFactory) {
+        MinioClientObjectPool minioClientObjectPool = new MinioClientObjectPool(minioProperties, minioHttpClientFactory);
         log.trace("[Herodotus] |- Bean [Minio Client Pool] Auto Configure.");
         return minioClientObjectPool;
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public MinioAsyncClientObjectPool minioAsyncClientPool(MinioProperties minioProperties) {
-        MinioAsyncClientObjectPool minioAsyncClientObjectPool = new MinioAsyncClientObjectPool(minioProperties);
+    public MinioAsyncClientObjectPool minioAsyncClientPool(MinioProperties minioProperties, MinioHttpClientFactory minioHttpClientFactory) {
+        MinioAsyncClientObjectPool minioAsyncClientObjectPool = new MinioAsyncClientObjectPool(minioProperties, minioHttpClientFactory);
         log.trace("[Herodotus] |- Bean [Minio Async Client Pool] Auto Configure.");
         return minioAsyncClientObjectPool;
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public MinioAdminClientObjectPool minioAdminClientPool(MinioProperties minioProperties) {
-        MinioAdminClientObjectPool minioAdminClientObjectPool = new MinioAdminClientObjectPool(minioProperties);
+    public MinioAdminClientObjectPool minioAdminClientPool(MinioProperties minioProperties, MinioHttpClientFactory minioHttpClientFactory) {
+        MinioAdminClientObjectPool minioAdminClientObjectPool = new MinioAdminClientObjectPool(minioProperties, minioHttpClientFactory);
         log.trace("[Herodotus] |- Bean [Minio Admin Client Pool] Auto Configure.");
         return minioAdminClientObjectPool;
     }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public StatObjectCache statObjectCache(MinioProperties minioProperties) {
+        StatObjectCache statObjectCache = new StatObjectCache(minioProperties);
+        log.trace("[Herodotus] |- Bean [Stat Object Cache] Auto Configure.");
+        return statObjectCache;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ObjectContentCache objectContentCache(MinioProperties minioProperties) {
+        ObjectContentCache objectContentCache = new ObjectContentCache(minioProperties);
+        log.trace("[Herodotus] |- Bean [Object Content Cache] Auto Configure.");
+        return objectContentCache;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DiskObjectCache diskObjectCache(MinioProperties minioProperties) {
+        DiskObjectCache diskObjectCache = new DiskObjectCache(minioProperties);
+        log.trace("[Herodotus] |- Bean [Disk Object Cache] Auto Configure.");
+        return diskObjectCache;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SettingCache settingCache(MinioProperties minioProperties) {
+        SettingCache settingCache = new SettingCache(minioProperties);
+        log.trace("[Herodotus] |- Bean [Setting Cache] Auto Configure.");
+        return settingCache;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PresignedUrlCache presignedUrlCache(MinioProperties minioProperties) {
+        PresignedUrlCache presignedUrlCache = new PresignedUrlCache(minioProperties);
+        log.trace("[Herodotus] |- Bean [Presigned Url Cache] Auto Configure.");
+        return presignedUrlCache;
+    }
 }
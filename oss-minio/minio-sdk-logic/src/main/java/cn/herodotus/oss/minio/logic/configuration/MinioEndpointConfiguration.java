@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.configuration;
+
+import cn.herodotus.oss.minio.logic.definition.endpoint.MinioEndpoint;
+import cn.herodotus.oss.minio.logic.definition.metrics.MinioOperationTracker;
+import cn.herodotus.oss.minio.logic.definition.pool.BaseMinioObjectPool;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAdminClientObjectPool;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioHttpClientFactory;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>Description: Minio Actuator 端点配置 </p>
+ * <p>
+ * 仅在引入 Actuator 并暴露 minio 端点时生效。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 11:50
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+public class MinioEndpointConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(MinioEndpointConfiguration.class);
+
+    @PostConstruct
+    public void postConstruct() {
+        log.debug("[Herodotus] |- SDK [Minio Endpoint] Auto Configure.");
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnAvailableEndpoint(endpoint = MinioEndpoint.class)
+    public MinioEndpoint minioEndpoint(MinioClientObjectPool minioClientObjectPool, MinioAsyncClientObjectPool minioAsyncClientObjectPool, MinioAdminClientObjectPool minioAdminClientObjectPool, ObjectProvider<MinioOperationTracker> minioOperationTracker, MinioHttpClientFactory minioHttpClientFactory) {
+        Map<String, BaseMinioObjectPool<?>> pools = new LinkedHashMap<>();
+        pools.put("client", minioClientObjectPool);
+        pools.put("async", minioAsyncClientObjectPool);
+        pools.put("admin", minioAdminClientObjectPool);
+        MinioEndpoint minioEndpoint = new MinioEndpoint(pools, minioOperationTracker, minioHttpClientFactory.getLoadBalancer());
+        log.trace("[Herodotus] |- Bean [Minio Endpoint] Auto Configure.");
+        return minioEndpoint;
+    }
+}
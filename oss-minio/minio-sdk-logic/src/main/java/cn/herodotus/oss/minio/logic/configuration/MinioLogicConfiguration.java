@@ -43,7 +43,10 @@ import org.springframework.context.annotation.Import;
 @AutoConfiguration
 @EnableConfigurationProperties(MinioProperties.class)
 @Import({
-        MinioClientConfiguration.class
+        MinioClientConfiguration.class,
+        MinioOperationConfiguration.class,
+        MinioMetricsConfiguration.class,
+        MinioEndpointConfiguration.class
 })
 @ComponentScan(basePackages = {
         "cn.herodotus.oss.minio.logic.service",
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.configuration;
+
+import cn.herodotus.oss.minio.core.constants.MinioConstants;
+import cn.herodotus.oss.minio.logic.definition.cache.*;
+import cn.herodotus.oss.minio.logic.definition.metrics.MinioCacheMetrics;
+import cn.herodotus.oss.minio.logic.definition.metrics.MinioNodeMetrics;
+import cn.herodotus.oss.minio.logic.definition.metrics.MinioOperationMetrics;
+import cn.herodotus.oss.minio.logic.definition.metrics.MinioOperationPostProcessor;
+import cn.herodotus.oss.minio.logic.definition.metrics.MinioPoolMetrics;
+import cn.herodotus.oss.minio.logic.definition.pool.BaseMinioObjectPool;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAdminClientObjectPool;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioHttpClientFactory;
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>Description: Minio 监控指标配置 </p>
+ * <p>
+ * 所有指标均以 MeterBinder 的形式提供，由 Spring Boot 在 MeterRegistry 创建后统一绑定。未引入 Actuator 时不会产生任何开销。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 10:20
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(name = MinioConstants.ITEM_MINIO_METRICS_ENABLED, havingValue = "true", matchIfMissing = true)
+public class MinioMetricsConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(MinioMetricsConfiguration.class);
+
+    @PostConstruct
+    public void postConstruct() {
+        log.debug("[Herodotus] |- SDK [Minio Metrics] Auto Configure.");
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MinioOperationMetrics minioOperationMetrics(MinioOperationPostProcessor minioOperationPostProcessor, MinioProperties minioProperties) {
+        MinioOperationMetrics minioOperationMetrics = new MinioOperationMetrics(minioOperationPostProcessor, minioProperties);
+        log.trace("[Herodotus] |- Bean [Minio Operation Metrics] Auto Configure.");
+        return minioOperationMetrics;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MinioPoolMetrics minioPoolMetrics(MinioClientObjectPool minioClientObjectPool, MinioAsyncClientObjectPool minioAsyncClientObjectPool, MinioAdminClientObjectPool minioAdminClientObjectPool) {
+        Map<String, BaseMinioObjectPool<?>> pools = new LinkedHashMap<>();
+        pools.put("client", minioClientObjectPool);
+        pools.put("async", minioAsyncClientObjectPool);
+        pools.put("admin", minioAdminClientObjectPool);
+        MinioPoolMetrics minioPoolMetrics = new MinioPoolMetrics(pools);
+        log.trace("[Herodotus] |- Bean [Minio Pool Metrics] Auto Configure.");
+        return minioPoolMetrics;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MinioNodeMetrics minioNodeMetrics(MinioHttpClientFactory minioHttpClientFactory) {
+        MinioNodeMetrics minioNodeMetrics = new MinioNodeMetrics(minioHttpClientFactory.getLoadBalancer());
+        log.trace("[Herodotus] |- Bean [Minio Node Metrics] Auto Configure.");
+        return minioNodeMetrics;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MinioCacheMetrics minioCacheMetrics(StatObjectCache statObjectCache, ObjectContentCache objectContentCache, DiskObjectCache diskObjectCache, SettingCache settingCache, PresignedUrlCache presignedUrlCache) {
+        MinioCacheMetrics minioCacheMetrics = new MinioCacheMetrics(statObjectCache, objectContentCache, diskObjectCache, settingCache, presignedUrlCache);
+        log.trace("[Herodotus] |- Bean [Minio Cache Metrics] Auto Configure.");
+        return minioCacheMetrics;
+    }
+}
@@ -0,0 +1,616 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cache;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.common.hash.Hashing;
+import io.minio.GetObjectArgs;
+import io.minio.StatObjectResponse;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * <p>Description: 本地磁盘对象缓存 </p>
+ * <p>
+ * 模型文件、地图瓦片、发布包等大对象通常不可变且被反复读取。磁盘缓存将这些对象保存在本地目录中，读取时直接从本地文件返回，减轻 Minio 的负载。
+ * <p>
+ * 缓存文件按块填充：读取某个范围时，只从 Minio 获取其中尚未缓存的块，因此范围读取和断点续传不需要先下载完整对象。
+ * 输入流按块读取，每次只在读到尚未缓存的块时填充该块，首次读取大对象时不需要等待完整下载，多个读取方也不会互相等待整个范围。
+ * 填充时只在锁内登记正在填充的块，从 Minio 下载在锁外进行：读取已缓存块的读取方不会被下载阻塞，多个读取方需要同一个块时只下载一次，其余读取方等待该块完成。
+ * 每个缓存文件有一个元数据文件记录 ETag 和已填充的块，重启后可以继续使用。读取时使用 statObject 返回的 ETag 校验（可由 statObject 缓存加速），
+ * 不一致时丢弃旧文件重新填充。缓存总大小超过上限后，按 W-TinyLFU 策略淘汰并删除文件。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 16:40
+ */
+public class DiskObjectCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DiskObjectCache.class);
+
+    private static final String DATA_SUFFIX = ".data";
+    private static final String META_SUFFIX = ".meta";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final boolean enabled;
+    private final Set<String> buckets;
+    private final Path directory;
+    private final long minSize;
+    private final long blockSize;
+    private final Cache<String, Entry> cache;
+
+    public DiskObjectCache(MinioProperties minioProperties) {
+        MinioProperties.DiskCache properties = minioProperties.getDiskCache();
+        this.enabled = properties.getEnabled();
+        this.buckets = new HashSet<>(properties.getBuckets());
+        this.directory = properties.getDirectory();
+        this.minSize = properties.getMinSize().toBytes();
+        this.blockSize = properties.getBlockSize().toBytes();
+        this.cache = Caffeine.newBuilder()
+                // 权重以 KB 计算，避免超过 int 范围
+                .maximumWeight(properties.getCapacity().toKilobytes())
+                .weigher((String key, Entry entry) -> (int) Math.min(Integer.MAX_VALUE, (entry.size + 1023) / 1024))
+                .removalListener((String key, Entry entry, RemovalCause cause) -> {
+                    if (entry != null && cause != RemovalCause.REPLACED) {
+                        entry.delete();
+                    }
+                })
+                .recordStats()
+                .build();
+
+        if (enabled) {
+            load();
+            log.debug("[Herodotus] |- Minio disk object cache [{}] loaded [{}] entries.", properties, cache.estimatedSize());
+        }
+    }
+
+    private void load() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> paths = Files.list(directory)) {
+                paths.filter(path -> path.toString().endsWith(META_SUFFIX)).forEach(path -> {
+                    Entry entry = Entry.read(path, blockSize);
+                    if (entry == null) {
+                        deleteQuietly(path);
+                        return;
+                    }
+                    // 同一对象存在多个版本的缓存文件时（例如对象修改后旧文件未及时删除），只保留最新的一个
+                    Entry existing = cache.getIfPresent(entry.key);
+                    if (existing != null && existing.modified >= entry.modified) {
+                        entry.delete();
+                    } else {
+                        cache.put(entry.key, entry);
+                        if (existing != null) {
+                            // 替换不会触发删除，需要手动删除旧文件
+                            existing.delete();
+                        }
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not open disk cache directory [" + directory + "].", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("[Herodotus] |- Delete disk cache file [{}] catch error.", path, e);
+        }
+    }
+
+    private static String toKey(String bucketName, String objectName, String versionId) {
+        return bucketName + "/" + objectName + "?" + StringUtils.defaultString(versionId);
+    }
+
+    /**
+     * 判断读取请求是否可以使用磁盘缓存。支持范围读取；matchETag 只允许与当前 ETag 相同
+     *
+     * @param args {@link GetObjectArgs}
+     * @param stat 对象当前的信息
+     * @return 是否可以使用缓存
+     */
+    public boolean isCacheable(GetObjectArgs args, StatObjectResponse stat) {
+        return isCacheable(args) && stat.size() >= minSize && (args.matchETag() == null || StringUtils.equals(args.matchETag(), stat.etag()));
+    }
+
+    /**
+     * 判断读取请求是否可能使用磁盘缓存，用于决定是否需要先获取对象信息
+     *
+     * @param args {@link GetObjectArgs}
+     * @return 是否可能使用缓存
+     */
+    public boolean isCacheable(GetObjectArgs args) {
+        return isCacheable(args.bucket())
+                && ObjectUtils.allNull(args.ssec(), args.notMatchETag(), args.modifiedSince(), args.unmodifiedSince())
+                && args.extraHeaders().isEmpty()
+                && args.extraQueryParams().isEmpty();
+    }
+
+    /**
+     * 存储桶是否开启了磁盘缓存
+     *
+     * @param bucketName 存储桶名称
+     * @return 是否开启
+     */
+    public boolean isCacheable(String bucketName) {
+        return enabled && buckets.contains(bucketName);
+    }
+
+    /**
+     * 使用磁盘缓存的最小对象大小
+     *
+     * @return 字节数
+     */
+    public long getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * 打开对象指定范围的输入流，未缓存的块先从 Minio 填充
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @param versionId  版本号
+     * @param etag       对象当前的 ETag
+     * @param size       对象大小
+     * @param offset     起始位置
+     * @param length     读取长度
+     * @param loader     从 Minio 读取指定范围的方法
+     * @return 输入流
+     * @throws IOException 读写缓存文件出错
+     */
+    public InputStream open(String bucketName, String objectName, String versionId, String etag, long size, long offset, long length, RangeLoader loader) throws IOException {
+        Entry entry = obtain(bucketName, objectName, versionId, etag, size);
+        return new BlockInputStream(entry, offset, Math.min(size, offset + length), loader);
+    }
+
+    /**
+     * 将完整对象复制到目标文件，未缓存的块先从 Minio 填充。使用 {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}，
+     * 由操作系统完成复制。
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @param versionId  版本号
+     * @param etag       对象当前的 ETag
+     * @param size       对象大小
+     * @param target     目标文件
+     * @param loader     从 Minio 读取指定范围的方法
+     * @throws IOException 读写文件出错
+     */
+    public void transferTo(String bucketName, String objectName, String versionId, String etag, long size, Path target, RangeLoader loader) throws IOException {
+        Entry entry = obtain(bucketName, objectName, versionId, etag, size);
+        if (!entry.fill(0, size, loader)) {
+            // 填充过程中缓存被淘汰，直接从 Minio 读取
+            try (InputStream inputStream = loader.load(0, size)) {
+                Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return;
+        }
+        try (FileChannel source = FileChannel.open(entry.data, StandardOpenOption.READ);
+             FileChannel destination = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            while (position < size) {
+                position += source.transferTo(position, size - position, destination);
+            }
+        }
+    }
+
+    private Entry obtain(String bucketName, String objectName, String versionId, String etag, long size) {
+        String key = toKey(bucketName, objectName, versionId);
+        Entry entry = cache.get(key, k -> Entry.create(directory, k, etag, size, blockSize));
+        if (!StringUtils.equals(entry.etag, etag) || entry.size != size) {
+            // 对象已被修改，丢弃旧文件
+            cache.asMap().remove(key, entry);
+            entry = cache.get(key, k -> Entry.create(directory, k, etag, size, blockSize));
+        }
+        return entry;
+    }
+
+    /**
+     * 失效指定对象所有版本的缓存
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     */
+    public void invalidate(String bucketName, String objectName) {
+        if (isCacheable(bucketName)) {
+            String prefix = bucketName + "/" + objectName + "?";
+            cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    /**
+     * 缓存统计信息
+     *
+     * @return {@link CacheStats}
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 当前缓存占用的磁盘空间，单位 KB
+     *
+     * @return KB 数
+     */
+    public long getWeightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    /**
+     * 底层 Caffeine 缓存，用于注册监控指标
+     *
+     * @return {@link Cache}
+     */
+    public Cache<String, ?> getNativeCache() {
+        return cache;
+    }
+
+    /**
+     * 从 Minio 读取指定范围的内容
+     */
+    @FunctionalInterface
+    public interface RangeLoader {
+
+        /**
+         * 读取指定范围
+         *
+         * @param offset 起始位置
+         * @param length 长度
+         * @return 输入流
+         */
+        InputStream load(long offset, long length);
+    }
+
+    /**
+     * 单个对象的缓存文件
+     */
+    private static class Entry {
+
+        private static final String KEY = "key";
+        private static final String ETAG = "etag";
+        private static final String SIZE = "size";
+        private static final String BLOCKS = "blocks";
+
+        private final String key;
+        private final String etag;
+        private final long size;
+        private final long blockSize;
+        private final Path data;
+        private final Path meta;
+        private final BitSet blocks;
+        /**
+         * 正在由某个线程从 Minio 填充的块
+         */
+        private final BitSet loading = new BitSet();
+        private final long modified;
+        /**
+         * 缓存已被淘汰，文件已经删除，不能再写入
+         */
+        private boolean deleted;
+
+        private Entry(String key, String etag, long size, long blockSize, Path data, Path meta, BitSet blocks, long modified) {
+            this.key = key;
+            this.etag = etag;
+            this.size = size;
+            this.blockSize = blockSize;
+            this.data = data;
+            this.meta = meta;
+            this.blocks = blocks;
+            this.modified = modified;
+        }
+
+        private static Entry create(Path directory, String key, String etag, long size, long blockSize) {
+            // 每次创建使用不同的文件名，旧文件由淘汰监听异步删除，不会误删失效后重新创建的同一对象的文件。加载时从元数据文件中读取键，不依赖文件名
+            String name = Hashing.sha256().hashString(key + "#" + etag, StandardCharsets.UTF_8) + "-" + UUID.randomUUID();
+            Path data = directory.resolve(name + DATA_SUFFIX);
+            Path meta = directory.resolve(name + META_SUFFIX);
+            return new Entry(key, etag, size, blockSize, data, meta, new BitSet(), System.currentTimeMillis());
+        }
+
+        private static Entry read(Path meta, long blockSize) {
+            String name = meta.getFileName().toString();
+            Path data = meta.resolveSibling(name.substring(0, name.length() - META_SUFFIX.length()) + DATA_SUFFIX);
+            Properties properties = new Properties();
+            try (InputStream inputStream = Files.newInputStream(meta)) {
+                properties.load(inputStream);
+                long size = Long.parseLong(properties.getProperty(SIZE));
+                if (!Files.exists(data) || Files.size(data) != size || Long.parseLong(properties.getProperty("blockSize")) != blockSize) {
+                    deleteQuietly(data);
+                    return null;
+                }
+                BitSet blocks = BitSet.valueOf(Base64.getDecoder().decode(properties.getProperty(BLOCKS, "")));
+                return new Entry(properties.getProperty(KEY), properties.getProperty(ETAG), size, blockSize, data, meta, blocks, Files.getLastModifiedTime(meta).toMillis());
+            } catch (IOException | RuntimeException e) {
+                log.warn("[Herodotus] |- Read disk cache meta [{}] catch error.", meta, e);
+                deleteQuietly(data);
+                return null;
+            }
+        }
+
+        private int blockCount() {
+            return (int) ((size + blockSize - 1) / blockSize);
+        }
+
+        private synchronized boolean isFilled(int block) {
+            return blocks.get(block);
+        }
+
+        /**
+         * 填充覆盖指定范围的块，连续的未缓存块合并为一次范围读取。
+         * <p>
+         * 锁内只登记要填充的块并打开文件，下载在锁外进行，完成后再在锁内标记为已填充。
+         * 需要的块正在由其他线程填充时，等待其完成后重新检查；其他线程填充失败时，由当前线程重新填充。
+         *
+         * @return 缓存已被淘汰时返回 false，此时不会再写入任何文件
+         */
+        private boolean fill(long offset, long length, RangeLoader loader) throws IOException {
+            int first = (int) (offset / blockSize);
+            int last = length <= 0 ? first - 1 : (int) Math.min(blockCount() - 1, (offset + length - 1) / blockSize);
+
+            while (true) {
+                int start;
+                int end;
+                FileChannel channel;
+                synchronized (this) {
+                    if (deleted) {
+                        return false;
+                    }
+                    if (blocks.nextClearBit(first) > last) {
+                        return true;
+                    }
+
+                    BitSet unavailable = (BitSet) blocks.clone();
+                    unavailable.or(loading);
+                    start = unavailable.nextClearBit(first);
+                    if (start > last) {
+                        // 缺少的块均在由其他线程填充
+                        await();
+                        continue;
+                    }
+                    end = unavailable.nextSetBit(start);
+                    end = end < 0 || end > last + 1 ? last + 1 : end;
+
+                    channel = openForWrite();
+                    loading.set(start, end);
+                }
+
+                boolean filled = false;
+                try (channel) {
+                    long position = start * blockSize;
+                    write(channel, position, Math.min(size, end * blockSize) - position, loader);
+                    filled = true;
+                } finally {
+                    complete(start, end, filled);
+                }
+            }
+        }
+
+        /**
+         * 打开缓存文件用于写入。在锁内打开，避免淘汰后重新创建已删除的文件
+         */
+        private FileChannel openForWrite() throws IOException {
+            FileChannel channel = FileChannel.open(data, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+            try {
+                if (channel.size() < size) {
+                    // 预先设置文件大小，未填充的部分为稀疏区域
+                    channel.write(ByteBuffer.allocate(1), size - 1);
+                }
+                return channel;
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * 结束填充，成功时标记为已填充并保存元数据，并唤醒等待的线程
+         */
+        private synchronized void complete(int start, int end, boolean filled) throws IOException {
+            loading.clear(start, end);
+            notifyAll();
+            if (filled && !deleted) {
+                blocks.set(start, end);
+                store();
+            }
+        }
+
+        private void await() throws InterruptedIOException {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for disk cache [" + key + "] to be filled.");
+            }
+        }
+
+        private void write(FileChannel channel, long start, long count, RangeLoader loader) throws IOException {
+            try (InputStream inputStream = loader.load(start, count)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                long position = start;
+                long remaining = count;
+                while (remaining > 0) {
+                    int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        throw new IOException("Unexpected end of object, expected [" + count + "] bytes but got [" + (count - remaining) + "].");
+                    }
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                    while (byteBuffer.hasRemaining()) {
+                        position += channel.write(byteBuffer, position);
+                    }
+                    remaining -= read;
+                }
+            }
+        }
+
+        private void store() throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty(KEY, key);
+            properties.setProperty(ETAG, etag);
+            properties.setProperty(SIZE, String.valueOf(size));
+            properties.setProperty("blockSize", String.valueOf(blockSize));
+            properties.setProperty(BLOCKS, Base64.getEncoder().encodeToString(blocks.toByteArray()));
+            Path temp = Files.createTempFile(meta.getParent(), meta.getFileName().toString(), ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                properties.store(outputStream, null);
+            }
+            Files.move(temp, meta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        /**
+         * 打开缓存文件用于读取。在锁内打开，保证打开的是当前缓存的文件，而不是淘汰后重新创建的同名文件
+         *
+         * @return 缓存已被淘汰时返回 null
+         */
+        private synchronized FileChannel openChannel() throws IOException {
+            if (deleted) {
+                return null;
+            }
+            return FileChannel.open(data, StandardOpenOption.READ);
+        }
+
+        private synchronized void delete() {
+            deleted = true;
+            notifyAll();
+            deleteQuietly(meta);
+            deleteQuietly(data);
+        }
+    }
+
+    /**
+     * 按块读取缓存文件的输入流。读到尚未缓存的块时才填充该块；缓存在读取过程中被淘汰时，剩余部分直接从 Minio 读取
+     */
+    private static class BlockInputStream extends InputStream {
+
+        private final Entry entry;
+        private final long end;
+        private final RangeLoader loader;
+        private long position;
+        private FileChannel channel;
+        private InputStream fallback;
+
+        private BlockInputStream(Entry entry, long offset, long end, RangeLoader loader) {
+            this.entry = entry;
+            this.position = offset;
+            this.end = end;
+            this.loader = loader;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] buffer = new byte[1];
+            int read = read(buffer, 0, 1);
+            return read < 0 ? -1 : buffer[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (fallback != null) {
+                return fallback.read(buffer, offset, length);
+            }
+            if (position >= end) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+
+            int block = (int) (position / entry.blockSize);
+            long blockEnd = Math.min(end, (block + 1) * entry.blockSize);
+            if (!entry.isFilled(block) && !entry.fill(position, blockEnd - position, loader)) {
+                return switchToFallback().read(buffer, offset, length);
+            }
+            if (channel == null) {
+                channel = entry.openChannel();
+                if (channel == null) {
+                    return switchToFallback().read(buffer, offset, length);
+                }
+            }
+
+            int read = channel.read(ByteBuffer.wrap(buffer, offset, (int) Math.min(length, blockEnd - position)), position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of disk cache file [" + entry.data + "].");
+            }
+            position += read;
+            return read;
+        }
+
+        private InputStream switchToFallback() {
+            log.debug("[Herodotus] |- Disk cache [{}] is evicted while reading, read from minio directly.", entry.key);
+            fallback = loader.load(position, end - position);
+            return fallback;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (fallback != null) {
+                return fallback.skip(n);
+            }
+            long skipped = Math.max(0, Math.min(n, end - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            if (fallback != null) {
+                return fallback.available();
+            }
+            return channel != null && entry.isFilled((int) (position / entry.blockSize)) ? (int) Math.min(Integer.MAX_VALUE, Math.min(end, (position / entry.blockSize + 1) * entry.blockSize) - position) : 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } finally {
+                if (fallback != null) {
+                    fallback.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cache;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import okhttp3.Headers;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Description: 小对象内容缓存 </p>
+ * <p>
+ * 头像、配置文件、缩略图等小对象读取频繁，每次都完整请求 Minio 代价较高。内容缓存将不超过阈值的对象内容保存在堆外的 Direct Buffer 中，
+ * 不增加 GC 压力；缓存总大小按字节计算，超出容量后按 W-TinyLFU 策略淘汰。
+ * <p>
+ * 缓存以存储桶、对象名称和版本号为键，读取时与 statObject 获取到的 ETag 比对，ETag 不一致说明对象已被修改，缓存作废并重新读取。
+ * 只有在配置中列出的存储桶才会被缓存，并且只缓存完整读取，带范围、条件或 SSE-C 密钥的读取不使用缓存。
+ * <p>
+ * 被淘汰条目占用的堆外内存在 Buffer 对象被 GC 回收时释放，堆外内存上限需要为此保留一定余量。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 15:30
+ */
+public class ObjectContentCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ObjectContentCache.class);
+
+    private final boolean enabled;
+    private final Set<String> buckets;
+    private final long threshold;
+    private final Cache<String, Content> cache;
+    private final LongAdder staleHits = new LongAdder();
+
+    public ObjectContentCache(MinioProperties minioProperties) {
+        MinioProperties.ContentCache properties = minioProperties.getContentCache();
+        this.enabled = properties.getEnabled();
+        this.buckets = new HashSet<>(properties.getBuckets());
+        this.threshold = properties.getThreshold().toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getCapacity().toBytes())
+                .weigher((String key, Content content) -> content.data().capacity())
+                .recordStats()
+                .build();
+        log.debug("[Herodotus] |- Minio object content cache [{}].", properties);
+    }
+
+    private static String toKey(String bucketName, String objectName, String versionId) {
+        return bucketName + "/" + objectName + "?" + StringUtils.defaultString(versionId);
+    }
+
+    private static String toEtag(Headers headers) {
+        String etag = headers.get("ETag");
+        return etag != null ? etag.replace("\"", "") : null;
+    }
+
+    /**
+     * 判断读取请求是否可以使用缓存
+     *
+     * @param args {@link GetObjectArgs}
+     * @return 是否可以使用缓存
+     */
+    public boolean isCacheable(GetObjectArgs args) {
+        return enabled
+                && buckets.contains(args.bucket())
+                && ObjectUtils.allNull(args.ssec(), args.matchETag(), args.notMatchETag(), args.modifiedSince(), args.unmodifiedSince(), args.offset(), args.length())
+                && args.extraHeaders().isEmpty()
+                && args.extraQueryParams().isEmpty();
+    }
+
+    /**
+     * 获取缓存的对象内容
+     *
+     * @param args {@link GetObjectArgs}
+     * @param etag 对象当前的 ETag
+     * @return 缓存命中时返回基于缓存内容的 {@link GetObjectResponse}，未命中或已过期时返回 null
+     */
+    public GetObjectResponse get(GetObjectArgs args, String etag) {
+        String key = toKey(args.bucket(), args.object(), args.versionId());
+        Content content = cache.getIfPresent(key);
+        if (content == null) {
+            return null;
+        }
+        if (!StringUtils.equals(content.etag(), etag)) {
+            staleHits.increment();
+            cache.invalidate(key);
+            return null;
+        }
+        return new GetObjectResponse(content.headers(), args.bucket(), args.region(), args.object(), new ByteBufferInputStream(content.data().duplicate()));
+    }
+
+    /**
+     * 读取 Minio 返回的对象内容，不超过阈值时放入缓存
+     *
+     * @param args     {@link GetObjectArgs}
+     * @param response Minio 返回的 {@link GetObjectResponse}
+     * @return 可以继续读取的 {@link GetObjectResponse}。对象被缓存时，原响应已读取完毕并关闭
+     * @throws IOException 读取对象内容出错
+     */
+    public GetObjectResponse put(GetObjectArgs args, GetObjectResponse response) throws IOException {
+        long length = NumberUtils.toLong(response.headers().get("Content-Length"), -1);
+        if (length < 0 || length > threshold) {
+            return response;
+        }
+
+        byte[] bytes;
+        try (response) {
+            bytes = response.readAllBytes();
+        }
+
+        ByteBuffer data = ByteBuffer.allocateDirect(bytes.length);
+        data.put(bytes).flip();
+        cache.put(toKey(args.bucket(), args.object(), args.versionId()), new Content(data.asReadOnlyBuffer(), toEtag(response.headers()), response.headers()));
+        return new GetObjectResponse(response.headers(), args.bucket(), args.region(), args.object(), new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * 失效指定对象所有版本的缓存
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     */
+    public void invalidate(String bucketName, String objectName) {
+        if (enabled && buckets.contains(bucketName)) {
+            String prefix = bucketName + "/" + objectName + "?";
+            cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    /**
+     * 可缓存的最大对象大小
+     *
+     * @return 字节数
+     */
+    public long getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * 是否开启缓存
+     *
+     * @return 是否开启
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 缓存统计信息
+     *
+     * @return {@link CacheStats}
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 因 ETag 不一致而作废的缓存次数
+     *
+     * @return 次数
+     */
+    public long getStaleHits() {
+        return staleHits.sum();
+    }
+
+    /**
+     * 当前缓存占用的堆外内存字节数
+     *
+     * @return 字节数
+     */
+    public long getWeightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    /**
+     * 底层 Caffeine 缓存，用于注册监控指标
+     *
+     * @return {@link Cache}
+     */
+    public Cache<String, ?> getNativeCache() {
+        return cache;
+    }
+
+    private record Content(ByteBuffer data, String etag, Headers headers) {
+    }
+
+    /**
+     * 读取 Direct Buffer 的输入流，每次读取使用独立的 Buffer 视图，互不影响
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
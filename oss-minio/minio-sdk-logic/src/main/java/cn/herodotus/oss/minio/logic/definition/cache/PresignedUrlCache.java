@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cache;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.common.collect.Multimap;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.http.Method;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * <p>Description: 预签名地址缓存 </p>
+ * <p>
+ * 每次生成预签名地址都会重新计算签名，并且签名时间不同，地址也就不同，浏览器和 CDN 无法复用已缓存的响应。
+ * 相同请求在一段时间内返回同一个地址，既节省签名计算，也让下游缓存能够命中。
+ * <p>
+ * 已缓存地址的剩余有效期低于有效期的复用比例时不再复用，而是重新签名，保证返回的地址仍有足够的有效期。
+ * 预签名地址和 POST 表单数据分别缓存，Key 包含存储桶、对象、方法、版本、有效期以及额外的请求头和参数。表单数据以不可变 Map 缓存和返回，调用方需要复制后再修改。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 18:10
+ */
+public class PresignedUrlCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PresignedUrlCache.class);
+
+    private final boolean enabled;
+    private final double reuseRatio;
+    private final Cache<UrlKey, Entry<String>> urls;
+    private final Cache<PostFormKey, Entry<Map<String, String>>> postForms;
+
+    public PresignedUrlCache(MinioProperties minioProperties) {
+        MinioProperties.PresignedCache properties = minioProperties.getPresignedCache();
+        this.enabled = properties.getEnabled();
+        this.reuseRatio = Math.min(1D, Math.max(0D, properties.getReuseRatio()));
+        this.urls = createCache(properties);
+        this.postForms = createCache(properties);
+        log.debug("[Herodotus] |- Minio presigned url cache [{}].", properties);
+    }
+
+    private static <K, V> Cache<K, Entry<V>> createCache(MinioProperties.PresignedCache properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<K, Entry<V>>() {
+                    @Override
+                    public long expireAfterCreate(K key, Entry<V> value, long currentTime) {
+                        return value.reusable();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, Entry<V> value, long currentTime, long currentDuration) {
+                        return value.reusable();
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, Entry<V> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    private static Set<Map.Entry<String, String>> toEntries(Multimap<String, String> multimap) {
+        return multimap.entries().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private long toReusable(long duration, TimeUnit unit) {
+        return enabled ? (long) (unit.toNanos(duration) * (1D - reuseRatio)) : 0L;
+    }
+
+    /**
+     * 获取对象的预签名地址，没有可复用的地址时调用 loader 生成
+     *
+     * @param args   {@link GetPresignedObjectUrlArgs}
+     * @param loader 生成方法
+     * @return 预签名地址
+     */
+    public String get(GetPresignedObjectUrlArgs args, Supplier<String> loader) {
+        long reusable = toReusable(args.expiry(), TimeUnit.SECONDS);
+        if (reusable <= 0) {
+            return loader.get();
+        }
+        UrlKey key = new UrlKey(args.method(), args.bucket(), args.region(), args.object(), args.versionId(), args.expiry(),
+                toEntries(args.extraHeaders()), toEntries(args.extraQueryParams()));
+        return urls.get(key, k -> new Entry<>(loader.get(), reusable)).value();
+    }
+
+    /**
+     * 获取上传对象的 POST 表单数据，没有可复用的数据时调用 loader 生成
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @param duration   有效期
+     * @param unit       有效期单位
+     * @param loader     生成方法
+     * @return 不可变的表单数据
+     */
+    public Map<String, String> getPostFormData(String bucketName, String objectName, long duration, TimeUnit unit, Supplier<Map<String, String>> loader) {
+        long reusable = toReusable(duration, unit);
+        if (reusable <= 0) {
+            return Map.copyOf(loader.get());
+        }
+        PostFormKey key = new PostFormKey(bucketName, objectName, unit.toSeconds(duration));
+        return postForms.get(key, k -> new Entry<>(Map.copyOf(loader.get()), reusable)).value();
+    }
+
+    /**
+     * 清空缓存，例如更换访问密钥后
+     */
+    public void invalidateAll() {
+        urls.invalidateAll();
+        postForms.invalidateAll();
+    }
+
+    /**
+     * 预签名地址缓存统计信息
+     *
+     * @return {@link CacheStats}
+     */
+    public CacheStats stats() {
+        return urls.stats();
+    }
+
+    /**
+     * 预签名地址的底层 Caffeine 缓存，用于注册监控指标
+     *
+     * @return {@link Cache}
+     */
+    public Cache<?, ?> getNativeCache() {
+        return urls;
+    }
+
+    /**
+     * POST 表单数据的底层 Caffeine 缓存，用于注册监控指标
+     *
+     * @return {@link Cache}
+     */
+    public Cache<?, ?> getNativePostFormCache() {
+        return postForms;
+    }
+
+    /**
+     * 预签名地址的缓存 Key
+     */
+    private record UrlKey(Method method, String bucket, String region, String object, String versionId, int expiry,
+                          Set<Map.Entry<String, String>> extraHeaders, Set<Map.Entry<String, String>> extraQueryParams) {
+    }
+
+    /**
+     * POST 表单数据的缓存 Key
+     */
+    private record PostFormKey(String bucket, String object, long expiry) {
+    }
+
+    /**
+     * 缓存的预签名数据
+     *
+     * @param value    预签名地址或表单数据
+     * @param reusable 可复用的时长，单位纳秒
+     * @param <V>      数据类型
+     */
+    private record Entry<V>(V value, long reusable) {
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cache;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * <p>Description: 存储桶和对象设置缓存 </p>
+ * <p>
+ * 存储桶和对象的管理页面需要组合多个接口的结果，而这些设置很少变化。缓存组合后的结果可以避免每次打开页面都向 Minio 发起多次请求。
+ * <p>
+ * 存储桶设置以存储桶名称为键，对象设置以存储桶和对象名称为键。通过本组件修改加密、标签、策略、对象锁定、版本控制、配额、保留和合法保留等设置，
+ * 以及写入、删除对象时，会立即失效对应的缓存。缓存内容的类型由使用方决定。
+ * <p>
+ * 加载结果通过 {@link Loaded} 标记是否完整，不完整的结果只返回给本次调用方，不会写入缓存，其它并发读取方也不会读到。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 17:20
+ */
+public class SettingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SettingCache.class);
+
+    private final boolean enabled;
+    private final Cache<String, Object> cache;
+
+    public SettingCache(MinioProperties minioProperties) {
+        MinioProperties.SettingCache properties = minioProperties.getSettingCache();
+        this.enabled = properties.getEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpire())
+                .recordStats()
+                .build();
+        log.debug("[Herodotus] |- Minio setting cache [{}].", properties);
+    }
+
+    private static String toBucketKey(String bucketName) {
+        return bucketName;
+    }
+
+    private static String toObjectKey(String bucketName, String objectName) {
+        return bucketName + "/" + objectName;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String key, Supplier<Loaded<T>> loader) {
+        if (!enabled) {
+            return loader.get().value();
+        }
+
+        AtomicReference<Loaded<T>> holder = new AtomicReference<>();
+        Object cached = cache.get(key, k -> {
+            Loaded<T> loaded = loader.get();
+            holder.set(loaded);
+            // 映射函数返回 null 时不写入缓存
+            return loaded.complete() ? loaded.value() : null;
+        });
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        Loaded<T> loaded = holder.get();
+        if (loaded != null) {
+            return loaded.value();
+        }
+        // 等待其它线程加载，但其结果不完整未被缓存，自行加载
+        return loader.get().value();
+    }
+
+    /**
+     * 获取存储桶设置，未命中时调用 loader 加载。并发未命中只会加载一次
+     *
+     * @param bucketName 存储桶名称
+     * @param loader     加载方法，返回结果不完整时不写入缓存
+     * @param <T>        设置类型
+     * @return 存储桶设置
+     */
+    public <T> T getBucketSetting(String bucketName, Supplier<Loaded<T>> loader) {
+        return get(toBucketKey(bucketName), loader);
+    }
+
+    /**
+     * 获取对象设置，未命中时调用 loader 加载。并发未命中只会加载一次
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @param loader     加载方法，返回结果不完整时不写入缓存
+     * @param <T>        设置类型
+     * @return 对象设置
+     */
+    public <T> T getObjectSetting(String bucketName, String objectName, Supplier<Loaded<T>> loader) {
+        return get(toObjectKey(bucketName, objectName), loader);
+    }
+
+    /**
+     * 失效存储桶设置，不影响存储桶中对象的设置
+     *
+     * @param bucketName 存储桶名称
+     */
+    public void invalidateBucketSetting(String bucketName) {
+        if (enabled) {
+            cache.invalidate(toBucketKey(bucketName));
+        }
+    }
+
+    /**
+     * 失效对象设置
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     */
+    public void invalidateObjectSetting(String bucketName, String objectName) {
+        if (enabled) {
+            cache.invalidate(toObjectKey(bucketName, objectName));
+        }
+    }
+
+    /**
+     * 失效存储桶设置及其中所有对象的设置
+     *
+     * @param bucketName 存储桶名称
+     */
+    public void invalidateBucket(String bucketName) {
+        if (enabled) {
+            String prefix = toObjectKey(bucketName, "");
+            cache.asMap().keySet().removeIf(key -> key.equals(bucketName) || key.startsWith(prefix));
+        }
+    }
+
+    /**
+     * 缓存统计信息
+     *
+     * @return {@link CacheStats}
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 底层 Caffeine 缓存，用于注册监控指标
+     *
+     * @return {@link Cache}
+     */
+    public Cache<String, ?> getNativeCache() {
+        return cache;
+    }
+
+    /**
+     * 加载结果
+     *
+     * @param value    设置
+     * @param complete 是否完整，不完整的结果不会被缓存
+     * @param <T>      设置类型
+     */
+    public record Loaded<T>(T value, boolean complete) {
+    }
+}
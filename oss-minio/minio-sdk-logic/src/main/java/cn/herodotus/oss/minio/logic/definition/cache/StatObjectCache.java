@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cache;
+
+import cn.herodotus.oss.minio.core.exception.MinioErrorResponseException;
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * <p>Description: statObject 结果缓存 </p>
+ * <p>
+ * 热点对象在每次读取前都会调用 statObject，缓存对象信息可以显著减少对 Minio 的请求。缓存基于 Caffeine，容量有限，按 W-TinyLFU 策略淘汰，
+ * 对象不存在的结果使用较短的缓存时间。同一对象的并发未命中只会发起一次请求，其余请求等待该请求的结果。
+ * <p>
+ * 只缓存不带条件、版本号和 SSE-C 密钥的请求。通过本组件写入、复制和删除对象时会立即失效对应的缓存，其它途径的修改可以借助存储桶事件通知失效，
+ * 否则最多在缓存时间内读取到旧的对象信息。
+ * <p>
+ * 读取对象内容前不使用本缓存，而是重新获取对象信息，Content-Length、ETag 以及内容缓存和磁盘缓存的校验始终基于对象的当前状态，
+ * 避免其它途径修改对象后返回旧的内容。重新获取的信息与缓存不一致时，通过 {@link #invalidateIfChanged} 失效缓存。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 14:10
+ */
+public class StatObjectCache {
+
+    private static final Logger log = LoggerFactory.getLogger(StatObjectCache.class);
+
+    private static final Set<String> NOT_FOUND_CODES = Set.of("NoSuchKey", "NoSuchObject");
+
+    private final boolean enabled;
+    private final Cache<String, Entry> cache;
+
+    public StatObjectCache(MinioProperties minioProperties) {
+        MinioProperties.StatCache properties = minioProperties.getStatCache();
+        this.enabled = properties.getEnabled();
+        long expire = properties.getExpire().toNanos();
+        long negativeExpire = properties.getNegativeExpire().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry value, long currentTime) {
+                        return value.response() != null ? expire : negativeExpire;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        log.debug("[Herodotus] |- Minio stat object cache [{}].", properties);
+    }
+
+    private static String toKey(String bucketName, String objectName) {
+        return bucketName + "/" + objectName;
+    }
+
+    private static boolean isCacheable(StatObjectArgs args) {
+        return ObjectUtils.allNull(args.versionId(), args.ssec(), args.matchETag(), args.notMatchETag(), args.modifiedSince(), args.unmodifiedSince(), args.offset(), args.length())
+                && args.extraHeaders().isEmpty()
+                && args.extraQueryParams().isEmpty();
+    }
+
+    private static boolean isNotFound(MinioErrorResponseException e) {
+        return e.getCause() instanceof ErrorResponseException cause
+                && cause.errorResponse() != null
+                && NOT_FOUND_CODES.contains(cause.errorResponse().code());
+    }
+
+    /**
+     * 从缓存中获取对象信息，未命中时调用 loader 加载
+     *
+     * @param args   {@link StatObjectArgs}
+     * @param loader 实际的 statObject 调用
+     * @return {@link StatObjectResponse}
+     */
+    public StatObjectResponse get(StatObjectArgs args, Function<StatObjectArgs, StatObjectResponse> loader) {
+        if (!enabled || !isCacheable(args)) {
+            return loader.apply(args);
+        }
+
+        Entry entry = cache.get(toKey(args.bucket(), args.object()), key -> load(args, loader));
+        if (entry.response() != null) {
+            return entry.response();
+        }
+        throw new MinioErrorResponseException(entry.message());
+    }
+
+    private Entry load(StatObjectArgs args, Function<StatObjectArgs, StatObjectResponse> loader) {
+        try {
+            return new Entry(loader.apply(args), null);
+        } catch (MinioErrorResponseException e) {
+            if (isNotFound(e)) {
+                return new Entry(null, e.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 失效指定对象的缓存
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     */
+    public void invalidate(String bucketName, String objectName) {
+        if (enabled) {
+            cache.invalidate(toKey(bucketName, objectName));
+        }
+    }
+
+    /**
+     * 与对象的当前信息比较，缓存的信息已经过期时失效缓存
+     *
+     * @param args    {@link StatObjectArgs}
+     * @param current 对象的当前信息，对象不存在时为 null
+     */
+    public void invalidateIfChanged(StatObjectArgs args, StatObjectResponse current) {
+        if (!enabled || !isCacheable(args)) {
+            return;
+        }
+
+        String key = toKey(args.bucket(), args.object());
+        Entry entry = cache.asMap().get(key);
+        if (entry == null) {
+            return;
+        }
+
+        boolean changed = current == null ? entry.response() != null : entry.response() == null || !StringUtils.equals(entry.response().etag(), current.etag());
+        if (changed) {
+            cache.asMap().remove(key, entry);
+        }
+    }
+
+    /**
+     * 失效指定存储桶中所有对象的缓存
+     *
+     * @param bucketName 存储桶名称
+     */
+    public void invalidateBucket(String bucketName) {
+        if (enabled) {
+            String prefix = toKey(bucketName, "");
+            cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    /**
+     * 失效所有缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 是否开启缓存
+     *
+     * @return 是否开启
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 缓存命中、未命中、加载耗时及淘汰等统计信息
+     *
+     * @return {@link CacheStats}
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 当前缓存的对象数量（估算值）
+     *
+     * @return 数量
+     */
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * 底层 Caffeine 缓存，用于注册监控指标
+     *
+     * @return {@link Cache}
+     */
+    public Cache<String, ?> getNativeCache() {
+        return cache;
+    }
+
+    private record Entry(StatObjectResponse response, String message) {
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cluster;
+
+import okhttp3.*;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>Description: Minio 多节点负载均衡拦截器 </p>
+ * <p>
+ * 将发往 endpoint 的请求改写到 {@link MinioLoadBalancer} 选出的节点，同时保留原始的 Host 请求头，使请求签名在任意节点上依然有效。
+ * 返回 5xx 的请求与网络错误一样计入节点失败次数；幂等请求因网络错误失败或返回 502、503、504 时，自动切换至其它节点重试。节点的未完成请求数在响应体关闭时才减少，以反映下载等长时间请求的真实负载。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 14:40
+ */
+public class MinioLoadBalanceInterceptor implements Interceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(MinioLoadBalanceInterceptor.class);
+
+    private static final String HOST = "Host";
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "DELETE");
+    private static final Set<Integer> RETRYABLE_CODES = Set.of(502, 503, 504);
+
+    private final MinioLoadBalancer minioLoadBalancer;
+
+    public MinioLoadBalanceInterceptor(MinioLoadBalancer minioLoadBalancer) {
+        this.minioLoadBalancer = minioLoadBalancer;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        HttpUrl url = request.url();
+        if (!minioLoadBalancer.matches(url)) {
+            return chain.proceed(request);
+        }
+
+        String host = StringUtils.defaultIfBlank(request.header(HOST), toHostHeader(url));
+        int attempts = IDEMPOTENT_METHODS.contains(request.method()) ? 1 + minioLoadBalancer.getLoadBalance().getMaxFailover() : 1;
+
+        List<MinioNode> tried = new ArrayList<>(attempts);
+        IOException failure = null;
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            MinioNode node = minioLoadBalancer.select(tried);
+            if (node == null) {
+                break;
+            }
+            tried.add(node);
+
+            Request target = request.newBuilder()
+                    .url(node.rewrite(url))
+                    .header(HOST, host)
+                    .build();
+
+            long startNanos = node.acquire();
+            Response response;
+            try {
+                response = chain.proceed(target);
+            } catch (IOException e) {
+                node.release();
+                minioLoadBalancer.onFailure(node, e);
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+                log.warn("[Herodotus] |- Minio request [{} {}] to node [{}] failed, attempt [{}/{}].", request.method(), url.encodedPath(), node, attempt + 1, attempts);
+                continue;
+            }
+
+            node.record(startNanos);
+            if (response.code() < 500) {
+                minioLoadBalancer.onSuccess(node);
+                return release(response, node);
+            }
+
+            IOException error = new IOException("Minio node [" + node + "] responds with " + response.code());
+            minioLoadBalancer.onFailure(node, error);
+            if (attempt + 1 < attempts && RETRYABLE_CODES.contains(response.code())) {
+                if (failure == null) {
+                    failure = error;
+                } else {
+                    failure.addSuppressed(error);
+                }
+                log.warn("[Herodotus] |- Minio request [{} {}] to node [{}] responds with [{}], attempt [{}/{}].", request.method(), url.encodedPath(), node, response.code(), attempt + 1, attempts);
+                response.close();
+                node.release();
+                continue;
+            }
+            return release(response, node);
+        }
+
+        throw failure != null ? failure : new IOException("No available minio node for " + url);
+    }
+
+    private String toHostHeader(HttpUrl url) {
+        if (url.port() == HttpUrl.defaultPort(url.scheme())) {
+            return url.host();
+        }
+        return url.host() + ":" + url.port();
+    }
+
+    /**
+     * 包装响应体，在响应体关闭时减少节点的未完成请求数
+     */
+    private Response release(Response response, MinioNode node) {
+        ResponseBody body = response.body();
+        if (body == null) {
+            node.release();
+            return response;
+        }
+        return response.newBuilder().body(new NodeResponseBody(body, node)).build();
+    }
+
+    private static class NodeResponseBody extends ResponseBody {
+
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final MinioNode node;
+
+        private NodeResponseBody(ResponseBody delegate, MinioNode node) {
+            this.delegate = delegate;
+            this.node = node;
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read == -1) {
+                        release();
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    release();
+                    super.close();
+                }
+            });
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                node.release();
+            }
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
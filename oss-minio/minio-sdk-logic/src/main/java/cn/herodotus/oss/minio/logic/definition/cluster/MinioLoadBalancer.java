@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cluster;
+
+import cn.herodotus.oss.minio.core.enums.LoadBalanceStrategyEnums;
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import io.minio.http.HttpUtils;
+import okhttp3.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Description: Minio 多节点负载均衡 </p>
+ * <p>
+ * 在各节点之间按 {@link LoadBalanceStrategyEnums} 选择请求的目标节点，并在后台定时检查各节点的健康状态：
+ * 连续失败达到 failureThreshold 的节点被摘除，之后健康检查连续成功 successThreshold 次后恢复。
+ * 所有节点均被摘除时，退化为在全部节点中选择，避免因健康检查误判导致服务完全不可用。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 14:20
+ */
+public class MinioLoadBalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(MinioLoadBalancer.class);
+
+    private final HttpUrl endpoint;
+    private final List<MinioNode> nodes;
+    private final MinioProperties.LoadBalance loadBalance;
+    private final AtomicInteger counter = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+    private OkHttpClient probeClient;
+
+    public MinioLoadBalancer(MinioProperties minioProperties) {
+        this.endpoint = HttpUtils.getBaseUrl(minioProperties.getEndpoint());
+        this.loadBalance = minioProperties.getLoadBalance();
+        this.nodes = minioProperties.getEndpoints().stream()
+                .map(address -> new MinioNode(HttpUtils.getBaseUrl(address), loadBalance.getEwmaAlpha()))
+                .toList();
+    }
+
+    /**
+     * 请求是否发往 endpoint，只有这些请求才需要分发至各节点
+     *
+     * @param url 请求地址
+     * @return true 需要负载均衡
+     */
+    public boolean matches(HttpUrl url) {
+        return url.port() == endpoint.port() && url.host().equals(endpoint.host()) && url.scheme().equals(endpoint.scheme());
+    }
+
+    /**
+     * 选择请求的目标节点
+     *
+     * @param excluded 需要排除的节点，即本次请求已经失败过的节点
+     * @return 目标节点，没有可用节点时返回 null
+     */
+    public MinioNode select(Collection<MinioNode> excluded) {
+        List<MinioNode> candidates = candidates(excluded, true);
+        if (candidates.isEmpty()) {
+            candidates = candidates(excluded, false);
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        int offset = Math.floorMod(counter.getAndIncrement(), candidates.size());
+        if (loadBalance.getStrategy() == LoadBalanceStrategyEnums.ROUND_ROBIN) {
+            return candidates.get(offset);
+        }
+
+        // 从轮询位置开始比较，得分相同的节点之间依然轮流分配
+        MinioNode selected = null;
+        double minScore = Double.MAX_VALUE;
+        for (int i = 0; i < candidates.size(); i++) {
+            MinioNode node = candidates.get((offset + i) % candidates.size());
+            double score = score(node);
+            if (score < minScore) {
+                minScore = score;
+                selected = node;
+            }
+        }
+        return selected;
+    }
+
+    private List<MinioNode> candidates(Collection<MinioNode> excluded, boolean healthyOnly) {
+        List<MinioNode> candidates = new ArrayList<>(nodes.size());
+        for (MinioNode node : nodes) {
+            if ((!healthyOnly || node.isHealthy()) && !excluded.contains(node)) {
+                candidates.add(node);
+            }
+        }
+        return candidates;
+    }
+
+    private double score(MinioNode node) {
+        if (loadBalance.getStrategy() == LoadBalanceStrategyEnums.LEAST_OUTSTANDING) {
+            return node.getOutstanding();
+        }
+        return node.getLatencyNanos() * (node.getOutstanding() + 1);
+    }
+
+    void onSuccess(MinioNode node) {
+        node.onSuccess();
+    }
+
+    void onFailure(MinioNode node, Exception e) {
+        int failures = node.onFailure();
+        if (node.isHealthy() && failures >= loadBalance.getFailureThreshold()) {
+            node.setHealthy(false);
+            log.warn("[Herodotus] |- Minio node [{}] failed [{}] times, eject it. Last error: {}", node, failures, e.getMessage());
+        }
+    }
+
+    void onProbeSuccess(MinioNode node) {
+        int successes = node.onProbeSuccess();
+        if (!node.isHealthy() && successes >= loadBalance.getSuccessThreshold()) {
+            node.setHealthy(true);
+            log.info("[Herodotus] |- Minio node [{}] is healthy again, reinstate it.", node);
+        }
+    }
+
+    /**
+     * 启动后台健康检查
+     *
+     * @param httpClient 用于健康检查的 OkHttpClient，沿用 Client 的 TLS 设置
+     */
+    public synchronized void start(OkHttpClient httpClient) {
+        if (scheduler != null) {
+            return;
+        }
+
+        this.probeClient = httpClient.newBuilder()
+                .callTimeout(loadBalance.getHealthCheckTimeout())
+                .retryOnConnectionFailure(false)
+                .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(createThreadFactory("minio-health-check"));
+        long interval = loadBalance.getHealthCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::probe, interval, interval, TimeUnit.MILLISECONDS);
+        log.debug("[Herodotus] |- Minio load balancer started with nodes {} and [{}].", nodes, loadBalance);
+    }
+
+    private void probe() {
+        for (MinioNode node : nodes) {
+            Request request = new Request.Builder()
+                    .url(node.getUrl().newBuilder().encodedPath(loadBalance.getHealthCheckPath()).build())
+                    .get()
+                    .build();
+            probeClient.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    MinioLoadBalancer.this.onFailure(node, e);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    try (response) {
+                        if (response.isSuccessful()) {
+                            onProbeSuccess(node);
+                        } else {
+                            MinioLoadBalancer.this.onFailure(node, new IOException("Health check returns " + response.code()));
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    private ThreadFactory createThreadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            log.debug("[Herodotus] |- Minio load balancer stopped.");
+        }
+    }
+
+    public List<MinioNode> getNodes() {
+        return nodes;
+    }
+
+    public MinioProperties.LoadBalance getLoadBalance() {
+        return loadBalance;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cluster;
+
+import okhttp3.HttpUrl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>Description: Minio 集群节点 </p>
+ * <p>
+ * 记录节点的健康状态、未完成请求数、响应时间指数加权平均值，以及累计请求数和失败数，作为负载均衡和节点摘除的依据。
+ * <p>
+ * 响应时间平均值随时间指数衰减，时间常数为 {@value #DECAY_SECONDS} 秒。偶发的慢请求使节点暂时不被选中后，其平均值会逐渐降低，
+ * 节点重新获得请求并更新平均值，而不会因为没有新的样本一直保持在高位。节点恢复健康时清空平均值。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 14:10
+ */
+public class MinioNode {
+
+    private static final long DECAY_SECONDS = 10;
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(DECAY_SECONDS);
+
+    private final HttpUrl url;
+    private final String address;
+    private final double ewmaAlpha;
+    private final LongSupplier clock;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger consecutiveSuccesses = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean healthy = true;
+    private double latencyEwma;
+    private long latencyUpdated;
+
+    public MinioNode(HttpUrl url, double ewmaAlpha) {
+        this(url, ewmaAlpha, System::nanoTime);
+    }
+
+    MinioNode(HttpUrl url, double ewmaAlpha, LongSupplier clock) {
+        this.url = url;
+        this.address = url.scheme() + "://" + url.host() + ":" + url.port();
+        this.ewmaAlpha = ewmaAlpha;
+        this.clock = clock;
+    }
+
+    /**
+     * 将请求地址的协议、主机和端口替换为当前节点
+     *
+     * @param original 原始请求地址
+     * @return 指向当前节点的请求地址
+     */
+    public HttpUrl rewrite(HttpUrl original) {
+        return original.newBuilder()
+                .scheme(url.scheme())
+                .host(url.host())
+                .port(url.port())
+                .build();
+    }
+
+    /**
+     * 开始一个请求
+     *
+     * @return 开始时间，用于计算响应时间
+     */
+    long acquire() {
+        outstanding.incrementAndGet();
+        requests.increment();
+        return clock.getAsLong();
+    }
+
+    /**
+     * 收到响应头，记录响应时间
+     *
+     * @param startNanos {@link #acquire()} 返回的开始时间
+     */
+    synchronized void record(long startNanos) {
+        long now = clock.getAsLong();
+        double latency = now - startNanos;
+        double current = decayed(now);
+        latencyEwma = current == 0 ? latency : ewmaAlpha * latency + (1 - ewmaAlpha) * current;
+        latencyUpdated = now;
+    }
+
+    private double decayed(long now) {
+        if (latencyEwma == 0) {
+            return 0;
+        }
+        return latencyEwma * Math.exp(-Math.max(0, now - latencyUpdated) / DECAY_NANOS);
+    }
+
+    /**
+     * 请求结束，包括响应体读取完毕或者请求失败
+     */
+    void release() {
+        outstanding.decrementAndGet();
+    }
+
+    int onFailure() {
+        failures.increment();
+        consecutiveSuccesses.set(0);
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    void onSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    int onProbeSuccess() {
+        consecutiveFailures.set(0);
+        return consecutiveSuccesses.incrementAndGet();
+    }
+
+    void setHealthy(boolean healthy) {
+        if (healthy) {
+            // 摘除期间的响应时间已经没有参考意义，恢复后重新统计
+            synchronized (this) {
+                latencyEwma = 0;
+            }
+        }
+        this.healthy = healthy;
+        this.consecutiveSuccesses.set(0);
+    }
+
+    public HttpUrl getUrl() {
+        return url;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * 响应时间指数加权平均值，单位毫秒
+     *
+     * @return 毫秒数
+     */
+    public double getLatencyMillis() {
+        return getLatencyNanos() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    synchronized double getLatencyNanos() {
+        return decayed(clock.getAsLong());
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public String toString() {
+        return address;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.endpoint;
+
+import cn.herodotus.oss.minio.logic.definition.cluster.MinioLoadBalancer;
+import cn.herodotus.oss.minio.logic.definition.cluster.MinioNode;
+import cn.herodotus.oss.minio.logic.definition.metrics.MinioOperationTracker;
+import cn.herodotus.oss.minio.logic.definition.pool.BaseMinioObjectPool;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Description: Minio 运行状态端点 </p>
+ * <p>
+ * 通过 /actuator/minio 查看各对象池的配置和实时状态、各节点的健康状态、正在执行的操作以及最近的慢操作，通过 /actuator/minio/{pool} 在运行时调整对象池大小。
+ * 调整的值不合法或对象池处于共享模式时，返回 400 且不做任何修改。
+ * 用于在对象池耗尽或 Minio 响应变慢时，无需重启和开启调试日志即可定位问题。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 11:40
+ */
+@Endpoint(id = "minio")
+public class MinioEndpoint {
+
+    private final Map<String, BaseMinioObjectPool<?>> pools;
+    private final ObjectProvider<MinioOperationTracker> minioOperationTracker;
+    private final MinioLoadBalancer minioLoadBalancer;
+
+    public MinioEndpoint(Map<String, BaseMinioObjectPool<?>> pools, ObjectProvider<MinioOperationTracker> minioOperationTracker, @Nullable MinioLoadBalancer minioLoadBalancer) {
+        this.pools = pools;
+        this.minioOperationTracker = minioOperationTracker;
+        this.minioLoadBalancer = minioLoadBalancer;
+    }
+
+    @ReadOperation
+    public MinioStatus status() {
+        Map<String, PoolStatus> poolStatus = new LinkedHashMap<>();
+        pools.forEach((name, pool) -> poolStatus.put(name, PoolStatus.of(pool)));
+
+        List<NodeStatus> nodes = minioLoadBalancer == null ? List.of() : minioLoadBalancer.getNodes().stream().map(NodeStatus::of).toList();
+
+        MinioOperationTracker tracker = minioOperationTracker.getIfAvailable();
+        if (tracker == null) {
+            return new MinioStatus(poolStatus, nodes, List.of(), List.of());
+        }
+        return new MinioStatus(poolStatus, nodes, tracker.getInFlightOperations(), tracker.getSlowOperations());
+    }
+
+    @ReadOperation
+    public PoolStatus pool(@Selector String pool) {
+        BaseMinioObjectPool<?> objectPool = pools.get(pool);
+        return objectPool != null ? PoolStatus.of(objectPool) : null;
+    }
+
+    @WriteOperation
+    public PoolStatus resize(@Selector String pool, @Nullable Integer maxTotal, @Nullable Integer maxIdle, @Nullable Integer minIdle) {
+        BaseMinioObjectPool<?> objectPool = pools.get(pool);
+        if (objectPool == null) {
+            return null;
+        }
+        try {
+            objectPool.resize(maxTotal, maxIdle, minIdle);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return PoolStatus.of(objectPool);
+    }
+
+    /**
+     * Minio 运行状态
+     *
+     * @param pools              各对象池状态
+     * @param nodes              各节点状态，未配置多个节点时为空
+     * @param inFlightOperations 正在执行的操作
+     * @param slowOperations     最近的慢操作
+     */
+    public record MinioStatus(Map<String, PoolStatus> pools, List<NodeStatus> nodes, List<MinioOperationTracker.MinioOperationSnapshot> inFlightOperations, List<MinioOperationTracker.MinioOperationSnapshot> slowOperations) {
+    }
+
+    /**
+     * 节点状态
+     */
+    public record NodeStatus(String address, boolean healthy, int outstanding, double latencyMillis, long requests, long failures) {
+
+        private static NodeStatus of(MinioNode node) {
+            return new NodeStatus(node.getAddress(), node.isHealthy(), node.getOutstanding(), node.getLatencyMillis(), node.getRequests(), node.getFailures());
+        }
+    }
+
+    /**
+     * 对象池状态
+     */
+    public record PoolStatus(boolean shared, int maxTotal, int maxIdle, int minIdle, Duration maxWait,
+                             int active, int idle, int waiters, long meanBorrowWaitMillis, long maxBorrowWaitMillis,
+                             long borrowed, long created, long destroyed, long abandoned) {
+
+        private static PoolStatus of(BaseMinioObjectPool<?> pool) {
+            return new PoolStatus(pool.isShared(), pool.getMaxTotal(), pool.getMaxIdle(), pool.getMinIdle(), pool.getMaxWait(),
+                    pool.getNumActive(), pool.getNumIdle(), pool.getNumWaiters(), pool.getMeanBorrowWaitTimeMillis(), pool.getMaxBorrowWaitTimeMillis(),
+                    pool.getBorrowedCount(), pool.getCreatedCount(), pool.getDestroyedCount(), pool.getAbandonedCount());
+        }
+    }
+}
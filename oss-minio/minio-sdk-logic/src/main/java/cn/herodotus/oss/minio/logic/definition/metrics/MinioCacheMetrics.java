@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.metrics;
+
+import cn.herodotus.oss.minio.logic.definition.cache.*;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * <p>Description: Minio 缓存指标 </p>
+ * <p>
+ * 使用 Caffeine 统计信息记录各级缓存的命中、未命中、加载和淘汰情况。内容缓存和磁盘缓存额外记录占用空间，内容缓存还记录 ETag 校验失败的次数。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 10:10
+ */
+public class MinioCacheMetrics implements MeterBinder {
+
+    private final StatObjectCache statObjectCache;
+    private final ObjectContentCache objectContentCache;
+    private final DiskObjectCache diskObjectCache;
+    private final SettingCache settingCache;
+    private final PresignedUrlCache presignedUrlCache;
+
+    public MinioCacheMetrics(StatObjectCache statObjectCache, ObjectContentCache objectContentCache, DiskObjectCache diskObjectCache, SettingCache settingCache, PresignedUrlCache presignedUrlCache) {
+        this.statObjectCache = statObjectCache;
+        this.objectContentCache = objectContentCache;
+        this.diskObjectCache = diskObjectCache;
+        this.settingCache = settingCache;
+        this.presignedUrlCache = presignedUrlCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, statObjectCache.getNativeCache(), "minio.stat");
+        CaffeineCacheMetrics.monitor(registry, objectContentCache.getNativeCache(), "minio.content");
+        CaffeineCacheMetrics.monitor(registry, diskObjectCache.getNativeCache(), "minio.disk");
+        CaffeineCacheMetrics.monitor(registry, settingCache.getNativeCache(), "minio.setting");
+        CaffeineCacheMetrics.monitor(registry, presignedUrlCache.getNativeCache(), "minio.presigned");
+        CaffeineCacheMetrics.monitor(registry, presignedUrlCache.getNativePostFormCache(), "minio.presigned.post");
+
+        Gauge.builder("minio.cache.content.weighted", objectContentCache, ObjectContentCache::getWeightedSize).baseUnit("bytes").register(registry);
+        FunctionCounter.builder("minio.cache.content.stale", objectContentCache, ObjectContentCache::getStaleHits).register(registry);
+        Gauge.builder("minio.cache.disk.weighted", diskObjectCache, cache -> cache.getWeightedSize() * 1024D).baseUnit("bytes").register(registry);
+    }
+}
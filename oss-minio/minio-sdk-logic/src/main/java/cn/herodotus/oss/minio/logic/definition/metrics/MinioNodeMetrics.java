@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.metrics;
+
+import cn.herodotus.oss.minio.logic.definition.cluster.MinioLoadBalancer;
+import cn.herodotus.oss.minio.logic.definition.cluster.MinioNode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Description: Minio 集群节点指标 </p>
+ * <p>
+ * 记录各节点的健康状态、未完成请求数、响应时间指数加权平均值，以及累计请求数和失败数，用于观察负载是否均衡以及节点摘除情况。
+ * 未配置多个节点时不产生任何指标。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 14:50
+ */
+public class MinioNodeMetrics implements MeterBinder {
+
+    private final MinioLoadBalancer minioLoadBalancer;
+
+    public MinioNodeMetrics(MinioLoadBalancer minioLoadBalancer) {
+        this.minioLoadBalancer = minioLoadBalancer;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (minioLoadBalancer == null) {
+            return;
+        }
+
+        minioLoadBalancer.getNodes().forEach(node -> {
+            Tags tags = Tags.of("node", node.getAddress());
+            Gauge.builder("minio.node.healthy", node, value -> value.isHealthy() ? 1 : 0).tags(tags).register(registry);
+            Gauge.builder("minio.node.outstanding", node, MinioNode::getOutstanding).tags(tags).register(registry);
+            TimeGauge.builder("minio.node.latency", node, TimeUnit.MILLISECONDS, MinioNode::getLatencyMillis).tags(tags).register(registry);
+            FunctionCounter.builder("minio.node.requests", node, MinioNode::getRequests).tags(tags).register(registry);
+            FunctionCounter.builder("minio.node.failures", node, MinioNode::getFailures).tags(tags).register(registry);
+        });
+    }
+}
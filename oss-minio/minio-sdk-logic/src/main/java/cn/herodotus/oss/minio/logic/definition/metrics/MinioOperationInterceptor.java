@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.minio.BucketArgs;
+import io.minio.DownloadObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.ObjectArgs;
+import io.minio.PutObjectBaseArgs;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Description: Minio 操作指标拦截器 </p>
+ * <p>
+ * 记录每个服务方法的耗时，标签包括服务、操作、存储桶和结果。返回 {@link CompletableFuture} 的方法在完成时记录。
+ * 上传对象时按对象大小记录发送字节数，读取对象时按实际读取的字节数记录接收字节数，下载到文件时按文件大小记录。
+ * <p>
+ * 同一服务内部的重载方法相互调用不经过代理，因此每次外部调用只记录一次。绑定 {@link MeterRegistry} 之前不记录任何指标。
+ * 存在 {@link MinioOperationTracker} 时，同时跟踪正在执行的操作和慢操作。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 9:20
+ */
+public class MinioOperationInterceptor implements MethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(MinioOperationInterceptor.class);
+
+    public static final String METRIC_OPERATION = "minio.operation";
+    public static final String METRIC_BYTES_SENT = "minio.operation.bytes.sent";
+    public static final String METRIC_BYTES_RECEIVED = "minio.operation.bytes.received";
+
+    private static final String NONE = "none";
+    private static final String BUCKET_NAME = "bucketName";
+    private static final String OBJECT_NAME = "objectName";
+    private static final String OBJECT_SIZE = "objectSize";
+    private static final String FILE_NAME = "fileName";
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<Method, Signature> signatures = new ConcurrentHashMap<>();
+
+    private final ObjectProvider<MinioOperationTracker> minioOperationTracker;
+
+    private volatile MeterRegistry meterRegistry;
+    private volatile boolean bucketTag;
+    private volatile MinioOperationTracker tracker;
+
+    public MinioOperationInterceptor(ObjectProvider<MinioOperationTracker> minioOperationTracker) {
+        this.minioOperationTracker = minioOperationTracker;
+    }
+
+    public void bindTo(MeterRegistry meterRegistry, boolean bucketTag) {
+        this.meterRegistry = meterRegistry;
+        this.bucketTag = bucketTag;
+    }
+
+    private MinioOperationTracker getTracker() {
+        MinioOperationTracker current = tracker;
+        if (current == null) {
+            current = minioOperationTracker.getIfAvailable();
+            tracker = current;
+        }
+        return current;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry registry = meterRegistry;
+        MinioOperationTracker operationTracker = getTracker();
+        Method method = invocation.getMethod();
+        if ((registry == null && operationTracker == null) || method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        Object target = invocation.getThis();
+        Object[] arguments = invocation.getArguments();
+        String service = target != null ? target.getClass().getSimpleName() : method.getDeclaringClass().getSimpleName();
+        Signature signature = getSignature(method);
+        String bucketName = resolveBucketName(signature.bucketIndex(), arguments);
+        Tags tags = Tags.of("service", service, "operation", method.getName(), "bucket", bucketTag ? bucketName : NONE);
+        MinioOperationTracker.Operation operation = operationTracker != null ? operationTracker.start(service, method.getName(), bucketName, resolveObjectName(signature.objectIndex(), arguments)) : null;
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            finish(registry, operationTracker, operation, tags, start, e);
+            throw e;
+        }
+
+        if (result instanceof CompletableFuture<?> future) {
+            future.whenComplete((value, throwable) -> {
+                finish(registry, operationTracker, operation, tags, start, throwable);
+                if (registry != null && throwable == null) {
+                    countSent(registry, tags, method, arguments);
+                }
+            });
+            return result;
+        }
+
+        finish(registry, operationTracker, operation, tags, start, null);
+        if (registry == null) {
+            return result;
+        }
+
+        countSent(registry, tags, method, arguments);
+        countDownloaded(registry, tags, method, arguments);
+        if (result instanceof GetObjectResponse response) {
+            return new GetObjectResponse(response.headers(), response.bucket(), response.region(), response.object(),
+                    new CountingInputStream(response, Counter.builder(METRIC_BYTES_RECEIVED).tags(tags).baseUnit("bytes").register(registry)));
+        }
+        return result;
+    }
+
+    private void finish(MeterRegistry registry, MinioOperationTracker operationTracker, MinioOperationTracker.Operation operation, Tags tags, long start, Throwable throwable) {
+        Throwable cause = unwrap(throwable);
+        if (operationTracker != null) {
+            operationTracker.finish(operation, cause);
+        }
+        if (registry != null) {
+            record(registry, tags, start, cause);
+        }
+    }
+
+    private void record(MeterRegistry registry, Tags tags, long start, Throwable cause) {
+        Timer.builder(METRIC_OPERATION)
+                .tags(tags)
+                .tag("outcome", cause == null ? "success" : "failure")
+                .tag("exception", cause == null ? NONE : cause.getClass().getSimpleName())
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Throwable unwrap(Throwable throwable) {
+        if ((throwable instanceof CompletionException || throwable instanceof ExecutionException) && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+
+    private void countSent(MeterRegistry registry, Tags tags, Method method, Object[] arguments) {
+        Signature signature = getSignature(method);
+        long bytes = 0L;
+        if (signature.sizeIndex() >= 0) {
+            Object argument = arguments[signature.sizeIndex()];
+            if (argument instanceof PutObjectBaseArgs args) {
+                bytes = args.objectSize();
+            } else if (argument instanceof Long size) {
+                bytes = size;
+            }
+        } else if (signature.fileIndex() >= 0 && signature.upload()) {
+            bytes = sizeOf(arguments[signature.fileIndex()]);
+        }
+
+        if (bytes > 0) {
+            Counter.builder(METRIC_BYTES_SENT).tags(tags).baseUnit("bytes").register(registry).increment(bytes);
+        }
+    }
+
+    private void countDownloaded(MeterRegistry registry, Tags tags, Method method, Object[] arguments) {
+        Signature signature = getSignature(method);
+        if (signature.fileIndex() >= 0 && !signature.upload()) {
+            long bytes = sizeOf(arguments[signature.fileIndex()]);
+            if (bytes > 0) {
+                Counter.builder(METRIC_BYTES_RECEIVED).tags(tags).baseUnit("bytes").register(registry).increment(bytes);
+            }
+        }
+    }
+
+    private long sizeOf(Object argument) {
+        String fileName = argument instanceof DownloadObjectArgs args ? args.filename() : argument instanceof String name ? name : null;
+        if (fileName == null) {
+            return 0L;
+        }
+        try {
+            return Files.size(Paths.get(fileName));
+        } catch (IOException e) {
+            log.trace("[Herodotus] |- Can not read size of file [{}].", fileName, e);
+            return 0L;
+        }
+    }
+
+    /**
+     * 解析存储桶名称。{@link ObjectArgs} 继承自 {@link BucketArgs}，同样取 bucket，避免对象名称作为标签导致指标数量无限增长
+     */
+    private String resolveBucketName(int index, Object[] arguments) {
+        if (index < 0 || index >= arguments.length) {
+            return NONE;
+        }
+
+        Object argument = arguments[index];
+        if (argument instanceof BucketArgs args) {
+            return ObjectUtils.defaultIfNull(args.bucket(), NONE);
+        }
+        return argument instanceof String name ? name : NONE;
+    }
+
+    private String resolveObjectName(int index, Object[] arguments) {
+        if (index < 0 || index >= arguments.length) {
+            return NONE;
+        }
+
+        Object argument = arguments[index];
+        if (argument instanceof ObjectArgs args) {
+            return ObjectUtils.defaultIfNull(args.object(), NONE);
+        }
+        return argument instanceof String name ? name : NONE;
+    }
+
+    private Signature getSignature(Method method) {
+        return signatures.computeIfAbsent(method, this::createSignature);
+    }
+
+    private Signature createSignature(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        String[] parameterNames = ObjectUtils.defaultIfNull(parameterNameDiscoverer.getParameterNames(method), new String[0]);
+
+        int bucketIndex = -1;
+        int objectIndex = -1;
+        int sizeIndex = -1;
+        int fileIndex = -1;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            String parameterName = i < parameterNames.length ? parameterNames[i] : null;
+            if (BucketArgs.class.isAssignableFrom(parameterTypes[i])) {
+                bucketIndex = i;
+            } else if (BUCKET_NAME.equals(parameterName)) {
+                bucketIndex = bucketIndex < 0 ? i : bucketIndex;
+            }
+
+            if (OBJECT_NAME.equals(parameterName)) {
+                objectIndex = i;
+            }
+
+            if (PutObjectBaseArgs.class.isAssignableFrom(parameterTypes[i]) || (OBJECT_SIZE.equals(parameterName) && parameterTypes[i] == long.class)) {
+                sizeIndex = i;
+            }
+
+            if (DownloadObjectArgs.class.isAssignableFrom(parameterTypes[i]) || FILE_NAME.equals(parameterName)) {
+                fileIndex = i;
+            }
+        }
+
+        boolean upload = StringUtils.startsWithAny(method.getName(), "put", "upload");
+        boolean download = StringUtils.startsWith(method.getName(), "download");
+        if (objectIndex < 0 && bucketIndex >= 0 && ObjectArgs.class.isAssignableFrom(parameterTypes[bucketIndex])) {
+            objectIndex = bucketIndex;
+        }
+        return new Signature(bucketIndex, objectIndex, sizeIndex, upload || download ? fileIndex : -1, upload);
+    }
+
+    /**
+     * 方法中与指标相关的参数位置
+     *
+     * @param bucketIndex 存储桶参数位置
+     * @param objectIndex 对象参数位置
+     * @param sizeIndex   上传对象大小参数位置
+     * @param fileIndex   上传或下载文件参数位置
+     * @param upload      是否为上传方法
+     */
+    private record Signature(int bucketIndex, int objectIndex, int sizeIndex, int fileIndex, boolean upload) {
+    }
+
+    /**
+     * 统计实际读取字节数的输入流
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final Counter counter;
+
+        private CountingInputStream(InputStream in, Counter counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result >= 0) {
+                counter.increment();
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int result = super.read(b, off, len);
+            if (result > 0) {
+                counter.increment(result);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.metrics;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.lang3.BooleanUtils;
+
+/**
+ * <p>Description: Minio 操作指标 </p>
+ * <p>
+ * 在 {@link MeterRegistry} 创建后绑定到 {@link MinioOperationPostProcessor} 创建的拦截器，开始记录各服务方法的耗时和传输字节数。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 15:00
+ */
+public class MinioOperationMetrics implements MeterBinder {
+
+    private final MinioOperationPostProcessor minioOperationPostProcessor;
+    private final MinioProperties minioProperties;
+
+    public MinioOperationMetrics(MinioOperationPostProcessor minioOperationPostProcessor, MinioProperties minioProperties) {
+        this.minioOperationPostProcessor = minioOperationPostProcessor;
+        this.minioProperties = minioProperties;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        minioOperationPostProcessor.bindTo(registry, BooleanUtils.isTrue(minioProperties.getMetrics().getBucketTag()));
+    }
+}
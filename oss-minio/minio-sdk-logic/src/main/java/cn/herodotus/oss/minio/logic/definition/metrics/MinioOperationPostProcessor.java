@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * <p>Description: 为 Minio 服务添加操作跟踪和指标 </p>
+ * <p>
+ * 为 {@code cn.herodotus.oss.minio.logic.service} 包中的服务创建代理，由 {@link MinioOperationInterceptor} 跟踪正在执行的操作和慢操作。
+ * 操作跟踪不依赖指标开关；开启指标时，由 {@link MinioOperationMetrics} 在 {@link MeterRegistry} 创建后绑定，同时记录指标。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 9:40
+ */
+public class MinioOperationPostProcessor implements BeanPostProcessor {
+
+    private static final String SERVICE_PACKAGE = "cn.herodotus.oss.minio.logic.service";
+
+    private final MinioOperationInterceptor interceptor;
+
+    public MinioOperationPostProcessor(ObjectProvider<MinioOperationTracker> minioOperationTracker) {
+        this.interceptor = new MinioOperationInterceptor(minioOperationTracker);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        if (!SERVICE_PACKAGE.equals(targetClass.getPackageName())) {
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(targetClass.getClassLoader());
+    }
+
+    /**
+     * 开始记录操作指标
+     *
+     * @param registry  {@link MeterRegistry}
+     * @param bucketTag 是否使用存储桶名称作为标签
+     */
+    public void bindTo(MeterRegistry registry, boolean bucketTag) {
+        interceptor.bindTo(registry, bucketTag);
+    }
+}
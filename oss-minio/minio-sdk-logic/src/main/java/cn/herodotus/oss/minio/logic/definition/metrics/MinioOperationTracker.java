@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.metrics;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>Description: Minio 操作跟踪 </p>
+ * <p>
+ * 记录正在执行的操作，以及最近的慢操作，用于在对象池耗尽或 Minio 响应变慢时定位具体的调用。
+ * 慢操作保存在固定大小的环形缓冲区中，写入只需要一次原子递增，不会阻塞业务线程。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 11:10
+ */
+public class MinioOperationTracker {
+
+    private final long slowThreshold;
+    private final int slowCapacity;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Operation> inFlightOperations = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<MinioOperationSnapshot> slowOperations;
+    private final AtomicLong slowCursor = new AtomicLong();
+
+    public MinioOperationTracker(MinioProperties minioProperties) {
+        MinioProperties.Metrics metrics = minioProperties.getMetrics();
+        this.slowThreshold = metrics.getSlowThreshold().toNanos();
+        this.slowCapacity = Math.max(1, metrics.getSlowCapacity());
+        this.slowOperations = new AtomicReferenceArray<>(slowCapacity);
+    }
+
+    /**
+     * 开始跟踪一个操作
+     *
+     * @param service    服务名称
+     * @param operation  操作名称
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @return 操作标识，用于结束跟踪
+     */
+    public Operation start(String service, String operation, String bucketName, String objectName) {
+        Operation current = new Operation(sequence.incrementAndGet(), service, operation, bucketName, objectName, Thread.currentThread().getName(), Instant.now(), System.nanoTime());
+        inFlightOperations.put(current.id(), current);
+        return current;
+    }
+
+    /**
+     * 结束跟踪，耗时超过阈值时记录为慢操作
+     *
+     * @param current   操作标识
+     * @param throwable 操作抛出的异常，成功时为 null
+     */
+    public void finish(Operation current, Throwable throwable) {
+        inFlightOperations.remove(current.id());
+        long elapsed = System.nanoTime() - current.startNanos();
+        if (elapsed >= slowThreshold) {
+            int index = (int) (slowCursor.getAndIncrement() % slowCapacity);
+            slowOperations.set(index, current.toSnapshot(elapsed, throwable));
+        }
+    }
+
+    /**
+     * 正在执行的操作，按开始时间排序
+     *
+     * @return 操作列表
+     */
+    public List<MinioOperationSnapshot> getInFlightOperations() {
+        long now = System.nanoTime();
+        return inFlightOperations.values().stream()
+                .sorted(Comparator.comparingLong(Operation::startNanos))
+                .map(operation -> operation.toSnapshot(now - operation.startNanos(), null))
+                .toList();
+    }
+
+    /**
+     * 最近的慢操作，按开始时间倒序排列
+     *
+     * @return 操作列表
+     */
+    public List<MinioOperationSnapshot> getSlowOperations() {
+        List<MinioOperationSnapshot> snapshots = new ArrayList<>(slowCapacity);
+        for (int i = 0; i < slowCapacity; i++) {
+            MinioOperationSnapshot snapshot = slowOperations.get(i);
+            if (snapshot != null) {
+                snapshots.add(snapshot);
+            }
+        }
+        snapshots.sort(Comparator.comparing(MinioOperationSnapshot::startedAt).reversed());
+        return snapshots;
+    }
+
+    /**
+     * 正在执行的操作
+     */
+    public record Operation(long id, String service, String operation, String bucketName, String objectName, String thread, Instant startedAt, long startNanos) {
+
+        private MinioOperationSnapshot toSnapshot(long elapsed, Throwable throwable) {
+            return new MinioOperationSnapshot(id, service, operation, bucketName, objectName, thread, startedAt, elapsed / 1_000_000L, throwable != null ? throwable.getClass().getSimpleName() : null);
+        }
+    }
+
+    /**
+     * 操作快照
+     *
+     * @param id         操作序号
+     * @param service    服务名称
+     * @param operation  操作名称
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @param thread     调用线程
+     * @param startedAt  开始时间
+     * @param elapsed    耗时，单位毫秒
+     * @param exception  异常类型，成功或尚未完成时为 null
+     */
+    public record MinioOperationSnapshot(long id, String service, String operation, String bucketName, String objectName, String thread, Instant startedAt, long elapsed, String exception) {
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.metrics;
+
+import cn.herodotus.oss.minio.logic.definition.pool.BaseMinioObjectPool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Description: Minio 对象池指标 </p>
+ * <p>
+ * 记录各对象池的借出、空闲、等待数量，借用等待时间，以及累计借用、创建、销毁和泄漏回收的数量，用于区分延迟来自对象池耗尽还是 Minio 本身。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 10:00
+ */
+public class MinioPoolMetrics implements MeterBinder {
+
+    private final Map<String, BaseMinioObjectPool<?>> pools;
+
+    public MinioPoolMetrics(Map<String, BaseMinioObjectPool<?>> pools) {
+        this.pools = pools;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        pools.forEach((name, pool) -> {
+            Tags tags = Tags.of("pool", name);
+            Gauge.builder("minio.pool.active", pool, BaseMinioObjectPool::getNumActive).tags(tags).register(registry);
+            Gauge.builder("minio.pool.idle", pool, BaseMinioObjectPool::getNumIdle).tags(tags).register(registry);
+            Gauge.builder("minio.pool.waiters", pool, BaseMinioObjectPool::getNumWaiters).tags(tags).register(registry);
+            TimeGauge.builder("minio.pool.borrow.wait.mean", pool, TimeUnit.MILLISECONDS, BaseMinioObjectPool::getMeanBorrowWaitTimeMillis).tags(tags).register(registry);
+            TimeGauge.builder("minio.pool.borrow.wait.max", pool, TimeUnit.MILLISECONDS, BaseMinioObjectPool::getMaxBorrowWaitTimeMillis).tags(tags).register(registry);
+            FunctionCounter.builder("minio.pool.borrowed", pool, BaseMinioObjectPool::getBorrowedCount).tags(tags).register(registry);
+            FunctionCounter.builder("minio.pool.created", pool, BaseMinioObjectPool::getCreatedCount).tags(tags).register(registry);
+            FunctionCounter.builder("minio.pool.destroyed", pool, BaseMinioObjectPool::getDestroyedCount).tags(tags).register(registry);
+            FunctionCounter.builder("minio.pool.abandoned", pool, BaseMinioObjectPool::getAbandonedCount).tags(tags).register(registry);
+        });
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.pool;
+
+import cn.herodotus.oss.minio.core.exception.MinioClientPoolErrorException;
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.AbandonedConfig;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Description: Minio 各类 Client 对象池基础定义 </p>
+ * <p>
+ * 开启共享模式时，不再创建对象池，所有调用方共用同一个线程安全的 Client 实例，借用和归还操作均不产生额外开销。
+ * <p>
+ * 对象池模式下可开启泄漏检测（removeAbandoned，默认关闭），借出超过 removeAbandonedTimeout 仍未归还的对象会被回收并计数，用于定位遗漏归还导致对象池被逐渐耗尽的问题。
+ * <p>
+ * Client 通用设置修改后调用 {@link #refresh()}：空闲对象立即销毁，借出的对象在归还时销毁，之后借出的对象均按新设置创建。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/8 11:02
+ */
+public abstract class BaseMinioObjectPool<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(BaseMinioObjectPool.class);
+
+    private final boolean shared;
+    private final BasePooledObjectFactory<T> factory;
+    private final GenericObjectPool<T> genericObjectPool;
+    private volatile T sharedObject;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder abandonedCount = new LongAdder();
+
+    protected BaseMinioObjectPool(BasePooledObjectFactory<T> factory, MinioProperties minioProperties, MinioHttpClientFactory minioHttpClientFactory) {
+        this.shared = minioHttpClientFactory.isShared();
+        this.factory = factory;
+        if (shared) {
+            this.sharedObject = createSharedObject(factory);
+            this.genericObjectPool = null;
+        } else {
+            this.sharedObject = null;
+            this.genericObjectPool = createPool(factory, minioProperties.getPool());
+        }
+    }
+
+    private T createSharedObject(BasePooledObjectFactory<T> factory) {
+        try {
+            return factory.create();
+        } catch (Exception e) {
+            log.error("[Herodotus] |- Can not create shared minio client.", e);
+            throw new MinioClientPoolErrorException("Can not create shared minio client.", e);
+        }
+    }
+
+    private GenericObjectPool<T> createPool(BasePooledObjectFactory<T> factory, MinioProperties.Pool pool) {
+        if (!pool.getRemoveAbandoned()) {
+            return new GenericObjectPool<>(new ManagedPooledObjectFactory(factory), createConfig(pool));
+        }
+        return new GenericObjectPool<>(new ManagedPooledObjectFactory(factory), createConfig(pool), createAbandonedConfig(pool));
+    }
+
+    private AbandonedConfig createAbandonedConfig(MinioProperties.Pool pool) {
+        AbandonedConfig config = new AbandonedConfig();
+        config.setRemoveAbandonedOnBorrow(true);
+        config.setRemoveAbandonedOnMaintenance(true);
+        config.setRemoveAbandonedTimeout(pool.getRemoveAbandonedTimeout());
+        config.setLogAbandoned(pool.getLogAbandoned());
+        config.setLogWriter(new PrintWriter(new AbandonedLogWriter()));
+        return config;
+    }
+
+    private GenericObjectPoolConfig<T> createConfig(MinioProperties.Pool pool) {
+        GenericObjectPoolConfig<T> config = new GenericObjectPoolConfig<>();
+        config.setMaxTotal(pool.getMaxTotal());
+        config.setMaxIdle(pool.getMaxIdle());
+        config.setMinIdle(pool.getMinIdle());
+        config.setMaxWait(pool.getMaxWait());
+        config.setMinEvictableIdleTime(pool.getMinEvictableIdleTime());
+        config.setSoftMinEvictableIdleTime(pool.getSoftMinEvictableIdleTime());
+        config.setLifo(pool.getLifo());
+        config.setBlockWhenExhausted(pool.getBlockWhenExhausted());
+        config.setTimeBetweenEvictionRuns(pool.getTimeBetweenEvictionRuns());
+        // 归还时校验对象是否按最新设置创建，参见 refresh
+        config.setTestOnReturn(true);
+        return config;
+    }
+
+    /**
+     * 是否为共享模式
+     *
+     * @return true 共享模式，false 对象池模式
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * 最大对象数量，共享模式下为 1
+     *
+     * @return 数量
+     */
+    public int getMaxTotal() {
+        return isShared() ? 1 : genericObjectPool.getMaxTotal();
+    }
+
+    /**
+     * 最大空闲对象数量，共享模式下为 1
+     *
+     * @return 数量
+     */
+    public int getMaxIdle() {
+        return isShared() ? 1 : genericObjectPool.getMaxIdle();
+    }
+
+    /**
+     * 最小空闲对象数量，共享模式下为 1
+     *
+     * @return 数量
+     */
+    public int getMinIdle() {
+        return isShared() ? 1 : genericObjectPool.getMinIdle();
+    }
+
+    /**
+     * 借用对象的最大等待时间，共享模式下为 0
+     *
+     * @return {@link Duration}
+     */
+    public Duration getMaxWait() {
+        return isShared() ? Duration.ZERO : genericObjectPool.getMaxWaitDuration();
+    }
+
+    /**
+     * 运行时调整对象池大小，参数为 null 时保持不变。
+     * <p>
+     * 调整后的值需满足 1 <= maxTotal、0 <= minIdle <= maxIdle <= maxTotal，否则不做任何修改。共享模式下没有对象池，不支持调整。
+     *
+     * @param maxTotal 最大对象数量
+     * @param maxIdle  最大空闲对象数量
+     * @param minIdle  最小空闲对象数量
+     * @throws IllegalStateException    共享模式下调用
+     * @throws IllegalArgumentException 调整后的值不合法
+     */
+    public synchronized void resize(Integer maxTotal, Integer maxIdle, Integer minIdle) {
+        if (isShared()) {
+            throw new IllegalStateException("Minio client pool is in shared mode and can not be resized.");
+        }
+
+        int targetMaxTotal = maxTotal != null ? maxTotal : genericObjectPool.getMaxTotal();
+        int targetMaxIdle = maxIdle != null ? maxIdle : genericObjectPool.getMaxIdle();
+        int targetMinIdle = minIdle != null ? minIdle : genericObjectPool.getMinIdle();
+        if (targetMaxTotal < 1 || targetMinIdle < 0 || targetMinIdle > targetMaxIdle || targetMaxIdle > targetMaxTotal) {
+            throw new IllegalArgumentException(String.format("Invalid minio client pool size maxTotal [%d], maxIdle [%d], minIdle [%d], require 1 <= maxTotal and 0 <= minIdle <= maxIdle <= maxTotal.", targetMaxTotal, targetMaxIdle, targetMinIdle));
+        }
+
+        genericObjectPool.setMaxTotal(targetMaxTotal);
+        genericObjectPool.setMaxIdle(targetMaxIdle);
+        genericObjectPool.setMinIdle(targetMinIdle);
+        log.info("[Herodotus] |- Minio client pool resized to maxTotal [{}], maxIdle [{}], minIdle [{}].", targetMaxTotal, targetMaxIdle, targetMinIdle);
+    }
+
+    /**
+     * 已借出的对象数量，共享模式下为 0
+     *
+     * @return 数量
+     */
+    public int getNumActive() {
+        return isShared() ? 0 : genericObjectPool.getNumActive();
+    }
+
+    /**
+     * 空闲的对象数量，共享模式下为 0
+     *
+     * @return 数量
+     */
+    public int getNumIdle() {
+        return isShared() ? 0 : genericObjectPool.getNumIdle();
+    }
+
+    /**
+     * 正在等待借用对象的线程数量，共享模式下为 0
+     *
+     * @return 数量
+     */
+    public int getNumWaiters() {
+        return isShared() ? 0 : genericObjectPool.getNumWaiters();
+    }
+
+    /**
+     * 最近借用对象的平均等待时间，单位毫秒
+     *
+     * @return 毫秒数
+     */
+    public long getMeanBorrowWaitTimeMillis() {
+        return isShared() ? 0L : genericObjectPool.getMeanBorrowWaitTimeMillis();
+    }
+
+    /**
+     * 借用对象的最大等待时间，单位毫秒
+     *
+     * @return 毫秒数
+     */
+    public long getMaxBorrowWaitTimeMillis() {
+        return isShared() ? 0L : genericObjectPool.getMaxBorrowWaitTimeMillis();
+    }
+
+    /**
+     * 累计借用次数，共享模式下为 0
+     *
+     * @return 次数
+     */
+    public long getBorrowedCount() {
+        return isShared() ? 0L : genericObjectPool.getBorrowedCount();
+    }
+
+    /**
+     * 累计创建的对象数量，共享模式下为 1
+     *
+     * @return 数量
+     */
+    public long getCreatedCount() {
+        return isShared() ? 1L : genericObjectPool.getCreatedCount();
+    }
+
+    /**
+     * 累计销毁的对象数量，共享模式下为 0
+     *
+     * @return 数量
+     */
+    public long getDestroyedCount() {
+        return isShared() ? 0L : genericObjectPool.getDestroyedCount();
+    }
+
+    /**
+     * 按最新设置替换池中的对象。对象池模式下立即销毁空闲对象，借出的对象在归还时销毁；共享模式下直接替换共享的 Client
+     */
+    public synchronized void refresh() {
+        generation.incrementAndGet();
+        if (isShared()) {
+            this.sharedObject = createSharedObject(factory);
+        } else {
+            genericObjectPool.clear();
+        }
+        log.info("[Herodotus] |- Minio client pool refreshed to generation [{}].", generation.get());
+    }
+
+    /**
+     * 累计因借出后长时间未归还而被回收的对象数量，即检测到的泄漏次数
+     *
+     * @return 次数
+     */
+    public long getAbandonedCount() {
+        return abandonedCount.sum();
+    }
+
+    protected T borrowObject() throws Exception {
+        if (isShared()) {
+            return sharedObject;
+        }
+        return genericObjectPool.borrowObject();
+    }
+
+    protected void returnObject(T object) {
+        if (!isShared()) {
+            genericObjectPool.returnObject(object);
+        }
+    }
+
+    /**
+     * 包装对象工厂，记录对象创建时的设置版本，并统计因泄漏检测而被销毁的对象
+     */
+    private class ManagedPooledObjectFactory implements PooledObjectFactory<T> {
+
+        private final PooledObjectFactory<T> delegate;
+
+        private ManagedPooledObjectFactory(PooledObjectFactory<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void activateObject(PooledObject<T> p) throws Exception {
+            delegate.activateObject(p);
+        }
+
+        @Override
+        public void destroyObject(PooledObject<T> p) throws Exception {
+            delegate.destroyObject(p);
+        }
+
+        @Override
+        public void destroyObject(PooledObject<T> p, DestroyMode destroyMode) throws Exception {
+            if (destroyMode == DestroyMode.ABANDONED) {
+                abandonedCount.increment();
+                log.warn("[Herodotus] |- Minio client borrowed at [{}] was not returned in [{}], remove it from pool as leaked.", p.getLastBorrowInstant(), genericObjectPool.getAbandonedConfig().getRemoveAbandonedTimeoutDuration());
+            }
+            delegate.destroyObject(p, destroyMode);
+        }
+
+        @Override
+        public PooledObject<T> makeObject() throws Exception {
+            long current = generation.get();
+            return new GenerationPooledObject<>(delegate.makeObject().getObject(), current);
+        }
+
+        @Override
+        public void passivateObject(PooledObject<T> p) throws Exception {
+            delegate.passivateObject(p);
+        }
+
+        @Override
+        public boolean validateObject(PooledObject<T> p) {
+            if (p instanceof GenerationPooledObject<T> pooledObject && pooledObject.getGeneration() < generation.get()) {
+                return false;
+            }
+            return delegate.validateObject(p);
+        }
+    }
+
+    /**
+     * 记录创建时设置版本的池化对象
+     */
+    private static class GenerationPooledObject<T> extends DefaultPooledObject<T> {
+
+        private final long generation;
+
+        private GenerationPooledObject(T object, long generation) {
+            super(object);
+            this.generation = generation;
+        }
+
+        private long getGeneration() {
+            return generation;
+        }
+    }
+
+    /**
+     * 将泄漏对象的借用堆栈输出至日志，而不是默认的 System.out
+     */
+    private static class AbandonedLogWriter extends StringWriter {
+
+        @Override
+        public void flush() {
+            StringBuffer buffer = getBuffer();
+            synchronized (buffer) {
+                if (StringUtils.isNotBlank(buffer)) {
+                    log.warn("[Herodotus] |- Leaked minio client was borrowed by: {}", buffer);
+                }
+                buffer.setLength(0);
+            }
+        }
+    }
+}
@@ -29,8 +29,6 @@ import cn.herodotus.oss.minio.core.exception.MinioClientPoolErrorException;
 import cn.herodotus.oss.minio.logic.properties.MinioProperties;
 import io.minio.admin.MinioAdminClient;
 import org.apache.commons.lang3.ObjectUtils;
-import org.apache.commons.pool2.impl.GenericObjectPool;
-import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,30 +38,21 @@ import org.slf4j.LoggerFactory;
  * @author : gengwei.zheng
  * @date : 2023/6/24 17:46
  */
-public class MinioAdminClientObjectPool {
+public class MinioAdminClientObjectPool extends BaseMinioObjectPool<MinioAdminClient> {
 
     private static final Logger log = LoggerFactory.getLogger(MinioAdminClientObjectPool.class);
 
-    private final GenericObjectPool<MinioAdminClient> genericObjectPool;
-
     public MinioAdminClientObjectPool(MinioProperties minioProperties) {
-        MinioAdminClientPooledObjectFactory factory = new MinioAdminClientPooledObjectFactory(minioProperties);
+        this(minioProperties, new MinioHttpClientFactory(minioProperties));
+    }
 
-        GenericObjectPoolConfig<MinioAdminClient> config = new GenericObjectPoolConfig<>();
-        config.setMaxTotal(minioProperties.getPool().getMaxTotal());
-        config.setMaxIdle(minioProperties.getPool().getMaxIdle());
-        config.setMinIdle(minioProperties.getPool().getMinIdle());
-        config.setMaxWait(minioProperties.getPool().getMaxWait());
-        config.setMinEvictableIdleTime(minioProperties.getPool().getMinEvictableIdleTime());
-        config.setSoftMinEvictableIdleTime(minioProperties.getPool().getSoftMinEvictableIdleTime());
-        config.setLifo(minioProperties.getPool().getLifo());
-        config.setBlockWhenExhausted(minioProperties.getPool().getBlockWhenExhausted());
-        genericObjectPool = new GenericObjectPool<>(factory, config);
+    public MinioAdminClientObjectPool(MinioProperties minioProperties, MinioHttpClientFactory minioHttpClientFactory) {
+        super(new MinioAdminClientPooledObjectFactory(minioProperties, minioHttpClientFactory), minioProperties, minioHttpClientFactory);
     }
 
     public MinioAdminClient getMinioAdminClient() {
         try {
-            MinioAdminClient minioAdminClient = genericObjectPool.borrowObject();
+            MinioAdminClient minioAdminClient = borrowObject();
             log.debug("[Herodotus] |- Fetch minio admin client from object pool.");
             return minioAdminClient;
         } catch (Exception e) {
@@ -76,7 +65,7 @@ public class MinioAdminClientObjectPool {
     public void close(MinioAdminClient minioAdminClient) {
         if (ObjectUtils.isNotEmpty(minioAdminClient)) {
             log.debug("[Herodotus] |- Close minio admin client.");
-            genericObjectPool.returnObject(minioAdminClient);
+            returnObject(minioAdminClient);
         }
     }
 }
@@ -27,6 +27,9 @@ package cn.herodotus.oss.minio.logic.definition.pool;
 
 import cn.herodotus.oss.minio.logic.properties.MinioProperties;
 import io.minio.admin.MinioAdminClient;
+import okhttp3.OkHttpClient;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.pool2.BasePooledObjectFactory;
 import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
@@ -44,18 +47,43 @@ public class MinioAdminClientPooledObjectFactory extends BasePooledObjectFactory
     private static final Logger log = LoggerFactory.getLogger(MinioAdminClientPooledObjectFactory.class);
 
     private final MinioProperties minioProperties;
+    private final OkHttpClient httpClient;
+    private final MinioHttpClientFactory minioHttpClientFactory;
 
     public MinioAdminClientPooledObjectFactory(MinioProperties minioProperties) {
+        this(minioProperties, null);
+    }
+
+    public MinioAdminClientPooledObjectFactory(MinioProperties minioProperties, OkHttpClient httpClient) {
         this.minioProperties = minioProperties;
+        this.httpClient = httpClient;
+        this.minioHttpClientFactory = null;
+    }
+
+    public MinioAdminClientPooledObjectFactory(MinioProperties minioProperties, MinioHttpClientFactory minioHttpClientFactory) {
+        this.minioProperties = minioProperties;
+        this.httpClient = null;
+        this.minioHttpClientFactory = minioHttpClientFactory;
     }
 
     @Override
     public MinioAdminClient create() throws Exception {
         log.debug("[Herodotus] |- Minio admin client factory create object.");
-        return MinioAdminClient.builder()
+        MinioAdminClient.Builder builder = MinioAdminClient.builder()
                 .endpoint(minioProperties.getEndpoint())
-                .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey())
-                .build();
+                .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey());
+
+        OkHttpClient client = ObjectUtils.isNotEmpty(minioHttpClientFactory) ? minioHttpClientFactory.obtainHttpClient() : httpClient;
+        if (ObjectUtils.isNotEmpty(client)) {
+            builder.httpClient(client);
+        }
+
+        MinioAdminClient minioAdminClient = builder.build();
+        MinioProperties.Client client = minioProperties.getClient();
+        if (StringUtils.isNoneBlank(client.getAppName(), client.getAppVersion())) {
+            minioAdminClient.setAppInfo(client.getAppName(), client.getAppVersion());
+        }
+        return minioAdminClient;
     }
 
     @Override
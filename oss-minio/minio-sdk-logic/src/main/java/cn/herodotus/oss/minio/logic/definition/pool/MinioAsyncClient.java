@@ -26,7 +26,10 @@
 package cn.herodotus.oss.minio.logic.definition.pool;
 
 import com.google.common.collect.Multimap;
+import io.minio.AbortMultipartUploadResponse;
 import io.minio.CreateMultipartUploadResponse;
+import io.minio.ListMultipartUploadsResponse;
+import io.minio.ListObjectsV2Response;
 import io.minio.ListPartsResponse;
 import io.minio.ObjectWriteResponse;
 import io.minio.errors.InsufficientDataException;
@@ -42,7 +45,7 @@ import java.util.concurrent.CompletableFuture;
 /**
  * <p>Description: 自定义扩展 Minio Client </p>
  * <p>
- * 扩展 MinioAsyncClient 主要为了解决部分分片上传方法为 protected 无法调用的问题。
+ * 扩展 MinioAsyncClient 主要为了解决部分分片上传、未完成分片上传查询与终止、单页对象查询方法为 protected 无法调用的问题。
  *
  * @author : gengwei.zheng
  * @date : 2022/7/3 4:31
@@ -99,4 +102,59 @@ public class MinioAsyncClient extends io.minio.MinioAsyncClient {
     public CompletableFuture<ListPartsResponse> listPartsAsync(String bucketName, String region, String objectName, Integer maxParts, Integer partNumberMarker, String uploadId, Multimap<String, String> extraHeaders, Multimap<String, String> extraQueryParams) throws InsufficientDataException, InternalException, InvalidKeyException, IOException, NoSuchAlgorithmException, XmlParserException {
         return super.listPartsAsync(bucketName, region, objectName, maxParts, partNumberMarker, uploadId, extraHeaders, extraQueryParams);
     }
+
+    /**
+     * 查询一页 ListObjectsV2 数据
+     *
+     * @param bucketName          存储桶
+     * @param region              区域
+     * @param delimiter           分隔符
+     * @param encodingType        编码方式
+     * @param startAfter          从该对象名之后开始查询
+     * @param maxKeys             单页最大数量
+     * @param prefix              前缀
+     * @param continuationToken   分页标记
+     * @param fetchOwner          是否获取 Owner 信息
+     * @param includeUserMetadata 是否包含用户自定义元数据
+     * @param extraHeaders        额外消息头
+     * @param extraQueryParams    额外查询参数
+     */
+    @Override
+    public CompletableFuture<ListObjectsV2Response> listObjectsV2Async(String bucketName, String region, String delimiter, String encodingType, String startAfter, Integer maxKeys, String prefix, String continuationToken, boolean fetchOwner, boolean includeUserMetadata, Multimap<String, String> extraHeaders, Multimap<String, String> extraQueryParams) throws InsufficientDataException, InternalException, InvalidKeyException, IOException, NoSuchAlgorithmException, XmlParserException {
+        return super.listObjectsV2Async(bucketName, region, delimiter, encodingType, startAfter, maxKeys, prefix, continuationToken, fetchOwner, includeUserMetadata, extraHeaders, extraQueryParams);
+    }
+
+    /**
+     * 查询一页未完成的分片上传
+     *
+     * @param bucketName       存储桶
+     * @param region           区域
+     * @param delimiter        分隔符
+     * @param encodingType     编码方式
+     * @param keyMarker        从该对象名之后开始查询
+     * @param maxUploads       单页最大数量
+     * @param prefix           前缀
+     * @param uploadIdMarker   从该上传ID之后开始查询
+     * @param extraHeaders     额外消息头
+     * @param extraQueryParams 额外查询参数
+     */
+    @Override
+    public CompletableFuture<ListMultipartUploadsResponse> listMultipartUploadsAsync(String bucketName, String region, String delimiter, String encodingType, String keyMarker, Integer maxUploads, String prefix, String uploadIdMarker, Multimap<String, String> extraHeaders, Multimap<String, String> extraQueryParams) throws InsufficientDataException, InternalException, InvalidKeyException, IOException, NoSuchAlgorithmException, XmlParserException {
+        return super.listMultipartUploadsAsync(bucketName, region, delimiter, encodingType, keyMarker, maxUploads, prefix, uploadIdMarker, extraHeaders, extraQueryParams);
+    }
+
+    /**
+     * 终止分片上传，删除已上传的分片
+     *
+     * @param bucketName       存储桶
+     * @param region           区域
+     * @param objectName       对象名
+     * @param uploadId         上传ID
+     * @param extraHeaders     额外消息头
+     * @param extraQueryParams 额外查询参数
+     */
+    @Override
+    public CompletableFuture<AbortMultipartUploadResponse> abortMultipartUploadAsync(String bucketName, String region, String objectName, String uploadId, Multimap<String, String> extraHeaders, Multimap<String, String> extraQueryParams) throws InsufficientDataException, InternalException, InvalidKeyException, IOException, NoSuchAlgorithmException, XmlParserException {
+        return super.abortMultipartUploadAsync(bucketName, region, objectName, uploadId, extraHeaders, extraQueryParams);
+    }
 }
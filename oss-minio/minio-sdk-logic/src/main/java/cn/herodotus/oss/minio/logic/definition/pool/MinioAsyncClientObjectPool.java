@@ -28,8 +28,6 @@ package cn.herodotus.oss.minio.logic.definition.pool;
 import cn.herodotus.oss.minio.core.exception.MinioClientPoolErrorException;
 import cn.herodotus.oss.minio.logic.properties.MinioProperties;
 import org.apache.commons.lang3.ObjectUtils;
-import org.apache.commons.pool2.impl.GenericObjectPool;
-import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,30 +37,21 @@ import org.slf4j.LoggerFactory;
  * @author : gengwei.zheng
  * @date : 2022/7/3 20:29
  */
-public class MinioAsyncClientObjectPool {
+public class MinioAsyncClientObjectPool extends BaseMinioObjectPool<MinioAsyncClient> {
 
     private static final Logger log = LoggerFactory.getLogger(MinioAsyncClientObjectPool.class);
 
-    private final GenericObjectPool<MinioAsyncClient> genericObjectPool;
-
     public MinioAsyncClientObjectPool(MinioProperties minioProperties) {
-        MinioAsyncClientPooledObjectFactory factory = new MinioAsyncClientPooledObjectFactory(minioProperties);
+        this(minioProperties, new MinioHttpClientFactory(minioProperties));
+    }
 
-        GenericObjectPoolConfig<MinioAsyncClient> config = new GenericObjectPoolConfig<>();
-        config.setMaxTotal(minioProperties.getPool().getMaxTotal());
-        config.setMaxIdle(minioProperties.getPool().getMaxIdle());
-        config.setMinIdle(minioProperties.getPool().getMinIdle());
-        config.setMaxWait(minioProperties.getPool().getMaxWait());
-        config.setMinEvictableIdleTime(minioProperties.getPool().getMinEvictableIdleTime());
-        config.setSoftMinEvictableIdleTime(minioProperties.getPool().getSoftMinEvictableIdleTime());
-        config.setLifo(minioProperties.getPool().getLifo());
-        config.setBlockWhenExhausted(minioProperties.getPool().getBlockWhenExhausted());
-        genericObjectPool = new GenericObjectPool<>(factory, config);
+    public MinioAsyncClientObjectPool(MinioProperties minioProperties, MinioHttpClientFactory minioHttpClientFactory) {
+        super(new MinioAsyncClientPooledObjectFactory(minioProperties, minioHttpClientFactory), minioProperties, minioHttpClientFactory);
     }
 
     public MinioAsyncClient getMinioAsyncClient() {
         try {
-            MinioAsyncClient minioAsyncClient = genericObjectPool.borrowObject();
+            MinioAsyncClient minioAsyncClient = borrowObject();
             log.debug("[Herodotus] |- Fetch minio async client from object pool.");
             return minioAsyncClient;
         } catch (Exception e) {
@@ -75,7 +64,7 @@ public class MinioAsyncClientObjectPool {
     public void close(MinioAsyncClient minioAsyncClient) {
         if (ObjectUtils.isNotEmpty(minioAsyncClient)) {
             log.debug("[Herodotus] |- Close minio async client.");
-            genericObjectPool.returnObject(minioAsyncClient);
+            returnObject(minioAsyncClient);
         }
     }
 }
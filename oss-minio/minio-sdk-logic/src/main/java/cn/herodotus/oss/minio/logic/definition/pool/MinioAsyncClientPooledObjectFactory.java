@@ -26,6 +26,9 @@
 package cn.herodotus.oss.minio.logic.definition.pool;
 
 import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import okhttp3.OkHttpClient;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.pool2.BasePooledObjectFactory;
 import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
@@ -39,18 +42,72 @@ import org.apache.commons.pool2.impl.DefaultPooledObject;
 public class MinioAsyncClientPooledObjectFactory extends BasePooledObjectFactory<MinioAsyncClient> {
 
     private final MinioProperties minioProperties;
+    private final OkHttpClient httpClient;
+    private final MinioHttpClientFactory minioHttpClientFactory;
 
     public MinioAsyncClientPooledObjectFactory(MinioProperties minioProperties) {
+        this(minioProperties, null);
+    }
+
+    public MinioAsyncClientPooledObjectFactory(MinioProperties minioProperties, OkHttpClient httpClient) {
+        this.minioProperties = minioProperties;
+        this.httpClient = httpClient;
+        this.minioHttpClientFactory = null;
+    }
+
+    public MinioAsyncClientPooledObjectFactory(MinioProperties minioProperties, MinioHttpClientFactory minioHttpClientFactory) {
         this.minioProperties = minioProperties;
+        this.httpClient = null;
+        this.minioHttpClientFactory = minioHttpClientFactory;
     }
 
     @Override
     public MinioAsyncClient create() throws Exception {
-        io.minio.MinioAsyncClient minioAsyncClient = io.minio.MinioAsyncClient.builder()
+        io.minio.MinioAsyncClient.Builder builder = io.minio.MinioAsyncClient.builder()
                 .endpoint(minioProperties.getEndpoint())
-                .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey())
-                .build();
-        return new MinioAsyncClient(minioAsyncClient);
+                .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey());
+
+        OkHttpClient client = ObjectUtils.isNotEmpty(minioHttpClientFactory) ? minioHttpClientFactory.obtainHttpClient() : httpClient;
+        if (ObjectUtils.isNotEmpty(client)) {
+            builder.httpClient(client);
+        }
+
+        MinioAsyncClient minioAsyncClient = new MinioAsyncClient(builder.build());
+        configure(minioAsyncClient);
+        return minioAsyncClient;
+    }
+
+    /**
+     * 应用 {@link MinioProperties.Client} 中的通用设置，超时和 TLS 设置已经体现在 OkHttpClient 中
+     *
+     * @param minioAsyncClient {@link MinioAsyncClient}
+     */
+    private void configure(MinioAsyncClient minioAsyncClient) {
+        MinioProperties.Client client = minioProperties.getClient();
+        if (ObjectUtils.isNotEmpty(client.getVirtualStyleEndpoint())) {
+            if (client.getVirtualStyleEndpoint()) {
+                minioAsyncClient.enableVirtualStyleEndpoint();
+            } else {
+                minioAsyncClient.disableVirtualStyleEndpoint();
+            }
+        }
+        if (ObjectUtils.isNotEmpty(client.getDualStackEndpoint())) {
+            if (client.getDualStackEndpoint()) {
+                minioAsyncClient.enableDualStackEndpoint();
+            } else {
+                minioAsyncClient.disableDualStackEndpoint();
+            }
+        }
+        if (ObjectUtils.isNotEmpty(client.getAccelerateEndpoint())) {
+            if (client.getAccelerateEndpoint()) {
+                minioAsyncClient.enableAccelerateEndpoint();
+            } else {
+                minioAsyncClient.disableAccelerateEndpoint();
+            }
+        }
+        if (StringUtils.isNoneBlank(client.getAppName(), client.getAppVersion())) {
+            minioAsyncClient.setAppInfo(client.getAppName(), client.getAppVersion());
+        }
     }
 
     @Override
@@ -30,8 +30,6 @@ import cn.herodotus.oss.minio.core.exception.MinioClientPoolErrorException;
 import cn.herodotus.oss.minio.logic.properties.MinioProperties;
 import io.minio.MinioClient;
 import org.apache.commons.lang3.ObjectUtils;
-import org.apache.commons.pool2.impl.GenericObjectPool;
-import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -43,31 +41,21 @@ import org.springframework.stereotype.Component;
  * @date : 2021/11/8 10:54
  */
 @Component
-public class MinioClientObjectPool {
+public class MinioClientObjectPool extends BaseMinioObjectPool<MinioClient> {
 
     private static final Logger log = LoggerFactory.getLogger(MinioClientObjectPool.class);
 
-    private final GenericObjectPool<MinioClient> genericObjectPool;
-
     public MinioClientObjectPool(MinioProperties minioProperties) {
+        this(minioProperties, new MinioHttpClientFactory(minioProperties));
+    }
 
-        MinioClientPooledObjectFactory factory = new MinioClientPooledObjectFactory(minioProperties);
-
-        GenericObjectPoolConfig<MinioClient> config = new GenericObjectPoolConfig<>();
-        config.setMaxTotal(minioProperties.getPool().getMaxTotal());
-        config.setMaxIdle(minioProperties.getPool().getMaxIdle());
-        config.setMinIdle(minioProperties.getPool().getMinIdle());
-        config.setMaxWait(minioProperties.getPool().getMaxWait());
-        config.setMinEvictableIdleTime(minioProperties.getPool().getMinEvictableIdleTime());
-        config.setSoftMinEvictableIdleTime(minioProperties.getPool().getSoftMinEvictableIdleTime());
-        config.setLifo(minioProperties.getPool().getLifo());
-        config.setBlockWhenExhausted(minioProperties.getPool().getBlockWhenExhausted());
-        genericObjectPool = new GenericObjectPool<>(factory, config);
+    public MinioClientObjectPool(MinioProperties minioProperties, MinioHttpClientFactory minioHttpClientFactory) {
+        super(new MinioClientPooledObjectFactory(minioProperties, minioHttpClientFactory), minioProperties, minioHttpClientFactory);
     }
 
     public MinioClient getMinioClient() {
         try {
-            MinioClient minioClient = genericObjectPool.borrowObject();
+            MinioClient minioClient = borrowObject();
             log.debug("[Herodotus] |- Fetch minio client from object pool.");
             return minioClient;
         } catch (Exception e) {
@@ -79,7 +67,7 @@ public class MinioClientObjectPool {
     public void close(MinioClient minioClient) {
         if (ObjectUtils.isNotEmpty(minioClient)) {
             log.debug("[Herodotus] |- Close minio client.");
-            genericObjectPool.returnObject(minioClient);
+            returnObject(minioClient);
         }
     }
 }
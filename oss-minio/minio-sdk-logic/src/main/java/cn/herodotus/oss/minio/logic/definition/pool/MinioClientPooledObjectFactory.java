@@ -27,6 +27,9 @@ package cn.herodotus.oss.minio.logic.definition.pool;
 
 import cn.herodotus.oss.minio.logic.properties.MinioProperties;
 import io.minio.MinioClient;
+import okhttp3.OkHttpClient;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.pool2.BasePooledObjectFactory;
 import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
@@ -40,17 +43,72 @@ import org.apache.commons.pool2.impl.DefaultPooledObject;
 public class MinioClientPooledObjectFactory extends BasePooledObjectFactory<MinioClient> {
 
     private final MinioProperties minioProperties;
+    private final OkHttpClient httpClient;
+    private final MinioHttpClientFactory minioHttpClientFactory;
 
     public MinioClientPooledObjectFactory(MinioProperties minioProperties) {
+        this(minioProperties, null);
+    }
+
+    public MinioClientPooledObjectFactory(MinioProperties minioProperties, OkHttpClient httpClient) {
+        this.minioProperties = minioProperties;
+        this.httpClient = httpClient;
+        this.minioHttpClientFactory = null;
+    }
+
+    public MinioClientPooledObjectFactory(MinioProperties minioProperties, MinioHttpClientFactory minioHttpClientFactory) {
         this.minioProperties = minioProperties;
+        this.httpClient = null;
+        this.minioHttpClientFactory = minioHttpClientFactory;
     }
 
     @Override
     public MinioClient create() throws Exception {
-        return MinioClient.builder()
+        MinioClient.Builder builder = MinioClient.builder()
                 .endpoint(minioProperties.getEndpoint())
-                .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey())
-                .build();
+                .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey());
+
+        OkHttpClient client = ObjectUtils.isNotEmpty(minioHttpClientFactory) ? minioHttpClientFactory.obtainHttpClient() : httpClient;
+        if (ObjectUtils.isNotEmpty(client)) {
+            builder.httpClient(client);
+        }
+
+        MinioClient minioClient = builder.build();
+        configure(minioClient);
+        return minioClient;
+    }
+
+    /**
+     * 应用 {@link MinioProperties.Client} 中的通用设置，超时和 TLS 设置已经体现在 OkHttpClient 中
+     *
+     * @param minioClient {@link MinioClient}
+     */
+    private void configure(MinioClient minioClient) {
+        MinioProperties.Client client = minioProperties.getClient();
+        if (ObjectUtils.isNotEmpty(client.getVirtualStyleEndpoint())) {
+            if (client.getVirtualStyleEndpoint()) {
+                minioClient.enableVirtualStyleEndpoint();
+            } else {
+                minioClient.disableVirtualStyleEndpoint();
+            }
+        }
+        if (ObjectUtils.isNotEmpty(client.getDualStackEndpoint())) {
+            if (client.getDualStackEndpoint()) {
+                minioClient.enableDualStackEndpoint();
+            } else {
+                minioClient.disableDualStackEndpoint();
+            }
+        }
+        if (ObjectUtils.isNotEmpty(client.getAccelerateEndpoint())) {
+            if (client.getAccelerateEndpoint()) {
+                minioClient.enableAccelerateEndpoint();
+            } else {
+                minioClient.disableAccelerateEndpoint();
+            }
+        }
+        if (StringUtils.isNoneBlank(client.getAppName(), client.getAppVersion())) {
+            minioClient.setAppInfo(client.getAppName(), client.getAppVersion());
+        }
     }
 
     @Override
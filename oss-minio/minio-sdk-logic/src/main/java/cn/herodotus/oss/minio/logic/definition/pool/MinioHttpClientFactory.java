@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.pool;
+
+import cn.herodotus.oss.minio.core.exception.MinioClientPoolErrorException;
+import cn.herodotus.oss.minio.logic.definition.cluster.MinioLoadBalanceInterceptor;
+import cn.herodotus.oss.minio.logic.definition.cluster.MinioLoadBalancer;
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import io.minio.http.HttpUtils;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Description: Minio 共享 OkHttpClient 工厂 </p>
+ * <p>
+ * Minio 各类 Client 在创建时，默认都会新建一个独立的 OkHttpClient，每个 OkHttpClient 都拥有各自的连接池和 Dispatcher。
+ * 对象池中存在多个 Client 时，各 Client 之间无法复用 Keep-Alive 连接，会导致大量的连接创建和 TLS 握手。
+ * 开启共享模式后，所有的 Client 均使用该工厂创建的同一个 OkHttpClient。
+ * <p>
+ * 无论是否开启共享模式，OkHttpClient 均按照 {@link MinioProperties.Client} 中的超时和 TLS 设置创建。设置修改后调用 {@link #refresh()}，
+ * 共享的 OkHttpClient 会在保留连接池和 Dispatcher 的前提下重新创建。
+ * <p>
+ * 配置了多个节点 {@link MinioProperties#getEndpoints()} 时，所有 OkHttpClient 均通过 {@link MinioLoadBalanceInterceptor} 将请求分发至各节点。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/8 10:26
+ */
+public class MinioHttpClientFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(MinioHttpClientFactory.class);
+
+    private final MinioProperties minioProperties;
+    private final boolean shared;
+    private final MinioLoadBalancer minioLoadBalancer;
+    private final OkHttpClient baseHttpClient;
+    private volatile OkHttpClient httpClient;
+    private volatile long generation;
+
+    public MinioHttpClientFactory(MinioProperties minioProperties) {
+        this.minioProperties = minioProperties;
+        this.shared = BooleanUtils.isTrue(minioProperties.getHttp().getShared());
+        this.minioLoadBalancer = ObjectUtils.isNotEmpty(minioProperties.getEndpoints()) ? new MinioLoadBalancer(minioProperties) : null;
+        this.baseHttpClient = shared ? createBaseHttpClient(minioProperties.getHttp()) : null;
+        this.httpClient = shared ? configure(baseHttpClient) : null;
+        if (shared) {
+            log.debug("[Herodotus] |- Create shared minio http client with [{}].", minioProperties.getHttp());
+        }
+        if (ObjectUtils.isNotEmpty(minioLoadBalancer)) {
+            minioLoadBalancer.start(configure(HttpUtils.newDefaultHttpClient(HttpUtils.DEFAULT_CONNECTION_TIMEOUT, HttpUtils.DEFAULT_CONNECTION_TIMEOUT, HttpUtils.DEFAULT_CONNECTION_TIMEOUT)));
+        }
+    }
+
+    private OkHttpClient createBaseHttpClient(MinioProperties.Http http) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(http.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(http.getMaxRequestsPerHost());
+
+        ConnectionPool connectionPool = new ConnectionPool(http.getMaxIdleConnections(), http.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS);
+
+        return createDefaultHttpClient()
+                .newBuilder()
+                .dispatcher(dispatcher)
+                .connectionPool(connectionPool)
+                .protocols(toProtocols(http.getProtocols()))
+                .build();
+    }
+
+    private OkHttpClient createDefaultHttpClient() {
+        OkHttpClient.Builder builder = HttpUtils.newDefaultHttpClient(HttpUtils.DEFAULT_CONNECTION_TIMEOUT, HttpUtils.DEFAULT_CONNECTION_TIMEOUT, HttpUtils.DEFAULT_CONNECTION_TIMEOUT)
+                .newBuilder()
+                .addInterceptor(new MinioOperationTimeoutInterceptor(minioProperties));
+        if (ObjectUtils.isNotEmpty(minioLoadBalancer)) {
+            builder.addInterceptor(new MinioLoadBalanceInterceptor(minioLoadBalancer));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 在基础 OkHttpClient 之上应用超时和 TLS 设置。通过 newBuilder 创建，与基础 OkHttpClient 共用连接池和 Dispatcher
+     */
+    private OkHttpClient configure(OkHttpClient base) {
+        MinioProperties.Client client = minioProperties.getClient();
+        OkHttpClient configured = base.newBuilder()
+                .connectTimeout(client.getConnectTimeout())
+                .writeTimeout(client.getWriteTimeout())
+                .readTimeout(client.getReadTimeout())
+                .build();
+
+        try {
+            if (BooleanUtils.isTrue(client.getIgnoreCertCheck())) {
+                log.warn("[Herodotus] |- Minio http client certificate check is disabled.");
+                return HttpUtils.disableCertCheck(configured);
+            }
+            if (StringUtils.isNotBlank(client.getCaCertificate())) {
+                return HttpUtils.enableExternalCertificates(configured, client.getCaCertificate());
+            }
+        } catch (GeneralSecurityException | IOException e) {
+            log.error("[Herodotus] |- Can not apply tls settings to minio http client.", e);
+            throw new MinioClientPoolErrorException("Can not apply tls settings to minio http client.", e);
+        }
+        return configured;
+    }
+
+    private List<Protocol> toProtocols(List<String> protocols) {
+        return protocols.stream().map(protocol -> {
+            try {
+                return Protocol.get(protocol);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unsupported minio http protocol [" + protocol + "].", e);
+            }
+        }).toList();
+    }
+
+    /**
+     * 是否开启共享模式
+     *
+     * @return true 开启，false 未开启
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * 获取共享的 OkHttpClient。未开启共享模式时返回 null。
+     *
+     * @return {@link OkHttpClient}
+     */
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * 获取多节点负载均衡器。未配置多个节点时返回 null。
+     *
+     * @return {@link MinioLoadBalancer}
+     */
+    public MinioLoadBalancer getLoadBalancer() {
+        return minioLoadBalancer;
+    }
+
+    /**
+     * 获取创建 Client 时使用的 OkHttpClient。共享模式下返回共享的 OkHttpClient，否则为每个 Client 新建一个应用了当前设置的 OkHttpClient
+     *
+     * @return {@link OkHttpClient}
+     */
+    public OkHttpClient obtainHttpClient() {
+        return shared ? httpClient : configure(createDefaultHttpClient());
+    }
+
+    /**
+     * 获取设置的刷新代数。每次调用 {@link #refresh()} 后递增，持有非共享 OkHttpClient 的使用方据此判断是否需要重新获取
+     *
+     * @return 刷新代数
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * 按照最新的 {@link MinioProperties.Client} 设置重新创建共享的 OkHttpClient。已经创建的 Client 不受影响，需要配合对象池刷新使用
+     */
+    public synchronized void refresh() {
+        if (shared) {
+            this.httpClient = configure(baseHttpClient);
+            log.debug("[Herodotus] |- Refresh shared minio http client with [{}].", minioProperties.getClient());
+        }
+        generation++;
+    }
+
+    public void close() {
+        if (ObjectUtils.isNotEmpty(minioLoadBalancer)) {
+            minioLoadBalancer.stop();
+        }
+        if (ObjectUtils.isNotEmpty(httpClient)) {
+            log.debug("[Herodotus] |- Shutdown shared minio http client.");
+            httpClient.dispatcher().executorService().shutdown();
+            httpClient.connectionPool().evictAll();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.pool;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Description: 按操作类型设置读超时的 OkHttp 拦截器 </p>
+ * <p>
+ * 下载对象和合并对象的耗时差异很大，使用同一个读超时要么让下载请求长时间挂起，要么让合并操作被过早中断。
+ * 该拦截器根据请求特征识别操作类型，为下载对象、合并（复制、完成分片上传）对象分别使用各自的读超时，其余请求使用 OkHttpClient 的默认读超时。
+ * 超时配置在每次请求时读取，运行时修改后立即生效。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 13:20
+ */
+public class MinioOperationTimeoutInterceptor implements Interceptor {
+
+    private static final String COPY_SOURCE_HEADER = "x-amz-copy-source";
+    private static final String UPLOAD_ID = "uploadId";
+    private static final String VERSION_ID = "versionId";
+    private static final String PART_NUMBER = "partNumber";
+    private static final String RESPONSE_PREFIX = "response-";
+
+    private final MinioProperties minioProperties;
+
+    public MinioOperationTimeoutInterceptor(MinioProperties minioProperties) {
+        this.minioProperties = minioProperties;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Duration timeout = resolveReadTimeout(request);
+        if (timeout != null) {
+            return chain.withReadTimeout(Math.toIntExact(timeout.toMillis()), TimeUnit.MILLISECONDS).proceed(request);
+        }
+        return chain.proceed(request);
+    }
+
+    private Duration resolveReadTimeout(Request request) {
+        MinioProperties.Client client = minioProperties.getClient();
+        if (isCompose(request)) {
+            return client.getComposeReadTimeout();
+        }
+        if (isGetObject(request)) {
+            return client.getGetObjectReadTimeout();
+        }
+        return null;
+    }
+
+    /**
+     * 复制对象、合并对象中的分片复制以 x-amz-copy-source 请求头标识，完成分片上传为带 uploadId 的 POST 请求
+     */
+    private boolean isCompose(Request request) {
+        return ("PUT".equals(request.method()) && request.header(COPY_SOURCE_HEADER) != null)
+                || ("POST".equals(request.method()) && request.url().queryParameter(UPLOAD_ID) != null);
+    }
+
+    /**
+     * 下载对象为指向具体对象、且不带子资源参数（如 ?tagging、?retention）的 GET 请求
+     */
+    private boolean isGetObject(Request request) {
+        if (!"GET".equals(request.method())) {
+            return false;
+        }
+
+        HttpUrl url = request.url();
+        List<String> segments = url.pathSegments();
+        if (StringUtils.isEmpty(segments.get(segments.size() - 1))) {
+            return false;
+        }
+
+        for (String name : url.queryParameterNames()) {
+            if (!VERSION_ID.equals(name) && !PART_NUMBER.equals(name) && !name.startsWith(RESPONSE_PREFIX)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -30,6 +30,8 @@ import io.minio.admin.MinioAdminClient;
 
 /**
  * <p>Description: Minio Admin 基础服务 </p>
+ * <p>
+ * 优先使用 {@link #withClient(String, ClientCallback)} 和 {@link #runWithClient(String, ClientConsumer)}，Client 的借用与归还、异常转换均由基类完成，避免遗漏归还导致对象池耗尽。
  *
  * @author : gengwei.zheng
  * @date : 2023/6/25 10:37
@@ -49,4 +51,56 @@ public abstract class BaseMinioAdminClientService {
     protected void close(MinioAdminClient minioAdminClient) {
         minioAdminClientObjectPool.close(minioAdminClient);
     }
+
+    /**
+     * 借用 Admin Client 执行操作并返回结果，操作结束后无论成功与否都会归还 Client。操作抛出的异常会转换为对应的 Minio*Exception
+     *
+     * @param function 操作名称，用于日志输出
+     * @param callback 具体操作
+     * @param <T>      返回值类型
+     * @return 操作结果
+     */
+    protected <T> T withClient(String function, ClientCallback<T> callback) {
+        MinioAdminClient minioAdminClient = getMinioAdminClient();
+        try {
+            return callback.doInClient(minioAdminClient);
+        } catch (Exception e) {
+            throw MinioExceptionTranslator.translate(function, e);
+        } finally {
+            close(minioAdminClient);
+        }
+    }
+
+    /**
+     * 借用 Admin Client 执行无返回值的操作，操作结束后无论成功与否都会归还 Client。操作抛出的异常会转换为对应的 Minio*Exception
+     *
+     * @param function 操作名称，用于日志输出
+     * @param consumer 具体操作
+     */
+    protected void runWithClient(String function, ClientConsumer consumer) {
+        withClient(function, minioAdminClient -> {
+            consumer.accept(minioAdminClient);
+            return null;
+        });
+    }
+
+    /**
+     * 使用 MinioAdminClient 的操作定义
+     *
+     * @param <T> 返回值类型
+     */
+    @FunctionalInterface
+    protected interface ClientCallback<T> {
+
+        T doInClient(MinioAdminClient minioAdminClient) throws Exception;
+    }
+
+    /**
+     * 使用 MinioAdminClient 的无返回值操作定义
+     */
+    @FunctionalInterface
+    protected interface ClientConsumer {
+
+        void accept(MinioAdminClient minioAdminClient) throws Exception;
+    }
 }
@@ -28,6 +28,10 @@ package cn.herodotus.oss.minio.logic.definition.service;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClient;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
 /**
  * <p>Description: Minio 基础异步服务 </p>
  *
@@ -49,4 +53,66 @@ public abstract class BaseMinioAsyncClientService {
     protected void close(MinioAsyncClient minioAsyncClient) {
         minioAsyncClientObjectPool.close(minioAsyncClient);
     }
+
+    /**
+     * 以非阻塞方式执行异步操作。
+     * <p>
+     * Client 在 {@link CompletableFuture} 完成时才归还至对象池，调用线程不会被阻塞。返回的 {@link CompletableFuture} 如果执行失败，其异常已经转换为对应的 Minio*Exception。
+     *
+     * @param function 操作名称，用于日志输出
+     * @param action   具体的异步操作
+     * @param <T>      返回值类型
+     * @return {@link CompletableFuture}
+     */
+    protected <T> CompletableFuture<T> execute(String function, AsyncAction<T> action) {
+        MinioAsyncClient minioAsyncClient = getMinioAsyncClient();
+
+        CompletableFuture<T> future;
+        try {
+            future = action.apply(minioAsyncClient);
+        } catch (Exception e) {
+            close(minioAsyncClient);
+            return CompletableFuture.failedFuture(translate(function, e));
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, throwable) -> {
+            close(minioAsyncClient);
+            if (throwable != null) {
+                result.completeExceptionally(translate(function, throwable));
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 将 Minio 异步操作中抛出的异常，转换为统一的 Minio*Exception。
+     * <p>
+     * 先解开 {@link CompletionException} 和 {@link ExecutionException} 的包装，再交由 {@link MinioExceptionTranslator} 转换，与同步操作使用同一套映射。
+     * {@link Error} 不做转换。
+     *
+     * @param function  操作名称，用于日志输出
+     * @param throwable 原始异常
+     * @return 对应的 Minio*Exception
+     */
+    private static Throwable translate(String function, Throwable throwable) {
+        Throwable e = throwable;
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e instanceof Exception exception ? MinioExceptionTranslator.translate(function, exception) : e;
+    }
+
+    /**
+     * Minio 异步操作定义
+     *
+     * @param <T> 返回值类型
+     */
+    @FunctionalInterface
+    protected interface AsyncAction<T> {
+
+        CompletableFuture<T> apply(MinioAsyncClient minioAsyncClient) throws Exception;
+    }
 }
@@ -26,10 +26,16 @@
 package cn.herodotus.oss.minio.logic.definition.service;
 
 import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
+import io.minio.CloseableIterator;
 import io.minio.MinioClient;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * <p>Description: Minio 基础服务 </p>
+ * <p>
+ * 优先使用 {@link #withClient(String, ClientCallback)} 和 {@link #runWithClient(String, ClientConsumer)}，Client 的借用与归还、异常转换均由基类完成，避免遗漏归还导致对象池耗尽。
  *
  * @author : gengwei.zheng
  * @date : 2021/11/8 11:14
@@ -50,4 +56,132 @@ public abstract class BaseMinioClientService {
     protected void close(MinioClient minioClient) {
         minioClientObjectPool.close(minioClient);
     }
+
+    /**
+     * 借用 Client 执行操作并返回结果，操作结束后无论成功与否都会归还 Client。操作抛出的异常会转换为对应的 Minio*Exception
+     *
+     * @param function 操作名称，用于日志输出
+     * @param callback 具体操作
+     * @param <T>      返回值类型
+     * @return 操作结果
+     */
+    protected <T> T withClient(String function, ClientCallback<T> callback) {
+        MinioClient minioClient = getMinioClient();
+        try {
+            return callback.doInClient(minioClient);
+        } catch (Exception e) {
+            throw MinioExceptionTranslator.translate(function, e);
+        } finally {
+            close(minioClient);
+        }
+    }
+
+    /**
+     * 借用 Client 执行无返回值的操作，操作结束后无论成功与否都会归还 Client。操作抛出的异常会转换为对应的 Minio*Exception
+     *
+     * @param function 操作名称，用于日志输出
+     * @param consumer 具体操作
+     */
+    protected void runWithClient(String function, ClientConsumer consumer) {
+        withClient(function, minioClient -> {
+            consumer.accept(minioClient);
+            return null;
+        });
+    }
+
+    /**
+     * 借用 Client 执行延迟求值的操作，例如 listObjects、removeObjects。
+     * <p>
+     * 每次调用 {@link Iterable#iterator()} 时借用 Client，迭代结束、迭代出错或者调用 {@link CloseableIterator#close()} 时归还。
+     * 未迭代完毕就放弃的迭代器需要调用 close，否则 Client 无法归还，只能由对象池的泄漏检测（默认关闭）回收。
+     *
+     * @param function   操作名称，用于日志输出
+     * @param callback   具体操作
+     * @param onComplete 迭代结束后执行的操作，可以为 null
+     * @param <T>        元素类型
+     * @return 迭代器为 {@link CloseableIterator} 的 {@link Iterable}
+     */
+    protected <T> Iterable<T> withClientIterable(String function, ClientCallback<Iterable<T>> callback, Runnable onComplete) {
+        return () -> new ClientIterator<>(function, callback, onComplete);
+    }
+
+    /**
+     * 使用 MinioClient 的操作定义
+     *
+     * @param <T> 返回值类型
+     */
+    @FunctionalInterface
+    protected interface ClientCallback<T> {
+
+        T doInClient(MinioClient minioClient) throws Exception;
+    }
+
+    /**
+     * 使用 MinioClient 的无返回值操作定义
+     */
+    @FunctionalInterface
+    protected interface ClientConsumer {
+
+        void accept(MinioClient minioClient) throws Exception;
+    }
+
+    /**
+     * 持有借用 Client 的迭代器，迭代结束或关闭时归还 Client
+     *
+     * @param <T> 元素类型
+     */
+    private class ClientIterator<T> implements CloseableIterator<T> {
+
+        private final MinioClient minioClient;
+        private final Iterator<T> delegate;
+        private final Runnable onComplete;
+        private boolean closed;
+
+        private ClientIterator(String function, ClientCallback<Iterable<T>> callback, Runnable onComplete) {
+            this.onComplete = onComplete;
+            this.minioClient = getMinioClient();
+            try {
+                this.delegate = callback.doInClient(minioClient).iterator();
+            } catch (Exception e) {
+                close(minioClient);
+                throw MinioExceptionTranslator.translate(function, e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            try {
+                boolean hasNext = delegate.hasNext();
+                if (!hasNext) {
+                    close();
+                }
+                return hasNext;
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public T next() {
+            if (closed) {
+                throw new NoSuchElementException();
+            }
+            return delegate.next();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                BaseMinioClientService.this.close(minioClient);
+                if (onComplete != null) {
+                    onComplete.run();
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.service;
+
+import cn.herodotus.oss.minio.core.exception.*;
+import io.minio.errors.*;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * <p>Description: Minio 同步操作异常转换 </p>
+ * <p>
+ * 将 MinioClient 和 MinioAdminClient 抛出的受检异常，转换为统一的 Minio*Exception。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 12:10
+ */
+final class MinioExceptionTranslator {
+
+    private static final Logger log = LoggerFactory.getLogger(MinioExceptionTranslator.class);
+
+    private MinioExceptionTranslator() {
+    }
+
+    static RuntimeException translate(String function, Exception e) {
+        if (e instanceof ErrorResponseException) {
+            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
+            return new MinioErrorResponseException(e.getMessage(), e);
+        } else if (e instanceof InsufficientDataException) {
+            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
+            return new MinioInsufficientDataException(e.getMessage(), e);
+        } else if (e instanceof InternalException) {
+            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
+            return new MinioInternalException(e.getMessage(), e);
+        } else if (e instanceof InvalidKeyException) {
+            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
+            return new MinioInvalidKeyException(e.getMessage(), e);
+        } else if (e instanceof InvalidResponseException) {
+            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
+            return new MinioInvalidResponseException(e.getMessage(), e);
+        } else if (e instanceof BucketPolicyTooLargeException) {
+            log.error("[Herodotus] |- Minio catch BucketPolicyTooLargeException in [{}].", function, e);
+            return new MinioBucketPolicyTooLargeException(e.getMessage(), e);
+        } else if (e instanceof IOException) {
+            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
+            if (e instanceof ConnectException) {
+                return new MinioConnectException(e.getMessage(), e);
+            } else {
+                return new MinioIOException(e.getMessage(), e);
+            }
+        } else if (e instanceof NoSuchAlgorithmException) {
+            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
+            return new MinioNoSuchAlgorithmException(e.getMessage(), e);
+        } else if (e instanceof ServerException) {
+            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
+            return new MinioServerException(e.getMessage(), e);
+        } else if (e instanceof XmlParserException) {
+            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
+            return new MinioXmlParserException(e.getMessage(), e);
+        } else if (e instanceof InvalidCipherTextException) {
+            log.error("[Herodotus] |- Minio catch InvalidCipherTextException in [{}].", function, e);
+            return new MinioInvalidCipherTextException(e.getMessage(), e);
+        } else if (e instanceof InterruptedException) {
+            log.error("[Herodotus] |- Minio catch InterruptedException in [{}].", function, e);
+            Thread.currentThread().interrupt();
+            return new MinioInterruptedException(e.getMessage(), e);
+        } else if (e instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        } else {
+            log.error("[Herodotus] |- Minio catch Exception in [{}].", function, e);
+            return new MinioExecutionException(e.getMessage(), e);
+        }
+    }
+}
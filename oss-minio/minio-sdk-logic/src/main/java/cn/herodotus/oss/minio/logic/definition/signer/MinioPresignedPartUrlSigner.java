@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.signer;
+
+import io.minio.http.Method;
+import okhttp3.HttpUrl;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>Description: 分片上传预签名地址批量签名器 </p>
+ * <p>
+ * 以 Minio SDK 生成的一个预签名地址作为模版，从中解析出签名时间、区域等信息，仅计算一次 AWS Signature V4 的签名密钥（SigningKey），
+ * 之后对其它分片只替换 partNumber 并重新计算签名。避免了每个分片都从对象池中借用 Client、重新构建参数以及重复推导签名密钥。
+ * <p>
+ * 使用前应先调用 {@link #verify()} 校验模版地址能够被正确复现，校验失败时需要回退到 SDK 逐个签名的方式。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 10:12
+ */
+public class MinioPresignedPartUrlSigner {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final String SERVICE_NAME = "s3";
+    private static final String TERMINATOR = "aws4_request";
+
+    private static final String PART_NUMBER = "partNumber";
+    private static final String X_AMZ_DATE = "X-Amz-Date";
+    private static final String X_AMZ_CREDENTIAL = "X-Amz-Credential";
+    private static final String X_AMZ_SIGNATURE = "X-Amz-Signature";
+
+    private final HttpUrl template;
+    private final Method method;
+    private final String host;
+    private final String amzDate;
+    private final String scope;
+    private final byte[] signingKey;
+    private final ThreadLocal<Mac> mac;
+
+    public MinioPresignedPartUrlSigner(String templateUrl, Method method, String secretKey) {
+        this.template = HttpUrl.get(templateUrl);
+        this.method = method;
+        this.host = HttpUrl.defaultPort(template.scheme()) == template.port() ? template.host() : template.host() + ":" + template.port();
+        this.amzDate = template.queryParameter(X_AMZ_DATE);
+
+        // X-Amz-Credential 格式为：<AccessKey>/<yyyyMMdd>/<region>/s3/aws4_request
+        String credential = template.queryParameter(X_AMZ_CREDENTIAL);
+        String[] elements = StringUtils.split(credential, "/");
+        if (StringUtils.isBlank(amzDate) || elements == null || elements.length < 5) {
+            throw new IllegalArgumentException("Presigned object url [" + templateUrl + "] is not a signature v4 url.");
+        }
+        String date = elements[elements.length - 4];
+        String region = elements[elements.length - 3];
+        this.scope = date + "/" + region + "/" + SERVICE_NAME + "/" + TERMINATOR;
+
+        byte[] dateKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        byte[] regionKey = hmac(dateKey, region);
+        byte[] serviceKey = hmac(regionKey, SERVICE_NAME);
+        this.signingKey = hmac(serviceKey, TERMINATOR);
+        this.mac = ThreadLocal.withInitial(() -> createMac(signingKey));
+    }
+
+    /**
+     * 校验模版地址的签名能否被正确复现。
+     *
+     * @return true 签名一致，可以使用该签名器；false 签名不一致，需回退到 SDK 签名
+     */
+    public boolean verify() {
+        String partNumber = template.queryParameter(PART_NUMBER);
+        String signature = template.queryParameter(X_AMZ_SIGNATURE);
+        if (StringUtils.isAnyBlank(partNumber, signature)) {
+            return false;
+        }
+
+        return StringUtils.equals(signature, signature(canonicalQuery(partNumber)));
+    }
+
+    /**
+     * 为指定分片生成预签名地址。该方法是线程安全的。
+     *
+     * @param partNumber 分片号
+     * @return 预签名地址
+     */
+    public String sign(int partNumber) {
+        String canonicalQuery = canonicalQuery(String.valueOf(partNumber));
+        String signature = signature(canonicalQuery);
+        return template.newBuilder()
+                .encodedQuery(canonicalQuery + "&" + X_AMZ_SIGNATURE + "=" + signature)
+                .build()
+                .toString();
+    }
+
+    private String canonicalQuery(String partNumber) {
+        Map<String, String> parameters = new TreeMap<>();
+        for (String name : template.queryParameterNames()) {
+            if (!StringUtils.equals(name, X_AMZ_SIGNATURE)) {
+                String value = StringUtils.equals(name, PART_NUMBER) ? partNumber : StringUtils.defaultString(template.queryParameter(name));
+                parameters.put(encode(name), encode(value));
+            }
+        }
+
+        StringBuilder builder = new StringBuilder();
+        parameters.forEach((name, value) -> {
+            if (!builder.isEmpty()) {
+                builder.append('&');
+            }
+            builder.append(name).append('=').append(value);
+        });
+        return builder.toString();
+    }
+
+    private String signature(String canonicalQuery) {
+        String canonicalRequest = method.toString() + "\n"
+                + template.encodedPath() + "\n"
+                + canonicalQuery + "\n"
+                + "host:" + host + "\n"
+                + "\n"
+                + "host" + "\n"
+                + UNSIGNED_PAYLOAD;
+
+        String stringToSign = ALGORITHM + "\n"
+                + amzDate + "\n"
+                + scope + "\n"
+                + sha256Hex(canonicalRequest);
+
+        return HexFormat.of().formatHex(mac.get().doFinal(stringToSign.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8)
+                .replace("+", "%20")
+                .replace("*", "%2A")
+                .replace("%7E", "~");
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        return createMac(key).doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Mac createMac(byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(new SecretKeySpec(key, HMAC_SHA256));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
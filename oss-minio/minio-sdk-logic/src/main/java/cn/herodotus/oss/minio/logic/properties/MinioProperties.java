@@ -26,12 +26,18 @@
 package cn.herodotus.oss.minio.logic.properties;
 
 import cn.herodotus.oss.minio.core.constants.MinioConstants;
+import cn.herodotus.oss.minio.core.enums.LoadBalanceStrategyEnums;
 import com.google.common.base.MoreObjects;
 import org.apache.commons.pool2.impl.BaseObjectPoolConfig;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * <p>Description: Minio 配置参数 </p>
@@ -47,6 +53,12 @@ public class MinioProperties {
      */
     private String endpoint;
 
+    /**
+     * Minio 集群各节点地址。配置后，发往 endpoint 的请求按负载均衡策略分发至各节点，endpoint 仅作为签名使用的逻辑地址。
+     * 需使用 Path 风格访问，且 http.maxRequestsPerHost 按整个集群计算
+     */
+    private List<String> endpoints = new ArrayList<>();
+
     /**
      * Minio Server accessKey
      */
@@ -76,6 +88,24 @@ public class MinioProperties {
 
     private Pool pool = new Pool();
 
+    private Client client = new Client();
+
+    private LoadBalance loadBalance = new LoadBalance();
+
+    private Http http = new Http();
+
+    private StatCache statCache = new StatCache();
+
+    private ContentCache contentCache = new ContentCache();
+
+    private DiskCache diskCache = new DiskCache();
+
+    private SettingCache settingCache = new SettingCache();
+
+    private PresignedCache presignedCache = new PresignedCache();
+
+    private Metrics metrics = new Metrics();
+
     public String getEndpoint() {
         return endpoint;
     }
@@ -84,6 +114,14 @@ public class MinioProperties {
         this.endpoint = endpoint;
     }
 
+    public List<String> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(List<String> endpoints) {
+        this.endpoints = endpoints;
+    }
+
     public String getAccessKey() {
         return accessKey;
     }
@@ -140,15 +178,97 @@ public class MinioProperties {
         this.pool = pool;
     }
 
+    public Client getClient() {
+        return client;
+    }
+
+    public void setClient(Client client) {
+        this.client = client;
+    }
+
+    public LoadBalance getLoadBalance() {
+        return loadBalance;
+    }
+
+    public void setLoadBalance(LoadBalance loadBalance) {
+        this.loadBalance = loadBalance;
+    }
+
+    public Http getHttp() {
+        return http;
+    }
+
+    public void setHttp(Http http) {
+        this.http = http;
+    }
+
+    public StatCache getStatCache() {
+        return statCache;
+    }
+
+    public void setStatCache(StatCache statCache) {
+        this.statCache = statCache;
+    }
+
+    public ContentCache getContentCache() {
+        return contentCache;
+    }
+
+    public void setContentCache(ContentCache contentCache) {
+        this.contentCache = contentCache;
+    }
+
+    public DiskCache getDiskCache() {
+        return diskCache;
+    }
+
+    public void setDiskCache(DiskCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
+    public SettingCache getSettingCache() {
+        return settingCache;
+    }
+
+    public void setSettingCache(SettingCache settingCache) {
+        this.settingCache = settingCache;
+    }
+
+    public PresignedCache getPresignedCache() {
+        return presignedCache;
+    }
+
+    public void setPresignedCache(PresignedCache presignedCache) {
+        this.presignedCache = presignedCache;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
                 .add("endpoint", endpoint)
+                .add("endpoints", endpoints)
                 .add("accessKey", accessKey)
                 .add("secretKey", secretKey)
                 .add("bucketNamePrefix", bucketNamePrefix)
                 .add("timestampFormat", timestampFormat)
                 .add("pool", pool)
+                .add("client", client)
+                .add("loadBalance", loadBalance)
+                .add("http", http)
+                .add("statCache", statCache)
+                .add("contentCache", contentCache)
+                .add("diskCache", diskCache)
+                .add("settingCache", settingCache)
+                .add("presignedCache", presignedCache)
+                .add("metrics", metrics)
                 .toString();
     }
 
@@ -191,6 +311,28 @@ public class MinioProperties {
 
         private Duration softMinEvictableIdleTime = BaseObjectPoolConfig.DEFAULT_SOFT_MIN_EVICTABLE_IDLE_DURATION;
 
+        /**
+         * 空闲对象检测及泄漏检测的运行间隔，小于等于 0 时不运行，默认 1 分钟
+         */
+        private Duration timeBetweenEvictionRuns = Duration.ofMinutes(1);
+
+        /**
+         * 是否检测并回收借出后长时间未归还的对象，默认 false。
+         * 回收只依据借出时长，无法区分泄漏和仍在执行的长时间操作（例如大文件上传、慢速客户端的流式读取），超时后正在使用的 Client 也会被销毁，
+         * 因此只建议在排查泄漏时开启，并将 removeAbandonedTimeout 设置为大于最长的正常操作耗时
+         */
+        private Boolean removeAbandoned = false;
+
+        /**
+         * 对象借出超过该时间未归还，即视为泄漏并被回收。需大于最长的正常操作耗时，默认 10 分钟
+         */
+        private Duration removeAbandonedTimeout = Duration.ofMinutes(10);
+
+        /**
+         * 是否记录借用对象时的调用堆栈，以便定位泄漏位置。开启后每次借用都会产生额外开销，默认 false
+         */
+        private Boolean logAbandoned = false;
+
         public Integer getMaxTotal() {
             return maxTotal;
         }
@@ -255,6 +397,38 @@ public class MinioProperties {
             this.softMinEvictableIdleTime = softMinEvictableIdleTime;
         }
 
+        public Duration getTimeBetweenEvictionRuns() {
+            return timeBetweenEvictionRuns;
+        }
+
+        public void setTimeBetweenEvictionRuns(Duration timeBetweenEvictionRuns) {
+            this.timeBetweenEvictionRuns = timeBetweenEvictionRuns;
+        }
+
+        public Boolean getRemoveAbandoned() {
+            return removeAbandoned;
+        }
+
+        public void setRemoveAbandoned(Boolean removeAbandoned) {
+            this.removeAbandoned = removeAbandoned;
+        }
+
+        public Duration getRemoveAbandonedTimeout() {
+            return removeAbandonedTimeout;
+        }
+
+        public void setRemoveAbandonedTimeout(Duration removeAbandonedTimeout) {
+            this.removeAbandonedTimeout = removeAbandonedTimeout;
+        }
+
+        public Boolean getLogAbandoned() {
+            return logAbandoned;
+        }
+
+        public void setLogAbandoned(Boolean logAbandoned) {
+            this.logAbandoned = logAbandoned;
+        }
+
         @Override
         public String toString() {
             return MoreObjects.toStringHelper(this)
@@ -266,6 +440,794 @@ public class MinioProperties {
                     .add("blockWhenExhausted", blockWhenExhausted)
                     .add("minEvictableIdleTime", minEvictableIdleTime)
                     .add("softMinEvictableIdleTime", softMinEvictableIdleTime)
+                    .add("timeBetweenEvictionRuns", timeBetweenEvictionRuns)
+                    .add("removeAbandoned", removeAbandoned)
+                    .add("removeAbandonedTimeout", removeAbandonedTimeout)
+                    .add("logAbandoned", logAbandoned)
+                    .toString();
+        }
+    }
+
+    /**
+     * Client 通用设置。对象池中的所有 Client 在创建时统一应用，运行时修改后通过刷新对象池逐步替换已有的 Client
+     */
+    public static class Client {
+
+        /**
+         * HTTP 连接超时时间，默认与 Minio SDK 一致为 5 分钟
+         */
+        private Duration connectTimeout = Duration.ofMinutes(5);
+
+        /**
+         * HTTP 写超时时间，默认与 Minio SDK 一致为 5 分钟
+         */
+        private Duration writeTimeout = Duration.ofMinutes(5);
+
+        /**
+         * HTTP 读超时时间，默认与 Minio SDK 一致为 5 分钟
+         */
+        private Duration readTimeout = Duration.ofMinutes(5);
+
+        /**
+         * 下载对象（GET 对象内容）时使用的读超时时间，为空时使用 readTimeout。通常设置得较短，以便尽快放弃响应缓慢的请求
+         */
+        private Duration getObjectReadTimeout;
+
+        /**
+         * 合并、复制对象以及完成分片上传时使用的读超时时间，为空时使用 readTimeout。这类操作在服务端耗时较长，通常设置得较长
+         */
+        private Duration composeReadTimeout;
+
+        /**
+         * 是否使用虚拟主机风格（bucket.endpoint）访问，为空时使用 Minio SDK 默认策略
+         */
+        private Boolean virtualStyleEndpoint;
+
+        /**
+         * 是否使用 Amazon S3 双栈（IPv4/IPv6）端点，为空时使用 Minio SDK 默认策略
+         */
+        private Boolean dualStackEndpoint;
+
+        /**
+         * 是否使用 Amazon S3 传输加速端点，为空时使用 Minio SDK 默认策略
+         */
+        private Boolean accelerateEndpoint;
+
+        /**
+         * 应用名称，与 appVersion 一起附加到 User-Agent 中
+         */
+        private String appName;
+
+        /**
+         * 应用版本，与 appName 一起附加到 User-Agent 中
+         */
+        private String appVersion;
+
+        /**
+         * 是否忽略 TLS 证书校验，仅用于测试环境，默认 false
+         */
+        private Boolean ignoreCertCheck = false;
+
+        /**
+         * 额外信任的 CA 证书文件（PEM 格式）路径，用于自签名证书的 Minio Server
+         */
+        private String caCertificate;
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getWriteTimeout() {
+            return writeTimeout;
+        }
+
+        public void setWriteTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getGetObjectReadTimeout() {
+            return getObjectReadTimeout;
+        }
+
+        public void setGetObjectReadTimeout(Duration getObjectReadTimeout) {
+            this.getObjectReadTimeout = getObjectReadTimeout;
+        }
+
+        public Duration getComposeReadTimeout() {
+            return composeReadTimeout;
+        }
+
+        public void setComposeReadTimeout(Duration composeReadTimeout) {
+            this.composeReadTimeout = composeReadTimeout;
+        }
+
+        public Boolean getVirtualStyleEndpoint() {
+            return virtualStyleEndpoint;
+        }
+
+        public void setVirtualStyleEndpoint(Boolean virtualStyleEndpoint) {
+            this.virtualStyleEndpoint = virtualStyleEndpoint;
+        }
+
+        public Boolean getDualStackEndpoint() {
+            return dualStackEndpoint;
+        }
+
+        public void setDualStackEndpoint(Boolean dualStackEndpoint) {
+            this.dualStackEndpoint = dualStackEndpoint;
+        }
+
+        public Boolean getAccelerateEndpoint() {
+            return accelerateEndpoint;
+        }
+
+        public void setAccelerateEndpoint(Boolean accelerateEndpoint) {
+            this.accelerateEndpoint = accelerateEndpoint;
+        }
+
+        public String getAppName() {
+            return appName;
+        }
+
+        public void setAppName(String appName) {
+            this.appName = appName;
+        }
+
+        public String getAppVersion() {
+            return appVersion;
+        }
+
+        public void setAppVersion(String appVersion) {
+            this.appVersion = appVersion;
+        }
+
+        public Boolean getIgnoreCertCheck() {
+            return ignoreCertCheck;
+        }
+
+        public void setIgnoreCertCheck(Boolean ignoreCertCheck) {
+            this.ignoreCertCheck = ignoreCertCheck;
+        }
+
+        public String getCaCertificate() {
+            return caCertificate;
+        }
+
+        public void setCaCertificate(String caCertificate) {
+            this.caCertificate = caCertificate;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("connectTimeout", connectTimeout)
+                    .add("writeTimeout", writeTimeout)
+                    .add("readTimeout", readTimeout)
+                    .add("getObjectReadTimeout", getObjectReadTimeout)
+                    .add("composeReadTimeout", composeReadTimeout)
+                    .add("virtualStyleEndpoint", virtualStyleEndpoint)
+                    .add("dualStackEndpoint", dualStackEndpoint)
+                    .add("accelerateEndpoint", accelerateEndpoint)
+                    .add("appName", appName)
+                    .add("appVersion", appVersion)
+                    .add("ignoreCertCheck", ignoreCertCheck)
+                    .add("caCertificate", caCertificate)
+                    .toString();
+        }
+    }
+
+    public static class LoadBalance {
+
+        /**
+         * 负载均衡策略，默认轮询
+         */
+        private LoadBalanceStrategyEnums strategy = LoadBalanceStrategyEnums.ROUND_ROBIN;
+
+        /**
+         * 健康检查间隔，默认 5 秒
+         */
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+        /**
+         * 单次健康检查超时时间，默认 2 秒
+         */
+        private Duration healthCheckTimeout = Duration.ofSeconds(2);
+
+        /**
+         * 健康检查地址，默认使用 Minio 存活检查接口
+         */
+        private String healthCheckPath = "/minio/health/live";
+
+        /**
+         * 连续失败多少次后将节点摘除，请求失败和健康检查失败均计入，默认 3
+         */
+        private Integer failureThreshold = 3;
+
+        /**
+         * 被摘除的节点连续多少次健康检查成功后恢复，默认 2
+         */
+        private Integer successThreshold = 2;
+
+        /**
+         * 幂等请求（GET、HEAD、DELETE）因网络错误失败时，最多切换至其它节点重试的次数，默认 2
+         */
+        private Integer maxFailover = 2;
+
+        /**
+         * 响应时间指数加权平均的平滑系数，越大越偏重最近的响应时间，默认 0.3
+         */
+        private Double ewmaAlpha = 0.3;
+
+        public LoadBalanceStrategyEnums getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(LoadBalanceStrategyEnums strategy) {
+            this.strategy = strategy;
+        }
+
+        public Duration getHealthCheckInterval() {
+            return healthCheckInterval;
+        }
+
+        public void setHealthCheckInterval(Duration healthCheckInterval) {
+            this.healthCheckInterval = healthCheckInterval;
+        }
+
+        public Duration getHealthCheckTimeout() {
+            return healthCheckTimeout;
+        }
+
+        public void setHealthCheckTimeout(Duration healthCheckTimeout) {
+            this.healthCheckTimeout = healthCheckTimeout;
+        }
+
+        public String getHealthCheckPath() {
+            return healthCheckPath;
+        }
+
+        public void setHealthCheckPath(String healthCheckPath) {
+            this.healthCheckPath = healthCheckPath;
+        }
+
+        public Integer getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(Integer failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public Integer getSuccessThreshold() {
+            return successThreshold;
+        }
+
+        public void setSuccessThreshold(Integer successThreshold) {
+            this.successThreshold = successThreshold;
+        }
+
+        public Integer getMaxFailover() {
+            return maxFailover;
+        }
+
+        public void setMaxFailover(Integer maxFailover) {
+            this.maxFailover = maxFailover;
+        }
+
+        public Double getEwmaAlpha() {
+            return ewmaAlpha;
+        }
+
+        public void setEwmaAlpha(Double ewmaAlpha) {
+            this.ewmaAlpha = ewmaAlpha;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("strategy", strategy)
+                    .add("healthCheckInterval", healthCheckInterval)
+                    .add("healthCheckTimeout", healthCheckTimeout)
+                    .add("healthCheckPath", healthCheckPath)
+                    .add("failureThreshold", failureThreshold)
+                    .add("successThreshold", successThreshold)
+                    .add("maxFailover", maxFailover)
+                    .add("ewmaAlpha", ewmaAlpha)
+                    .toString();
+        }
+    }
+
+    public static class Http {
+
+        /**
+         * 是否开启共享模式。开启后 MinioClient、MinioAsyncClient 和 MinioAdminClient 共用同一个 OkHttpClient，同时各 Client 不再从对象池中借用，而是直接使用线程安全的单例，默认 false
+         */
+        private Boolean shared = false;
+
+        /**
+         * 连接池中最大的空闲连接数
+         */
+        private Integer maxIdleConnections = 5;
+
+        /**
+         * 空闲连接保持时间，超过该时间的空闲连接将被关闭
+         */
+        private Duration keepAlive = Duration.ofMinutes(5);
+
+        /**
+         * 异步请求最大并发数
+         */
+        private Integer maxRequests = 64;
+
+        /**
+         * 每个主机的异步请求最大并发数。所有请求都指向同一个 Minio Server，所以默认值与 maxRequests 相同
+         */
+        private Integer maxRequestsPerHost = 64;
+
+        /**
+         * 支持的 HTTP 协议，例如：http/1.1、h2、h2_prior_knowledge。默认仅使用 http/1.1
+         */
+        private List<String> protocols = List.of("http/1.1");
+
+        public Boolean getShared() {
+            return shared;
+        }
+
+        public void setShared(Boolean shared) {
+            this.shared = shared;
+        }
+
+        public Integer getMaxIdleConnections() {
+            return maxIdleConnections;
+        }
+
+        public void setMaxIdleConnections(Integer maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public Integer getMaxRequests() {
+            return maxRequests;
+        }
+
+        public void setMaxRequests(Integer maxRequests) {
+            this.maxRequests = maxRequests;
+        }
+
+        public Integer getMaxRequestsPerHost() {
+            return maxRequestsPerHost;
+        }
+
+        public void setMaxRequestsPerHost(Integer maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+        }
+
+        public List<String> getProtocols() {
+            return protocols;
+        }
+
+        public void setProtocols(List<String> protocols) {
+            this.protocols = protocols;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("shared", shared)
+                    .add("maxIdleConnections", maxIdleConnections)
+                    .add("keepAlive", keepAlive)
+                    .add("maxRequests", maxRequests)
+                    .add("maxRequestsPerHost", maxRequestsPerHost)
+                    .add("protocols", protocols)
+                    .toString();
+        }
+    }
+
+    public static class StatCache {
+
+        /**
+         * 是否开启 statObject 结果缓存，默认 false
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 最多缓存的对象数量，超出后按 W-TinyLFU 策略淘汰
+         */
+        private Long maximumSize = 10000L;
+
+        /**
+         * 对象信息的缓存时间
+         */
+        private Duration expire = Duration.ofSeconds(30);
+
+        /**
+         * 对象不存在时的缓存时间
+         */
+        private Duration negativeExpire = Duration.ofSeconds(5);
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getExpire() {
+            return expire;
+        }
+
+        public void setExpire(Duration expire) {
+            this.expire = expire;
+        }
+
+        public Duration getNegativeExpire() {
+            return negativeExpire;
+        }
+
+        public void setNegativeExpire(Duration negativeExpire) {
+            this.negativeExpire = negativeExpire;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("enabled", enabled)
+                    .add("maximumSize", maximumSize)
+                    .add("expire", expire)
+                    .add("negativeExpire", negativeExpire)
+                    .toString();
+        }
+    }
+
+    public static class ContentCache {
+
+        /**
+         * 是否开启小对象内容缓存，默认 false
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 开启内容缓存的存储桶，只有列出的存储桶会被缓存
+         */
+        private List<String> buckets = new ArrayList<>();
+
+        /**
+         * 可以缓存的单个对象最大大小
+         */
+        private DataSize threshold = DataSize.ofKilobytes(256);
+
+        /**
+         * 缓存占用的堆外内存总大小
+         */
+        private DataSize capacity = DataSize.ofMegabytes(64);
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(List<String> buckets) {
+            this.buckets = buckets;
+        }
+
+        public DataSize getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(DataSize threshold) {
+            this.threshold = threshold;
+        }
+
+        public DataSize getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(DataSize capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("enabled", enabled)
+                    .add("buckets", buckets)
+                    .add("threshold", threshold)
+                    .add("capacity", capacity)
+                    .toString();
+        }
+    }
+
+    public static class DiskCache {
+
+        /**
+         * 是否开启本地磁盘缓存，默认 false
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 开启磁盘缓存的存储桶，只有列出的存储桶会被缓存
+         */
+        private List<String> buckets = new ArrayList<>();
+
+        /**
+         * 缓存目录，建议使用本地 SSD
+         */
+        private Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "herodotus", "oss", "disk-cache");
+
+        /**
+         * 缓存占用的磁盘空间上限
+         */
+        private DataSize capacity = DataSize.ofGigabytes(10);
+
+        /**
+         * 使用磁盘缓存的最小对象大小，更小的对象直接读取或使用内容缓存
+         */
+        private DataSize minSize = DataSize.ofMegabytes(1);
+
+        /**
+         * 按需填充的块大小，读取未缓存的范围时以块为单位从 Minio 获取
+         */
+        private DataSize blockSize = DataSize.ofMegabytes(4);
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(List<String> buckets) {
+            this.buckets = buckets;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(DataSize capacity) {
+            this.capacity = capacity;
+        }
+
+        public DataSize getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(DataSize minSize) {
+            this.minSize = minSize;
+        }
+
+        public DataSize getBlockSize() {
+            return blockSize;
+        }
+
+        public void setBlockSize(DataSize blockSize) {
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("enabled", enabled)
+                    .add("buckets", buckets)
+                    .add("directory", directory)
+                    .add("capacity", capacity)
+                    .add("minSize", minSize)
+                    .add("blockSize", blockSize)
+                    .toString();
+        }
+    }
+
+    public static class SettingCache {
+
+        /**
+         * 是否开启存储桶和对象管理页面数据缓存，默认 false
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 最多缓存的存储桶和对象数量
+         */
+        private Long maximumSize = 1000L;
+
+        /**
+         * 缓存时间。通过本组件修改的配置会立即失效，该时间只影响其它途径的修改
+         */
+        private Duration expire = Duration.ofMinutes(5);
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getExpire() {
+            return expire;
+        }
+
+        public void setExpire(Duration expire) {
+            this.expire = expire;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("enabled", enabled)
+                    .add("maximumSize", maximumSize)
+                    .add("expire", expire)
+                    .toString();
+        }
+    }
+
+    public static class PresignedCache {
+
+        /**
+         * 是否开启预签名地址缓存，默认 false
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 最多缓存的预签名地址数量
+         */
+        private Long maximumSize = 10000L;
+
+        /**
+         * 复用比例。已缓存地址的剩余有效期不低于有效期的该比例时直接复用，取值范围 (0, 1]，默认 0.5
+         */
+        private Double reuseRatio = 0.5D;
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Double getReuseRatio() {
+            return reuseRatio;
+        }
+
+        public void setReuseRatio(Double reuseRatio) {
+            this.reuseRatio = reuseRatio;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("enabled", enabled)
+                    .add("maximumSize", maximumSize)
+                    .add("reuseRatio", reuseRatio)
+                    .toString();
+        }
+    }
+
+    public static class Metrics {
+
+        /**
+         * 是否开启 Micrometer 监控指标，默认 true
+         */
+        private Boolean enabled = true;
+
+        /**
+         * 操作指标是否使用存储桶名称作为标签，默认关闭。存储桶名称来自调用参数，检查不存在的存储桶等调用也会产生新的指标，开启后指标数量会随存储桶名称无限增长
+         */
+        private Boolean bucketTag = false;
+
+        /**
+         * 慢操作阈值，耗时超过该值的操作会记录到慢操作列表中
+         */
+        private Duration slowThreshold = Duration.ofSeconds(1);
+
+        /**
+         * 保留的最近慢操作数量
+         */
+        private Integer slowCapacity = 100;
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Boolean getBucketTag() {
+            return bucketTag;
+        }
+
+        public void setBucketTag(Boolean bucketTag) {
+            this.bucketTag = bucketTag;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+
+        public Integer getSlowCapacity() {
+            return slowCapacity;
+        }
+
+        public void setSlowCapacity(Integer slowCapacity) {
+            this.slowCapacity = slowCapacity;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("enabled", enabled)
+                    .add("bucketTag", bucketTag)
+                    .add("slowThreshold", slowThreshold)
+                    .add("slowCapacity", slowCapacity)
                     .toString();
         }
     }
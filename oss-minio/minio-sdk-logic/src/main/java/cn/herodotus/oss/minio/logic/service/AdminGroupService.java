@@ -25,14 +25,9 @@
 
 package cn.herodotus.oss.minio.logic.service;
 
-import cn.herodotus.oss.minio.core.exception.MinioConnectException;
-import cn.herodotus.oss.minio.core.exception.MinioIOException;
-import cn.herodotus.oss.minio.core.exception.MinioInvalidKeyException;
-import cn.herodotus.oss.minio.core.exception.MinioNoSuchAlgorithmException;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioAdminClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioAdminClientService;
 import io.minio.admin.GroupInfo;
-import io.minio.admin.MinioAdminClient;
 import io.minio.admin.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,10 +35,6 @@ import org.springframework.stereotype.Service;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.IOException;
-import java.net.ConnectException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.util.List;
 
 /**
@@ -67,28 +58,7 @@ public class AdminGroupService extends BaseMinioAdminClientService {
      * @return 组列表
      */
     public List<String> listGroups() {
-        String function = "listGroups";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            return minioAdminClient.listGroups();
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+        return withClient("listGroups", minioAdminClient -> minioAdminClient.listGroups());
     }
 
     /**
@@ -98,28 +68,7 @@ public class AdminGroupService extends BaseMinioAdminClientService {
      * @return 组信息
      */
     public GroupInfo getGroupInfo(String group) {
-        String function = "getGroupInfo";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            return minioAdminClient.getGroupInfo(group);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+        return withClient("getGroupInfo", minioAdminClient -> minioAdminClient.getGroupInfo(group));
     }
 
     /**
@@ -130,28 +79,7 @@ public class AdminGroupService extends BaseMinioAdminClientService {
      * @param members     组内成员
      */
     public void addUpdateGroup(@Nonnull String group, @Nullable Status groupStatus, @Nullable List<String> members) {
-        String function = "addUpdateGroup";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            minioAdminClient.addUpdateGroup(group, groupStatus, members);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+        runWithClient("addUpdateGroup", minioAdminClient -> minioAdminClient.addUpdateGroup(group, groupStatus, members));
     }
 
     /**
@@ -160,27 +88,6 @@ public class AdminGroupService extends BaseMinioAdminClientService {
      * @param group 组名称
      */
     public void removeGroup(@Nonnull String group) {
-        String function = "removeGroup";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            minioAdminClient.removeGroup(group);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+        runWithClient("removeGroup", minioAdminClient -> minioAdminClient.removeGroup(group));
     }
 }
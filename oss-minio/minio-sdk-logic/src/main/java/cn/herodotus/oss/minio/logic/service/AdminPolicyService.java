@@ -25,22 +25,13 @@
 
 package cn.herodotus.oss.minio.logic.service;
 
-import cn.herodotus.oss.minio.core.exception.MinioConnectException;
-import cn.herodotus.oss.minio.core.exception.MinioIOException;
-import cn.herodotus.oss.minio.core.exception.MinioInvalidKeyException;
-import cn.herodotus.oss.minio.core.exception.MinioNoSuchAlgorithmException;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioAdminClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioAdminClientService;
-import io.minio.admin.MinioAdminClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Nonnull;
-import java.io.IOException;
-import java.net.ConnectException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 
 /**
@@ -64,28 +55,7 @@ public class AdminPolicyService extends BaseMinioAdminClientService {
      * @return 屏蔽策略列表
      */
     public Map<String, String> listCannedPolicies() {
-        String function = "listCannedPolicies";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            return minioAdminClient.listCannedPolicies();
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+        return withClient("listCannedPolicies", minioAdminClient -> minioAdminClient.listCannedPolicies());
     }
 
     /**
@@ -95,28 +65,7 @@ public class AdminPolicyService extends BaseMinioAdminClientService {
      * @param policy 策略 {@link cn.herodotus.oss.minio.core.domain.policy.PolicyDomain}
      */
     public void addCannedPolicy(@Nonnull String name, @Nonnull String policy) {
-        String function = "addCannedPolicy";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            minioAdminClient.addCannedPolicy(name, policy);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+        runWithClient("addCannedPolicy", minioAdminClient -> minioAdminClient.addCannedPolicy(name, policy));
     }
 
     /**
@@ -125,28 +74,7 @@ public class AdminPolicyService extends BaseMinioAdminClientService {
      * @param name 策略名称
      */
     public void removeCannedPolicy(@Nonnull String name) {
-        String function = "removeCannedPolicy";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            minioAdminClient.removeCannedPolicy(name);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+        runWithClient("removeCannedPolicy", minioAdminClient -> minioAdminClient.removeCannedPolicy(name));
     }
 
     /**
@@ -157,27 +85,6 @@ public class AdminPolicyService extends BaseMinioAdminClientService {
      * @param policyName      策略名称
      */
     public void setPolicy(@Nonnull String userOrGroupName, boolean isGroup, @Nonnull String policyName) {
-        String function = "setPolicy";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            minioAdminClient.setPolicy(userOrGroupName, isGroup, policyName);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+        runWithClient("setPolicy", minioAdminClient -> minioAdminClient.setPolicy(userOrGroupName, isGroup, policyName));
     }
 }
@@ -25,23 +25,13 @@
 
 package cn.herodotus.oss.minio.logic.service;
 
-import cn.herodotus.oss.minio.core.exception.MinioConnectException;
-import cn.herodotus.oss.minio.core.exception.MinioIOException;
-import cn.herodotus.oss.minio.core.exception.MinioInvalidKeyException;
-import cn.herodotus.oss.minio.core.exception.MinioNoSuchAlgorithmException;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioAdminClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioAdminClientService;
-import io.minio.admin.MinioAdminClient;
 import io.minio.admin.messages.DataUsageInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.net.ConnectException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-
 /**
  * <p>Description: Minio 管理服务 </p>
  *
@@ -63,28 +53,7 @@ public class AdminService extends BaseMinioAdminClientService {
      * @return {@link DataUsageInfo}
      */
     public DataUsageInfo getDataUsageInfo() {
-        String function = "getDataUsageInfo";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            return minioAdminClient.getDataUsageInfo();
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+        return withClient("getDataUsageInfo", minioAdminClient -> minioAdminClient.getDataUsageInfo());
     }
 
 
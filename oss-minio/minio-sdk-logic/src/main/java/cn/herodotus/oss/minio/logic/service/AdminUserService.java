@@ -25,22 +25,15 @@
 
 package cn.herodotus.oss.minio.logic.service;
 
-import cn.herodotus.oss.minio.core.exception.*;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioAdminClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioAdminClientService;
-import io.minio.admin.MinioAdminClient;
 import io.minio.admin.UserInfo;
-import org.bouncycastle.crypto.InvalidCipherTextException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.IOException;
-import java.net.ConnectException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.util.List;
 import java.util.Map;
 
@@ -65,31 +58,7 @@ public class AdminUserService extends BaseMinioAdminClientService {
      * @return Map<String, UserInfo>
      */
     public Map<String, UserInfo> listUsers() {
-        String function = "listUsers";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            return minioAdminClient.listUsers();
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (InvalidCipherTextException e) {
-            log.error("[Herodotus] |- Minio catch InvalidCipherTextException in [{}].", function, e);
-            throw new MinioInvalidCipherTextException(e.getMessage());
-        } finally {
-            close(minioAdminClient);
-        }
+        return withClient("listUsers", minioAdminClient -> minioAdminClient.listUsers());
     }
 
     /**
@@ -99,56 +68,11 @@ public class AdminUserService extends BaseMinioAdminClientService {
      * @return {@link UserInfo}
      */
     public UserInfo getUserInfo(String accessKey) {
-        String function = "getUserInfo";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            return minioAdminClient.getUserInfo(accessKey);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+        return withClient("getUserInfo", minioAdminClient -> minioAdminClient.getUserInfo(accessKey));
     }
 
     public void addUser(@Nonnull String accessKey, @Nonnull UserInfo.Status status, @Nullable String secretKey, @Nullable String policyName, @Nullable List<String> memberOf) {
-        String function = "addUser";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            minioAdminClient.addUser(accessKey, status, secretKey, policyName, memberOf);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (InvalidCipherTextException e) {
-            log.error("[Herodotus] |- Minio catch InvalidCipherTextException in [{}].", function, e);
-            throw new MinioInvalidCipherTextException(e.getMessage());
-        } finally {
-            close(minioAdminClient);
-        }
+        runWithClient("addUser", minioAdminClient -> minioAdminClient.addUser(accessKey, status, secretKey, policyName, memberOf));
     }
 
     /**
@@ -157,27 +81,6 @@ public class AdminUserService extends BaseMinioAdminClientService {
      * @param accessKey 访问密钥
      */
     public void deleteUser(@Nonnull String accessKey) {
-        String function = "deleteUser";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            minioAdminClient.deleteUser(accessKey);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+        runWithClient("deleteUser", minioAdminClient -> minioAdminClient.deleteUser(accessKey));
     }
 }
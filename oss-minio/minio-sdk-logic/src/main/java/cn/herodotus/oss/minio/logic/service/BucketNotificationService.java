@@ -25,24 +25,15 @@
 
 package cn.herodotus.oss.minio.logic.service;
 
-import cn.herodotus.oss.minio.core.exception.*;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioClientService;
-import io.minio.DeleteBucketNotificationArgs;
-import io.minio.GetBucketNotificationArgs;
-import io.minio.MinioClient;
-import io.minio.SetBucketNotificationArgs;
-import io.minio.errors.*;
+import io.minio.*;
 import io.minio.messages.NotificationConfiguration;
+import io.minio.messages.NotificationRecords;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.net.ConnectException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-
 /**
  * <p>Description: Bucket 通知配置 </p>
  *
@@ -86,45 +77,7 @@ public class BucketNotificationService extends BaseMinioClientService {
      * @param setBucketNotificationArgs {@link SetBucketNotificationArgs}
      */
     public void setBucketNotification(SetBucketNotificationArgs setBucketNotificationArgs) {
-        String function = "setBucketNotification";
-        MinioClient minioClient = getMinioClient();
-
-        try {
-            minioClient.setBucketNotification(setBucketNotificationArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+        runWithClient("setBucketNotification", minioClient -> minioClient.setBucketNotification(setBucketNotificationArgs));
     }
 
     /**
@@ -155,45 +108,7 @@ public class BucketNotificationService extends BaseMinioClientService {
      * @return {@link  NotificationConfiguration}
      */
     public NotificationConfiguration getBucketNotification(GetBucketNotificationArgs getBucketNotificationArgs) {
-        String function = "getBucketNotification";
-        MinioClient minioClient = getMinioClient();
-
-        try {
-            return minioClient.getBucketNotification(getBucketNotificationArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in createBucket.", e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+        return withClient("getBucketNotification", minioClient -> minioClient.getBucketNotification(getBucketNotificationArgs));
     }
 
     /**
@@ -221,44 +136,32 @@ public class BucketNotificationService extends BaseMinioClientService {
      * @param deleteBucketNotificationArgs {@link DeleteBucketNotificationArgs}
      */
     public void deleteBucketNotification(DeleteBucketNotificationArgs deleteBucketNotificationArgs) {
-        String function = "deleteBucketNotification";
-        MinioClient minioClient = getMinioClient();
+        runWithClient("deleteBucketNotification", minioClient -> minioClient.deleteBucketNotification(deleteBucketNotificationArgs));
+    }
 
-        try {
-            minioClient.deleteBucketNotification(deleteBucketNotificationArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in createBucket.", e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+    /**
+     * 监听 Bucket 事件通知
+     * <p>
+     * 返回的迭代器持有一个长连接，每次读取到的 {@link NotificationRecords} 包含一批事件，使用完毕后必须关闭。
+     * 连接不占用连接池中的 Client，Client 在建立连接后即归还连接池。
+     *
+     * @param bucketName bucketName
+     * @param prefix     对象名称前缀
+     * @param suffix     对象名称后缀
+     * @param events     事件类型，例如：s3:ObjectCreated:*
+     * @return 事件迭代器
+     */
+    public CloseableIterator<Result<NotificationRecords>> listenBucketNotification(String bucketName, String prefix, String suffix, String[] events) {
+        return listenBucketNotification(ListenBucketNotificationArgs.builder().bucket(bucketName).prefix(prefix).suffix(suffix).events(events).build());
+    }
+
+    /**
+     * 监听 Bucket 事件通知
+     *
+     * @param listenBucketNotificationArgs {@link ListenBucketNotificationArgs}
+     * @return 事件迭代器
+     */
+    public CloseableIterator<Result<NotificationRecords>> listenBucketNotification(ListenBucketNotificationArgs listenBucketNotificationArgs) {
+        return withClient("listenBucketNotification", minioClient -> minioClient.listenBucketNotification(listenBucketNotificationArgs));
     }
 }
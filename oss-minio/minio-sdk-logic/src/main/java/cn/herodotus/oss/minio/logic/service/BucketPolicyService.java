@@ -26,25 +26,18 @@
 package cn.herodotus.oss.minio.logic.service;
 
 import cn.herodotus.oss.minio.core.enums.PolicyEnums;
-import cn.herodotus.oss.minio.core.exception.*;
+import cn.herodotus.oss.minio.logic.definition.cache.SettingCache;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioClientService;
 import com.google.common.base.Enums;
 import io.minio.DeleteBucketPolicyArgs;
 import io.minio.GetBucketPolicyArgs;
-import io.minio.MinioClient;
 import io.minio.SetBucketPolicyArgs;
-import io.minio.errors.*;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.net.ConnectException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-
 /**
  * <p>Description: Bucket 访问策略 </p>
  *
@@ -56,8 +49,11 @@ public class BucketPolicyService extends BaseMinioClientService {
 
     private static final Logger log = LoggerFactory.getLogger(BucketPolicyService.class);
 
-    public BucketPolicyService(MinioClientObjectPool minioClientObjectPool) {
+    private final SettingCache settingCache;
+
+    public BucketPolicyService(MinioClientObjectPool minioClientObjectPool, SettingCache settingCache) {
         super(minioClientObjectPool);
+        this.settingCache = settingCache;
     }
 
     /**
@@ -87,53 +83,14 @@ public class BucketPolicyService extends BaseMinioClientService {
      * @param getBucketPolicyArgs {@link GetBucketPolicyArgs}
      */
     public PolicyEnums getBucketPolicy(GetBucketPolicyArgs getBucketPolicyArgs) {
-        String function = "getBucketPolicy";
-        MinioClient minioClient = getMinioClient();
-
-        try {
+        return withClient("getBucketPolicy", minioClient -> {
             String policy = minioClient.getBucketPolicy(getBucketPolicyArgs);
             if (StringUtils.isNotBlank(policy)) {
                 return Enums.getIfPresent(PolicyEnums.class, policy).or(PolicyEnums.PRIVATE);
             } else {
                 return PolicyEnums.PRIVATE;
             }
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } catch (BucketPolicyTooLargeException e) {
-            log.error("[Herodotus] |- Minio catch BucketPolicyTooLargeException in [{}].", function, e);
-            throw new MinioBucketPolicyTooLargeException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+        });
     }
 
     /**
@@ -163,45 +120,10 @@ public class BucketPolicyService extends BaseMinioClientService {
      * @param setBucketPolicyArgs {@link SetBucketPolicyArgs}
      */
     public void setBucketPolicy(SetBucketPolicyArgs setBucketPolicyArgs) {
-        String function = "setBucketPolicy";
-        MinioClient minioClient = getMinioClient();
-
-        try {
+        runWithClient("setBucketPolicy", minioClient -> {
             minioClient.setBucketPolicy(setBucketPolicyArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in createBucket.", e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+            settingCache.invalidateBucketSetting(setBucketPolicyArgs.bucket());
+        });
     }
 
     /**
@@ -229,44 +151,9 @@ public class BucketPolicyService extends BaseMinioClientService {
      * @param deleteBucketPolicyArgs {@link DeleteBucketPolicyArgs}
      */
     public void deleteBucketPolicy(DeleteBucketPolicyArgs deleteBucketPolicyArgs) {
-        String function = "deleteBucketPolicy";
-        MinioClient minioClient = getMinioClient();
-
-        try {
+        runWithClient("deleteBucketPolicy", minioClient -> {
             minioClient.deleteBucketPolicy(deleteBucketPolicyArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in createBucket.", e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+            settingCache.invalidateBucketSetting(deleteBucketPolicyArgs.bucket());
+        });
     }
 }
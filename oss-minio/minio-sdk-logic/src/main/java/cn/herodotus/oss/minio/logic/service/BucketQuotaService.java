@@ -25,23 +25,15 @@
 
 package cn.herodotus.oss.minio.logic.service;
 
-import cn.herodotus.oss.minio.core.exception.MinioConnectException;
-import cn.herodotus.oss.minio.core.exception.MinioIOException;
-import cn.herodotus.oss.minio.core.exception.MinioInvalidKeyException;
-import cn.herodotus.oss.minio.core.exception.MinioNoSuchAlgorithmException;
+import cn.herodotus.oss.minio.logic.definition.cache.SettingCache;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioAdminClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioAdminClientService;
-import io.minio.admin.MinioAdminClient;
 import io.minio.admin.QuotaUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Nonnull;
-import java.io.IOException;
-import java.net.ConnectException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 
 /**
  * <p>Description: Minio User 管理服务 </p>
@@ -54,8 +46,11 @@ public class BucketQuotaService extends BaseMinioAdminClientService {
 
     private static final Logger log = LoggerFactory.getLogger(BucketQuotaService.class);
 
-    public BucketQuotaService(MinioAdminClientObjectPool minioAdminClientObjectPool) {
+    private final SettingCache settingCache;
+
+    public BucketQuotaService(MinioAdminClientObjectPool minioAdminClientObjectPool, SettingCache settingCache) {
         super(minioAdminClientObjectPool);
+        this.settingCache = settingCache;
     }
 
     /**
@@ -66,28 +61,10 @@ public class BucketQuotaService extends BaseMinioAdminClientService {
      * @param unit       配额单位
      */
     public void setBucketQuota(@Nonnull String bucketName, long size, @Nonnull QuotaUnit unit) {
-        String function = "setBucketQuota";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
+        runWithClient("setBucketQuota", minioAdminClient -> {
             minioAdminClient.setBucketQuota(bucketName, size, unit);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+            settingCache.invalidateBucketSetting(bucketName);
+        });
     }
 
     /**
@@ -106,28 +83,7 @@ public class BucketQuotaService extends BaseMinioAdminClientService {
      * @return 配额大小
      */
     public long getBucketQuota(String bucketName) {
-        String function = "getBucketQuota";
-
-        MinioAdminClient minioAdminClient = getMinioAdminClient();
-
-        try {
-            return minioAdminClient.getBucketQuota(bucketName);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } finally {
-            close(minioAdminClient);
-        }
+        return withClient("getBucketQuota", minioAdminClient -> minioAdminClient.getBucketQuota(bucketName));
     }
 
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.service;
+
+import cn.herodotus.oss.minio.logic.definition.cache.StatObjectCache;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
+import cn.herodotus.oss.minio.logic.definition.service.BaseMinioAsyncClientService;
+import com.google.common.collect.Multimap;
+import io.minio.CreateMultipartUploadResponse;
+import io.minio.ListPartsResponse;
+import io.minio.ObjectWriteResponse;
+import io.minio.messages.ListPartsResult;
+import io.minio.messages.Part;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Description: 非阻塞分片上传服务 </p>
+ * <p>
+ * 与 {@link MultipartUploadService} 功能一致，但不会阻塞调用线程。MinioAsyncClient 在请求完成后自动归还对象池，执行出错时 {@link CompletableFuture} 以对应的 Minio*Exception 结束。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/9 14:12
+ */
+@Service
+public class MultipartUploadAsyncService extends BaseMinioAsyncClientService {
+
+    /**
+     * Minio 单次 listParts 最多返回的分片数量
+     */
+    private static final int MAX_PARTS_PER_PAGE = 1000;
+
+    private final StatObjectCache statObjectCache;
+
+    public MultipartUploadAsyncService(MinioAsyncClientObjectPool minioAsyncClientObjectPool, StatObjectCache statObjectCache) {
+        super(minioAsyncClientObjectPool);
+        this.statObjectCache = statObjectCache;
+    }
+
+    /**
+     * 创建分片上传请求
+     *
+     * @param bucketName 存储桶
+     * @param objectName 对象名
+     * @return {@link CompletableFuture} of {@link CreateMultipartUploadResponse}
+     */
+    public CompletableFuture<CreateMultipartUploadResponse> createMultipartUpload(String bucketName, String objectName) {
+        return createMultipartUpload(bucketName, null, objectName);
+    }
+
+    /**
+     * 创建分片上传请求
+     *
+     * @param bucketName 存储桶
+     * @param region     区域
+     * @param objectName 对象名
+     * @return {@link CompletableFuture} of {@link CreateMultipartUploadResponse}
+     */
+    public CompletableFuture<CreateMultipartUploadResponse> createMultipartUpload(String bucketName, String region, String objectName) {
+        return createMultipartUpload(bucketName, region, objectName, null);
+    }
+
+    /**
+     * 创建分片上传请求
+     *
+     * @param bucketName   存储桶
+     * @param region       区域
+     * @param objectName   对象名
+     * @param extraHeaders 消息头
+     * @return {@link CompletableFuture} of {@link CreateMultipartUploadResponse}
+     */
+    public CompletableFuture<CreateMultipartUploadResponse> createMultipartUpload(String bucketName, String region, String objectName, Multimap<String, String> extraHeaders) {
+        return createMultipartUpload(bucketName, region, objectName, extraHeaders, null);
+    }
+
+    /**
+     * 创建分片上传请求, 返回 UploadId
+     *
+     * @param bucketName       存储桶
+     * @param region           区域
+     * @param objectName       对象名
+     * @param extraHeaders     额外消息头
+     * @param extraQueryParams 额外查询参数
+     * @return {@link CompletableFuture} of {@link CreateMultipartUploadResponse}
+     */
+    public CompletableFuture<CreateMultipartUploadResponse> createMultipartUpload(String bucketName, String region, String objectName, Multimap<String, String> extraHeaders, Multimap<String, String> extraQueryParams) {
+        return execute("createMultipartUpload", minioAsyncClient -> minioAsyncClient.createMultipartUploadAsync(bucketName, region, objectName, extraHeaders, extraQueryParams));
+    }
+
+    /**
+     * 查询分片数据
+     *
+     * @param bucketName 存储桶
+     * @param objectName 对象名
+     * @param uploadId   上传ID
+     * @return {@link CompletableFuture} of {@link ListPartsResponse}
+     */
+    public CompletableFuture<ListPartsResponse> listParts(String bucketName, String objectName, String uploadId) {
+        return listParts(bucketName, null, objectName, uploadId);
+    }
+
+    /**
+     * 查询分片数据
+     *
+     * @param bucketName 存储桶
+     * @param region     区域
+     * @param objectName 对象名
+     * @param uploadId   上传ID
+     * @return {@link CompletableFuture} of {@link ListPartsResponse}
+     */
+    public CompletableFuture<ListPartsResponse> listParts(String bucketName, String region, String objectName, String uploadId) {
+        return listParts(bucketName, region, objectName, null, uploadId);
+    }
+
+    /**
+     * 查询分片数据
+     *
+     * @param bucketName 存储桶
+     * @param region     区域
+     * @param objectName 对象名
+     * @param maxParts   抓取的最大分片数量.
+     * @param uploadId   上传ID
+     * @return {@link CompletableFuture} of {@link ListPartsResponse}
+     */
+    public CompletableFuture<ListPartsResponse> listParts(String bucketName, String region, String objectName, Integer maxParts, String uploadId) {
+        return listParts(bucketName, region, objectName, maxParts, null, uploadId);
+    }
+
+    /**
+     * 查询分片数据
+     *
+     * @param bucketName       存储桶
+     * @param region           区域
+     * @param objectName       对象名
+     * @param maxParts         抓取的最大分片数量.
+     * @param partNumberMarker 分片数量创建器.
+     * @param uploadId         上传ID
+     * @return {@link CompletableFuture} of {@link ListPartsResponse}
+     */
+    public CompletableFuture<ListPartsResponse> listParts(String bucketName, String region, String objectName, Integer maxParts, Integer partNumberMarker, String uploadId) {
+        return listParts(bucketName, region, objectName, maxParts, partNumberMarker, uploadId, null, null);
+    }
+
+    /**
+     * 查询分片数据
+     *
+     * @param bucketName       存储桶
+     * @param region           区域
+     * @param objectName       对象名
+     * @param maxParts         抓取的最大分片数量.
+     * @param partNumberMarker 分片数量创建器.
+     * @param uploadId         上传ID
+     * @param extraHeaders     额外消息头
+     * @param extraQueryParams 额外查询参数
+     * @return {@link CompletableFuture} of {@link ListPartsResponse}
+     */
+    public CompletableFuture<ListPartsResponse> listParts(String bucketName, String region, String objectName, Integer maxParts, Integer partNumberMarker, String uploadId, Multimap<String, String> extraHeaders, Multimap<String, String> extraQueryParams) {
+        return execute("listParts", minioAsyncClient -> minioAsyncClient.listPartsAsync(bucketName, region, objectName, maxParts, partNumberMarker, uploadId, extraHeaders, extraQueryParams));
+    }
+
+    /**
+     * 查询全部分片数据，根据 isTruncated 和 nextPartNumberMarker 逐页查询
+     *
+     * @param bucketName 存储桶
+     * @param region     区域
+     * @param objectName 对象名
+     * @param uploadId   上传ID
+     * @return {@link CompletableFuture} of 按分片号排序的全部分片
+     */
+    public CompletableFuture<List<Part>> listAllParts(String bucketName, String region, String objectName, String uploadId) {
+        return listRemainingParts(bucketName, region, objectName, uploadId, null, new TreeMap<>());
+    }
+
+    /**
+     * 查询全部分片数据
+     * <p>
+     * 已知分片总数时，按照每页 1000 个分片计算出各页的 partNumberMarker 并发查询，最后再根据最后一页的 isTruncated 补充查询超出预期的分片。
+     *
+     * @param bucketName 存储桶
+     * @param region     区域
+     * @param objectName 对象名
+     * @param uploadId   上传ID
+     * @param totalParts 预期的分片总数
+     * @return {@link CompletableFuture} of 按分片号排序的全部分片
+     */
+    public CompletableFuture<List<Part>> listAllParts(String bucketName, String region, String objectName, String uploadId, int totalParts) {
+        int pages = Math.max(1, (totalParts + MAX_PARTS_PER_PAGE - 1) / MAX_PARTS_PER_PAGE);
+        List<CompletableFuture<ListPartsResponse>> futures = IntStream.range(0, pages)
+                .mapToObj(page -> listParts(bucketName, region, objectName, MAX_PARTS_PER_PAGE, page == 0 ? null : page * MAX_PARTS_PER_PAGE, uploadId))
+                .toList();
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenCompose(ignored -> {
+            SortedMap<Integer, Part> parts = new TreeMap<>();
+            futures.forEach(future -> future.join().result().partList().forEach(part -> parts.put(part.partNumber(), part)));
+
+            ListPartsResult last = futures.get(pages - 1).join().result();
+            if (last.isTruncated()) {
+                return listRemainingParts(bucketName, region, objectName, uploadId, last.nextPartNumberMarker(), parts);
+            }
+            return CompletableFuture.completedFuture(new ArrayList<>(parts.values()));
+        });
+    }
+
+    private CompletableFuture<List<Part>> listRemainingParts(String bucketName, String region, String objectName, String uploadId, Integer partNumberMarker, SortedMap<Integer, Part> parts) {
+        return listParts(bucketName, region, objectName, MAX_PARTS_PER_PAGE, partNumberMarker, uploadId).thenCompose(response -> {
+            ListPartsResult result = response.result();
+            result.partList().forEach(part -> parts.put(part.partNumber(), part));
+
+            int nextPartNumberMarker = result.nextPartNumberMarker();
+            if (result.isTruncated() && (partNumberMarker == null || nextPartNumberMarker > partNumberMarker)) {
+                return listRemainingParts(bucketName, region, objectName, uploadId, nextPartNumberMarker, parts);
+            }
+            return CompletableFuture.completedFuture(new ArrayList<>(parts.values()));
+        });
+    }
+
+    /**
+     * 完成分片上传，执行合并文件
+     *
+     * @param bucketName 存储桶
+     * @param objectName 对象名
+     * @param uploadId   上传ID
+     * @param parts      {@link Part}
+     * @return {@link CompletableFuture} of {@link ObjectWriteResponse}
+     */
+    public CompletableFuture<ObjectWriteResponse> completeMultipartUpload(String bucketName, String objectName, String uploadId, Part[] parts) {
+        return completeMultipartUpload(bucketName, null, objectName, uploadId, parts);
+    }
+
+    /**
+     * 完成分片上传，执行合并文件
+     *
+     * @param bucketName 存储桶
+     * @param region     区域
+     * @param objectName 对象名
+     * @param uploadId   上传ID
+     * @param parts      {@link Part}
+     * @return {@link CompletableFuture} of {@link ObjectWriteResponse}
+     */
+    public CompletableFuture<ObjectWriteResponse> completeMultipartUpload(String bucketName, String region, String objectName, String uploadId, Part[] parts) {
+        return completeMultipartUpload(bucketName, region, objectName, uploadId, parts, null, null);
+    }
+
+    /**
+     * 完成分片上传，执行合并文件
+     *
+     * @param bucketName       存储桶
+     * @param region           区域
+     * @param objectName       对象名
+     * @param uploadId         上传ID
+     * @param parts            {@link Part}
+     * @param extraHeaders     额外消息头
+     * @param extraQueryParams 额外查询参数
+     * @return {@link CompletableFuture} of {@link ObjectWriteResponse}
+     */
+    public CompletableFuture<ObjectWriteResponse> completeMultipartUpload(String bucketName, String region, String objectName, String uploadId, Part[] parts, Multimap<String, String> extraHeaders, Multimap<String, String> extraQueryParams) {
+        return execute("completeMultipartUpload", minioAsyncClient -> minioAsyncClient.completeMultipartUploadAsync(bucketName, region, objectName, uploadId, parts, extraHeaders, extraQueryParams))
+                .whenComplete((response, throwable) -> statObjectCache.invalidate(bucketName, objectName));
+    }
+}
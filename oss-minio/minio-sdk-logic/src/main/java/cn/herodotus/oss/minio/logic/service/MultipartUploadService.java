@@ -26,17 +26,22 @@
 package cn.herodotus.oss.minio.logic.service;
 
 import cn.herodotus.oss.minio.core.exception.*;
+import cn.herodotus.oss.minio.logic.definition.cache.StatObjectCache;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClient;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioAsyncClientService;
 import com.google.common.collect.Multimap;
+import io.minio.AbortMultipartUploadResponse;
 import io.minio.CreateMultipartUploadResponse;
+import io.minio.ListMultipartUploadsResponse;
 import io.minio.ListPartsResponse;
 import io.minio.ObjectWriteResponse;
 import io.minio.errors.InsufficientDataException;
 import io.minio.errors.InternalException;
 import io.minio.errors.XmlParserException;
+import io.minio.messages.ListPartsResult;
 import io.minio.messages.Part;
+import org.apache.commons.lang3.ObjectUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -45,6 +50,8 @@ import java.io.IOException;
 import java.net.ConnectException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -58,8 +65,11 @@ public class MultipartUploadService extends BaseMinioAsyncClientService {
 
     private static final Logger log = LoggerFactory.getLogger(MultipartUploadService.class);
 
-    public MultipartUploadService(MinioAsyncClientObjectPool minioAsyncClientObjectPool) {
+    private final StatObjectCache statObjectCache;
+
+    public MultipartUploadService(MinioAsyncClientObjectPool minioAsyncClientObjectPool, StatObjectCache statObjectCache) {
         super(minioAsyncClientObjectPool);
+        this.statObjectCache = statObjectCache;
     }
 
     /**
@@ -271,6 +281,32 @@ public class MultipartUploadService extends BaseMinioAsyncClientService {
         }
     }
 
+    /**
+     * 查询全部分片数据
+     * <p>
+     * Minio 每次最多返回 1000 个分片，该方法根据 isTruncated 和 nextPartNumberMarker 逐页查询，直至获取全部分片。
+     *
+     * @param bucketName 存储桶
+     * @param region     区域
+     * @param objectName 对象名
+     * @param uploadId   上传ID
+     * @return 按分片号排序的全部分片
+     */
+    public List<Part> listAllParts(String bucketName, String region, String objectName, String uploadId) {
+        List<Part> parts = new ArrayList<>();
+        Integer partNumberMarker = null;
+        while (true) {
+            ListPartsResult result = listParts(bucketName, region, objectName, null, partNumberMarker, uploadId).result();
+            parts.addAll(result.partList());
+
+            int nextPartNumberMarker = result.nextPartNumberMarker();
+            if (!result.isTruncated() || (ObjectUtils.isNotEmpty(partNumberMarker) && nextPartNumberMarker <= partNumberMarker)) {
+                return parts;
+            }
+            partNumberMarker = nextPartNumberMarker;
+        }
+    }
+
     /**
      * 完成分片上传，执行合并文件
      *
@@ -343,7 +379,106 @@ public class MultipartUploadService extends BaseMinioAsyncClientService {
         MinioAsyncClient minioAsyncClient = getMinioAsyncClient();
 
         try {
-            return minioAsyncClient.completeMultipartUploadAsync(bucketName, region, objectName, uploadId, parts, extraHeaders, extraQueryParams).get();
+            ObjectWriteResponse response = minioAsyncClient.completeMultipartUploadAsync(bucketName, region, objectName, uploadId, parts, extraHeaders, extraQueryParams).get();
+            statObjectCache.invalidate(bucketName, objectName);
+            return response;
+        } catch (InsufficientDataException e) {
+            log.error("[Herodotus] |- Minio async catch InsufficientDataException in [{}].", function, e);
+            throw new MinioInsufficientDataException("Minio async insufficient data error.");
+        } catch (InternalException e) {
+            log.error("[Herodotus] |- Minio async catch InternalException in [{}].", function, e);
+            throw new MinioInternalException("Minio async internal error.");
+        } catch (InvalidKeyException e) {
+            log.error("[Herodotus] |- Minio async catch InvalidKeyException in [{}].", function, e);
+            throw new MinioInvalidKeyException("Minio async key invalid.");
+        } catch (IOException e) {
+            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
+            if (e instanceof ConnectException) {
+                throw new MinioConnectException(e.getMessage());
+            } else {
+                throw new MinioIOException(e.getMessage());
+            }
+        } catch (NoSuchAlgorithmException e) {
+            log.error("[Herodotus] |- Minio async catch NoSuchAlgorithmException in [{}].", function, e);
+            throw new MinioNoSuchAlgorithmException("Minio async no such algorithm.");
+        } catch (XmlParserException e) {
+            log.error("[Herodotus] |- Minio async catch XmlParserException in [{}].", function, e);
+            throw new MinioXmlParserException("Minio async xml parser error.");
+        } catch (ExecutionException e) {
+            log.error("[Herodotus] |- Minio async catch ExecutionException in [{}].", function, e);
+            throw new MinioExecutionException("Minio async execution error.");
+        } catch (InterruptedException e) {
+            log.error("[Herodotus] |- Minio async catch InterruptedException in [{}].", function, e);
+            throw new MinioInterruptedException("Minio async interrupted error.");
+        } finally {
+            close(minioAsyncClient);
+        }
+    }
+
+    /**
+     * 查询一页未完成的分片上传
+     *
+     * @param bucketName     存储桶
+     * @param region         区域
+     * @param keyMarker      从该对象名之后开始查询，首页为空
+     * @param uploadIdMarker 从该上传ID之后开始查询，首页为空
+     * @param maxUploads     单页最大数量
+     * @return {@link ListMultipartUploadsResponse}
+     */
+    public ListMultipartUploadsResponse listMultipartUploads(String bucketName, String region, String keyMarker, String uploadIdMarker, Integer maxUploads) {
+        String function = "listMultipartUploads";
+        MinioAsyncClient minioAsyncClient = getMinioAsyncClient();
+
+        try {
+            return minioAsyncClient.listMultipartUploadsAsync(bucketName, region, null, null, keyMarker, maxUploads, null, uploadIdMarker, null, null).get();
+        } catch (InsufficientDataException e) {
+            log.error("[Herodotus] |- Minio async catch InsufficientDataException in [{}].", function, e);
+            throw new MinioInsufficientDataException("Minio async insufficient data error.");
+        } catch (InternalException e) {
+            log.error("[Herodotus] |- Minio async catch InternalException in [{}].", function, e);
+            throw new MinioInternalException("Minio async internal error.");
+        } catch (InvalidKeyException e) {
+            log.error("[Herodotus] |- Minio async catch InvalidKeyException in [{}].", function, e);
+            throw new MinioInvalidKeyException("Minio async key invalid.");
+        } catch (IOException e) {
+            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
+            if (e instanceof ConnectException) {
+                throw new MinioConnectException(e.getMessage());
+            } else {
+                throw new MinioIOException(e.getMessage());
+            }
+        } catch (NoSuchAlgorithmException e) {
+            log.error("[Herodotus] |- Minio async catch NoSuchAlgorithmException in [{}].", function, e);
+            throw new MinioNoSuchAlgorithmException("Minio async no such algorithm.");
+        } catch (XmlParserException e) {
+            log.error("[Herodotus] |- Minio async catch XmlParserException in [{}].", function, e);
+            throw new MinioXmlParserException("Minio async xml parser error.");
+        } catch (ExecutionException e) {
+            log.error("[Herodotus] |- Minio async catch ExecutionException in [{}].", function, e);
+            throw new MinioExecutionException("Minio async execution error.");
+        } catch (InterruptedException e) {
+            log.error("[Herodotus] |- Minio async catch InterruptedException in [{}].", function, e);
+            throw new MinioInterruptedException("Minio async interrupted error.");
+        } finally {
+            close(minioAsyncClient);
+        }
+    }
+
+    /**
+     * 终止分片上传，删除已上传的分片
+     *
+     * @param bucketName 存储桶
+     * @param region     区域
+     * @param objectName 对象名
+     * @param uploadId   上传ID
+     * @return {@link AbortMultipartUploadResponse}
+     */
+    public AbortMultipartUploadResponse abortMultipartUpload(String bucketName, String region, String objectName, String uploadId) {
+        String function = "abortMultipartUpload";
+        MinioAsyncClient minioAsyncClient = getMinioAsyncClient();
+
+        try {
+            return minioAsyncClient.abortMultipartUploadAsync(bucketName, region, objectName, uploadId, null, null).get();
         } catch (InsufficientDataException e) {
             log.error("[Herodotus] |- Minio async catch InsufficientDataException in [{}].", function, e);
             throw new MinioInsufficientDataException("Minio async insufficient data error.");
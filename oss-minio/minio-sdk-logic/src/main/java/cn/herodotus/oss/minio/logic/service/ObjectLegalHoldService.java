@@ -25,22 +25,16 @@
 
 package cn.herodotus.oss.minio.logic.service;
 
-import cn.herodotus.oss.minio.core.exception.*;
+import cn.herodotus.oss.minio.logic.definition.cache.SettingCache;
+import cn.herodotus.oss.minio.logic.definition.cache.StatObjectCache;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioClientService;
 import io.minio.DisableObjectLegalHoldArgs;
 import io.minio.EnableObjectLegalHoldArgs;
-import io.minio.MinioClient;
-import io.minio.errors.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.net.ConnectException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-
 /**
  * <p>Description: Object 合法持有 </p>
  *
@@ -52,8 +46,13 @@ public class ObjectLegalHoldService extends BaseMinioClientService {
 
     private static final Logger log = LoggerFactory.getLogger(ObjectLegalHoldService.class);
 
-    public ObjectLegalHoldService(MinioClientObjectPool minioClientObjectPool) {
+    private final SettingCache settingCache;
+    private final StatObjectCache statObjectCache;
+
+    public ObjectLegalHoldService(MinioClientObjectPool minioClientObjectPool, SettingCache settingCache, StatObjectCache statObjectCache) {
         super(minioClientObjectPool);
+        this.settingCache = settingCache;
+        this.statObjectCache = statObjectCache;
     }
 
     /**
@@ -95,45 +94,11 @@ public class ObjectLegalHoldService extends BaseMinioClientService {
      * @param enableObjectLegalHoldArgs {@link EnableObjectLegalHoldArgs}
      */
     public void enableObjectLegalHold(EnableObjectLegalHoldArgs enableObjectLegalHoldArgs) {
-        String function = "enableObjectLegalHold";
-        MinioClient minioClient = getMinioClient();
-
-        try {
+        runWithClient("enableObjectLegalHold", minioClient -> {
             minioClient.enableObjectLegalHold(enableObjectLegalHoldArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+            statObjectCache.invalidate(enableObjectLegalHoldArgs.bucket(), enableObjectLegalHoldArgs.object());
+            settingCache.invalidateObjectSetting(enableObjectLegalHoldArgs.bucket(), enableObjectLegalHoldArgs.object());
+        });
     }
 
     /**
@@ -175,44 +140,10 @@ public class ObjectLegalHoldService extends BaseMinioClientService {
      * @param disableObjectLegalHoldArgs {@link DisableObjectLegalHoldArgs}
      */
     public void disableObjectLegalHold(DisableObjectLegalHoldArgs disableObjectLegalHoldArgs) {
-        String function = "disableObjectLegalHold";
-        MinioClient minioClient = getMinioClient();
-
-        try {
+        runWithClient("disableObjectLegalHold", minioClient -> {
             minioClient.disableObjectLegalHold(disableObjectLegalHoldArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+            statObjectCache.invalidate(disableObjectLegalHoldArgs.bucket(), disableObjectLegalHoldArgs.object());
+            settingCache.invalidateObjectSetting(disableObjectLegalHoldArgs.bucket(), disableObjectLegalHoldArgs.object());
+        });
     }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.service;
+
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
+import cn.herodotus.oss.minio.logic.definition.service.BaseMinioAsyncClientService;
+import io.minio.ListObjectsArgs;
+import io.minio.ListObjectsV2Response;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * <p>Description: 对象分页查询服务 </p>
+ * <p>
+ * {@link ObjectService#listObjects(ListObjectsArgs)} 返回的 Iterable 在迭代时会自动查询后续所有分页，maxKeys 仅影响每页大小。
+ * 该服务每次只查询一页 ListObjectsV2 数据，并返回下一页标记，适用于界面分页展示等只需要部分数据的场景。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 14:30
+ */
+@Service
+public class ObjectListingService extends BaseMinioAsyncClientService {
+
+    public ObjectListingService(MinioAsyncClientObjectPool minioAsyncClientObjectPool) {
+        super(minioAsyncClientObjectPool);
+    }
+
+    /**
+     * 查询一页对象
+     *
+     * @param bucketName        存储桶名称
+     * @param prefix            前缀
+     * @param maxKeys           单页最大数量
+     * @param continuationToken 分页标记，首页为空
+     * @return {@link ListObjectsV2Response}
+     */
+    public ListObjectsV2Response listObjectsPage(String bucketName, String prefix, Integer maxKeys, String continuationToken) {
+        return listObjectsPage(ListObjectsArgs.builder().bucket(bucketName).prefix(prefix).maxKeys(maxKeys).build(), continuationToken);
+    }
+
+    /**
+     * 查询一页对象
+     *
+     * @param listObjectsArgs   {@link ListObjectsArgs}
+     * @param continuationToken 分页标记，首页为空
+     * @return {@link ListObjectsV2Response}
+     */
+    public ListObjectsV2Response listObjectsPage(ListObjectsArgs listObjectsArgs, String continuationToken) {
+        try {
+            return listObjectsPageAsync(listObjectsArgs, continuationToken).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException exception) {
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 以非阻塞方式查询一页对象
+     *
+     * @param listObjectsArgs   {@link ListObjectsArgs}
+     * @param continuationToken 分页标记，首页为空
+     * @return {@link CompletableFuture} of {@link ListObjectsV2Response}
+     */
+    public CompletableFuture<ListObjectsV2Response> listObjectsPageAsync(ListObjectsArgs listObjectsArgs, String continuationToken) {
+        return execute("listObjectsPage", minioAsyncClient -> minioAsyncClient.listObjectsV2Async(
+                listObjectsArgs.bucket(),
+                listObjectsArgs.region(),
+                listObjectsArgs.delimiter(),
+                null,
+                listObjectsArgs.startAfter(),
+                listObjectsArgs.maxKeys(),
+                listObjectsArgs.prefix(),
+                continuationToken,
+                listObjectsArgs.fetchOwner(),
+                listObjectsArgs.includeUserMetadata(),
+                listObjectsArgs.extraHeaders(),
+                listObjectsArgs.extraQueryParams()));
+    }
+}
@@ -27,24 +27,18 @@ package cn.herodotus.oss.minio.logic.service;
 
 import cn.herodotus.oss.minio.core.converter.retention.RetentionToDomainConverter;
 import cn.herodotus.oss.minio.core.domain.RetentionDomain;
-import cn.herodotus.oss.minio.core.exception.*;
+import cn.herodotus.oss.minio.logic.definition.cache.SettingCache;
+import cn.herodotus.oss.minio.logic.definition.cache.StatObjectCache;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioClientService;
 import io.minio.GetObjectRetentionArgs;
-import io.minio.MinioClient;
 import io.minio.SetObjectRetentionArgs;
-import io.minio.errors.*;
 import io.minio.messages.Retention;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.net.ConnectException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-
 /**
  * <p>Description: Minio 对象保留配置 </p>
  *
@@ -56,9 +50,13 @@ public class ObjectRetentionService extends BaseMinioClientService {
 
     private static final Logger log = LoggerFactory.getLogger(ObjectRetentionService.class);
     private final Converter<Retention, RetentionDomain> toDo;
+    private final SettingCache settingCache;
+    private final StatObjectCache statObjectCache;
 
-    public ObjectRetentionService(MinioClientObjectPool minioClientObjectPool) {
+    public ObjectRetentionService(MinioClientObjectPool minioClientObjectPool, SettingCache settingCache, StatObjectCache statObjectCache) {
         super(minioClientObjectPool);
+        this.settingCache = settingCache;
+        this.statObjectCache = statObjectCache;
         this.toDo = new RetentionToDomainConverter();
     }
 
@@ -105,46 +103,10 @@ public class ObjectRetentionService extends BaseMinioClientService {
      * @return {@link RetentionDomain}
      */
     public RetentionDomain getObjectRetention(GetObjectRetentionArgs getObjectRetentionArgs) {
-        String function = "getObjectRetention";
-        MinioClient minioClient = getMinioClient();
-
-        try {
+        return withClient("getObjectRetention", minioClient -> {
             Retention retention = minioClient.getObjectRetention(getObjectRetentionArgs);
             return toDo.convert(retention);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+        });
     }
 
     /**
@@ -210,44 +172,10 @@ public class ObjectRetentionService extends BaseMinioClientService {
      * @param setObjectRetentionArgs {@link SetObjectRetentionArgs}
      */
     public void setObjectRetention(SetObjectRetentionArgs setObjectRetentionArgs) {
-        String function = "setObjectRetention";
-        MinioClient minioClient = getMinioClient();
-
-        try {
+        runWithClient("setObjectRetention", minioClient -> {
             minioClient.setObjectRetention(setObjectRetentionArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+            statObjectCache.invalidate(setObjectRetentionArgs.bucket(), setObjectRetentionArgs.object());
+            settingCache.invalidateObjectSetting(setObjectRetentionArgs.bucket(), setObjectRetentionArgs.object());
+        });
     }
 }
@@ -26,10 +26,10 @@
 package cn.herodotus.oss.minio.logic.service;
 
 import cn.herodotus.oss.minio.core.exception.*;
+import cn.herodotus.oss.minio.logic.definition.cache.DiskObjectCache;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioClientService;
 import io.minio.*;
-import io.minio.errors.*;
 import io.minio.messages.Retention;
 import io.minio.messages.Tags;
 import org.slf4j.Logger;
@@ -37,9 +37,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.net.ConnectException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 /**
  * <p>Description: Minio 服务端上传下载 </p>
@@ -57,8 +58,13 @@ public class ObjectServerSideService extends BaseMinioClientService {
 
     private static final Logger log = LoggerFactory.getLogger(ObjectService.class);
 
-    public ObjectServerSideService(MinioClientObjectPool minioClientObjectPool) {
+    private final ObjectService objectService;
+    private final DiskObjectCache diskObjectCache;
+
+    public ObjectServerSideService(MinioClientObjectPool minioClientObjectPool, ObjectService objectService, DiskObjectCache diskObjectCache) {
         super(minioClientObjectPool);
+        this.objectService = objectService;
+        this.diskObjectCache = diskObjectCache;
     }
 
     /**
@@ -140,47 +146,76 @@ public class ObjectServerSideService extends BaseMinioClientService {
      * @param downloadObjectArgs {@link DownloadObjectArgs}
      */
     public void downloadObject(DownloadObjectArgs downloadObjectArgs) {
-        String function = "downloadObject";
-        MinioClient minioClient = getMinioClient();
+        if (diskObjectCache.isCacheable(downloadObjectArgs.bucket()) && downloadObjectArgs.ssec() == null) {
+            StatObjectResponse statObjectResponse = objectService.statObjectForRead(StatObjectArgs.builder()
+                    .bucket(downloadObjectArgs.bucket())
+                    .region(downloadObjectArgs.region())
+                    .object(downloadObjectArgs.object())
+                    .versionId(downloadObjectArgs.versionId())
+                    .build());
+            if (statObjectResponse.size() >= diskObjectCache.getMinSize()) {
+                downloadCachedObject(downloadObjectArgs, statObjectResponse);
+                return;
+            }
+        }
 
+        runWithClient("downloadObject", minioClient -> minioClient.downloadObject(downloadObjectArgs));
+    }
+
+    /**
+     * 通过本地磁盘缓存下载对象。先写入同目录下的临时文件，完成后再移动到目标位置，与 Minio downloadObject 的行为保持一致
+     *
+     * @param downloadObjectArgs {@link DownloadObjectArgs}
+     * @param statObjectResponse 对象当前的信息
+     */
+    private void downloadCachedObject(DownloadObjectArgs downloadObjectArgs, StatObjectResponse statObjectResponse) {
+        Path target = Paths.get(downloadObjectArgs.filename()).toAbsolutePath();
+        if (!downloadObjectArgs.overwrite() && Files.exists(target)) {
+            throw new IllegalArgumentException("Destination file " + downloadObjectArgs.filename() + " already exists");
+        }
+
+        Path temp = null;
         try {
-            minioClient.downloadObject(downloadObjectArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
+            Path parent = target.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
             }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
+            temp = Files.createTempFile(parent, target.getFileName().toString(), ".part.minio");
+            diskObjectCache.transferTo(downloadObjectArgs.bucket(), downloadObjectArgs.object(), downloadObjectArgs.versionId(), statObjectResponse.etag(), statObjectResponse.size(), temp,
+                    (offset, length) -> getObject(GetObjectArgs.builder()
+                            .bucket(downloadObjectArgs.bucket())
+                            .region(downloadObjectArgs.region())
+                            .object(downloadObjectArgs.object())
+                            .versionId(downloadObjectArgs.versionId())
+                            .offset(offset)
+                            .length(length)
+                            .matchETag(statObjectResponse.etag())
+                            .build()));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("[Herodotus] |- Minio catch IOException in [downloadObject].", e);
+            throw new MinioIOException(e.getMessage(), e);
         } finally {
-            close(minioClient);
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("[Herodotus] |- Delete temp file [{}] catch error.", temp, e);
+                }
+            }
         }
     }
 
+    /**
+     * 直接从 Minio 读取对象，用于填充磁盘缓存，不经过 {@link ObjectService} 的缓存
+     *
+     * @param getObjectArgs {@link GetObjectArgs}
+     * @return {@link GetObjectResponse}
+     */
+    private GetObjectResponse getObject(GetObjectArgs getObjectArgs) {
+        return withClient("getObject", minioClient -> minioClient.getObject(getObjectArgs));
+    }
+
     /**
      * 将文件中的内容作为存储桶中的对象上传
      *
@@ -310,44 +345,10 @@ public class ObjectServerSideService extends BaseMinioClientService {
      * @return {@link ObjectWriteResponse}
      */
     public ObjectWriteResponse uploadObject(UploadObjectArgs uploadObjectArgs) {
-        String function = "uploadObject";
-        MinioClient minioClient = getMinioClient();
-
-        try {
-            return minioClient.uploadObject(uploadObjectArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+        return withClient("uploadObject", minioClient -> {
+            ObjectWriteResponse response = minioClient.uploadObject(uploadObjectArgs);
+            objectService.invalidateObject(uploadObjectArgs.bucket(), uploadObjectArgs.object());
+            return response;
+        });
     }
 }
@@ -26,20 +26,21 @@
 package cn.herodotus.oss.minio.logic.service;
 
 import cn.herodotus.oss.minio.core.exception.*;
+import cn.herodotus.oss.minio.logic.definition.cache.DiskObjectCache;
+import cn.herodotus.oss.minio.logic.definition.cache.ObjectContentCache;
+import cn.herodotus.oss.minio.logic.definition.cache.SettingCache;
+import cn.herodotus.oss.minio.logic.definition.cache.StatObjectCache;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioClientService;
 import io.minio.*;
-import io.minio.errors.*;
 import io.minio.messages.*;
+import org.apache.commons.lang3.ObjectUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.ConnectException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.time.ZonedDateTime;
 
 /**
@@ -53,8 +54,17 @@ public class ObjectService extends BaseMinioClientService {
 
     private static final Logger log = LoggerFactory.getLogger(ObjectService.class);
 
-    public ObjectService(MinioClientObjectPool minioClientObjectPool) {
+    private final StatObjectCache statObjectCache;
+    private final ObjectContentCache objectContentCache;
+    private final DiskObjectCache diskObjectCache;
+    private final SettingCache settingCache;
+
+    public ObjectService(MinioClientObjectPool minioClientObjectPool, StatObjectCache statObjectCache, ObjectContentCache objectContentCache, DiskObjectCache diskObjectCache, SettingCache settingCache) {
         super(minioClientObjectPool);
+        this.statObjectCache = statObjectCache;
+        this.objectContentCache = objectContentCache;
+        this.diskObjectCache = diskObjectCache;
+        this.settingCache = settingCache;
     }
 
     /**
@@ -439,15 +449,14 @@ public class ObjectService extends BaseMinioClientService {
 
     /**
      * listObjects列出桶的对象信息
+     * <p>
+     * 返回的 Iterable 为懒加载，迭代期间持有借用的 Client，迭代结束后归还。如果不需要迭代完毕，需要将迭代器转为 {@link io.minio.CloseableIterator} 并关闭
      *
      * @param listObjectsArgs {@link ListObjectsArgs}
      * @return Iterable<Result < Item>>
      */
     public Iterable<Result<Item>> listObjects(ListObjectsArgs listObjectsArgs) {
-        MinioClient minioClient = getMinioClient();
-        Iterable<Result<Item>> items = minioClient.listObjects(listObjectsArgs);
-        close(minioClient);
-        return items;
+        return withClientIterable("listObjects", minioClient -> minioClient.listObjects(listObjectsArgs), null);
     }
 
     /**
@@ -493,10 +502,13 @@ public class ObjectService extends BaseMinioClientService {
      * @return 自定义删除错误列表。列表 Size 为 0，表明全部正常删除；不为 0，则返回具体错误对象以及相关信息
      */
     public Iterable<Result<DeleteError>> removeObjects(RemoveObjectsArgs removeObjectsArgs) {
-        MinioClient minioClient = getMinioClient();
-        Iterable<Result<DeleteError>> results = minioClient.removeObjects(removeObjectsArgs);
-        close(minioClient);
-        return results;
+        // 删除操作在迭代过程中执行，迭代结束后需要再次清除期间可能被重新加载的缓存
+        Runnable invalidate = () -> {
+            statObjectCache.invalidateBucket(removeObjectsArgs.bucket());
+            settingCache.invalidateBucket(removeObjectsArgs.bucket());
+        };
+        invalidate.run();
+        return withClientIterable("removeObjects", minioClient -> minioClient.removeObjects(removeObjectsArgs), invalidate);
     }
 
     /**
@@ -538,45 +550,10 @@ public class ObjectService extends BaseMinioClientService {
      * @param removeObjectArgs {@link RemoveObjectArgs}
      */
     public void removeObject(RemoveObjectArgs removeObjectArgs) {
-        String function = "removeObject";
-        MinioClient minioClient = getMinioClient();
-
-        try {
+        runWithClient("removeObject", minioClient -> {
             minioClient.removeObject(removeObjectArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+            invalidateObject(removeObjectArgs.bucket(), removeObjectArgs.object());
+        });
     }
 
     /**
@@ -757,45 +734,68 @@ public class ObjectService extends BaseMinioClientService {
      * @return {@link GetObjectResponse}
      */
     public GetObjectResponse getObject(GetObjectArgs getObjectArgs) {
-        String function = "getObject";
-        MinioClient minioClient = getMinioClient();
+        if (objectContentCache.isCacheable(getObjectArgs) || diskObjectCache.isCacheable(getObjectArgs)) {
+            StatObjectResponse statObjectResponse = statObjectForRead(StatObjectArgs.builder()
+                    .bucket(getObjectArgs.bucket())
+                    .region(getObjectArgs.region())
+                    .object(getObjectArgs.object())
+                    .versionId(getObjectArgs.versionId())
+                    .build());
+            return getObject(getObjectArgs, statObjectResponse);
+        }
+        return doGetObject(getObjectArgs);
+    }
 
+    /**
+     * 获取对象的数据。调用方已经获取到对象信息时使用，缓存可以直接用其中的 ETag 校验，无需再次调用 statObject。
+     * 对象信息需要通过 {@link #statObjectForRead(StatObjectArgs)} 获取，使用缓存的对象信息可能返回旧的内容。
+     * <p>
+     * 小对象使用内存内容缓存，大对象使用本地磁盘缓存，均未开启时直接从 Minio 读取。
+     *
+     * @param getObjectArgs      {@link GetObjectArgs}
+     * @param statObjectResponse 对象当前的信息
+     * @return {@link GetObjectResponse}
+     */
+    public GetObjectResponse getObject(GetObjectArgs getObjectArgs, StatObjectResponse statObjectResponse) {
         try {
-            return minioClient.getObject(getObjectArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
+            if (objectContentCache.isCacheable(getObjectArgs) && statObjectResponse.size() <= objectContentCache.getThreshold()) {
+                GetObjectResponse cached = objectContentCache.get(getObjectArgs, statObjectResponse.etag());
+                if (cached != null) {
+                    return cached;
+                }
+                return objectContentCache.put(getObjectArgs, doGetObject(getObjectArgs));
             }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
+
+            if (diskObjectCache.isCacheable(getObjectArgs, statObjectResponse)) {
+                long size = statObjectResponse.size();
+                long offset = ObjectUtils.defaultIfNull(getObjectArgs.offset(), 0L);
+                if (offset < size) {
+                    long length = getObjectArgs.length() != null ? Math.min(getObjectArgs.length(), size - offset) : size - offset;
+                    InputStream inputStream = diskObjectCache.open(getObjectArgs.bucket(), getObjectArgs.object(), getObjectArgs.versionId(), statObjectResponse.etag(), size, offset, length,
+                            (start, count) -> doGetObject(GetObjectArgs.builder()
+                                    .bucket(getObjectArgs.bucket())
+                                    .region(getObjectArgs.region())
+                                    .object(getObjectArgs.object())
+                                    .versionId(getObjectArgs.versionId())
+                                    .offset(start)
+                                    .length(count)
+                                    .matchETag(statObjectResponse.etag())
+                                    .build()));
+                    return new GetObjectResponse(
+                            statObjectResponse.headers().newBuilder().set("Content-Length", String.valueOf(length)).build(),
+                            getObjectArgs.bucket(), getObjectArgs.region(), getObjectArgs.object(), inputStream);
+                }
+            }
+        } catch (IOException e) {
+            log.error("[Herodotus] |- Minio catch IOException in [getObject].", e);
+            throw new MinioIOException(e.getMessage(), e);
         }
+
+        return doGetObject(getObjectArgs);
+    }
+
+    private GetObjectResponse doGetObject(GetObjectArgs getObjectArgs) {
+        return withClient("getObject", minioClient -> minioClient.getObject(getObjectArgs));
     }
 
     /**
@@ -956,47 +956,33 @@ public class ObjectService extends BaseMinioClientService {
      * @return {@link StatObjectResponse}
      */
     public StatObjectResponse statObject(StatObjectArgs statObjectArgs) {
-        String function = "statObject";
-        MinioClient minioClient = getMinioClient();
+        return statObjectCache.get(statObjectArgs, this::doStatObject);
+    }
 
+    /**
+     * 读取对象内容前获取对象的当前信息
+     * <p>
+     * 不使用 statObject 缓存，避免其它途径修改对象后，在缓存时间内按旧的 Content-Length 和 ETag 返回内容，内容缓存和磁盘缓存也以旧的 ETag 校验而返回旧的内容。
+     * 获取到的信息与缓存不一致时同时失效缓存。
+     *
+     * @param statObjectArgs {@link StatObjectArgs}
+     * @return {@link StatObjectResponse}
+     */
+    public StatObjectResponse statObjectForRead(StatObjectArgs statObjectArgs) {
         try {
-            return minioClient.statObject(statObjectArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
+            StatObjectResponse statObjectResponse = doStatObject(statObjectArgs);
+            statObjectCache.invalidateIfChanged(statObjectArgs, statObjectResponse);
+            return statObjectResponse;
+        } catch (MinioErrorResponseException e) {
+            statObjectCache.invalidateIfChanged(statObjectArgs, null);
+            throw e;
         }
     }
 
+    private StatObjectResponse doStatObject(StatObjectArgs statObjectArgs) {
+        return withClient("statObject", minioClient -> minioClient.statObject(statObjectArgs));
+    }
+
     /**
      * 上传文件
      * <p>
@@ -1165,45 +1151,11 @@ public class ObjectService extends BaseMinioClientService {
      * @return {@link ObjectWriteResponse}
      */
     public ObjectWriteResponse putObject(PutObjectArgs putObjectArgs) {
-        String function = "putObject";
-        MinioClient minioClient = getMinioClient();
-
-        try {
-            return minioClient.putObject(putObjectArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+        return withClient("putObject", minioClient -> {
+            ObjectWriteResponse response = minioClient.putObject(putObjectArgs);
+            invalidateObject(putObjectArgs.bucket(), putObjectArgs.object());
+            return response;
+        });
     }
 
     /**
@@ -1213,45 +1165,11 @@ public class ObjectService extends BaseMinioClientService {
      * @return {@link ObjectWriteResponse}
      */
     public ObjectWriteResponse composeObject(ComposeObjectArgs composeObjectArgs) {
-        String function = "composeObject";
-        MinioClient minioClient = getMinioClient();
-
-        try {
-            return minioClient.composeObject(composeObjectArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+        return withClient("composeObject", minioClient -> {
+            ObjectWriteResponse response = minioClient.composeObject(composeObjectArgs);
+            invalidateObject(composeObjectArgs.bucket(), composeObjectArgs.object());
+            return response;
+        });
     }
 
     /**
@@ -1261,45 +1179,24 @@ public class ObjectService extends BaseMinioClientService {
      * @return {@link ObjectWriteResponse}
      */
     public ObjectWriteResponse copyObject(CopyObjectArgs copyObjectArgs) {
-        String function = "copyObject";
-        MinioClient minioClient = getMinioClient();
+        return withClient("copyObject", minioClient -> {
+            ObjectWriteResponse response = minioClient.copyObject(copyObjectArgs);
+            invalidateObject(copyObjectArgs.bucket(), copyObjectArgs.object());
+            return response;
+        });
+    }
 
-        try {
-            return minioClient.copyObject(copyObjectArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+    /**
+     * 失效指定对象的对象信息、内容、磁盘和设置缓存。通过本组件写入、复制和删除对象后调用
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     */
+    public void invalidateObject(String bucketName, String objectName) {
+        statObjectCache.invalidate(bucketName, objectName);
+        objectContentCache.invalidate(bucketName, objectName);
+        diskObjectCache.invalidate(bucketName, objectName);
+        settingCache.invalidateObjectSetting(bucketName, objectName);
     }
 
     /**
@@ -1308,45 +1205,7 @@ public class ObjectService extends BaseMinioClientService {
      * @param args {@link RestoreObjectArgs}
      */
     public void restoreObject(RestoreObjectArgs args) {
-        String function = "restoreObject";
-        MinioClient minioClient = getMinioClient();
-
-        try {
-            minioClient.restoreObject(args);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+        runWithClient("restoreObject", minioClient -> minioClient.restoreObject(args));
     }
 
     /**
@@ -1356,44 +1215,6 @@ public class ObjectService extends BaseMinioClientService {
      * @return {@link SelectResponseStream}
      */
     public SelectResponseStream selectObjectContent(SelectObjectContentArgs selectObjectContentArgs) {
-        String function = "selectObjectContent";
-        MinioClient minioClient = getMinioClient();
-
-        try {
-            return minioClient.selectObjectContent(selectObjectContentArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+        return withClient("selectObjectContent", minioClient -> minioClient.selectObjectContent(selectObjectContentArgs));
     }
 }
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.service;
+
+import io.minio.ListObjectsArgs;
+import io.minio.messages.Item;
+import io.minio.messages.ListBucketResultV2;
+import io.minio.messages.Prefix;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>Description: 并行对象列表服务 </p>
+ * <p>
+ * ListObjectsV2 只能逐页顺序查询，对象数量巨大的存储桶全量遍历非常耗时。该服务以分隔符 "/" 逐页查询指定前缀下的第一级，
+ * 第一级的对象直接输出，每发现一个目录就将其作为一个分片，提交到有界线程池中并发递归查询，最终合并为一个 {@link Stream}。
+ * <p>
+ * 第一级和各分片的查询结果均写入有界队列，消费速度跟不上时查询线程会被阻塞，即使是没有目录的扁平存储桶，内存占用也不会随存储桶大小增长。
+ * 有序模式下，第一级的对象和目录按名称顺序排列，遇到目录时完整输出该分片后再继续，由于各分片前缀互不重叠，输出结果整体按对象名称有序；
+ * 无序模式下，先查询到的对象先输出。任何查询线程出错或被中断时，都会向队列写入异常，消费端抛出该异常而不会一直阻塞。
+ * <p>
+ * 每次查询使用独立的线程池，读取到结束标记或异常时立即关闭，即使调用方没有关闭 {@link Stream}，读取完毕后也不会遗留线程。
+ * 提前结束读取时，仍需要关闭返回的 {@link Stream}（例如使用 try-with-resources）以终止查询线程。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 16:05
+ */
+@Service
+public class ParallelListingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelListingService.class);
+
+    private static final String DELIMITER = "/";
+    private static final int DEFAULT_PARALLELISM = 8;
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final Object END = new Object();
+
+    private final ObjectListingService objectListingService;
+
+    public ParallelListingService(ObjectListingService objectListingService) {
+        this.objectListingService = objectListingService;
+    }
+
+    /**
+     * 并行递归查询存储桶中的所有对象，结果无序
+     *
+     * @param bucketName 存储桶名称
+     * @return 对象 {@link Stream}
+     */
+    public Stream<Item> listObjects(String bucketName) {
+        return listObjects(bucketName, null, DEFAULT_PARALLELISM, false);
+    }
+
+    /**
+     * 并行递归查询指定前缀下的所有对象
+     *
+     * @param bucketName  存储桶名称
+     * @param prefix      前缀，为空时查询整个存储桶
+     * @param parallelism 并发查询的分片数量
+     * @param ordered     是否按对象名称顺序输出
+     * @return 对象 {@link Stream}
+     */
+    public Stream<Item> listObjects(String bucketName, String prefix, int parallelism, boolean ordered) {
+        log.debug("[Herodotus] |- Parallel listing [{}/{}] with parallelism [{}].", bucketName, StringUtils.defaultString(prefix), parallelism);
+
+        // 第一级查询单独占用一个线程，避免有序模式下分片线程全部被占用时，第一级查询因队列已满而无法结束
+        ExecutorService executor = createExecutor(Math.max(1, parallelism) + 1);
+        BlockingQueue<Object> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+        AtomicInteger running = new AtomicInteger(1);
+        executor.execute(() -> execute(bucketName, StringUtils.defaultString(prefix), queue, running,
+                () -> discover(bucketName, prefix, queue::put, shard -> submitShard(bucketName, shard, queue, running, executor, ordered))));
+
+        Iterator<Item> iterator = new QueueIterator(queue, executor::shutdownNow);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, ordered ? Spliterator.NONNULL | Spliterator.ORDERED : Spliterator.NONNULL), false)
+                .onClose(executor::shutdownNow);
+    }
+
+    /**
+     * 以分隔符逐页查询第一级。同一页中的对象和目录分别返回，按名称合并后依次处理，保证第一级整体有序
+     */
+    private void discover(String bucketName, String prefix, ListingConsumer<Item> itemConsumer, ListingConsumer<String> shardConsumer) throws InterruptedException {
+        ListObjectsArgs args = ListObjectsArgs.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .delimiter(DELIMITER)
+                .recursive(false)
+                .build();
+
+        String continuationToken = null;
+        ListBucketResultV2 result;
+        do {
+            result = objectListingService.listObjectsPage(args, continuationToken).result();
+            List<Item> contents = result.contents();
+            List<Prefix> prefixes = result.commonPrefixes();
+            int i = 0;
+            int j = 0;
+            while (i < contents.size() || j < prefixes.size()) {
+                String shard = j < prefixes.size() ? prefixes.get(j).toItem().objectName() : null;
+                if (shard == null || (i < contents.size() && contents.get(i).objectName().compareTo(shard) < 0)) {
+                    itemConsumer.accept(contents.get(i++));
+                } else {
+                    shardConsumer.accept(shard);
+                    j++;
+                }
+            }
+            continuationToken = result.nextContinuationToken();
+        } while (result.isTruncated());
+    }
+
+    /**
+     * 提交分片查询。有序模式下每个分片使用独立的队列，并将该队列按顺序写入第一级队列；无序模式下所有分片共用第一级队列
+     */
+    private void submitShard(String bucketName, String shard, BlockingQueue<Object> queue, AtomicInteger running, ExecutorService executor, boolean ordered) throws InterruptedException {
+        if (ordered) {
+            BlockingQueue<Object> shardQueue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+            executor.execute(() -> listShard(bucketName, shard, shardQueue, new AtomicInteger(1)));
+            queue.put(shardQueue);
+        } else {
+            running.incrementAndGet();
+            executor.execute(() -> listShard(bucketName, shard, queue, running));
+        }
+    }
+
+    /**
+     * 递归查询一个分片，结果写入队列
+     */
+    private void listShard(String bucketName, String shard, BlockingQueue<Object> queue, AtomicInteger running) {
+        ListObjectsArgs args = ListObjectsArgs.builder()
+                .bucket(bucketName)
+                .prefix(shard)
+                .recursive(true)
+                .build();
+
+        execute(bucketName, shard, queue, running, () -> {
+            String continuationToken = null;
+            ListBucketResultV2 result;
+            do {
+                result = objectListingService.listObjectsPage(args, continuationToken).result();
+                for (Item item : result.contents()) {
+                    queue.put(item);
+                }
+                continuationToken = result.nextContinuationToken();
+            } while (result.isTruncated());
+        });
+    }
+
+    /**
+     * 执行查询任务。出错或被中断时向队列写入异常；共用同一队列的任务全部结束后写入结束标记
+     */
+    private void execute(String bucketName, String prefix, BlockingQueue<Object> queue, AtomicInteger running, ListingTask task) {
+        RuntimeException failure = null;
+        boolean completed = false;
+        try {
+            task.run();
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new CancellationException("Parallel listing interrupted.");
+        } catch (RuntimeException e) {
+            log.error("[Herodotus] |- Parallel listing [{}/{}] catch error.", bucketName, prefix, e);
+            failure = e;
+        } finally {
+            if (!completed) {
+                signal(queue, failure != null ? failure : new IllegalStateException("Parallel listing aborted."));
+            }
+            if (running.decrementAndGet() == 0) {
+                signal(queue, END);
+            }
+        }
+    }
+
+    /**
+     * 向队列写入结束标记或异常，保证一定写入成功
+     */
+    private void signal(BlockingQueue<Object> queue, Object marker) {
+        while (!queue.offer(marker)) {
+            if (Thread.currentThread().isInterrupted()) {
+                // 查询线程只会在 Stream 关闭时被中断，队列中的剩余数据已经不再需要
+                queue.clear();
+            } else {
+                try {
+                    queue.put(marker);
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private ExecutorService createExecutor(int parallelism) {
+        AtomicInteger counter = new AtomicInteger(0);
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "herodotus-minio-listing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @FunctionalInterface
+    private interface ListingTask {
+        void run() throws InterruptedException;
+    }
+
+    @FunctionalInterface
+    private interface ListingConsumer<T> {
+        void accept(T value) throws InterruptedException;
+    }
+
+    /**
+     * 读取队列中的对象。有序模式下队列中可能是分片的队列，此时完整读取该分片队列后再继续读取原队列。
+     * 读取到第一级队列的结束标记或异常时，所有查询均已结束或不再需要，执行结束回调关闭线程池
+     */
+    private static class QueueIterator implements Iterator<Item> {
+
+        private final BlockingQueue<Object> root;
+        private final Runnable onFinished;
+        private BlockingQueue<Object> shard;
+        private boolean finished;
+        private Item next;
+
+        private QueueIterator(BlockingQueue<Object> root, Runnable onFinished) {
+            this.root = root;
+            this.onFinished = onFinished;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean hasNext() {
+            while (next == null && !finished) {
+                Object element = take(shard != null ? shard : root);
+                if (element == END) {
+                    if (shard != null) {
+                        shard = null;
+                    } else {
+                        finish();
+                    }
+                } else if (element instanceof RuntimeException exception) {
+                    finish();
+                    throw exception;
+                } else if (element instanceof BlockingQueue<?> queue) {
+                    shard = (BlockingQueue<Object>) queue;
+                } else {
+                    next = (Item) element;
+                }
+            }
+            return next != null;
+        }
+
+        private Object take(BlockingQueue<Object> queue) {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finish();
+                throw new CancellationException("Parallel listing interrupted.");
+            }
+        }
+
+        private void finish() {
+            finished = true;
+            onFinished.run();
+        }
+
+        @Override
+        public Item next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Item item = next;
+            next = null;
+            return item;
+        }
+    }
+}
@@ -25,24 +25,26 @@
 
 package cn.herodotus.oss.minio.logic.service;
 
-import cn.herodotus.oss.minio.core.exception.*;
+import cn.herodotus.oss.minio.logic.definition.cache.PresignedUrlCache;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.service.BaseMinioClientService;
+import cn.herodotus.oss.minio.logic.definition.signer.MinioPresignedPartUrlSigner;
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
 import io.minio.GetPresignedObjectUrlArgs;
-import io.minio.MinioClient;
 import io.minio.PostPolicy;
-import io.minio.errors.*;
 import io.minio.http.Method;
+import org.apache.commons.lang3.ObjectUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.net.ConnectException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 /**
  * <p>Description: Presigned 相关操作 </p>
@@ -55,8 +57,35 @@ public class PresignedObjectUrlService extends BaseMinioClientService {
 
     private static final Logger log = LoggerFactory.getLogger(PresignedObjectUrlService.class);
 
-    public PresignedObjectUrlService(MinioClientObjectPool minioClientObjectPool) {
+    /**
+     * 分片数量超过该值时，并行计算各分片签名
+     */
+    private static final int PARALLEL_SIGN_THRESHOLD = 1000;
+
+    private final MinioProperties minioProperties;
+    private final PresignedUrlCache presignedUrlCache;
+
+    public PresignedObjectUrlService(MinioClientObjectPool minioClientObjectPool, MinioProperties minioProperties, PresignedUrlCache presignedUrlCache) {
         super(minioClientObjectPool);
+        this.minioProperties = minioProperties;
+        this.presignedUrlCache = presignedUrlCache;
+    }
+
+    /**
+     * 获取上传指定对象的 POST 表单数据。相同参数在复用期内返回相同的表单数据，返回的 Map 不可修改
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @param duration   过期时间
+     * @param unit       过期时间单位
+     * @return {@link  Map}
+     */
+    public Map<String, String> getPresignedPostFormData(String bucketName, String objectName, int duration, TimeUnit unit) {
+        return presignedUrlCache.getPostFormData(bucketName, objectName, duration, unit, () -> {
+            PostPolicy postPolicy = new PostPolicy(bucketName, ZonedDateTime.now().plusSeconds(unit.toSeconds(duration)));
+            postPolicy.addEqualsCondition("key", objectName);
+            return getPresignedPostFormData(postPolicy);
+        });
     }
 
     /**
@@ -68,45 +97,7 @@ public class PresignedObjectUrlService extends BaseMinioClientService {
      * @return {@link  Map}
      */
     public Map<String, String> getPresignedPostFormData(PostPolicy postPolicy) {
-        String function = "getPresignedPostFormData";
-        MinioClient minioClient = getMinioClient();
-
-        try {
-            return minioClient.getPresignedPostFormData(postPolicy);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
-            }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
-        }
+        return withClient("getPresignedPostFormData", minioClient -> minioClient.getPresignedPostFormData(postPolicy));
     }
 
     /**
@@ -196,44 +187,84 @@ public class PresignedObjectUrlService extends BaseMinioClientService {
      * @return url string
      */
     public String getPresignedObjectUrl(GetPresignedObjectUrlArgs getPresignedObjectUrlArgs) {
-        String function = "getPresignedObjectUrl";
-        MinioClient minioClient = getMinioClient();
+        return presignedUrlCache.get(getPresignedObjectUrlArgs, () -> doGetPresignedObjectUrl(getPresignedObjectUrlArgs));
+    }
+
+    private String doGetPresignedObjectUrl(GetPresignedObjectUrlArgs getPresignedObjectUrlArgs) {
+        return withClient("getPresignedObjectUrl", minioClient -> minioClient.getPresignedObjectUrl(getPresignedObjectUrlArgs));
+    }
+
+    /**
+     * 批量获取分片上传的预签名地址，分片号从 startPartNumber 开始，连续生成 size 个。
+     * <p>
+     * 整个批次只借用一次 Client：先由 SDK 生成第一个分片的地址作为模版，再由 {@link MinioPresignedPartUrlSigner} 复用同一个签名密钥为其余分片签名。
+     * 如果模版签名无法被正确复现（例如使用了非静态的认证方式），则回退到使用同一个 Client 逐个调用 SDK 签名。
+     *
+     * @param bucketName      存储桶名称
+     * @param region          区域
+     * @param objectName      对象名称
+     * @param uploadId        分片上传 UploadId
+     * @param startPartNumber 起始分片号，从 1 开始
+     * @param size            生成数量
+     * @param duration        过期时间
+     * @param unit            过期时间单位
+     * @return 按分片号顺序排列的预签名地址
+     */
+    public List<String> getPresignedPartUrls(String bucketName, String region, String objectName, String uploadId, int startPartNumber, int size, int duration, TimeUnit unit) {
+        if (size <= 0) {
+            return new ArrayList<>();
+        }
+
+        return withClient("getPresignedPartUrls", minioClient -> {
+            String template = minioClient.getPresignedObjectUrl(createPartArgs(bucketName, region, objectName, uploadId, startPartNumber, duration, unit));
+
+            MinioPresignedPartUrlSigner signer = createSigner(template);
+            if (ObjectUtils.isNotEmpty(signer)) {
+                IntStream partNumbers = IntStream.range(startPartNumber + 1, startPartNumber + size);
+                if (size > PARALLEL_SIGN_THRESHOLD) {
+                    partNumbers = partNumbers.parallel();
+                }
+
+                List<String> urls = new ArrayList<>(size);
+                urls.add(template);
+                urls.addAll(partNumbers.mapToObj(signer::sign).toList());
+                return urls;
+            }
+
+            List<String> urls = new ArrayList<>(size);
+            urls.add(template);
+            for (int partNumber = startPartNumber + 1; partNumber < startPartNumber + size; partNumber++) {
+                urls.add(minioClient.getPresignedObjectUrl(createPartArgs(bucketName, region, objectName, uploadId, partNumber, duration, unit)));
+            }
+            return urls;
+        });
+    }
+
+    private GetPresignedObjectUrlArgs createPartArgs(String bucketName, String region, String objectName, String uploadId, int partNumber, int duration, TimeUnit unit) {
+        Map<String, String> extraQueryParams = new HashMap<>();
+        extraQueryParams.put("partNumber", String.valueOf(partNumber));
+        extraQueryParams.put("uploadId", uploadId);
+
+        return GetPresignedObjectUrlArgs.builder()
+                .bucket(bucketName)
+                .region(region)
+                .object(objectName)
+                .method(Method.PUT)
+                .extraQueryParams(extraQueryParams)
+                .expiry(duration, unit)
+                .build();
+    }
 
+    private MinioPresignedPartUrlSigner createSigner(String template) {
         try {
-            return minioClient.getPresignedObjectUrl(getPresignedObjectUrlArgs);
-        } catch (ErrorResponseException e) {
-            log.error("[Herodotus] |- Minio catch ErrorResponseException in [{}].", function, e);
-            throw new MinioErrorResponseException(e.getMessage());
-        } catch (InsufficientDataException e) {
-            log.error("[Herodotus] |- Minio catch InsufficientDataException in [{}].", function, e);
-            throw new MinioInsufficientDataException(e.getMessage());
-        } catch (InternalException e) {
-            log.error("[Herodotus] |- Minio catch InternalException in [{}].", function, e);
-            throw new MinioInternalException(e.getMessage());
-        } catch (InvalidKeyException e) {
-            log.error("[Herodotus] |- Minio catch InvalidKeyException in [{}].", function, e);
-            throw new MinioInvalidKeyException(e.getMessage());
-        } catch (InvalidResponseException e) {
-            log.error("[Herodotus] |- Minio catch InvalidResponseException in [{}].", function, e);
-            throw new MinioInvalidResponseException(e.getMessage());
-        } catch (IOException e) {
-            log.error("[Herodotus] |- Minio catch IOException in [{}].", function, e);
-            if (e instanceof ConnectException) {
-                throw new MinioConnectException(e.getMessage());
-            } else {
-                throw new MinioIOException(e.getMessage());
+            MinioPresignedPartUrlSigner signer = new MinioPresignedPartUrlSigner(template, Method.PUT, minioProperties.getSecretKey());
+            if (signer.verify()) {
+                return signer;
             }
-        } catch (NoSuchAlgorithmException e) {
-            log.error("[Herodotus] |- Minio catch NoSuchAlgorithmException in [{}].", function, e);
-            throw new MinioNoSuchAlgorithmException(e.getMessage());
-        } catch (ServerException e) {
-            log.error("[Herodotus] |- Minio catch ServerException in [{}].", function, e);
-            throw new MinioServerException(e.getMessage());
-        } catch (XmlParserException e) {
-            log.error("[Herodotus] |- Minio catch XmlParserException in [{}].", function, e);
-            throw new MinioXmlParserException(e.getMessage());
-        } finally {
-            close(minioClient);
+            log.warn("[Herodotus] |- Presigned part url signature can not be reproduced, fallback to sign one by one.");
+        } catch (RuntimeException e) {
+            log.warn("[Herodotus] |- Create presigned part url signer catch error, fallback to sign one by one.", e);
         }
+        return null;
     }
 }
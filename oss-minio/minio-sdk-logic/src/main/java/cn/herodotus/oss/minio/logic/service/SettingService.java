@@ -25,74 +25,109 @@
 
 package cn.herodotus.oss.minio.logic.service;
 
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAdminClientObjectPool;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
 import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
-import cn.herodotus.oss.minio.logic.definition.service.BaseMinioClientService;
-import io.minio.MinioClient;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioHttpClientFactory;
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.function.Consumer;
+
 /**
  * <p>Description: 设置相关操作 </p>
+ * <p>
+ * 设置作用于所有的 Client，而不是对象池恰好借出的某一个 Client。修改 {@link MinioProperties.Client} 后刷新各对象池：
+ * 空闲的 Client 立即按新设置重建，借出的 Client 归还后重建。
  *
  * @author : gengwei.zheng
  * @date : 2023/4/16 16:10
  */
 @Service
-public class SettingService extends BaseMinioClientService {
+public class SettingService {
 
     private static final Logger log = LoggerFactory.getLogger(SettingService.class);
 
-    public SettingService(MinioClientObjectPool minioClientObjectPool) {
-        super(minioClientObjectPool);
+    private final MinioProperties minioProperties;
+    private final MinioHttpClientFactory minioHttpClientFactory;
+    private final MinioClientObjectPool minioClientObjectPool;
+    private final MinioAsyncClientObjectPool minioAsyncClientObjectPool;
+    private final MinioAdminClientObjectPool minioAdminClientObjectPool;
+
+    public SettingService(MinioProperties minioProperties, MinioHttpClientFactory minioHttpClientFactory, MinioClientObjectPool minioClientObjectPool, MinioAsyncClientObjectPool minioAsyncClientObjectPool, MinioAdminClientObjectPool minioAdminClientObjectPool) {
+        this.minioProperties = minioProperties;
+        this.minioHttpClientFactory = minioHttpClientFactory;
+        this.minioClientObjectPool = minioClientObjectPool;
+        this.minioAsyncClientObjectPool = minioAsyncClientObjectPool;
+        this.minioAdminClientObjectPool = minioAdminClientObjectPool;
+    }
+
+    /**
+     * 获取当前的 Client 通用设置
+     *
+     * @return {@link MinioProperties.Client}
+     */
+    public MinioProperties.Client getSettings() {
+        return minioProperties.getClient();
+    }
+
+    /**
+     * 修改 Client 通用设置，并刷新所有对象池
+     *
+     * @param modifier 具体修改操作
+     */
+    public synchronized void update(Consumer<MinioProperties.Client> modifier) {
+        modifier.accept(minioProperties.getClient());
+        log.info("[Herodotus] |- Minio client settings changed to [{}].", minioProperties.getClient());
+        minioHttpClientFactory.refresh();
+        minioClientObjectPool.refresh();
+        minioAsyncClientObjectPool.refresh();
+        minioAdminClientObjectPool.refresh();
     }
 
     /**
      * Disables accelerate endpoint for Amazon S3 endpoint.
      */
     public void disableAccelerateEndpoint() {
-        MinioClient minioClient = getMinioClient();
-        minioClient.disableAccelerateEndpoint();
+        update(client -> client.setAccelerateEndpoint(false));
     }
 
     /**
      * Enables accelerate endpoint for Amazon S3 endpoint.
      */
     public void enableAccelerateEndpoint() {
-        MinioClient minioClient = getMinioClient();
-        minioClient.enableAccelerateEndpoint();
+        update(client -> client.setAccelerateEndpoint(true));
     }
 
     /**
      * Disables dual-stack endpoint for Amazon S3 endpoint.
      */
     public void disableDualStackEndpoint() {
-        MinioClient minioClient = getMinioClient();
-        minioClient.disableDualStackEndpoint();
+        update(client -> client.setDualStackEndpoint(false));
     }
 
     /**
      * Enables dual-stack endpoint for Amazon S3 endpoint.
      */
     public void enableDualStackEndpoint() {
-        MinioClient minioClient = getMinioClient();
-        minioClient.enableDualStackEndpoint();
+        update(client -> client.setDualStackEndpoint(true));
     }
 
     /**
      * Disables virtual-style endpoint
      */
     public void disableVirtualStyleEndpoint() {
-        MinioClient minioClient = getMinioClient();
-        minioClient.disableVirtualStyleEndpoint();
+        update(client -> client.setVirtualStyleEndpoint(false));
     }
 
     /**
      * Enables virtual-style endpoint.
      */
     public void enableVirtualStyleEndpoint() {
-        MinioClient minioClient = getMinioClient();
-        minioClient.enableVirtualStyleEndpoint();
+        update(client -> client.setVirtualStyleEndpoint(true));
     }
 
     /**
@@ -100,7 +135,7 @@ public class SettingService extends BaseMinioClientService {
      * must be between 1 and Integer.MAX_VALUE when converted to milliseconds.
      *
      * <pre>Example:{@code
-     * minioClient.setTimeout(TimeUnit.SECONDS.toMillis(10), TimeUnit.SECONDS.toMillis(10),
+     * settingService.setTimeout(TimeUnit.SECONDS.toMillis(10), TimeUnit.SECONDS.toMillis(10),
      *     TimeUnit.SECONDS.toMillis(30));
      * }</pre>
      *
@@ -109,8 +144,24 @@ public class SettingService extends BaseMinioClientService {
      * @param readTimeout    HTTP read timeout in milliseconds.
      */
     public void setTimeout(long connectTimeout, long writeTimeout, long readTimeout) {
-        MinioClient minioClient = getMinioClient();
-        minioClient.setTimeout(connectTimeout, writeTimeout, readTimeout);
+        update(client -> {
+            client.setConnectTimeout(Duration.ofMillis(connectTimeout));
+            client.setWriteTimeout(Duration.ofMillis(writeTimeout));
+            client.setReadTimeout(Duration.ofMillis(readTimeout));
+        });
+    }
+
+    /**
+     * 设置下载对象和合并对象时使用的读超时，为 null 时使用默认读超时。每次请求时读取，无需刷新对象池即可生效
+     *
+     * @param getObjectReadTimeout 下载对象读超时
+     * @param composeReadTimeout   合并、复制对象以及完成分片上传读超时
+     */
+    public synchronized void setOperationTimeout(Duration getObjectReadTimeout, Duration composeReadTimeout) {
+        MinioProperties.Client client = minioProperties.getClient();
+        client.setGetObjectReadTimeout(getObjectReadTimeout);
+        client.setComposeReadTimeout(composeReadTimeout);
+        log.info("[Herodotus] |- Minio operation read timeout changed to get [{}], compose [{}].", getObjectReadTimeout, composeReadTimeout);
     }
 
     /**
@@ -121,7 +172,9 @@ public class SettingService extends BaseMinioClientService {
      * @param version Your application version.
      */
     public void setAppInfo(String name, String version) {
-        MinioClient minioClient = getMinioClient();
-        minioClient.setAppInfo(name, version);
+        update(client -> {
+            client.setAppName(name);
+            client.setAppVersion(version);
+        });
     }
 }
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cache;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import io.minio.GetObjectArgs;
+import io.minio.StatObjectResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * <p>Description: 本地磁盘对象缓存测试 </p>
+ * <p>
+ * 块大小设置为 4 字节，10 字节的对象分为 3 块，便于验证按块填充和合并读取。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 17:20
+ */
+class DiskObjectCacheTest {
+
+    private static final String BUCKET = "bucket";
+    private static final String OBJECT = "model.bin";
+
+    @TempDir
+    Path directory;
+
+    private final List<String> loads = new CopyOnWriteArrayList<>();
+    private byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+    private DiskObjectCache diskObjectCache;
+    /**
+     * 开始从 Minio 读取时计数减一，用于确认下载已经开始
+     */
+    private CountDownLatch loading;
+    /**
+     * 不为空时，从 Minio 读取需等待该门闩打开，用于模拟慢速下载
+     */
+    private volatile CountDownLatch gate;
+
+    @BeforeEach
+    void setUp() {
+        diskObjectCache = create();
+    }
+
+    private DiskObjectCache create() {
+        MinioProperties minioProperties = new MinioProperties();
+        MinioProperties.DiskCache properties = minioProperties.getDiskCache();
+        properties.setEnabled(true);
+        properties.setBuckets(List.of(BUCKET));
+        properties.setDirectory(directory);
+        properties.setMinSize(DataSize.ofBytes(8));
+        properties.setBlockSize(DataSize.ofBytes(4));
+        return new DiskObjectCache(minioProperties);
+    }
+
+    private InputStream load(long offset, long length) {
+        loads.add(offset + "+" + length);
+        CountDownLatch current = gate;
+        if (current != null) {
+            loading.countDown();
+            try {
+                assertTrue(current.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        return new ByteArrayInputStream(content, (int) offset, (int) length);
+    }
+
+    private String read(String etag, long offset, long length) throws IOException {
+        try (InputStream inputStream = diskObjectCache.open(BUCKET, OBJECT, null, etag, content.length, offset, length, this::load)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private FutureTask<String> readAsync(long offset, long length) {
+        FutureTask<String> task = new FutureTask<>(() -> read("e1", offset, length));
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+        return task;
+    }
+
+    private long countFiles(String suffix) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.toString().endsWith(suffix)).count();
+        }
+    }
+
+    /**
+     * 淘汰监听异步删除文件，等待删除完成
+     */
+    private void awaitFiles(long expected) throws IOException, InterruptedException {
+        for (int i = 0; i < 100 && countFiles(".data") != expected; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, countFiles(".data"));
+    }
+
+    @Test
+    void cacheabilityFollowsBucketSizeAndEtag() {
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.size()).thenReturn(10L);
+        when(stat.etag()).thenReturn("e1");
+        StatObjectResponse small = mock(StatObjectResponse.class);
+        when(small.size()).thenReturn(4L);
+        when(small.etag()).thenReturn("e1");
+
+        assertTrue(diskObjectCache.isCacheable(GetObjectArgs.builder().bucket(BUCKET).object(OBJECT).build(), stat));
+        assertTrue(diskObjectCache.isCacheable(GetObjectArgs.builder().bucket(BUCKET).object(OBJECT).offset(2L).length(3L).build(), stat));
+        assertTrue(diskObjectCache.isCacheable(GetObjectArgs.builder().bucket(BUCKET).object(OBJECT).matchETag("e1").build(), stat));
+        assertFalse(diskObjectCache.isCacheable(GetObjectArgs.builder().bucket(BUCKET).object(OBJECT).matchETag("e0").build(), stat));
+        assertFalse(diskObjectCache.isCacheable(GetObjectArgs.builder().bucket(BUCKET).object(OBJECT).build(), small));
+        assertFalse(diskObjectCache.isCacheable(GetObjectArgs.builder().bucket("other").object(OBJECT).build(), stat));
+    }
+
+    @Test
+    void fillsBlocksOnDemandAndServesFromDisk() throws IOException {
+        assertEquals("567", read("e1", 5, 3));
+        assertEquals(List.of("4+4"), loads);
+
+        assertEquals("0123456789", read("e1", 0, 10));
+        assertEquals(List.of("4+4", "0+4", "8+2"), loads);
+
+        assertEquals("3456789", read("e1", 3, 100));
+        assertEquals(3, loads.size());
+    }
+
+    @Test
+    void transferToMergesMissingBlocks() throws IOException {
+        Path target = directory.resolve("target.bin");
+        diskObjectCache.transferTo(BUCKET, OBJECT, null, "e1", content.length, target, this::load);
+        assertEquals(List.of("0+10"), loads);
+        assertArrayEquals(content, Files.readAllBytes(target));
+
+        Path second = directory.resolve("second.bin");
+        diskObjectCache.transferTo(BUCKET, OBJECT, null, "e1", content.length, second, this::load);
+        assertEquals(1, loads.size());
+        assertArrayEquals(content, Files.readAllBytes(second));
+    }
+
+    @Test
+    void transferToOnlyLoadsMissingRanges() throws IOException {
+        assertEquals("4567", read("e1", 4, 4));
+
+        Path target = directory.resolve("target.bin");
+        diskObjectCache.transferTo(BUCKET, OBJECT, null, "e1", content.length, target, this::load);
+        assertEquals(List.of("4+4", "0+4", "8+2"), loads);
+        assertArrayEquals(content, Files.readAllBytes(target));
+    }
+
+    @Test
+    void etagChangeDiscardsOldFile() throws IOException, InterruptedException {
+        assertEquals("0123456789", read("e1", 0, 10));
+
+        content = "abcdefghij".getBytes(StandardCharsets.UTF_8);
+        assertEquals("abcdefghij", read("e2", 0, 10));
+        assertEquals(6, loads.size());
+        awaitFiles(1);
+
+        assertEquals("abcdefghij", read("e2", 0, 10));
+        assertEquals(6, loads.size());
+    }
+
+    @Test
+    void invalidateReloadsAndKeepsNewFiles() throws IOException, InterruptedException {
+        assertEquals("0123456789", read("e1", 0, 10));
+
+        diskObjectCache.invalidate(BUCKET, OBJECT);
+        awaitFiles(0);
+
+        // 重新填充使用新的文件，不会被旧条目的异步删除影响
+        assertEquals("0123456789", read("e1", 0, 10));
+        assertEquals(6, loads.size());
+        awaitFiles(1);
+        assertEquals("0123456789", read("e1", 0, 10));
+        assertEquals(6, loads.size());
+    }
+
+    @Test
+    void evictionWhileReadingFallsBackToLoader() throws IOException, InterruptedException {
+        try (InputStream inputStream = diskObjectCache.open(BUCKET, OBJECT, null, "e1", content.length, 0, 10, this::load)) {
+            byte[] first = new byte[4];
+            assertEquals(4, inputStream.read(first));
+            assertEquals("0123", new String(first, StandardCharsets.UTF_8));
+
+            diskObjectCache.invalidate(BUCKET, OBJECT);
+            awaitFiles(0);
+
+            assertEquals("456789", new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(List.of("0+4", "4+6"), loads);
+        assertEquals(0, countFiles(".data"));
+    }
+
+    @Test
+    void reloadsFilledBlocksAfterRestart() throws IOException {
+        assertEquals("0123", read("e1", 0, 4));
+
+        diskObjectCache = create();
+        assertEquals("0123456789", read("e1", 0, 10));
+        assertEquals(List.of("0+4", "4+4", "8+2"), loads);
+    }
+
+    @Test
+    void downloadDoesNotBlockReadersOfFilledBlocks() throws Exception {
+        assertEquals("0123", read("e1", 0, 4));
+
+        loading = new CountDownLatch(1);
+        gate = new CountDownLatch(1);
+        FutureTask<String> slow = readAsync(4, 4);
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+        // 第 2 块正在下载时，读取已缓存的第 1 块不需要等待
+        FutureTask<String> cached = readAsync(0, 4);
+        assertEquals("0123", cached.get(5, TimeUnit.SECONDS));
+        assertFalse(slow.isDone());
+
+        gate.countDown();
+        assertEquals("4567", slow.get(10, TimeUnit.SECONDS));
+        assertEquals(List.of("0+4", "4+4"), loads);
+    }
+
+    @Test
+    void concurrentReadersOfSameBlockLoadOnce() throws Exception {
+        loading = new CountDownLatch(1);
+        gate = new CountDownLatch(1);
+        FutureTask<String> first = readAsync(4, 4);
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+        FutureTask<String> second = readAsync(4, 4);
+        // 第二个读取方等待第一个读取方完成下载，而不是重复下载
+        Thread.sleep(200);
+        assertFalse(second.isDone());
+
+        gate.countDown();
+        assertEquals("4567", first.get(10, TimeUnit.SECONDS));
+        assertEquals("4567", second.get(10, TimeUnit.SECONDS));
+        assertEquals(List.of("4+4"), loads);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cache;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import okhttp3.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Description: 小对象内容缓存测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 17:10
+ */
+class ObjectContentCacheTest {
+
+    private static final String BUCKET = "bucket";
+
+    private ObjectContentCache objectContentCache;
+
+    @BeforeEach
+    void setUp() {
+        MinioProperties minioProperties = new MinioProperties();
+        MinioProperties.ContentCache properties = minioProperties.getContentCache();
+        properties.setEnabled(true);
+        properties.setBuckets(List.of(BUCKET));
+        properties.setThreshold(DataSize.ofBytes(16));
+        objectContentCache = new ObjectContentCache(minioProperties);
+    }
+
+    private static GetObjectArgs args(String objectName, String versionId) {
+        return GetObjectArgs.builder().bucket(BUCKET).object(objectName).versionId(versionId).build();
+    }
+
+    private static GetObjectResponse response(String objectName, String content, String etag) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Headers headers = Headers.of("Content-Length", String.valueOf(bytes.length), "ETag", "\"" + etag + "\"");
+        return new GetObjectResponse(headers, BUCKET, null, objectName, new ByteArrayInputStream(bytes));
+    }
+
+    private static String read(GetObjectResponse response) throws IOException {
+        try (response) {
+            return new String(response.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void onlyPlainReadsOfListedBucketsAreCacheable() {
+        assertTrue(objectContentCache.isCacheable(args("a", null)));
+        assertTrue(objectContentCache.isCacheable(args("a", "v1")));
+        assertFalse(objectContentCache.isCacheable(GetObjectArgs.builder().bucket("other").object("a").build()));
+        assertFalse(objectContentCache.isCacheable(GetObjectArgs.builder().bucket(BUCKET).object("a").offset(1L).build()));
+        assertFalse(objectContentCache.isCacheable(GetObjectArgs.builder().bucket(BUCKET).object("a").matchETag("e1").build()));
+    }
+
+    @Test
+    void cachedContentIsServedWhileEtagMatches() throws IOException {
+        assertEquals("hello", read(objectContentCache.put(args("a", null), response("a", "hello", "e1"))));
+
+        // 每次读取使用独立的 Buffer 视图
+        assertEquals("hello", read(objectContentCache.get(args("a", null), "e1")));
+        assertEquals("hello", read(objectContentCache.get(args("a", null), "e1")));
+        assertEquals(0, objectContentCache.getStaleHits());
+    }
+
+    @Test
+    void etagMismatchDiscardsCachedContent() throws IOException {
+        objectContentCache.put(args("a", null), response("a", "hello", "e1"));
+
+        assertNull(objectContentCache.get(args("a", null), "e2"));
+        assertEquals(1, objectContentCache.getStaleHits());
+        // 过期的内容已被删除，即使再以旧 ETag 读取也不会命中
+        assertNull(objectContentCache.get(args("a", null), "e1"));
+    }
+
+    @Test
+    void largeOrUnknownLengthObjectsAreNotCached() throws IOException {
+        GetObjectResponse large = response("large", "0123456789abcdefXYZ", "e1");
+        assertSame(large, objectContentCache.put(args("large", null), large));
+        assertEquals("0123456789abcdefXYZ", read(large));
+        assertNull(objectContentCache.get(args("large", null), "e1"));
+
+        GetObjectResponse unknown = new GetObjectResponse(Headers.of("ETag", "e1"), BUCKET, null, "unknown", new ByteArrayInputStream(new byte[1]));
+        assertSame(unknown, objectContentCache.put(args("unknown", null), unknown));
+        assertNull(objectContentCache.get(args("unknown", null), "e1"));
+    }
+
+    @Test
+    void invalidateRemovesEveryVersion() throws IOException {
+        objectContentCache.put(args("a", null), response("a", "latest", "e1"));
+        objectContentCache.put(args("a", "v1"), response("a", "old", "e0"));
+        objectContentCache.put(args("ab", null), response("ab", "other", "e2"));
+
+        assertEquals("old", read(objectContentCache.get(args("a", "v1"), "e0")));
+
+        objectContentCache.invalidate(BUCKET, "a");
+        assertNull(objectContentCache.get(args("a", null), "e1"));
+        assertNull(objectContentCache.get(args("a", "v1"), "e0"));
+        // 名称前缀相同的其它对象不受影响
+        assertEquals("other", read(objectContentCache.get(args("ab", null), "e2")));
+    }
+}
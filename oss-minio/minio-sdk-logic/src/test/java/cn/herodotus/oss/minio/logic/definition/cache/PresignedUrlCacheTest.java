@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cache;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.http.Method;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Description: 预签名地址缓存复用时长测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 18:30
+ */
+class PresignedUrlCacheTest {
+
+    private final AtomicInteger signs = new AtomicInteger();
+
+    private static PresignedUrlCache create(boolean enabled, double reuseRatio) {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.getPresignedCache().setEnabled(enabled);
+        minioProperties.getPresignedCache().setReuseRatio(reuseRatio);
+        return new PresignedUrlCache(minioProperties);
+    }
+
+    private static GetPresignedObjectUrlArgs args(String objectName, int expiry) {
+        return GetPresignedObjectUrlArgs.builder().method(Method.GET).bucket("bucket").object(objectName).expiry(expiry).build();
+    }
+
+    private Supplier<String> signer() {
+        return () -> "url-" + signs.incrementAndGet();
+    }
+
+    @Test
+    void sameRequestReusesUrl() {
+        PresignedUrlCache presignedUrlCache = create(true, 0.5);
+        assertEquals("url-1", presignedUrlCache.get(args("a", 3600), signer()));
+        assertEquals("url-1", presignedUrlCache.get(args("a", 3600), signer()));
+
+        // 对象或有效期不同时不复用
+        assertEquals("url-2", presignedUrlCache.get(args("b", 3600), signer()));
+        assertEquals("url-3", presignedUrlCache.get(args("a", 7200), signer()));
+    }
+
+    @Test
+    void urlIsResignedAfterReuseWindow() throws InterruptedException {
+        // 有效期 2 秒，剩余有效期低于一半时重新签名，即只复用 1 秒
+        PresignedUrlCache presignedUrlCache = create(true, 0.5);
+        assertEquals("url-1", presignedUrlCache.get(args("a", 2), signer()));
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertEquals("url-1", presignedUrlCache.get(args("a", 2), signer()));
+
+        // 读取不会延长复用时长
+        TimeUnit.MILLISECONDS.sleep(1000);
+        assertEquals("url-2", presignedUrlCache.get(args("a", 2), signer()));
+    }
+
+    @Test
+    void disabledOrFullRatioNeverReuses() {
+        PresignedUrlCache disabled = create(false, 0.5);
+        assertEquals("url-1", disabled.get(args("a", 3600), signer()));
+        assertEquals("url-2", disabled.get(args("a", 3600), signer()));
+
+        PresignedUrlCache noReuse = create(true, 1.0);
+        assertEquals("url-3", noReuse.get(args("a", 3600), signer()));
+        assertEquals("url-4", noReuse.get(args("a", 3600), signer()));
+    }
+
+    @Test
+    void postFormDataIsImmutable() {
+        PresignedUrlCache presignedUrlCache = create(true, 0.5);
+        Map<String, String> formData = new HashMap<>(Map.of("policy", "p1"));
+        Map<String, String> cached = presignedUrlCache.getPostFormData("bucket", "a", 1, TimeUnit.HOURS, () -> formData);
+
+        // 调用方修改原始数据不影响缓存
+        formData.put("policy", "p2");
+        assertEquals("p1", presignedUrlCache.getPostFormData("bucket", "a", 1, TimeUnit.HOURS, () -> Map.of("policy", "p3")).get("policy"));
+        assertThrows(UnsupportedOperationException.class, () -> cached.put("key", "value"));
+    }
+}
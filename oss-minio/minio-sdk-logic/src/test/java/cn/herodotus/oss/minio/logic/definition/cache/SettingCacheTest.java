@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cache;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Description: 存储桶和对象设置缓存测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 17:50
+ */
+class SettingCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private static SettingCache create(boolean enabled) {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.getSettingCache().setEnabled(enabled);
+        return new SettingCache(minioProperties);
+    }
+
+    private Supplier<SettingCache.Loaded<String>> loader(boolean complete) {
+        return () -> new SettingCache.Loaded<>("value-" + loads.incrementAndGet(), complete);
+    }
+
+    @Test
+    void completeResultIsCached() {
+        SettingCache settingCache = create(true);
+        assertEquals("value-1", settingCache.getBucketSetting("bucket", loader(true)));
+        assertEquals("value-1", settingCache.getBucketSetting("bucket", loader(true)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void incompleteResultIsReturnedButNotCached() {
+        SettingCache settingCache = create(true);
+        // 不完整的结果仍然返回给调用方
+        assertEquals("value-1", settingCache.getBucketSetting("bucket", loader(false)));
+        assertEquals("value-2", settingCache.getBucketSetting("bucket", loader(true)));
+        assertEquals("value-2", settingCache.getBucketSetting("bucket", loader(true)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void concurrentReaderDoesNotSeeIncompleteResult() throws Exception {
+        SettingCache settingCache = create(true);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> settingCache.getObjectSetting("bucket", "a", () -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new SettingCache.Loaded<>("partial", false);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> settingCache.getObjectSetting("bucket", "a", () -> new SettingCache.Loaded<>("full", true)));
+        release.countDown();
+
+        assertEquals("partial", first.get(5, TimeUnit.SECONDS));
+        assertEquals("full", second.get(5, TimeUnit.SECONDS));
+        assertEquals("full", settingCache.getObjectSetting("bucket", "a", loader(true)));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        SettingCache settingCache = create(false);
+        settingCache.getBucketSetting("bucket", loader(true));
+        settingCache.getBucketSetting("bucket", loader(true));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateBucketRemovesItsObjectsOnly() {
+        SettingCache settingCache = create(true);
+        settingCache.getBucketSetting("bucket", loader(true));
+        settingCache.getObjectSetting("bucket", "a", loader(true));
+        settingCache.getBucketSetting("bucket-2", loader(true));
+
+        settingCache.invalidateBucket("bucket");
+        assertEquals(1, settingCache.getNativeCache().estimatedSize());
+        assertNotNull(settingCache.getNativeCache().getIfPresent("bucket-2"));
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cache;
+
+import cn.herodotus.oss.minio.core.exception.MinioErrorResponseException;
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * <p>Description: statObject 结果缓存测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 17:00
+ */
+class StatObjectCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private StatObjectCache statObjectCache;
+
+    @BeforeEach
+    void setUp() {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.getStatCache().setEnabled(true);
+        statObjectCache = new StatObjectCache(minioProperties);
+    }
+
+    private static StatObjectArgs args(String bucketName, String objectName) {
+        return StatObjectArgs.builder().bucket(bucketName).object(objectName).build();
+    }
+
+    private Function<StatObjectArgs, StatObjectResponse> loader() {
+        return args -> {
+            loads.incrementAndGet();
+            return mock(StatObjectResponse.class);
+        };
+    }
+
+    private Function<StatObjectArgs, StatObjectResponse> failing(String code) {
+        ErrorResponse errorResponse = mock(ErrorResponse.class);
+        when(errorResponse.code()).thenReturn(code);
+        ErrorResponseException cause = mock(ErrorResponseException.class);
+        when(cause.errorResponse()).thenReturn(errorResponse);
+        return args -> {
+            loads.incrementAndGet();
+            throw new MinioErrorResponseException(code, cause);
+        };
+    }
+
+    @Test
+    void cachesResponseUntilInvalidated() {
+        StatObjectResponse first = statObjectCache.get(args("bucket", "a"), loader());
+        assertSame(first, statObjectCache.get(args("bucket", "a"), loader()));
+        assertEquals(1, loads.get());
+
+        statObjectCache.invalidate("bucket", "a");
+        assertNotSame(first, statObjectCache.get(args("bucket", "a"), loader()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateBucketOnlyAffectsThatBucket() {
+        statObjectCache.get(args("bucket", "a"), loader());
+        statObjectCache.get(args("bucket", "b"), loader());
+        statObjectCache.get(args("bucket2", "a"), loader());
+        assertEquals(3, loads.get());
+
+        statObjectCache.invalidateBucket("bucket");
+        statObjectCache.get(args("bucket", "a"), loader());
+        statObjectCache.get(args("bucket", "b"), loader());
+        statObjectCache.get(args("bucket2", "a"), loader());
+        assertEquals(5, loads.get());
+
+        statObjectCache.invalidateAll();
+        statObjectCache.get(args("bucket2", "a"), loader());
+        assertEquals(6, loads.get());
+    }
+
+    @Test
+    void conditionalRequestsBypassCache() {
+        StatObjectArgs versioned = StatObjectArgs.builder().bucket("bucket").object("a").versionId("v1").build();
+        StatObjectArgs conditional = StatObjectArgs.builder().bucket("bucket").object("a").matchETag("etag").build();
+
+        statObjectCache.get(versioned, loader());
+        statObjectCache.get(versioned, loader());
+        statObjectCache.get(conditional, loader());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void notFoundIsCachedNegatively() {
+        assertThrows(MinioErrorResponseException.class, () -> statObjectCache.get(args("bucket", "missing"), failing("NoSuchKey")));
+        MinioErrorResponseException cached = assertThrows(MinioErrorResponseException.class, () -> statObjectCache.get(args("bucket", "missing"), loader()));
+        assertEquals("NoSuchKey", cached.getMessage());
+        assertEquals(1, loads.get());
+
+        // 对象被创建后失效缓存，立即可以读取到
+        statObjectCache.invalidate("bucket", "missing");
+        assertNotNull(statObjectCache.get(args("bucket", "missing"), loader()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void otherErrorsAreNotCached() {
+        assertThrows(MinioErrorResponseException.class, () -> statObjectCache.get(args("bucket", "a"), failing("AccessDenied")));
+        assertNotNull(statObjectCache.get(args("bucket", "a"), loader()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void changedObjectIsInvalidatedByFreshStat() {
+        StatObjectResponse cached = mock(StatObjectResponse.class);
+        when(cached.etag()).thenReturn("e1");
+        statObjectCache.get(args("bucket", "a"), a -> cached);
+
+        StatObjectResponse same = mock(StatObjectResponse.class);
+        when(same.etag()).thenReturn("e1");
+        statObjectCache.invalidateIfChanged(args("bucket", "a"), same);
+        assertSame(cached, statObjectCache.get(args("bucket", "a"), loader()));
+        assertEquals(0, loads.get());
+
+        StatObjectResponse changed = mock(StatObjectResponse.class);
+        when(changed.etag()).thenReturn("e2");
+        statObjectCache.invalidateIfChanged(args("bucket", "a"), changed);
+        assertNotSame(cached, statObjectCache.get(args("bucket", "a"), loader()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void removedObjectIsInvalidatedByFreshStat() {
+        statObjectCache.get(args("bucket", "a"), loader());
+        statObjectCache.invalidateIfChanged(args("bucket", "a"), null);
+        statObjectCache.get(args("bucket", "a"), loader());
+        assertEquals(2, loads.get());
+
+        // 缓存的不存在结果在对象重新出现后失效
+        assertThrows(MinioErrorResponseException.class, () -> statObjectCache.get(args("bucket", "b"), failing("NoSuchKey")));
+        statObjectCache.invalidateIfChanged(args("bucket", "b"), mock(StatObjectResponse.class));
+        assertNotNull(statObjectCache.get(args("bucket", "b"), loader()));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        StatObjectCache disabled = new StatObjectCache(new MinioProperties());
+
+        disabled.get(args("bucket", "a"), loader());
+        disabled.get(args("bucket", "a"), loader());
+        assertEquals(2, loads.get());
+    }
+}
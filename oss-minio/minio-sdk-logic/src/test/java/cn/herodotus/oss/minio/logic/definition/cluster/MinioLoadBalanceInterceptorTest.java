@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cluster;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import okhttp3.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * <p>Description: Minio 多节点负载均衡拦截器测试 </p>
+ * <p>
+ * 各节点的响应由节点主机名决定，-1 表示网络错误。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 17:50
+ */
+class MinioLoadBalanceInterceptorTest {
+
+    private static final String URL = "http://minio:9000/bucket/object";
+    private static final int NETWORK_ERROR = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<Request> targets = new ArrayList<>();
+    private MinioLoadBalancer minioLoadBalancer;
+    private MinioLoadBalanceInterceptor minioLoadBalanceInterceptor;
+
+    @BeforeEach
+    void setUp() {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.setEndpoint("http://minio:9000");
+        minioProperties.setEndpoints(List.of("http://node1:9000", "http://node2:9000", "http://node3:9000"));
+        minioLoadBalancer = new MinioLoadBalancer(minioProperties);
+        minioLoadBalanceInterceptor = new MinioLoadBalanceInterceptor(minioLoadBalancer);
+    }
+
+    private Response intercept(String method, String url) throws IOException {
+        RequestBody body = "PUT".equals(method) ? RequestBody.create(new byte[1], (MediaType) null) : null;
+        Request request = new Request.Builder().url(url).method(method, body).build();
+
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any())).thenAnswer(invocation -> {
+            Request target = invocation.getArgument(0);
+            targets.add(target);
+            int code = codes.getOrDefault(target.url().host(), 200);
+            if (code == NETWORK_ERROR) {
+                throw new IOException("Connection refused: " + target.url().host());
+            }
+            return new Response.Builder()
+                    .request(target)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(code)
+                    .message("Status " + code)
+                    .body(ResponseBody.create("content", (MediaType) null))
+                    .build();
+        });
+        return minioLoadBalanceInterceptor.intercept(chain);
+    }
+
+    private MinioNode node(int index) {
+        return minioLoadBalancer.getNodes().get(index);
+    }
+
+    private Set<String> targetHosts() {
+        Set<String> hosts = new HashSet<>();
+        targets.forEach(target -> hosts.add(target.url().host()));
+        return hosts;
+    }
+
+    private void assertNoOutstanding() {
+        minioLoadBalancer.getNodes().forEach(node -> assertEquals(0, node.getOutstanding(), node.getAddress()));
+    }
+
+    @Test
+    void requestsToOtherHostsAreNotRewritten() throws IOException {
+        try (Response response = intercept("GET", "http://other:9000/bucket/object")) {
+            assertEquals(200, response.code());
+        }
+        assertEquals("other", targets.get(0).url().host());
+        assertNull(targets.get(0).header("Host"));
+        assertEquals(0, node(0).getRequests() + node(1).getRequests() + node(2).getRequests());
+    }
+
+    @Test
+    void requestIsRewrittenAndKeepsHostHeader() throws IOException {
+        try (Response response = intercept("GET", URL + "?versionId=1")) {
+            assertEquals("content", response.body().string());
+        }
+        Request target = targets.get(0);
+        assertEquals("http://node1:9000/bucket/object?versionId=1", target.url().toString());
+        assertEquals("minio:9000", target.header("Host"));
+        assertNoOutstanding();
+    }
+
+    @Test
+    void outstandingIsReleasedWhenBodyIsClosed() throws IOException {
+        Response response = intercept("GET", URL);
+        assertEquals(1, node(0).getOutstanding());
+        response.close();
+        assertNoOutstanding();
+    }
+
+    @Test
+    void idempotentRequestFailsOverToOtherNodes() throws IOException {
+        codes.put("node1", NETWORK_ERROR);
+        codes.put("node2", 503);
+
+        try (Response response = intercept("GET", URL)) {
+            assertEquals(200, response.code());
+            assertEquals("node3", response.request().url().host());
+        }
+        assertEquals(targets.size(), targetHosts().size());
+        targets.forEach(target -> assertEquals("minio:9000", target.header("Host")));
+        assertEquals(1, node(0).getFailures());
+        assertNoOutstanding();
+    }
+
+    @Test
+    void lastAttemptReturnsRetryableResponse() throws IOException {
+        codes.put("node1", 503);
+        codes.put("node2", 503);
+        codes.put("node3", 503);
+
+        try (Response response = intercept("GET", URL)) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(Set.of("node1", "node2", "node3"), targetHosts());
+        minioLoadBalancer.getNodes().forEach(node -> assertEquals(1, node.getFailures()));
+        assertNoOutstanding();
+    }
+
+    @Test
+    void internalServerErrorIsCountedButNotRetried() throws IOException {
+        codes.put("node1", 500);
+
+        try (Response response = intercept("GET", URL)) {
+            assertEquals(500, response.code());
+        }
+        assertEquals(1, targets.size());
+        assertEquals(1, node(0).getFailures());
+        assertNoOutstanding();
+    }
+
+    @Test
+    void networkErrorsOnAllNodesAreThrown() {
+        codes.put("node1", NETWORK_ERROR);
+        codes.put("node2", NETWORK_ERROR);
+        codes.put("node3", NETWORK_ERROR);
+
+        IOException e = assertThrows(IOException.class, () -> intercept("GET", URL));
+        assertTrue(e.getMessage().startsWith("Connection refused"));
+        assertEquals(2, e.getSuppressed().length);
+        assertEquals(Set.of("node1", "node2", "node3"), targetHosts());
+        assertNoOutstanding();
+    }
+
+    @Test
+    void nonIdempotentRequestIsNotRetried() {
+        codes.put("node1", NETWORK_ERROR);
+
+        assertThrows(IOException.class, () -> intercept("PUT", URL));
+        assertEquals(1, targets.size());
+        assertNoOutstanding();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cluster;
+
+import cn.herodotus.oss.minio.core.enums.LoadBalanceStrategyEnums;
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Description: Minio 多节点负载均衡测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 17:40
+ */
+class MinioLoadBalancerTest {
+
+    private static MinioLoadBalancer create(LoadBalanceStrategyEnums strategy) {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.setEndpoint("http://minio:9000");
+        minioProperties.setEndpoints(List.of("http://node1:9000", "http://node2:9000", "http://node3:9000"));
+        minioProperties.getLoadBalance().setStrategy(strategy);
+        return new MinioLoadBalancer(minioProperties);
+    }
+
+    private static Set<String> select(MinioLoadBalancer minioLoadBalancer, int times) {
+        return IntStream.range(0, times)
+                .mapToObj(i -> minioLoadBalancer.select(List.of()).getAddress())
+                .collect(Collectors.toSet());
+    }
+
+    private static void fail(MinioLoadBalancer minioLoadBalancer, MinioNode node, int times) {
+        for (int i = 0; i < times; i++) {
+            minioLoadBalancer.onFailure(node, new IOException("Connection refused"));
+        }
+    }
+
+    @Test
+    void onlyEndpointRequestsAreBalanced() {
+        MinioLoadBalancer minioLoadBalancer = create(LoadBalanceStrategyEnums.ROUND_ROBIN);
+        assertTrue(minioLoadBalancer.matches(HttpUrl.get("http://minio:9000/bucket/object")));
+        assertFalse(minioLoadBalancer.matches(HttpUrl.get("http://minio:9001/bucket/object")));
+        assertFalse(minioLoadBalancer.matches(HttpUrl.get("https://minio:9000/bucket/object")));
+        assertFalse(minioLoadBalancer.matches(HttpUrl.get("http://node1:9000/bucket/object")));
+    }
+
+    @Test
+    void roundRobinVisitsEveryNode() {
+        MinioLoadBalancer minioLoadBalancer = create(LoadBalanceStrategyEnums.ROUND_ROBIN);
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            selected.add(minioLoadBalancer.select(List.of()).getAddress());
+        }
+        assertEquals(List.of("http://node1:9000", "http://node2:9000", "http://node3:9000",
+                "http://node1:9000", "http://node2:9000", "http://node3:9000"), selected);
+    }
+
+    @Test
+    void leastOutstandingPrefersIdleNode() {
+        MinioLoadBalancer minioLoadBalancer = create(LoadBalanceStrategyEnums.LEAST_OUTSTANDING);
+        List<MinioNode> nodes = minioLoadBalancer.getNodes();
+        nodes.get(0).acquire();
+        nodes.get(1).acquire();
+
+        assertEquals(Set.of("http://node3:9000"), select(minioLoadBalancer, 5));
+
+        nodes.get(0).release();
+        assertEquals(Set.of("http://node1:9000", "http://node3:9000"), select(minioLoadBalancer, 6));
+    }
+
+    @Test
+    void latencyEwmaAvoidsSlowNode() {
+        MinioLoadBalancer minioLoadBalancer = create(LoadBalanceStrategyEnums.LATENCY_EWMA);
+        List<MinioNode> nodes = minioLoadBalancer.getNodes();
+        long now = System.nanoTime();
+        nodes.get(0).record(now - 1_000_000_000L);
+        nodes.get(1).record(now - 10_000_000L);
+        nodes.get(2).record(now - 20_000_000L);
+
+        assertEquals(Set.of("http://node2:9000"), select(minioLoadBalancer, 5));
+
+        // 未完成请求数参与计算，繁忙的快速节点让位于空闲的节点
+        nodes.get(1).acquire();
+        nodes.get(1).acquire();
+        nodes.get(1).acquire();
+        assertEquals(Set.of("http://node3:9000"), select(minioLoadBalancer, 5));
+    }
+
+    @Test
+    void selectExcludesTriedNodes() {
+        MinioLoadBalancer minioLoadBalancer = create(LoadBalanceStrategyEnums.ROUND_ROBIN);
+        List<MinioNode> tried = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            MinioNode node = minioLoadBalancer.select(tried);
+            assertFalse(tried.contains(node));
+            tried.add(node);
+        }
+        assertNull(minioLoadBalancer.select(tried));
+    }
+
+    @Test
+    void nodeIsEjectedAtFailureThreshold() {
+        MinioLoadBalancer minioLoadBalancer = create(LoadBalanceStrategyEnums.ROUND_ROBIN);
+        MinioNode node = minioLoadBalancer.getNodes().get(0);
+
+        fail(minioLoadBalancer, node, 2);
+        minioLoadBalancer.onSuccess(node);
+        fail(minioLoadBalancer, node, 2);
+        // 成功的请求清零连续失败次数
+        assertTrue(node.isHealthy());
+
+        fail(minioLoadBalancer, node, 1);
+        assertFalse(node.isHealthy());
+        assertEquals(5, node.getFailures());
+        assertEquals(Set.of("http://node2:9000", "http://node3:9000"), select(minioLoadBalancer, 6));
+    }
+
+    @Test
+    void ejectedNodeIsReinstatedAfterSuccessfulProbes() {
+        MinioLoadBalancer minioLoadBalancer = create(LoadBalanceStrategyEnums.ROUND_ROBIN);
+        MinioNode node = minioLoadBalancer.getNodes().get(0);
+        fail(minioLoadBalancer, node, 3);
+        assertFalse(node.isHealthy());
+
+        minioLoadBalancer.onProbeSuccess(node);
+        fail(minioLoadBalancer, node, 1);
+        minioLoadBalancer.onProbeSuccess(node);
+        // 中间的失败清零连续成功次数
+        assertFalse(node.isHealthy());
+
+        minioLoadBalancer.onProbeSuccess(node);
+        assertTrue(node.isHealthy());
+        assertEquals(3, select(minioLoadBalancer, 3).size());
+    }
+
+    @Test
+    void allNodesEjectedFallsBackToEveryNode() {
+        MinioLoadBalancer minioLoadBalancer = create(LoadBalanceStrategyEnums.ROUND_ROBIN);
+        minioLoadBalancer.getNodes().forEach(node -> fail(minioLoadBalancer, node, 3));
+
+        assertEquals(3, select(minioLoadBalancer, 3).size());
+    }
+}
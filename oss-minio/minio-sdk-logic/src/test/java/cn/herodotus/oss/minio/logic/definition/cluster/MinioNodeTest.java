@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.cluster;
+
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <p>Description: Minio 集群节点响应时间统计测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 17:30
+ */
+class MinioNodeTest {
+
+    private static final double DELTA = 1;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final MinioNode node = new MinioNode(HttpUrl.get("http://node1:9000"), 0.3, clock::get);
+
+    private void request(long latencyMillis) {
+        long startNanos = node.acquire();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        node.record(startNanos);
+        node.release();
+    }
+
+    @Test
+    void firstSampleInitializesAverage() {
+        request(100);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), node.getLatencyNanos(), DELTA);
+        assertEquals(100, node.getLatencyMillis(), 0.001);
+        assertEquals(1, node.getRequests());
+        assertEquals(0, node.getOutstanding());
+    }
+
+    @Test
+    void averageDecaysWithoutNewSamples() {
+        request(100);
+        double initial = node.getLatencyNanos();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(initial * Math.exp(-1), node.getLatencyNanos(), DELTA);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(initial * Math.exp(-2), node.getLatencyNanos(), DELTA);
+    }
+
+    @Test
+    void newSampleIsWeightedAgainstDecayedAverage() {
+        request(100);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        // 新样本开始时的平均值已衰减，结束时再衰减 10 毫秒
+        long now = clock.get() + TimeUnit.MILLISECONDS.toNanos(10);
+        double decayed = TimeUnit.MILLISECONDS.toNanos(100) * Math.exp(-(now - TimeUnit.MILLISECONDS.toNanos(100)) / (double) TimeUnit.SECONDS.toNanos(10));
+        request(10);
+        assertEquals(0.3 * TimeUnit.MILLISECONDS.toNanos(10) + 0.7 * decayed, node.getLatencyNanos(), DELTA);
+    }
+
+    @Test
+    void reinstatementResetsAverage() {
+        request(100);
+        node.setHealthy(false);
+        node.setHealthy(true);
+        assertEquals(0, node.getLatencyNanos());
+
+        request(20);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), node.getLatencyNanos(), DELTA);
+    }
+
+    @Test
+    void rewriteOnlyReplacesSchemeHostAndPort() {
+        HttpUrl original = HttpUrl.get("https://minio.example.com/bucket/a%20b?uploadId=1");
+        assertEquals("http://node1:9000/bucket/a%20b?uploadId=1", node.rewrite(original).toString());
+    }
+}
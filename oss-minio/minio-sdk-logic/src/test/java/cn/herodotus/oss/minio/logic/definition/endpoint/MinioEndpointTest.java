@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.endpoint;
+
+import cn.herodotus.oss.minio.logic.definition.metrics.MinioOperationTracker;
+import cn.herodotus.oss.minio.logic.definition.pool.BaseMinioObjectPool;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * <p>Description: Minio 运行状态端点对象池调整测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 14:20
+ */
+class MinioEndpointTest {
+
+    private static MinioEndpoint create(boolean shared) {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.setEndpoint("http://minio:9000");
+        minioProperties.setAccessKey("access");
+        minioProperties.setSecretKey("secret");
+        minioProperties.getHttp().setShared(shared);
+        minioProperties.getPool().setMaxTotal(8);
+        minioProperties.getPool().setMaxIdle(8);
+        minioProperties.getPool().setMinIdle(0);
+
+        Map<String, BaseMinioObjectPool<?>> pools = Map.of("client", new MinioClientObjectPool(minioProperties));
+        @SuppressWarnings("unchecked")
+        ObjectProvider<MinioOperationTracker> tracker = mock(ObjectProvider.class);
+        return new MinioEndpoint(pools, tracker, null);
+    }
+
+    private static void assertSize(MinioEndpoint.PoolStatus status, int maxTotal, int maxIdle, int minIdle) {
+        assertEquals(maxTotal, status.maxTotal());
+        assertEquals(maxIdle, status.maxIdle());
+        assertEquals(minIdle, status.minIdle());
+    }
+
+    @Test
+    void resizeAppliesValidSize() {
+        MinioEndpoint minioEndpoint = create(false);
+
+        assertSize(minioEndpoint.resize("client", 20, 10, 2), 20, 10, 2);
+        // 未指定的值保持不变
+        assertSize(minioEndpoint.resize("client", null, null, 5), 20, 10, 5);
+        assertSize(minioEndpoint.resize("client", 10, null, null), 10, 10, 5);
+    }
+
+    @Test
+    void invalidSizeIsRejectedWithoutChange() {
+        MinioEndpoint minioEndpoint = create(false);
+
+        assertThrows(InvalidEndpointRequestException.class, () -> minioEndpoint.resize("client", 0, 0, 0));
+        assertThrows(InvalidEndpointRequestException.class, () -> minioEndpoint.resize("client", null, null, -1));
+        assertThrows(InvalidEndpointRequestException.class, () -> minioEndpoint.resize("client", null, 4, 5));
+        // 默认 maxIdle 为 8，只缩小 maxTotal 会导致 maxIdle 超出 maxTotal
+        assertThrows(InvalidEndpointRequestException.class, () -> minioEndpoint.resize("client", 4, null, null));
+
+        assertSize(minioEndpoint.pool("client"), 8, 8, 0);
+    }
+
+    @Test
+    void sharedModeCanNotBeResized() {
+        MinioEndpoint minioEndpoint = create(true);
+
+        assertThrows(InvalidEndpointRequestException.class, () -> minioEndpoint.resize("client", 20, 10, 2));
+        assertTrue(minioEndpoint.pool("client").shared());
+    }
+
+    @Test
+    void unknownPoolReturnsNull() {
+        assertNull(create(false).resize("unknown", 20, 10, 2));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.metrics;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.BucketExistsArgs;
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.lang3.BooleanUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * <p>Description: Minio 操作指标拦截器存储桶标签测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 9:40
+ */
+class MinioOperationInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private MinioOperationInterceptor interceptor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        interceptor = new MinioOperationInterceptor(mock(ObjectProvider.class));
+    }
+
+    private void bucketExists(String bucketName) throws Throwable {
+        BucketService target = new BucketService();
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(BucketService.class.getMethod("bucketExists", BucketExistsArgs.class));
+        when(invocation.getThis()).thenReturn(target);
+        when(invocation.getArguments()).thenReturn(new Object[]{BucketExistsArgs.builder().bucket(bucketName).build()});
+        when(invocation.proceed()).thenReturn(false);
+        interceptor.invoke(invocation);
+    }
+
+    @Test
+    void bucketTagIsDisabledByDefault() throws Throwable {
+        MinioProperties minioProperties = new MinioProperties();
+        interceptor.bindTo(registry, BooleanUtils.isTrue(minioProperties.getMetrics().getBucketTag()));
+
+        bucketExists("missing-1");
+        bucketExists("missing-2");
+
+        // 不同的存储桶名称不会产生新的指标
+        assertEquals(1, registry.find(MinioOperationInterceptor.METRIC_OPERATION).timers().size());
+        Timer timer = registry.find(MinioOperationInterceptor.METRIC_OPERATION).tag("bucket", "none").timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void bucketTagUsesBucketNameWhenEnabled() throws Throwable {
+        interceptor.bindTo(registry, true);
+
+        bucketExists("bucket-1");
+        bucketExists("bucket-2");
+
+        assertEquals(2, registry.find(MinioOperationInterceptor.METRIC_OPERATION).timers().size());
+        assertNotNull(registry.find(MinioOperationInterceptor.METRIC_OPERATION).tag("bucket", "bucket-1").tag("operation", "bucketExists").timer());
+    }
+
+    public static class BucketService {
+
+        public boolean bucketExists(BucketExistsArgs bucketExistsArgs) {
+            return false;
+        }
+    }
+}
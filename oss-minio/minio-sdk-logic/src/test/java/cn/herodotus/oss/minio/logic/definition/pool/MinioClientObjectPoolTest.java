@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.pool;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import io.minio.MinioClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Description: Minio Client 对象池泄漏检测测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 12:50
+ */
+@Timeout(30)
+class MinioClientObjectPoolTest {
+
+    private static MinioProperties create(boolean removeAbandoned) {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.setEndpoint("http://minio:9000");
+        minioProperties.setAccessKey("access");
+        minioProperties.setSecretKey("secret");
+        MinioProperties.Pool pool = minioProperties.getPool();
+        pool.setMaxTotal(2);
+        pool.setMaxIdle(2);
+        pool.setMinIdle(0);
+        pool.setRemoveAbandoned(removeAbandoned);
+        pool.setRemoveAbandonedTimeout(Duration.ofSeconds(1));
+        // 不依赖空闲检测线程，只验证借用时的回收
+        pool.setTimeBetweenEvictionRuns(Duration.ZERO);
+        return minioProperties;
+    }
+
+    @Test
+    void abandonedDetectionIsDisabledByDefault() {
+        assertFalse(new MinioProperties().getPool().getRemoveAbandoned());
+    }
+
+    @Test
+    void borrowedClientIsReturned() {
+        MinioClientObjectPool pool = new MinioClientObjectPool(create(false));
+        MinioClient minioClient = pool.getMinioClient();
+        assertEquals(1, pool.getNumActive());
+
+        pool.close(minioClient);
+        assertEquals(0, pool.getNumActive());
+        assertEquals(1, pool.getNumIdle());
+    }
+
+    @Test
+    void abandonedClientIsReclaimedWhenEnabled() throws InterruptedException {
+        MinioClientObjectPool pool = new MinioClientObjectPool(create(true));
+        pool.getMinioClient();
+        pool.getMinioClient();
+        assertEquals(2, pool.getNumActive());
+
+        Thread.sleep(1500);
+        // 对象池已满，借用时回收超时未归还的对象后才能借出
+        MinioClient minioClient = pool.getMinioClient();
+        assertNotNull(minioClient);
+        assertEquals(2, pool.getAbandonedCount());
+        assertEquals(1, pool.getNumActive());
+    }
+}
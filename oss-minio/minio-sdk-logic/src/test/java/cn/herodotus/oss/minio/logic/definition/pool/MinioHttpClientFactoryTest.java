@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.pool;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import io.minio.MinioClient;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Description: Minio 共享 OkHttpClient 工厂测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/8 11:10
+ */
+class MinioHttpClientFactoryTest {
+
+    private static MinioProperties create(boolean shared) {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.setEndpoint("http://minio:9000");
+        minioProperties.setAccessKey("access");
+        minioProperties.setSecretKey("secret");
+        minioProperties.getHttp().setShared(shared);
+        minioProperties.getHttp().setMaxRequests(32);
+        minioProperties.getHttp().setMaxRequestsPerHost(16);
+        minioProperties.getHttp().setProtocols(List.of("h2_prior_knowledge"));
+        minioProperties.getClient().setConnectTimeout(Duration.ofSeconds(3));
+        return minioProperties;
+    }
+
+    @Test
+    void sharedModeIsDisabledByDefault() {
+        MinioHttpClientFactory minioHttpClientFactory = new MinioHttpClientFactory(create(false));
+        assertFalse(minioHttpClientFactory.isShared());
+        assertNull(minioHttpClientFactory.getHttpClient());
+
+        OkHttpClient first = minioHttpClientFactory.obtainHttpClient();
+        OkHttpClient second = minioHttpClientFactory.obtainHttpClient();
+        // 每个 Client 使用独立的连接池
+        assertNotSame(first.connectionPool(), second.connectionPool());
+        assertEquals(3000, first.connectTimeoutMillis());
+        minioHttpClientFactory.close();
+    }
+
+    @Test
+    void sharedModeReusesOneHttpClient() {
+        MinioHttpClientFactory minioHttpClientFactory = new MinioHttpClientFactory(create(true));
+        OkHttpClient httpClient = minioHttpClientFactory.obtainHttpClient();
+
+        assertSame(httpClient, minioHttpClientFactory.getHttpClient());
+        assertSame(httpClient, minioHttpClientFactory.obtainHttpClient());
+        assertEquals(32, httpClient.dispatcher().getMaxRequests());
+        assertEquals(16, httpClient.dispatcher().getMaxRequestsPerHost());
+        assertEquals(List.of(Protocol.H2_PRIOR_KNOWLEDGE), httpClient.protocols());
+        assertEquals(3000, httpClient.connectTimeoutMillis());
+        minioHttpClientFactory.close();
+    }
+
+    @Test
+    void refreshKeepsConnectionPoolAndDispatcher() {
+        MinioProperties minioProperties = create(true);
+        MinioHttpClientFactory minioHttpClientFactory = new MinioHttpClientFactory(minioProperties);
+        OkHttpClient before = minioHttpClientFactory.getHttpClient();
+
+        minioProperties.getClient().setConnectTimeout(Duration.ofSeconds(7));
+        minioHttpClientFactory.refresh();
+        OkHttpClient after = minioHttpClientFactory.getHttpClient();
+
+        assertNotSame(before, after);
+        assertSame(before.connectionPool(), after.connectionPool());
+        assertSame(before.dispatcher(), after.dispatcher());
+        assertEquals(7000, after.connectTimeoutMillis());
+        assertEquals(1, minioHttpClientFactory.getGeneration());
+        minioHttpClientFactory.close();
+    }
+
+    @Test
+    void sharedPoolsHandOutOneClient() {
+        MinioProperties minioProperties = create(true);
+        MinioHttpClientFactory minioHttpClientFactory = new MinioHttpClientFactory(minioProperties);
+        MinioClientObjectPool minioClientObjectPool = new MinioClientObjectPool(minioProperties, minioHttpClientFactory);
+        MinioAsyncClientObjectPool minioAsyncClientObjectPool = new MinioAsyncClientObjectPool(minioProperties, minioHttpClientFactory);
+
+        MinioClient minioClient = minioClientObjectPool.getMinioClient();
+        assertSame(minioClient, minioClientObjectPool.getMinioClient());
+        minioClientObjectPool.close(minioClient);
+        assertTrue(minioClientObjectPool.isShared());
+        assertEquals(0, minioClientObjectPool.getNumActive());
+
+        MinioAsyncClient minioAsyncClient = minioAsyncClientObjectPool.getMinioAsyncClient();
+        assertSame(minioAsyncClient, minioAsyncClientObjectPool.getMinioAsyncClient());
+        assertThrows(IllegalStateException.class, () -> minioClientObjectPool.resize(4, 4, 0));
+        minioHttpClientFactory.close();
+    }
+}
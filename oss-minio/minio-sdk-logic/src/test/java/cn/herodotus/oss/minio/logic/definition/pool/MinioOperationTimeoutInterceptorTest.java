@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.pool;
+
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: 按操作类型设置读超时的拦截器测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 14:10
+ */
+class MinioOperationTimeoutInterceptorTest {
+
+    private static final String ENDPOINT = "http://minio:9000";
+    private static final int GET_OBJECT_TIMEOUT = 30_000;
+    private static final int COMPOSE_TIMEOUT = 600_000;
+
+    private MinioProperties minioProperties;
+    private MinioOperationTimeoutInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        minioProperties = new MinioProperties();
+        minioProperties.getClient().setGetObjectReadTimeout(Duration.ofMillis(GET_OBJECT_TIMEOUT));
+        minioProperties.getClient().setComposeReadTimeout(Duration.ofMillis(COMPOSE_TIMEOUT));
+        interceptor = new MinioOperationTimeoutInterceptor(minioProperties);
+    }
+
+    private static Request get(String path) {
+        return new Request.Builder().url(ENDPOINT + path).get().build();
+    }
+
+    private static RequestBody empty() {
+        return RequestBody.create(new byte[0]);
+    }
+
+    /**
+     * 执行拦截器，返回使用的读超时，未单独设置时返回 null
+     */
+    private Integer intercept(Request request) throws IOException {
+        Interceptor.Chain timeoutChain = mock(Interceptor.Chain.class);
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+        when(chain.withReadTimeout(anyInt(), any(TimeUnit.class))).thenReturn(timeoutChain);
+
+        interceptor.intercept(chain);
+
+        Integer timeout = mockingDetails(chain).getInvocations().stream()
+                .filter(invocation -> "withReadTimeout".equals(invocation.getMethod().getName()))
+                .map(invocation -> (Integer) invocation.getArgument(0))
+                .findFirst()
+                .orElse(null);
+        // 设置了读超时的请求由新的 Chain 继续执行
+        verify(timeout != null ? timeoutChain : chain).proceed(request);
+        return timeout;
+    }
+
+    private void assertTimeout(Integer expected, Request request) throws IOException {
+        assertEquals(expected, intercept(request), request.method() + " " + request.url());
+    }
+
+    @Test
+    void getObjectUsesGetObjectTimeout() throws IOException {
+        assertTimeout(GET_OBJECT_TIMEOUT, get("/bucket/a.txt"));
+        assertTimeout(GET_OBJECT_TIMEOUT, get("/bucket/dir/a.txt?versionId=v1"));
+        assertTimeout(GET_OBJECT_TIMEOUT, get("/bucket/a.txt?partNumber=2&response-content-type=text%2Fplain"));
+    }
+
+    @Test
+    void subResourceAndBucketRequestsUseDefaultTimeout() throws IOException {
+        // 对象子资源
+        assertTimeout(null, get("/bucket/a.txt?tagging"));
+        assertTimeout(null, get("/bucket/a.txt?retention&versionId=v1"));
+        assertTimeout(null, get("/bucket/a.txt?uploadId=u1"));
+        // 存储桶级别请求
+        assertTimeout(null, get("/bucket/"));
+        assertTimeout(null, get("/bucket/?list-type=2&prefix=a"));
+        assertTimeout(null, get("/bucket/?location"));
+        // 其它方法
+        assertTimeout(null, new Request.Builder().url(ENDPOINT + "/bucket/a.txt").head().build());
+        assertTimeout(null, new Request.Builder().url(ENDPOINT + "/bucket/a.txt").put(empty()).build());
+        assertTimeout(null, new Request.Builder().url(ENDPOINT + "/bucket/a.txt?uploadId=u1&partNumber=1").put(empty()).build());
+        assertTimeout(null, new Request.Builder().url(ENDPOINT + "/bucket/a.txt?uploads").post(empty()).build());
+    }
+
+    @Test
+    void composeUsesComposeTimeout() throws IOException {
+        // 复制对象与分片复制
+        assertTimeout(COMPOSE_TIMEOUT, new Request.Builder().url(ENDPOINT + "/bucket/b.txt").header("x-amz-copy-source", "/bucket/a.txt").put(empty()).build());
+        assertTimeout(COMPOSE_TIMEOUT, new Request.Builder().url(ENDPOINT + "/bucket/b.txt?uploadId=u1&partNumber=1").header("x-amz-copy-source", "/bucket/a.txt").put(empty()).build());
+        // 完成分片上传
+        assertTimeout(COMPOSE_TIMEOUT, new Request.Builder().url(ENDPOINT + "/bucket/b.txt?uploadId=u1").post(empty()).build());
+    }
+
+    @Test
+    void unsetTimeoutFallsBackToDefault() throws IOException {
+        minioProperties.getClient().setGetObjectReadTimeout(null);
+        minioProperties.getClient().setComposeReadTimeout(null);
+
+        assertTimeout(null, get("/bucket/a.txt"));
+        assertTimeout(null, new Request.Builder().url(ENDPOINT + "/bucket/b.txt?uploadId=u1").post(empty()).build());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.service;
+
+import cn.herodotus.oss.minio.core.exception.MinioConnectException;
+import cn.herodotus.oss.minio.core.exception.MinioErrorResponseException;
+import cn.herodotus.oss.minio.core.exception.MinioInterruptedException;
+import cn.herodotus.oss.minio.core.exception.MinioXmlParserException;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClient;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
+import io.minio.errors.ErrorResponseException;
+import io.minio.errors.XmlParserException;
+import io.minio.messages.ErrorResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: Minio 基础异步服务异常转换测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/10 10:30
+ */
+class BaseMinioAsyncClientServiceTest {
+
+    private MinioAsyncClientObjectPool minioAsyncClientObjectPool;
+    private MinioAsyncClient minioAsyncClient;
+    private TestService testService;
+
+    @BeforeEach
+    void setUp() {
+        minioAsyncClient = mock(MinioAsyncClient.class);
+        minioAsyncClientObjectPool = mock(MinioAsyncClientObjectPool.class);
+        when(minioAsyncClientObjectPool.getMinioAsyncClient()).thenReturn(minioAsyncClient);
+        testService = new TestService(minioAsyncClientObjectPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // 清除测试中恢复的中断状态
+        Thread.interrupted();
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) {
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        return exception.getCause();
+    }
+
+    @Test
+    void successReturnsClientWhenCompleted() throws Exception {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> result = testService.execute("test", client -> pending);
+        // Client 在操作完成后才归还
+        verify(minioAsyncClientObjectPool, never()).close(minioAsyncClient);
+
+        pending.complete("ok");
+        assertEquals("ok", result.get());
+        verify(minioAsyncClientObjectPool).close(minioAsyncClient);
+    }
+
+    @Test
+    void wrappedAsyncFailureIsUnwrappedAndTranslated() {
+        ErrorResponseException errorResponseException = new ErrorResponseException(
+                new ErrorResponse("NoSuchKey", "The specified key does not exist.", "bucket", "a", "/bucket/a", "request", "host"), null, null);
+
+        Throwable cause = failure(testService.execute("test", client -> CompletableFuture.failedFuture(new CompletionException(new ExecutionException(errorResponseException)))));
+        assertInstanceOf(MinioErrorResponseException.class, cause);
+        assertSame(errorResponseException, cause.getCause());
+        verify(minioAsyncClientObjectPool).close(minioAsyncClient);
+    }
+
+    @Test
+    void asyncFailuresUseSameMappingAsSyncOperations() {
+        assertInstanceOf(MinioConnectException.class, failure(testService.execute("test", client -> CompletableFuture.failedFuture(new ConnectException("Connection refused")))));
+        assertInstanceOf(MinioXmlParserException.class, failure(testService.execute("test", client -> CompletableFuture.failedFuture(new XmlParserException(new IllegalStateException("bad xml"))))));
+
+        IllegalArgumentException illegalArgumentException = new IllegalArgumentException("bad argument");
+        assertSame(illegalArgumentException, failure(testService.execute("test", client -> CompletableFuture.failedFuture(new CompletionException(illegalArgumentException)))));
+    }
+
+    @Test
+    void synchronousFailureReturnsClientAndRestoresInterrupt() {
+        Throwable cause = failure(testService.execute("test", client -> {
+            throw new InterruptedException("interrupted");
+        }));
+
+        assertInstanceOf(MinioInterruptedException.class, cause);
+        assertTrue(Thread.currentThread().isInterrupted());
+        verify(minioAsyncClientObjectPool).close(minioAsyncClient);
+    }
+
+    private static class TestService extends BaseMinioAsyncClientService {
+
+        private TestService(MinioAsyncClientObjectPool minioAsyncClientObjectPool) {
+            super(minioAsyncClientObjectPool);
+        }
+    }
+}
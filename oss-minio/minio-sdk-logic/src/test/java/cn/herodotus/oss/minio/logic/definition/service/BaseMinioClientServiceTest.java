@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.definition.service;
+
+import cn.herodotus.oss.minio.core.exception.MinioConnectException;
+import cn.herodotus.oss.minio.core.exception.MinioErrorResponseException;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioClientObjectPool;
+import io.minio.CloseableIterator;
+import io.minio.MinioClient;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: Minio 基础服务 Client 借用与归还测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 12:40
+ */
+class BaseMinioClientServiceTest {
+
+    private MinioClientObjectPool minioClientObjectPool;
+    private MinioClient minioClient;
+    private TestService testService;
+    private final AtomicInteger completed = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        minioClient = mock(MinioClient.class);
+        minioClientObjectPool = mock(MinioClientObjectPool.class);
+        when(minioClientObjectPool.getMinioClient()).thenReturn(minioClient);
+        testService = new TestService(minioClientObjectPool);
+    }
+
+    private Iterable<String> iterable(Iterable<String> source) {
+        return testService.withClientIterable("list", client -> source, completed::incrementAndGet);
+    }
+
+    @Test
+    void withClientReturnsClientOnSuccess() {
+        assertEquals("ok", testService.withClient("test", client -> "ok"));
+        verify(minioClientObjectPool).close(minioClient);
+    }
+
+    @Test
+    void withClientReturnsClientAndTranslatesFailure() {
+        ErrorResponseException errorResponseException = new ErrorResponseException(
+                new ErrorResponse("NoSuchKey", "The specified key does not exist.", "bucket", "a", "/bucket/a", "request", "host"), null, null);
+
+        MinioErrorResponseException exception = assertThrows(MinioErrorResponseException.class, () -> testService.withClient("test", client -> {
+            throw errorResponseException;
+        }));
+        assertSame(errorResponseException, exception.getCause());
+        assertThrows(MinioConnectException.class, () -> testService.runWithClient("test", client -> {
+            throw new ConnectException("Connection refused");
+        }));
+        verify(minioClientObjectPool, times(2)).close(minioClient);
+    }
+
+    @Test
+    void clientIsBorrowedOnlyWhileIterating() {
+        Iterable<String> iterable = iterable(List.of("a", "b"));
+        verify(minioClientObjectPool, never()).getMinioClient();
+
+        Iterator<String> iterator = iterable.iterator();
+        assertEquals("a", iterator.next());
+        verify(minioClientObjectPool, never()).close(minioClient);
+
+        assertEquals("b", iterator.next());
+        assertFalse(iterator.hasNext());
+        verify(minioClientObjectPool).close(minioClient);
+        assertEquals(1, completed.get());
+
+        // 迭代结束后再次检查不会重复归还
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        verify(minioClientObjectPool).close(minioClient);
+        assertEquals(1, completed.get());
+    }
+
+    @Test
+    void closingIteratorEarlyReturnsClient() throws Exception {
+        Iterator<String> iterator = iterable(List.of("a", "b", "c")).iterator();
+        assertEquals("a", iterator.next());
+
+        ((CloseableIterator<String>) iterator).close();
+        ((CloseableIterator<String>) iterator).close();
+
+        verify(minioClientObjectPool).close(minioClient);
+        assertEquals(1, completed.get());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void iterationErrorReturnsClient() {
+        Iterable<String> failing = () -> new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                throw new IllegalStateException("broken");
+            }
+
+            @Override
+            public String next() {
+                throw new NoSuchElementException();
+            }
+        };
+
+        Iterator<String> iterator = iterable(failing).iterator();
+        assertThrows(IllegalStateException.class, iterator::hasNext);
+        verify(minioClientObjectPool).close(minioClient);
+    }
+
+    @Test
+    void failureCreatingIteratorReturnsClient() {
+        Iterable<String> iterable = testService.withClientIterable("list", client -> {
+            throw new ConnectException("Connection refused");
+        }, completed::incrementAndGet);
+
+        assertThrows(MinioConnectException.class, iterable::iterator);
+        verify(minioClientObjectPool).close(minioClient);
+        assertEquals(0, completed.get());
+    }
+
+    private static class TestService extends BaseMinioClientService {
+
+        private TestService(MinioClientObjectPool minioClientObjectPool) {
+            super(minioClientObjectPool);
+        }
+    }
+}
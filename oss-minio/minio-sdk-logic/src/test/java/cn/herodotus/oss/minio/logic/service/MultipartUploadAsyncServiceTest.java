@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.service;
+
+import cn.herodotus.oss.minio.logic.definition.cache.StatObjectCache;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
+import io.minio.messages.Part;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: 异步分片上传服务并发查询分片测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 14:40
+ */
+class MultipartUploadAsyncServiceTest {
+
+    private final Set<Integer> markers = ConcurrentHashMap.newKeySet();
+    private MultipartUploadAsyncService multipartUploadAsyncService;
+
+    @BeforeEach
+    void setUp() {
+        multipartUploadAsyncService = spy(new MultipartUploadAsyncService(mock(MinioAsyncClientObjectPool.class), mock(StatObjectCache.class)));
+    }
+
+    private void serve(int totalParts) {
+        doAnswer(invocation -> {
+            Integer partNumberMarker = invocation.getArgument(4);
+            markers.add(partNumberMarker != null ? partNumberMarker : 0);
+            return CompletableFuture.completedFuture(MultipartUploadServiceTest.page(totalParts, partNumberMarker, false));
+        }).when(multipartUploadAsyncService).listParts(eq("bucket"), isNull(), eq("a"), eq(1000), any(), eq("u1"));
+    }
+
+    private static List<Integer> partNumbers(List<Part> parts) {
+        return parts.stream().map(Part::partNumber).toList();
+    }
+
+    @Test
+    void knownTotalListsPagesByMarker() {
+        serve(2500);
+
+        List<Part> parts = multipartUploadAsyncService.listAllParts("bucket", null, "a", "u1", 2500).join();
+        assertEquals(IntStream.rangeClosed(1, 2500).boxed().toList(), partNumbers(parts));
+        assertEquals(Set.of(0, 1000, 2000), markers);
+    }
+
+    @Test
+    void partsBeyondExpectedTotalAreListed() {
+        serve(2500);
+
+        // 预期只有 1500 个分片，最后一页被截断时继续逐页查询
+        List<Part> parts = multipartUploadAsyncService.listAllParts("bucket", null, "a", "u1", 1500).join();
+        assertEquals(2500, parts.size());
+        assertEquals(Set.of(0, 1000, 2000), markers);
+    }
+
+    @Test
+    void unknownTotalListsPagesSequentially() {
+        serve(1200);
+
+        assertEquals(IntStream.rangeClosed(1, 1200).boxed().toList(), partNumbers(multipartUploadAsyncService.listAllParts("bucket", null, "a", "u1").join()));
+        assertEquals(Set.of(0, 1000), markers);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.service;
+
+import cn.herodotus.oss.minio.logic.definition.cache.StatObjectCache;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
+import io.minio.ListPartsResponse;
+import io.minio.messages.ListPartsResult;
+import io.minio.messages.Part;
+import okhttp3.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: 分片上传服务分页查询分片测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 14:20
+ */
+class MultipartUploadServiceTest {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private MultipartUploadService multipartUploadService;
+
+    @BeforeEach
+    void setUp() {
+        multipartUploadService = spy(new MultipartUploadService(mock(MinioAsyncClientObjectPool.class), mock(StatObjectCache.class)));
+    }
+
+    /**
+     * 模拟 Minio 按 partNumberMarker 分页返回分片
+     */
+    static ListPartsResponse page(int totalParts, Integer partNumberMarker, boolean stuck) {
+        int start = partNumberMarker != null ? partNumberMarker + 1 : 1;
+        int end = Math.min(start + PAGE_SIZE - 1, totalParts);
+        List<Part> parts = IntStream.rangeClosed(start, end).mapToObj(partNumber -> new Part(partNumber, "e" + partNumber)).toList();
+
+        ListPartsResult result = mock(ListPartsResult.class);
+        when(result.partList()).thenReturn(parts);
+        when(result.isTruncated()).thenReturn(end < totalParts);
+        when(result.nextPartNumberMarker()).thenReturn(stuck ? start - 1 : end);
+        return new ListPartsResponse(Headers.of(), "bucket", null, "a", result);
+    }
+
+    private void serve(int totalParts, boolean stuck) {
+        doAnswer(invocation -> {
+            requests.incrementAndGet();
+            return page(totalParts, invocation.getArgument(4), stuck);
+        }).when(multipartUploadService).listParts(eq("bucket"), isNull(), eq("a"), any(), any(), eq("u1"));
+    }
+
+    @Test
+    void allPagesAreListed() {
+        serve(2500, false);
+
+        List<Part> parts = multipartUploadService.listAllParts("bucket", null, "a", "u1");
+        assertEquals(2500, parts.size());
+        assertEquals(IntStream.rangeClosed(1, 2500).boxed().toList(), parts.stream().map(Part::partNumber).toList());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void singlePageIsListedOnce() {
+        serve(10, false);
+
+        assertEquals(10, multipartUploadService.listAllParts("bucket", null, "a", "u1").size());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void markerThatDoesNotAdvanceStopsListing() {
+        serve(2500, true);
+
+        // 第二页返回的 nextPartNumberMarker 没有前进，避免无限循环
+        multipartUploadService.listAllParts("bucket", null, "a", "u1");
+        assertEquals(2, requests.get());
+    }
+}
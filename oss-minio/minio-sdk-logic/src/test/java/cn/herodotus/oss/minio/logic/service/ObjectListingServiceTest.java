@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.service;
+
+import cn.herodotus.oss.minio.core.converter.ResponseToObjectPageDomainConverter;
+import cn.herodotus.oss.minio.core.domain.ObjectDomain;
+import cn.herodotus.oss.minio.core.domain.ObjectPageDomain;
+import cn.herodotus.oss.minio.core.exception.MinioErrorResponseException;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClient;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
+import io.minio.ListObjectsV2Response;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+import io.minio.messages.Item;
+import io.minio.messages.ListBucketResultV2;
+import io.minio.messages.Prefix;
+import okhttp3.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: 对象分页查询服务测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 14:50
+ */
+class ObjectListingServiceTest {
+
+    private MinioAsyncClientObjectPool minioAsyncClientObjectPool;
+    private MinioAsyncClient minioAsyncClient;
+    private ObjectListingService objectListingService;
+
+    @BeforeEach
+    void setUp() {
+        minioAsyncClient = mock(MinioAsyncClient.class);
+        minioAsyncClientObjectPool = mock(MinioAsyncClientObjectPool.class);
+        when(minioAsyncClientObjectPool.getMinioAsyncClient()).thenReturn(minioAsyncClient);
+        objectListingService = new ObjectListingService(minioAsyncClientObjectPool);
+    }
+
+    private static ListObjectsV2Response response(boolean truncated) {
+        Item item = mock(Item.class);
+        when(item.objectName()).thenReturn("photos/a.jpg");
+        when(item.etag()).thenReturn("e1");
+        when(item.size()).thenReturn(4L);
+        when(item.lastModified()).thenReturn(ZonedDateTime.of(2023, 7, 13, 8, 0, 0, 0, ZoneOffset.UTC));
+        Item dir = mock(Item.class);
+        when(dir.objectName()).thenReturn("photos/2023/");
+        when(dir.isDir()).thenReturn(true);
+        Prefix prefix = mock(Prefix.class);
+        when(prefix.toItem()).thenReturn(dir);
+
+        ListBucketResultV2 result = mock(ListBucketResultV2.class);
+        when(result.contents()).thenReturn(List.of(item));
+        when(result.commonPrefixes()).thenReturn(List.of(prefix));
+        when(result.isTruncated()).thenReturn(truncated);
+        when(result.nextContinuationToken()).thenReturn("next");
+        return new ListObjectsV2Response(Headers.of(), "bucket", null, result);
+    }
+
+    @Test
+    void onlyOnePageIsRequested() throws Exception {
+        ListObjectsV2Response response = response(true);
+        when(minioAsyncClient.listObjectsV2Async(any(), any(), any(), any(), any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        assertSame(response, objectListingService.listObjectsPage("bucket", "photos/", 2, "token"));
+        verify(minioAsyncClient, times(1)).listObjectsV2Async(eq("bucket"), isNull(), any(), isNull(), isNull(), eq(2), eq("photos/"), eq("token"), anyBoolean(), anyBoolean(), any(), any());
+        verify(minioAsyncClientObjectPool).close(minioAsyncClient);
+    }
+
+    @Test
+    void failureIsTranslated() throws Exception {
+        when(minioAsyncClient.listObjectsV2Async(any(), any(), any(), any(), any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new ErrorResponseException(
+                        new ErrorResponse("NoSuchBucket", "The specified bucket does not exist", "bucket", null, "/bucket", "request", "host"), null, null)));
+
+        assertThrows(MinioErrorResponseException.class, () -> objectListingService.listObjectsPage("bucket", null, 10, null));
+        verify(minioAsyncClientObjectPool).close(minioAsyncClient);
+    }
+
+    @Test
+    void pageIsConvertedWithDirectories() {
+        ObjectPageDomain page = new ResponseToObjectPageDomainConverter().convert(response(true));
+        assertEquals(List.of("photos/a.jpg", "photos/2023/"), page.getItems().stream().map(ObjectDomain::getObjectName).toList());
+        assertTrue(page.getItems().get(1).getDir());
+        assertEquals(2, page.getKeyCount());
+        assertEquals("next", page.getNextContinuationToken());
+
+        // 最后一页不返回分页标记
+        ObjectPageDomain last = new ResponseToObjectPageDomainConverter().convert(response(false));
+        assertFalse(last.getTruncated());
+        assertNull(last.getNextContinuationToken());
+    }
+}
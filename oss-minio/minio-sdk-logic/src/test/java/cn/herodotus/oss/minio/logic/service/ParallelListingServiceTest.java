@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.logic.service;
+
+import io.minio.ListObjectsArgs;
+import io.minio.ListObjectsV2Response;
+import io.minio.messages.Item;
+import io.minio.messages.ListBucketResultV2;
+import io.minio.messages.Prefix;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * <p>Description: 并行对象列表服务测试 </p>
+ * <p>
+ * 使用内存中的对象名称模拟 ListObjectsV2 的分页和分隔符行为。所有 Mock 对象在测试线程中预先创建，查询线程只读取。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 16:20
+ */
+@Timeout(30)
+class ParallelListingServiceTest {
+
+    private static final String BUCKET = "bucket";
+    private static final int PAGE_SIZE = 3;
+
+    private final Map<String, ListObjectsV2Response> pages = new HashMap<>();
+    private final Set<String> failures = new HashSet<>();
+    private List<String> names;
+    private ParallelListingService parallelListingService;
+
+    @BeforeEach
+    void setUp() {
+        names = new ArrayList<>(List.of("a.txt", "b.txt", "b-x", "b0", "z", "b/1", "b/2", "b/c/3", "b/c/d/4"));
+        // 超过队列容量的分片，用于验证有序模式下队列写满时不会死锁
+        IntStream.range(0, 2100).mapToObj(i -> String.format("big/%05d", i)).forEach(names::add);
+        // 分片数量超过并发数
+        IntStream.range(0, 10).forEach(i -> IntStream.range(0, 5).mapToObj(j -> "d" + i + "/" + j).forEach(names::add));
+
+        ObjectListingService objectListingService = mock(ObjectListingService.class);
+        when(objectListingService.listObjectsPage(any(ListObjectsArgs.class), any())).thenAnswer(invocation -> {
+            ListObjectsArgs args = invocation.getArgument(0);
+            String prefix = StringUtils.defaultString(args.prefix());
+            if (failures.contains(prefix)) {
+                throw new IllegalStateException("Listing [" + prefix + "] failed.");
+            }
+            String key = key(args.recursive(), prefix, invocation.getArgument(1));
+            ListObjectsV2Response response = pages.get(key);
+            assertNotNull(response, "Unexpected listing " + key);
+            return response;
+        });
+
+        preparePages();
+        parallelListingService = new ParallelListingService(objectListingService);
+    }
+
+    private static String key(boolean recursive, String prefix, String continuationToken) {
+        return (recursive ? "R:" : "D:") + prefix + "#" + continuationToken;
+    }
+
+    private void preparePages() {
+        TreeSet<String> contents = new TreeSet<>();
+        TreeSet<String> prefixes = new TreeSet<>();
+        for (String name : names) {
+            int index = name.indexOf('/');
+            if (index < 0) {
+                contents.add(name);
+            } else {
+                prefixes.add(name.substring(0, index + 1));
+            }
+        }
+
+        TreeSet<String> entries = new TreeSet<>(contents);
+        entries.addAll(prefixes);
+        preparePages(false, "", new ArrayList<>(entries), prefixes);
+
+        for (String prefix : prefixes) {
+            preparePages(true, prefix, names.stream().filter(name -> name.startsWith(prefix)).sorted().toList(), Set.of());
+        }
+    }
+
+    private void preparePages(boolean recursive, String prefix, List<String> entries, Set<String> prefixes) {
+        int pageCount = Math.max(1, (entries.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+        for (int page = 0; page < pageCount; page++) {
+            List<String> slice = entries.subList(page * PAGE_SIZE, Math.min(entries.size(), (page + 1) * PAGE_SIZE));
+            boolean truncated = page + 1 < pageCount;
+
+            // 先创建元素的 Mock，避免在 when(...) 中嵌套打桩
+            List<Item> contents = slice.stream().filter(entry -> !prefixes.contains(entry)).map(this::item).toList();
+            List<Prefix> commonPrefixes = slice.stream().filter(prefixes::contains).map(this::prefix).toList();
+
+            ListBucketResultV2 result = mock(ListBucketResultV2.class);
+            when(result.contents()).thenReturn(contents);
+            when(result.commonPrefixes()).thenReturn(commonPrefixes);
+            when(result.isTruncated()).thenReturn(truncated);
+            when(result.nextContinuationToken()).thenReturn(truncated ? String.valueOf(page + 1) : null);
+
+            ListObjectsV2Response response = mock(ListObjectsV2Response.class);
+            when(response.result()).thenReturn(result);
+            pages.put(key(recursive, prefix, page == 0 ? null : String.valueOf(page)), response);
+        }
+    }
+
+    private Item item(String name) {
+        Item item = mock(Item.class);
+        when(item.objectName()).thenReturn(name);
+        return item;
+    }
+
+    private Prefix prefix(String name) {
+        Prefix prefix = mock(Prefix.class);
+        Item item = item(name);
+        when(prefix.toItem()).thenReturn(item);
+        return prefix;
+    }
+
+    private List<String> list(int parallelism, boolean ordered) {
+        try (Stream<Item> stream = parallelListingService.listObjects(BUCKET, null, parallelism, ordered)) {
+            return stream.map(Item::objectName).toList();
+        }
+    }
+
+    @Test
+    void orderedListingMergesShardsInNameOrder() {
+        List<String> expected = names.stream().sorted().toList();
+
+        assertEquals(expected, list(2, true));
+        assertEquals(expected, list(1, true));
+    }
+
+    @Test
+    void unorderedListingReturnsEveryObjectOnce() {
+        List<String> actual = list(4, false);
+
+        assertEquals(names.size(), actual.size());
+        assertEquals(new HashSet<>(names), new HashSet<>(actual));
+    }
+
+    @Test
+    void shardFailureIsRethrownToConsumer() {
+        failures.add("d3/");
+
+        IllegalStateException ordered = assertThrows(IllegalStateException.class, () -> list(2, true));
+        assertEquals("Listing [d3/] failed.", ordered.getMessage());
+        IllegalStateException unordered = assertThrows(IllegalStateException.class, () -> list(2, false));
+        assertEquals("Listing [d3/] failed.", unordered.getMessage());
+    }
+
+    @Test
+    void rootFailureIsRethrownToConsumer() {
+        failures.add("");
+
+        assertThrows(IllegalStateException.class, () -> list(2, true));
+        assertThrows(IllegalStateException.class, () -> list(2, false));
+    }
+
+    @Test
+    void closingStreamEarlyDoesNotBlock() {
+        for (boolean ordered : new boolean[]{true, false}) {
+            try (Stream<Item> stream = parallelListingService.listObjects(BUCKET, null, 2, ordered)) {
+                assertEquals(5, stream.limit(5).count());
+            }
+        }
+    }
+
+    private static long listingThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("herodotus-minio-listing-") && thread.isAlive())
+                .count();
+    }
+
+    private static void awaitNoListingThreads() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (listingThreads() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, listingThreads());
+    }
+
+    @Test
+    void unclosedStreamReleasesThreadsWhenExhausted() throws InterruptedException {
+        for (boolean ordered : new boolean[]{true, false}) {
+            // 不关闭 Stream，读取完毕后线程池应已关闭
+            assertEquals(names.size(), parallelListingService.listObjects(BUCKET, null, 2, ordered).count());
+        }
+        awaitNoListingThreads();
+    }
+
+    @Test
+    void unclosedStreamReleasesThreadsOnFailure() throws InterruptedException {
+        failures.add("d3/");
+
+        for (boolean ordered : new boolean[]{true, false}) {
+            Stream<Item> stream = parallelListingService.listObjects(BUCKET, null, 2, ordered);
+            assertThrows(IllegalStateException.class, stream::count);
+        }
+        awaitNoListingThreads();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.reactive.definition;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * <p>Description: 将 DataBuffer 流转换为 InputStream </p>
+ * <p>
+ * Minio SDK 上传只接受 InputStream。该类按需从上游拉取 DataBuffer，最多只预取 prefetch 个数据块，既保证背压，又不会将整个对象读入内存。
+ * 读取操作是阻塞的，所以必须在允许阻塞的线程中使用。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/10 10:15
+ */
+public class DataBufferInputStream extends InputStream {
+
+    private final Stream<DataBuffer> stream;
+    private final Iterator<DataBuffer> iterator;
+    private DataBuffer current;
+    private boolean closed;
+
+    public DataBufferInputStream(Publisher<DataBuffer> publisher, int prefetch) {
+        this.stream = Flux.from(publisher)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .toStream(prefetch);
+        this.iterator = stream.iterator();
+    }
+
+    private DataBuffer current() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+
+        while (current == null || current.readableByteCount() == 0) {
+            if (current != null) {
+                DataBufferUtils.release(current);
+                current = null;
+            }
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            current = iterator.next();
+        }
+        return current;
+    }
+
+    @Override
+    public int read() throws IOException {
+        DataBuffer buffer = current();
+        if (buffer == null) {
+            return -1;
+        }
+        return buffer.read() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        DataBuffer buffer = current();
+        if (buffer == null) {
+            return -1;
+        }
+
+        int count = Math.min(len, buffer.readableByteCount());
+        buffer.read(bytes, off, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current != null ? current.readableByteCount() : 0;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            if (current != null) {
+                DataBufferUtils.release(current);
+                current = null;
+            }
+            stream.close();
+        }
+    }
+}
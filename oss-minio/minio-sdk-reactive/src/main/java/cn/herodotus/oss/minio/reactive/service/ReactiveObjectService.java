@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.reactive.service;
+
+import cn.herodotus.oss.minio.core.converter.ResultItemToDomainConverter;
+import cn.herodotus.oss.minio.core.domain.ObjectDomain;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
+import cn.herodotus.oss.minio.logic.definition.service.BaseMinioAsyncClientService;
+import cn.herodotus.oss.minio.logic.service.ObjectService;
+import cn.herodotus.oss.minio.reactive.definition.DataBufferInputStream;
+import io.minio.*;
+import io.minio.messages.Item;
+import io.minio.messages.ListBucketResultV2;
+import io.minio.messages.Prefix;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.reactivestreams.Publisher;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Description: 响应式 Minio 对象操作服务 </p>
+ * <p>
+ * 基于 MinioAsyncClient 实现，适用于 WebFlux 环境。等待 Minio Server 响应期间不占用线程；
+ * 对象内容以 DataBuffer 分块流式传输，下游按需请求数据，不会将整个对象读入内存。
+ * <p>
+ * Minio SDK 底层使用阻塞的 InputStream 读写对象内容，所以对象内容的读写会在 {@link Schedulers#boundedElastic()} 上按需进行。
+ * <p>
+ * 写入和删除对象成功后，与 {@link ObjectService} 一样失效对象信息、内容、磁盘和设置缓存。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/10 10:42
+ */
+@Service
+public class ReactiveObjectService extends BaseMinioAsyncClientService {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int DEFAULT_PREFETCH = 4;
+
+    private final Converter<io.minio.Result<Item>, ObjectDomain> toObjectDomain;
+    private final DataBufferFactory dataBufferFactory;
+    private final ObjectService objectService;
+
+    public ReactiveObjectService(MinioAsyncClientObjectPool minioAsyncClientObjectPool, ObjectService objectService) {
+        super(minioAsyncClientObjectPool);
+        this.objectService = objectService;
+        this.toObjectDomain = new ResultItemToDomainConverter();
+        this.dataBufferFactory = DefaultDataBufferFactory.sharedInstance;
+    }
+
+    /**
+     * 获取对象的对象信息和元数据
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @return {@link StatObjectResponse}
+     */
+    public Mono<StatObjectResponse> statObject(String bucketName, String objectName) {
+        return statObject(bucketName, null, objectName);
+    }
+
+    /**
+     * 获取对象的对象信息和元数据
+     *
+     * @param bucketName 存储桶名称
+     * @param region     区域
+     * @param objectName 对象名称
+     * @return {@link StatObjectResponse}
+     */
+    public Mono<StatObjectResponse> statObject(String bucketName, String region, String objectName) {
+        return statObject(StatObjectArgs.builder().bucket(bucketName).region(region).object(objectName).build());
+    }
+
+    /**
+     * 获取对象的对象信息和元数据
+     *
+     * @param statObjectArgs {@link StatObjectArgs}
+     * @return {@link StatObjectResponse}
+     */
+    public Mono<StatObjectResponse> statObject(StatObjectArgs statObjectArgs) {
+        return Mono.fromFuture(() -> execute("statObject", minioAsyncClient -> minioAsyncClient.statObject(statObjectArgs)));
+    }
+
+    /**
+     * 列出桶的对象信息
+     *
+     * @param bucketName 存储桶名称
+     * @return 对象信息流
+     */
+    public Flux<ObjectDomain> listObjects(String bucketName) {
+        return listObjects(bucketName, null);
+    }
+
+    /**
+     * 列出桶的对象信息
+     *
+     * @param bucketName 存储桶名称
+     * @param region     区域
+     * @return 对象信息流
+     */
+    public Flux<ObjectDomain> listObjects(String bucketName, String region) {
+        return listObjects(bucketName, region, null, false);
+    }
+
+    /**
+     * 列出桶的对象信息
+     *
+     * @param bucketName 存储桶名称
+     * @param region     区域
+     * @param prefix     前缀
+     * @param recursive  是否递归
+     * @return 对象信息流
+     */
+    public Flux<ObjectDomain> listObjects(String bucketName, String region, String prefix, boolean recursive) {
+        return listObjects(ListObjectsArgs.builder().bucket(bucketName).region(region).prefix(prefix).recursive(recursive).build());
+    }
+
+    /**
+     * 列出桶的对象信息
+     * <p>
+     * 使用 ListObjectsV2 逐页查询，只有下游请求更多数据时才会查询下一页。
+     *
+     * @param listObjectsArgs {@link ListObjectsArgs}
+     * @return 对象信息流
+     */
+    public Flux<ObjectDomain> listObjects(ListObjectsArgs listObjectsArgs) {
+        return listObjectsPage(listObjectsArgs, listObjectsArgs.continuationToken())
+                .expand(response -> response.result().isTruncated() ? listObjectsPage(listObjectsArgs, response.result().nextContinuationToken()) : Mono.empty())
+                .concatMapIterable(this::toItems)
+                .map(item -> toObjectDomain.convert(new io.minio.Result<>(item)));
+    }
+
+    private Mono<ListObjectsV2Response> listObjectsPage(ListObjectsArgs listObjectsArgs, String continuationToken) {
+        return Mono.fromFuture(() -> execute("listObjects", minioAsyncClient -> minioAsyncClient.listObjectsV2Async(
+                listObjectsArgs.bucket(),
+                listObjectsArgs.region(),
+                listObjectsArgs.delimiter(),
+                null,
+                listObjectsArgs.startAfter(),
+                listObjectsArgs.maxKeys(),
+                listObjectsArgs.prefix(),
+                continuationToken,
+                listObjectsArgs.fetchOwner(),
+                listObjectsArgs.includeUserMetadata(),
+                listObjectsArgs.extraHeaders(),
+                listObjectsArgs.extraQueryParams())));
+    }
+
+    private List<Item> toItems(ListObjectsV2Response response) {
+        ListBucketResultV2 result = response.result();
+        List<Item> items = new ArrayList<>(result.contents());
+        for (Prefix prefix : result.commonPrefixes()) {
+            items.add(prefix.toItem());
+        }
+        return items;
+    }
+
+    /**
+     * 获取对象内容
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @return 对象内容流
+     */
+    public Flux<DataBuffer> getObject(String bucketName, String objectName) {
+        return getObject(bucketName, null, objectName);
+    }
+
+    /**
+     * 获取对象内容
+     *
+     * @param bucketName 存储桶名称
+     * @param region     区域
+     * @param objectName 对象名称
+     * @return 对象内容流
+     */
+    public Flux<DataBuffer> getObject(String bucketName, String region, String objectName) {
+        return getObject(bucketName, region, objectName, null, null);
+    }
+
+    /**
+     * 获取对象指定范围的内容
+     *
+     * @param bucketName 存储桶名称
+     * @param region     区域
+     * @param objectName 对象名称
+     * @param offset     偏移
+     * @param length     长度
+     * @return 对象内容流
+     */
+    public Flux<DataBuffer> getObject(String bucketName, String region, String objectName, Long offset, Long length) {
+        return getObject(GetObjectArgs.builder().bucket(bucketName).region(region).object(objectName).offset(offset).length(length).build());
+    }
+
+    /**
+     * 获取对象内容
+     * <p>
+     * 对象内容按 DataBuffer 分块读取，下游未请求时不会继续读取。下游取消订阅时，会关闭与 Minio Server 的连接。
+     *
+     * @param getObjectArgs {@link GetObjectArgs}
+     * @return 对象内容流
+     */
+    public Flux<DataBuffer> getObject(GetObjectArgs getObjectArgs) {
+        return Mono.fromFuture(() -> execute("getObject", minioAsyncClient -> minioAsyncClient.getObject(getObjectArgs)))
+                .doOnDiscard(GetObjectResponse.class, IOUtils::closeQuietly)
+                .flatMapMany(response -> DataBufferUtils.readInputStream(() -> response, dataBufferFactory, DEFAULT_BUFFER_SIZE)
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * 上传对象
+     *
+     * @param bucketName  存储桶名称
+     * @param objectName  对象名称
+     * @param content     对象内容流
+     * @param objectSize  对象大小
+     * @param contentType 文件类型
+     * @return {@link ObjectWriteResponse}
+     */
+    public Mono<ObjectWriteResponse> putObject(String bucketName, String objectName, Publisher<DataBuffer> content, long objectSize, String contentType) {
+        return putObject(bucketName, null, objectName, content, objectSize, contentType);
+    }
+
+    /**
+     * 上传对象
+     *
+     * @param bucketName  存储桶名称
+     * @param region      区域
+     * @param objectName  对象名称
+     * @param content     对象内容流
+     * @param objectSize  对象大小
+     * @param contentType 文件类型
+     * @return {@link ObjectWriteResponse}
+     */
+    public Mono<ObjectWriteResponse> putObject(String bucketName, String region, String objectName, Publisher<DataBuffer> content, long objectSize, String contentType) {
+        return putObject(bucketName, region, objectName, content, objectSize, -1, contentType);
+    }
+
+    /**
+     * 上传对象
+     * <p>
+     * 上游 DataBuffer 按需拉取并直接写入 Minio，最多只缓存少量数据块。对象大小未知时，objectSize 传 -1，同时必须指定 partSize。
+     *
+     * @param bucketName  存储桶名称
+     * @param region      区域
+     * @param objectName  对象名称
+     * @param content     对象内容流
+     * @param objectSize  对象大小
+     * @param partSize    分片大小
+     * @param contentType 文件类型
+     * @return {@link ObjectWriteResponse}
+     */
+    public Mono<ObjectWriteResponse> putObject(String bucketName, String region, String objectName, Publisher<DataBuffer> content, long objectSize, long partSize, String contentType) {
+        return Mono.using(
+                        () -> new DataBufferInputStream(content, DEFAULT_PREFETCH),
+                        stream -> Mono.fromFuture(() -> execute("putObject", minioAsyncClient -> {
+                            PutObjectArgs.Builder builder = PutObjectArgs.builder()
+                                    .bucket(bucketName)
+                                    .region(region)
+                                    .object(objectName)
+                                    .stream(stream, objectSize, partSize);
+                            if (StringUtils.isNotBlank(contentType)) {
+                                builder.contentType(contentType);
+                            }
+                            return minioAsyncClient.putObject(builder.build());
+                        })),
+                        DataBufferInputStream::close)
+                .doOnSuccess(response -> objectService.invalidateObject(bucketName, objectName))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * 移除一个对象
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名
+     * @return {@link Mono}
+     */
+    public Mono<Void> removeObject(String bucketName, String objectName) {
+        return removeObject(bucketName, null, objectName);
+    }
+
+    /**
+     * 移除一个对象
+     *
+     * @param bucketName 存储桶名称
+     * @param region     区域
+     * @param objectName 对象名
+     * @return {@link Mono}
+     */
+    public Mono<Void> removeObject(String bucketName, String region, String objectName) {
+        return removeObject(RemoveObjectArgs.builder().bucket(bucketName).region(region).object(objectName).build());
+    }
+
+    /**
+     * 移除一个对象
+     *
+     * @param removeObjectArgs {@link RemoveObjectArgs}
+     * @return {@link Mono}
+     */
+    public Mono<Void> removeObject(RemoveObjectArgs removeObjectArgs) {
+        return Mono.fromFuture(() -> execute("removeObject", minioAsyncClient -> minioAsyncClient.removeObject(removeObjectArgs)))
+                .doOnSuccess(ignored -> objectService.invalidateObject(removeObjectArgs.bucket(), removeObjectArgs.object()));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.reactive.definition;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Description: DataBuffer 流转 InputStream 测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/10 11:10
+ */
+class DataBufferInputStreamTest {
+
+    private static DataBuffer wrap(String value) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void readsChunksInOrderAndSkipsEmptyBuffers() throws IOException {
+        Flux<DataBuffer> publisher = Flux.just(wrap("ab"), wrap(""), wrap("cde"), wrap("f"));
+        try (DataBufferInputStream inputStream = new DataBufferInputStream(publisher, 2)) {
+            assertEquals('a', inputStream.read());
+            byte[] bytes = new byte[10];
+            // 每次最多读取当前数据块的剩余部分
+            assertEquals(1, inputStream.read(bytes, 0, 10));
+            assertEquals('b', bytes[0]);
+            assertEquals("cdef", new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(-1, inputStream.read());
+        }
+    }
+
+    @Test
+    void pullsOnlyPrefetchedChunks() throws IOException {
+        AtomicInteger emitted = new AtomicInteger();
+        Flux<DataBuffer> publisher = Flux.range(0, 100).map(i -> wrap(String.valueOf(i % 10))).doOnNext(buffer -> emitted.incrementAndGet());
+        try (DataBufferInputStream inputStream = new DataBufferInputStream(publisher, 4)) {
+            assertEquals('0', inputStream.read());
+            assertTrue(emitted.get() < 100, "Emitted " + emitted.get());
+        }
+    }
+
+    @Test
+    void closeCancelsUpstream() throws IOException {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<DataBuffer> publisher = Flux.range(0, 100).map(i -> wrap("x")).doOnCancel(() -> cancelled.set(true));
+        DataBufferInputStream inputStream = new DataBufferInputStream(publisher, 2);
+        assertEquals('x', inputStream.read());
+
+        inputStream.close();
+        assertTrue(cancelled.get());
+        assertThrows(IOException.class, inputStream::read);
+    }
+
+    @Test
+    void upstreamErrorIsThrownToReader() {
+        Flux<DataBuffer> publisher = Flux.concat(Flux.just(wrap("a")), Flux.error(new IllegalStateException("broken")));
+        DataBufferInputStream inputStream = new DataBufferInputStream(publisher, 2);
+        assertThrows(IllegalStateException.class, inputStream::readAllBytes);
+        inputStream.close();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.reactive.service;
+
+import cn.herodotus.oss.minio.core.exception.MinioErrorResponseException;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClient;
+import cn.herodotus.oss.minio.logic.definition.pool.MinioAsyncClientObjectPool;
+import cn.herodotus.oss.minio.logic.service.ObjectService;
+import io.minio.ObjectWriteResponse;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: 响应式 Minio 对象操作服务测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/10 11:20
+ */
+class ReactiveObjectServiceTest {
+
+    private MinioAsyncClientObjectPool minioAsyncClientObjectPool;
+    private MinioAsyncClient minioAsyncClient;
+    private ObjectService objectService;
+    private ReactiveObjectService reactiveObjectService;
+
+    @BeforeEach
+    void setUp() {
+        minioAsyncClient = mock(MinioAsyncClient.class);
+        minioAsyncClientObjectPool = mock(MinioAsyncClientObjectPool.class);
+        when(minioAsyncClientObjectPool.getMinioAsyncClient()).thenReturn(minioAsyncClient);
+        objectService = mock(ObjectService.class);
+        reactiveObjectService = new ReactiveObjectService(minioAsyncClientObjectPool, objectService);
+    }
+
+    private static Flux<DataBuffer> content(String... chunks) {
+        return Flux.fromArray(chunks).map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void putObjectStreamsContentAndInvalidatesCaches() throws Exception {
+        AtomicReference<String> uploaded = new AtomicReference<>();
+        ObjectWriteResponse objectWriteResponse = mock(ObjectWriteResponse.class);
+        when(minioAsyncClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+            PutObjectArgs args = invocation.getArgument(0);
+            uploaded.set(new String(args.stream().readAllBytes(), StandardCharsets.UTF_8));
+            return CompletableFuture.completedFuture(objectWriteResponse);
+        });
+
+        assertSame(objectWriteResponse, reactiveObjectService.putObject("bucket", "a", content("hello ", "reactive ", "world"), 20, "text/plain").block());
+        assertEquals("hello reactive world", uploaded.get());
+        verify(objectService).invalidateObject("bucket", "a");
+        verify(minioAsyncClientObjectPool).close(minioAsyncClient);
+    }
+
+    @Test
+    void failedPutObjectKeepsCaches() throws Exception {
+        when(minioAsyncClient.putObject(any(PutObjectArgs.class))).thenReturn(CompletableFuture.failedFuture(new ErrorResponseException(
+                new ErrorResponse("NoSuchBucket", "The specified bucket does not exist", "bucket", "a", "/bucket/a", "request", "host"), null, null)));
+
+        assertThrows(MinioErrorResponseException.class, () -> reactiveObjectService.putObject("bucket", "a", content("hello"), 5, null).block());
+        verify(objectService, never()).invalidateObject(any(), any());
+        verify(minioAsyncClientObjectPool).close(minioAsyncClient);
+    }
+
+    @Test
+    void removeObjectInvalidatesCaches() throws Exception {
+        when(minioAsyncClient.removeObject(any(RemoveObjectArgs.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        reactiveObjectService.removeObject("bucket", "a").block();
+        verify(objectService).invalidateObject("bucket", "a");
+        verify(minioAsyncClientObjectPool).close(minioAsyncClient);
+    }
+
+    @Test
+    void removeObjectIsLazy() throws Exception {
+        when(minioAsyncClient.removeObject(any(RemoveObjectArgs.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        reactiveObjectService.removeObject("bucket", "a");
+        verify(minioAsyncClientObjectPool, never()).getMinioAsyncClient();
+        verify(objectService, never()).invalidateObject(any(), any());
+    }
+}
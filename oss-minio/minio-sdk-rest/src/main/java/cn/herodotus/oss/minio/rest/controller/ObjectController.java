@@ -29,15 +29,21 @@ import cn.herodotus.engine.assistant.core.domain.Result;
 import cn.herodotus.engine.rest.core.annotation.AccessLimited;
 import cn.herodotus.engine.rest.core.annotation.Idempotent;
 import cn.herodotus.engine.rest.core.controller.Controller;
+import cn.herodotus.oss.minio.core.converter.ResponseToObjectPageDomainConverter;
 import cn.herodotus.oss.minio.core.converter.ResultDeleteErrorToDomainConverter;
 import cn.herodotus.oss.minio.core.converter.ResultItemToDomainConverter;
 import cn.herodotus.oss.minio.core.domain.DeleteErrorDomain;
 import cn.herodotus.oss.minio.core.domain.ObjectDomain;
+import cn.herodotus.oss.minio.core.domain.ObjectPageDomain;
 import cn.herodotus.oss.minio.core.utils.ConverterUtils;
+import cn.herodotus.oss.minio.logic.service.ObjectListingService;
 import cn.herodotus.oss.minio.logic.service.ObjectService;
 import cn.herodotus.oss.minio.rest.request.object.ListObjectsRequest;
+import cn.herodotus.oss.minio.rest.request.object.ListObjectsStreamRequest;
 import cn.herodotus.oss.minio.rest.request.object.RemoveObjectRequest;
 import cn.herodotus.oss.minio.rest.request.object.RemoveObjectsRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.minio.ListObjectsV2Response;
 import io.minio.messages.DeleteError;
 import io.minio.messages.Item;
 import io.swagger.v3.oas.annotations.Operation;
@@ -48,13 +54,25 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
+import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.ObjectUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>Description: 对象存储对象管理接口 </p>
@@ -73,10 +91,17 @@ public class ObjectController implements Controller {
 
     private static final Logger log = LoggerFactory.getLogger(ObjectController.class);
 
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+    private static final int FLUSH_INTERVAL = 100;
+
     private final ObjectService objectService;
+    private final ObjectListingService objectListingService;
+    private final ObjectMapper objectMapper;
 
-    public ObjectController(ObjectService objectService) {
+    public ObjectController(ObjectService objectService, ObjectListingService objectListingService, ObjectMapper objectMapper) {
         this.objectService = objectService;
+        this.objectListingService = objectListingService;
+        this.objectMapper = objectMapper;
     }
 
     @AccessLimited
@@ -99,6 +124,116 @@ public class ObjectController implements Controller {
         return result(domains);
     }
 
+    @AccessLimited
+    @Operation(summary = "分页获取对象列表", description = "只查询一页 ListObjectsV2 数据，maxKeys 即返回数量，通过返回的 nextContinuationToken 获取下一页",
+            responses = {
+                    @ApiResponse(description = "单页对象", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ObjectPageDomain.class))),
+                    @ApiResponse(responseCode = "200", description = "查询成功，查到数据"),
+                    @ApiResponse(responseCode = "500", description = "查询失败"),
+                    @ApiResponse(responseCode = "503", description = "Minio Server无法访问或未启动")
+            })
+    @Parameters({
+            @Parameter(name = "request", required = true, description = "ListObjectsRequest参数实体", schema = @Schema(implementation = ListObjectsRequest.class))
+    })
+    @GetMapping("/page")
+    public Result<ObjectPageDomain> page(@Validated ListObjectsRequest request) {
+        ListObjectsV2Response response = objectListingService.listObjectsPage(request.build(), request.getContinuationToken());
+        ObjectPageDomain domain = new ResponseToObjectPageDomainConverter().convert(response);
+        return result(domain);
+    }
+
+    @AccessLimited
+    @Operation(summary = "流式获取对象列表", description = "边分页查询边以 NDJSON 格式逐行输出对象，内存占用与存储桶大小无关。达到 limit 后，最后一行输出 nextCursor 用于继续查询",
+            responses = {
+                    @ApiResponse(description = "每行一个对象，最后一行为游标信息", content = @Content(mediaType = MEDIA_TYPE_NDJSON)),
+                    @ApiResponse(responseCode = "200", description = "查询成功"),
+                    @ApiResponse(responseCode = "500", description = "查询失败"),
+                    @ApiResponse(responseCode = "503", description = "Minio Server无法访问或未启动")
+            })
+    @Parameters({
+            @Parameter(name = "request", required = true, description = "ListObjectsStreamRequest参数实体", schema = @Schema(implementation = ListObjectsStreamRequest.class))
+    })
+    @GetMapping(value = "/list/stream", produces = MEDIA_TYPE_NDJSON)
+    public void listStream(@Validated ListObjectsStreamRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MEDIA_TYPE_NDJSON);
+        stream(request, response, (writer, domain) -> writer.write(objectMapper.writeValueAsString(domain) + "\n"),
+                (writer, cursor) -> writer.write(objectMapper.writeValueAsString(cursor) + "\n"));
+    }
+
+    @AccessLimited
+    @Operation(summary = "以 SSE 方式获取对象列表", description = "边分页查询边以 Server-Sent Events 格式逐条输出对象，内存占用与存储桶大小无关。结束时输出 end 事件，包含用于继续查询的 nextCursor",
+            responses = {
+                    @ApiResponse(description = "object 事件为对象，end 事件为游标信息", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+                    @ApiResponse(responseCode = "200", description = "查询成功"),
+                    @ApiResponse(responseCode = "500", description = "查询失败"),
+                    @ApiResponse(responseCode = "503", description = "Minio Server无法访问或未启动")
+            })
+    @Parameters({
+            @Parameter(name = "request", required = true, description = "ListObjectsStreamRequest参数实体", schema = @Schema(implementation = ListObjectsStreamRequest.class))
+    })
+    @GetMapping(value = "/list/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void listEvents(@Validated ListObjectsStreamRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        stream(request, response, (writer, domain) -> writer.write("event: object\ndata: " + objectMapper.writeValueAsString(domain) + "\n\n"),
+                (writer, cursor) -> writer.write("event: end\ndata: " + objectMapper.writeValueAsString(cursor) + "\n\n"));
+    }
+
+    /**
+     * 在 SDK 分页迭代的同时逐条输出对象，每输出 {@link #FLUSH_INTERVAL} 条刷新一次，输出完毕后输出游标信息。
+     * <p>
+     * {@link PrintWriter} 不会抛出 {@link IOException}，客户端断开连接后只能通过 {@link PrintWriter#checkError()} 发现，此时停止继续分页查询。
+     *
+     * @param request      {@link ListObjectsStreamRequest}
+     * @param response     {@link HttpServletResponse}
+     * @param objectWriter 对象输出方式
+     * @param cursorWriter 游标输出方式
+     * @throws IOException io错误
+     */
+    private void stream(ListObjectsStreamRequest request, HttpServletResponse response, StreamWriter<ObjectDomain> objectWriter, StreamWriter<Map<String, Object>> cursorWriter) throws IOException {
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Converter<io.minio.Result<Item>, ObjectDomain> toDomain = new ResultItemToDomainConverter();
+        Iterator<io.minio.Result<Item>> iterator = objectService.listObjects(request.build()).iterator();
+        int limit = request.getLimit();
+
+        try {
+            PrintWriter writer = response.getWriter();
+            String lastObjectName = null;
+            int count = 0;
+            while (count < limit && iterator.hasNext()) {
+                ObjectDomain domain = toDomain.convert(iterator.next());
+                if (ObjectUtils.isNotEmpty(domain)) {
+                    objectWriter.write(writer, domain);
+                    lastObjectName = domain.getObjectName();
+                    count++;
+                    // checkError 会先刷新再检查错误状态
+                    if (count % FLUSH_INTERVAL == 0 && writer.checkError()) {
+                        log.debug("[Herodotus] |- Client disconnected while streaming objects of [{}], stop after [{}] objects.", request.getBucketName(), count);
+                        return;
+                    }
+                }
+            }
+
+            boolean truncated = count >= limit && iterator.hasNext();
+            Map<String, Object> cursor = new LinkedHashMap<>();
+            cursor.put("count", count);
+            cursor.put("truncated", truncated);
+            cursor.put("nextCursor", truncated ? lastObjectName : null);
+            cursorWriter.write(writer, cursor);
+            writer.flush();
+        } finally {
+            // 达到 limit 时迭代尚未结束，需要主动关闭以归还借用的 Client
+            if (iterator instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface StreamWriter<T> {
+        void write(PrintWriter writer, T value) throws IOException;
+    }
+
     @Idempotent
     @Operation(summary = "删除一个对象", description = "根据传入的参数对指定对象进行删除",
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = "application/json")),
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.rest.request.object;
+
+import io.minio.ListObjectsArgs;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * <p>Description: 流式对象列表请求参数 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 9:42
+ */
+@Schema(name = "流式对象列表请求参数实体", title = "流式对象列表请求参数实体")
+public class ListObjectsStreamRequest extends ListObjectsRequest {
+
+    @Min(value = 1, message = "limit 值不能小于 1")
+    @Max(value = 100000, message = "limit 值不能大于 100000")
+    @Schema(name = "单次返回的最大对象数量", description = "超过该数量后停止输出，并返回用于继续查询的游标，默认值 10000")
+    private Integer limit = 10000;
+
+    @Schema(name = "游标", description = "上一次查询返回的 nextCursor，从该对象之后继续查询")
+    private String cursor;
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    @Override
+    public void prepare(ListObjectsArgs.Builder builder) {
+        super.prepare(builder);
+
+        if (StringUtils.isNotBlank(getCursor())) {
+            builder.keyMarker(getCursor());
+            builder.startAfter(getCursor());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.rest.controller;
+
+import cn.herodotus.oss.minio.logic.service.ObjectListingService;
+import cn.herodotus.oss.minio.logic.service.ObjectService;
+import cn.herodotus.oss.minio.rest.request.object.ListObjectsStreamRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.minio.ListObjectsArgs;
+import io.minio.Result;
+import io.minio.messages.Item;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: 对象流式列表接口测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/12 10:40
+ */
+class ObjectControllerTest {
+
+    private ObjectListing listing;
+    private ObjectController objectController;
+
+    @BeforeEach
+    void setUp() {
+        listing = new ObjectListing();
+        ObjectService objectService = mock(ObjectService.class);
+        when(objectService.listObjects(any(ListObjectsArgs.class))).thenReturn(() -> listing);
+        objectController = new ObjectController(objectService, mock(ObjectListingService.class), new ObjectMapper());
+    }
+
+    private static ListObjectsStreamRequest request(int limit) {
+        ListObjectsStreamRequest request = new ListObjectsStreamRequest();
+        request.setBucketName("bucket");
+        request.setLimit(limit);
+        return request;
+    }
+
+    @Test
+    void listStreamWritesObjectsAndCursor() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        objectController.listStream(request(3), response);
+
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].contains("\"objectName\":\"object-0\""));
+        assertTrue(lines[2].contains("\"objectName\":\"object-2\""));
+        assertEquals("{\"count\":3,\"truncated\":true,\"nextCursor\":\"object-2\"}", lines[3]);
+        assertTrue(listing.closed);
+    }
+
+    @Test
+    void listStreamStopsWhenClientDisconnects() throws IOException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getWriter()).thenReturn(new PrintWriter(new DisconnectedWriter()));
+
+        objectController.listStream(request(10000), response);
+
+        // 第一次刷新时发现连接已断开，不再继续分页查询
+        assertEquals(100, listing.produced);
+        assertTrue(listing.closed);
+    }
+
+    /**
+     * 无限的对象列表，记录已经读取的数量和是否被关闭
+     */
+    private static class ObjectListing implements Iterator<Result<Item>>, Closeable {
+
+        private int produced;
+        private boolean closed;
+
+        @Override
+        public boolean hasNext() {
+            return !closed;
+        }
+
+        @Override
+        public Result<Item> next() {
+            Item item = mock(Item.class);
+            when(item.objectName()).thenReturn("object-" + produced++);
+            when(item.isDir()).thenReturn(true);
+            return new Result<>(item);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    /**
+     * 模拟客户端已断开连接，所有刷新操作都失败
+     */
+    private static class DisconnectedWriter extends Writer {
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void flush() throws IOException {
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -42,6 +42,11 @@ public class ChunkUploadCreateBusiness implements Entity {
 
     private List<String> chunkUploadUrls;
 
+    /**
+     * 下一个待获取预上传地址的分片号，为空表示所有分片地址均已生成
+     */
+    private Integer nextPartNumber;
+
     public ChunkUploadCreateBusiness(String uploadId) {
         this.uploadId = uploadId;
         this.chunkUploadUrls = new ArrayList<>();
@@ -63,6 +68,14 @@ public class ChunkUploadCreateBusiness implements Entity {
         this.chunkUploadUrls = chunkUploadUrls;
     }
 
+    public Integer getNextPartNumber() {
+        return nextPartNumber;
+    }
+
+    public void setNextPartNumber(Integer nextPartNumber) {
+        this.nextPartNumber = nextPartNumber;
+    }
+
     public void appendChunk(String chunk) {
         chunkUploadUrls.add(chunkUploadUrls.size(), chunk);
     }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.bo;
+
+import cn.herodotus.engine.assistant.core.definition.domain.Entity;
+
+import java.util.List;
+
+/**
+ * <p>Description: 分片上传状态实体 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/12 10:10
+ */
+public class ChunkUploadStatusBusiness implements Entity {
+
+    private String uploadId;
+
+    private String bucketName;
+
+    private String objectName;
+
+    private Integer totalParts;
+
+    private Long partSize;
+
+    private Integer receivedParts;
+
+    /**
+     * 尚未上传的分片号，客户端断点续传时只需上传这些分片
+     */
+    private List<Integer> missingParts;
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public void setBucketName(String bucketName) {
+        this.bucketName = bucketName;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public void setObjectName(String objectName) {
+        this.objectName = objectName;
+    }
+
+    public Integer getTotalParts() {
+        return totalParts;
+    }
+
+    public void setTotalParts(Integer totalParts) {
+        this.totalParts = totalParts;
+    }
+
+    public Long getPartSize() {
+        return partSize;
+    }
+
+    public void setPartSize(Long partSize) {
+        this.partSize = partSize;
+    }
+
+    public Integer getReceivedParts() {
+        return receivedParts;
+    }
+
+    public void setReceivedParts(Integer receivedParts) {
+        this.receivedParts = receivedParts;
+    }
+
+    public List<Integer> getMissingParts() {
+        return missingParts;
+    }
+
+    public void setMissingParts(List<Integer> missingParts) {
+        this.missingParts = missingParts;
+    }
+}
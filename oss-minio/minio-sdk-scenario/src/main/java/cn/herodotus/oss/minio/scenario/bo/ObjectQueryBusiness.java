@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.bo;
+
+import cn.herodotus.engine.assistant.core.definition.domain.Entity;
+import cn.herodotus.oss.minio.scenario.definition.index.ObjectMetadata;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * <p>Description: 对象元数据查询结果实体 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 18:10
+ */
+public class ObjectQueryBusiness implements Entity {
+
+    private List<ObjectMetadata> items;
+
+    private Boolean truncated;
+
+    /**
+     * 下一页的分页标记，没有更多数据时为 null
+     */
+    private String nextMarker;
+
+    /**
+     * 存储桶最近一次完成全量核对的时间，用于判断索引的新鲜程度
+     */
+    private Instant checkpoint;
+
+    public List<ObjectMetadata> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ObjectMetadata> items) {
+        this.items = items;
+    }
+
+    public Boolean getTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(Boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public String getNextMarker() {
+        return nextMarker;
+    }
+
+    public void setNextMarker(String nextMarker) {
+        this.nextMarker = nextMarker;
+    }
+
+    public Instant getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(Instant checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+}
@@ -26,10 +26,39 @@
 package cn.herodotus.oss.minio.scenario.configuration;
 
 import cn.herodotus.engine.rest.client.configuration.RestTemplateConfiguration;
+import cn.herodotus.oss.minio.core.constants.MinioConstants;
+import cn.herodotus.oss.minio.logic.definition.cache.StatObjectCache;
+import cn.herodotus.oss.minio.logic.service.BucketNotificationService;
+import cn.herodotus.oss.minio.logic.service.BucketService;
+import cn.herodotus.oss.minio.logic.service.MultipartUploadService;
+import cn.herodotus.oss.minio.logic.service.ObjectTagsService;
+import cn.herodotus.oss.minio.logic.service.ParallelListingService;
+import cn.herodotus.oss.minio.scenario.definition.dedup.DiskObjectHashIndex;
+import cn.herodotus.oss.minio.scenario.definition.dedup.InMemoryObjectHashIndex;
+import cn.herodotus.oss.minio.scenario.definition.dedup.ObjectHashIndex;
+import cn.herodotus.oss.minio.scenario.definition.index.LocalObjectMetadataIndex;
+import cn.herodotus.oss.minio.scenario.definition.index.ObjectMetadataIndex;
+import cn.herodotus.oss.minio.scenario.definition.notification.BucketNotificationHandler;
+import cn.herodotus.oss.minio.scenario.definition.session.ChunkUploadSessionStore;
+import cn.herodotus.oss.minio.scenario.definition.session.InMemoryChunkUploadSessionStore;
+import cn.herodotus.oss.minio.scenario.definition.setting.ParallelSettingLoader;
+import cn.herodotus.oss.minio.scenario.index.ObjectMetadataIndexer;
+import cn.herodotus.oss.minio.scenario.metrics.MinioScenarioMetrics;
+import cn.herodotus.oss.minio.scenario.notification.BucketNotificationListenerContainer;
+import cn.herodotus.oss.minio.scenario.notification.StatObjectCacheInvalidator;
+import cn.herodotus.oss.minio.scenario.properties.MinioScenarioProperties;
+import cn.herodotus.oss.minio.scenario.reaper.MultipartUploadReaper;
+import cn.herodotus.oss.minio.scenario.service.ChunkUploadService;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Import;
 
@@ -40,6 +69,7 @@ import org.springframework.context.annotation.Import;
  * @date : 2023/6/10 16:22
  */
 @AutoConfiguration
+@EnableConfigurationProperties(MinioScenarioProperties.class)
 @Import({
         RestTemplateConfiguration.class
 })
@@ -56,4 +86,89 @@ public class MinioScenarioConfiguration {
     public void postConstruct() {
         log.debug("[Herodotus] |- SDK [Minio Scenario] Auto Configure.");
     }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ObjectHashIndex objectHashIndex(MinioScenarioProperties minioScenarioProperties) {
+        MinioScenarioProperties.InstantUpload instantUpload = minioScenarioProperties.getInstantUpload();
+        ObjectHashIndex objectHashIndex;
+        if (instantUpload.getIndexType() == MinioScenarioProperties.IndexType.DISK) {
+            objectHashIndex = new DiskObjectHashIndex(instantUpload.getDirectory());
+        } else {
+            objectHashIndex = new InMemoryObjectHashIndex(instantUpload.getMaximumSize());
+        }
+        log.trace("[Herodotus] |- Bean [Object Hash Index] Auto Configure.");
+        return objectHashIndex;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ChunkUploadSessionStore chunkUploadSessionStore() {
+        InMemoryChunkUploadSessionStore chunkUploadSessionStore = new InMemoryChunkUploadSessionStore(ChunkUploadService.PRESIGNED_PART_URL_EXPIRATION);
+        log.trace("[Herodotus] |- Bean [Chunk Upload Session Store] Auto Configure.");
+        return chunkUploadSessionStore;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = MinioConstants.ITEM_MINIO_SCENARIO_REAPER_ENABLED, havingValue = "true")
+    public MultipartUploadReaper multipartUploadReaper(MultipartUploadService multipartUploadService, BucketService bucketService, ChunkUploadSessionStore chunkUploadSessionStore, MinioScenarioProperties minioScenarioProperties) {
+        MultipartUploadReaper multipartUploadReaper = new MultipartUploadReaper(multipartUploadService, bucketService, chunkUploadSessionStore, minioScenarioProperties);
+        log.trace("[Herodotus] |- Bean [Multipart Upload Reaper] Auto Configure.");
+        return multipartUploadReaper;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = MinioConstants.ITEM_MINIO_SCENARIO_METADATA_INDEX_ENABLED, havingValue = "true")
+    public ObjectMetadataIndex objectMetadataIndex(MinioScenarioProperties minioScenarioProperties) {
+        MinioScenarioProperties.MetadataIndex metadataIndex = minioScenarioProperties.getMetadataIndex();
+        LocalObjectMetadataIndex objectMetadataIndex = new LocalObjectMetadataIndex(metadataIndex.getDirectory(), metadataIndex.getCompactThreshold());
+        log.trace("[Herodotus] |- Bean [Object Metadata Index] Auto Configure.");
+        return objectMetadataIndex;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = MinioConstants.ITEM_MINIO_SCENARIO_METADATA_INDEX_ENABLED, havingValue = "true")
+    public ObjectMetadataIndexer objectMetadataIndexer(ParallelListingService parallelListingService, ObjectTagsService objectTagsService, BucketService bucketService, ObjectMetadataIndex objectMetadataIndex, MinioScenarioProperties minioScenarioProperties) {
+        ObjectMetadataIndexer objectMetadataIndexer = new ObjectMetadataIndexer(parallelListingService, objectTagsService, bucketService, objectMetadataIndex, minioScenarioProperties);
+        log.trace("[Herodotus] |- Bean [Object Metadata Indexer] Auto Configure.");
+        return objectMetadataIndexer;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = MinioConstants.ITEM_MINIO_SCENARIO_NOTIFICATION_ENABLED, havingValue = "true")
+    public BucketNotificationListenerContainer bucketNotificationListenerContainer(BucketNotificationService bucketNotificationService, BucketService bucketService, ObjectProvider<BucketNotificationHandler> bucketNotificationHandlers, ApplicationEventPublisher applicationEventPublisher, MinioScenarioProperties minioScenarioProperties) {
+        BucketNotificationListenerContainer bucketNotificationListenerContainer = new BucketNotificationListenerContainer(bucketNotificationService, bucketService, bucketNotificationHandlers, applicationEventPublisher, minioScenarioProperties);
+        log.trace("[Herodotus] |- Bean [Bucket Notification Listener Container] Auto Configure.");
+        return bucketNotificationListenerContainer;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = MinioConstants.ITEM_MINIO_SCENARIO_NOTIFICATION_ENABLED, havingValue = "true")
+    public StatObjectCacheInvalidator statObjectCacheInvalidator(StatObjectCache statObjectCache) {
+        StatObjectCacheInvalidator statObjectCacheInvalidator = new StatObjectCacheInvalidator(statObjectCache);
+        log.trace("[Herodotus] |- Bean [Stat Object Cache Invalidator] Auto Configure.");
+        return statObjectCacheInvalidator;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ParallelSettingLoader parallelSettingLoader(MinioScenarioProperties minioScenarioProperties) {
+        ParallelSettingLoader parallelSettingLoader = new ParallelSettingLoader(minioScenarioProperties);
+        log.trace("[Herodotus] |- Bean [Parallel Setting Loader] Auto Configure.");
+        return parallelSettingLoader;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = MinioConstants.ITEM_MINIO_METRICS_ENABLED, havingValue = "true", matchIfMissing = true)
+    public MinioScenarioMetrics minioScenarioMetrics(ObjectProvider<MultipartUploadReaper> multipartUploadReaper, ObjectProvider<BucketNotificationListenerContainer> bucketNotificationListenerContainer) {
+        MinioScenarioMetrics minioScenarioMetrics = new MinioScenarioMetrics(multipartUploadReaper, bucketNotificationListenerContainer);
+        log.trace("[Herodotus] |- Bean [Minio Scenario Metrics] Auto Configure.");
+        return minioScenarioMetrics;
+    }
 }
@@ -31,20 +31,23 @@ import cn.herodotus.engine.rest.core.controller.Controller;
 import cn.herodotus.oss.minio.core.constants.MinioConstants;
 import cn.herodotus.oss.minio.core.domain.ObjectWriteDomain;
 import cn.herodotus.oss.minio.scenario.bo.ChunkUploadCreateBusiness;
+import cn.herodotus.oss.minio.scenario.bo.ChunkUploadStatusBusiness;
 import cn.herodotus.oss.minio.scenario.proxy.MinioPresignedObjectUrlProxy;
 import cn.herodotus.oss.minio.scenario.request.ChunkUploadCompleteRequest;
 import cn.herodotus.oss.minio.scenario.request.ChunkUploadCreateRequest;
+import cn.herodotus.oss.minio.scenario.request.ChunkUploadUrlsRequest;
 import cn.herodotus.oss.minio.scenario.service.ChunkUploadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.http.ResponseEntity;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -85,7 +88,24 @@ public class ChunkUploadController implements Controller {
     })
     @PostMapping("/create")
     public Result<ChunkUploadCreateBusiness> createMultipartUpload(@Validated @RequestBody ChunkUploadCreateRequest request) {
-        ChunkUploadCreateBusiness result = chunkUploadService.createMultipartUpload(request.getBucketName(), request.getObjectName(), request.getSize());
+        ChunkUploadCreateBusiness result = chunkUploadService.createMultipartUpload(request.getBucketName(), request.getObjectName(), request.getSize(), request.getPartSize(), request.getWindow());
+        return result(result);
+    }
+
+    @Operation(summary = "获取分片预上传地址", description = "创建分片上传时只生成了部分分片的预上传地址，通过该接口按需获取后续分片的预上传地址",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = "application/json")),
+            responses = {
+                    @ApiResponse(description = "uploadId 和 预下载地址", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ChunkUploadCreateBusiness.class))),
+                    @ApiResponse(responseCode = "200", description = "操作成功"),
+                    @ApiResponse(responseCode = "204", description = "无结果"),
+                    @ApiResponse(responseCode = "500", description = "操作失败")
+            })
+    @Parameters({
+            @Parameter(name = "request", required = true, description = "ChunkUploadUrlsRequest参数实体", schema = @Schema(implementation = ChunkUploadUrlsRequest.class))
+    })
+    @PostMapping("/urls")
+    public Result<ChunkUploadCreateBusiness> createPresignedPartUrls(@Validated @RequestBody ChunkUploadUrlsRequest request) {
+        ChunkUploadCreateBusiness result = chunkUploadService.createPresignedPartUrls(request.getBucketName(), request.getObjectName(), request.getUploadId(), request.getStartPartNumber(), request.getSize(), request.getTotalParts());
         return result(result);
     }
 
@@ -107,13 +127,29 @@ public class ChunkUploadController implements Controller {
         return result(entity);
     }
 
+    @Operation(summary = "获取分片上传状态", description = "获取分片上传已接收和尚未接收的分片，用于断点续传",
+            responses = {
+                    @ApiResponse(description = "分片上传状态", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ChunkUploadStatusBusiness.class))),
+                    @ApiResponse(responseCode = "200", description = "操作成功"),
+                    @ApiResponse(responseCode = "204", description = "无结果"),
+                    @ApiResponse(responseCode = "500", description = "操作失败")
+            })
+    @Parameters({
+            @Parameter(name = "uploadId", required = true, in = ParameterIn.PATH, description = "分片上传ID")
+    })
+    @GetMapping("/{uploadId}/status")
+    public Result<ChunkUploadStatusBusiness> getStatus(@PathVariable("uploadId") String uploadId) {
+        ChunkUploadStatusBusiness result = chunkUploadService.getStatus(uploadId);
+        return result(result);
+    }
+
     @Operation(summary = "预下载代理地址", description = "预下载代理地址，避免前端直接访问OSS，同时导致微服务寻址错误",
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = "application/json")),
             responses = {
                     @ApiResponse(description = "操作结果", content = @Content(mediaType = "application/json")),
             })
     @PutMapping(value = MinioConstants.MINIO_PRESIGNED_OBJECT_PROXY)
-    public ResponseEntity<String> presignedObjectProxy(HttpServletRequest request) {
-        return presignedObjectUrlDelegate.delegate(request);
+    public void presignedObjectProxy(HttpServletRequest request, HttpServletResponse response) {
+        presignedObjectUrlDelegate.delegate(request, response);
     }
 }
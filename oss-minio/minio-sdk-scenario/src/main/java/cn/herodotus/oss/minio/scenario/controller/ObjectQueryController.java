@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.controller;
+
+import cn.herodotus.engine.assistant.core.domain.Result;
+import cn.herodotus.engine.rest.core.controller.Controller;
+import cn.herodotus.oss.minio.core.constants.MinioConstants;
+import cn.herodotus.oss.minio.scenario.bo.ObjectQueryBusiness;
+import cn.herodotus.oss.minio.scenario.request.ObjectQueryRequest;
+import cn.herodotus.oss.minio.scenario.service.ObjectQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.tags.Tags;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * <p>Description: Minio 对象元数据查询接口 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 18:25
+ */
+@RestController
+@RequestMapping("/oss/minio/object/query")
+@ConditionalOnProperty(name = MinioConstants.ITEM_MINIO_SCENARIO_METADATA_INDEX_ENABLED, havingValue = "true")
+@Tags({
+        @Tag(name = "对象存储管理接口"),
+        @Tag(name = "Minio 对象存储管理接口"),
+        @Tag(name = "Minio 对象元数据查询接口")
+})
+public class ObjectQueryController implements Controller {
+
+    private final ObjectQueryService objectQueryService;
+
+    public ObjectQueryController(ObjectQueryService objectQueryService) {
+        this.objectQueryService = objectQueryService;
+    }
+
+    @Operation(summary = "查询对象", description = "根据前缀、后缀、大小、最后修改时间和标签组合查询对象，结果按对象名称排序并分页返回",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = "application/json")),
+            responses = {
+                    @ApiResponse(description = "查询结果", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ObjectQueryBusiness.class))),
+                    @ApiResponse(responseCode = "200", description = "操作成功"),
+                    @ApiResponse(responseCode = "500", description = "操作失败")
+            })
+    @Parameters({
+            @Parameter(name = "request", required = true, description = "ObjectQueryRequest请求参数实体", schema = @Schema(implementation = ObjectQueryRequest.class))
+    })
+    @PostMapping
+    public Result<ObjectQueryBusiness> query(@Validated @RequestBody ObjectQueryRequest request) {
+        ObjectQueryBusiness result = objectQueryService.query(request.build());
+        return result(result);
+    }
+}
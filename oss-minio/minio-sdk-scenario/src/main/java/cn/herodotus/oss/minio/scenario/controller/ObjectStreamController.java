@@ -25,13 +25,19 @@
 
 package cn.herodotus.oss.minio.scenario.controller;
 
+import cn.herodotus.engine.assistant.core.domain.Result;
 import cn.herodotus.engine.rest.core.annotation.Idempotent;
+import cn.herodotus.engine.rest.core.controller.Controller;
 import cn.herodotus.oss.minio.core.domain.ObjectWriteDomain;
+import cn.herodotus.oss.minio.scenario.bo.InstantUploadBusiness;
+import cn.herodotus.oss.minio.scenario.request.InstantUploadRequest;
 import cn.herodotus.oss.minio.scenario.request.ObjectDownloadRequest;
+import cn.herodotus.oss.minio.scenario.service.InstantUploadService;
 import cn.herodotus.oss.minio.scenario.service.ObjectStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -41,6 +47,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -60,14 +67,16 @@ import java.io.IOException;
         @Tag(name = "Minio 对象存储管理接口"),
         @Tag(name = "Minio 对象下载接口")
 })
-public class ObjectStreamController {
+public class ObjectStreamController implements Controller {
 
     private static final Logger log = LoggerFactory.getLogger(ObjectStreamController.class);
 
     private final ObjectStreamService objectStreamService;
+    private final InstantUploadService instantUploadService;
 
-    public ObjectStreamController(ObjectStreamService objectStreamService) {
+    public ObjectStreamController(ObjectStreamService objectStreamService, InstantUploadService instantUploadService) {
         this.objectStreamService = objectStreamService;
+        this.instantUploadService = instantUploadService;
     }
 
     @Idempotent
@@ -83,14 +92,61 @@ public class ObjectStreamController {
             @Parameter(name = "request", required = true, description = "ObjectDownloadRequest请求参数实体", schema = @Schema(implementation = ObjectDownloadRequest.class))
     })
     @PostMapping("/download")
-    public void download(@Validated @RequestBody ObjectDownloadRequest request, HttpServletResponse response) {
+    public void download(@Validated @RequestBody ObjectDownloadRequest request,
+                         @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                         @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                         HttpServletResponse response) {
+        download(request, range, ifRange, response);
+    }
+
+    @Operation(summary = "分段下载", description = "支持 HTTP Range 请求的 Object 下载，可用于视频拖动播放、断点续传等场景",
+            responses = {
+                    @ApiResponse(description = "文件内容", content = @Content(mediaType = "application/octet-stream")),
+                    @ApiResponse(responseCode = "200", description = "返回完整对象"),
+                    @ApiResponse(responseCode = "206", description = "返回部分内容"),
+                    @ApiResponse(responseCode = "416", description = "Range 超出对象范围"),
+                    @ApiResponse(responseCode = "500", description = "操作失败"),
+                    @ApiResponse(responseCode = "503", description = "Minio Server无法访问或未启动")
+            })
+    @Parameters({
+            @Parameter(name = "request", required = true, in = ParameterIn.QUERY, description = "ObjectDownloadRequest请求参数实体", schema = @Schema(implementation = ObjectDownloadRequest.class)),
+            @Parameter(name = HttpHeaders.RANGE, in = ParameterIn.HEADER, description = "请求的字节范围，例如：bytes=0-1023"),
+            @Parameter(name = HttpHeaders.IF_RANGE, in = ParameterIn.HEADER, description = "ETag 或最后修改时间，不匹配时返回完整对象")
+    })
+    @GetMapping("/download")
+    public void rangeDownload(@Validated ObjectDownloadRequest request,
+                              @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                              @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                              HttpServletResponse response) {
+        download(request, range, ifRange, response);
+    }
+
+    private void download(ObjectDownloadRequest request, String range, String ifRange, HttpServletResponse response) {
         try {
-            objectStreamService.download(request.getBucketName(), request.getObjectName(), response);
+            objectStreamService.download(request.getBucketName(), request.getObjectName(), range, ifRange, response);
         } catch (IOException e) {
             log.error("[Herodotus] |- Download file from minio catch error", e);
         }
     }
 
+    @Idempotent
+    @Operation(summary = "秒传", description = "根据文件内容的 SHA-256 值判断文件是否已经存储，已存储时直接在服务端复制，无需再上传文件内容",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = "application/json")),
+            responses = {
+                    @ApiResponse(description = "秒传结果", content = @Content(mediaType = "application/json", schema = @Schema(implementation = InstantUploadBusiness.class))),
+                    @ApiResponse(responseCode = "200", description = "操作成功"),
+                    @ApiResponse(responseCode = "500", description = "操作失败"),
+                    @ApiResponse(responseCode = "503", description = "Minio Server无法访问或未启动")
+            })
+    @Parameters({
+            @Parameter(name = "request", required = true, description = "InstantUploadRequest请求参数实体", schema = @Schema(implementation = InstantUploadRequest.class))
+    })
+    @PostMapping("/instant")
+    public Result<InstantUploadBusiness> instantUpload(@Validated @RequestBody InstantUploadRequest request) {
+        InstantUploadBusiness result = instantUploadService.instantUpload(request.getBucketName(), request.getObjectName(), request.getHash(), request.getSize());
+        return result(result);
+    }
+
     @Idempotent
     @Operation(summary = "文件上传", description = "普通的文件上传操作接口",
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = "application/json")),
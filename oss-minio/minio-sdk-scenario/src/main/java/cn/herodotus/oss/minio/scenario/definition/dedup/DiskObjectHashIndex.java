@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.dedup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Description: 基于本地磁盘的内容哈希索引 </p>
+ * <p>
+ * 每个哈希对应一个文件，以哈希值前两位作为子目录，避免单个目录下文件过多。写入时先写临时文件再原子替换，保证进程异常退出时不会留下损坏的记录。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 15:40
+ */
+public class DiskObjectHashIndex implements ObjectHashIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DiskObjectHashIndex.class);
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("^[0-9a-f]{64}$");
+
+    private static final String BUCKET_NAME = "bucketName";
+    private static final String OBJECT_NAME = "objectName";
+    private static final String SIZE = "size";
+    private static final String ETAG = "etag";
+
+    private final Path directory;
+
+    public DiskObjectHashIndex(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not create instant upload index directory [" + directory + "].", e);
+        }
+    }
+
+    private Path toPath(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Illegal content hash [" + hash + "].");
+        }
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    @Override
+    public ObjectHashReference get(String hash) {
+        Path path = toPath(hash);
+        if (!Files.exists(path)) {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            properties.load(inputStream);
+            return new ObjectHashReference(
+                    properties.getProperty(BUCKET_NAME),
+                    properties.getProperty(OBJECT_NAME),
+                    Long.parseLong(properties.getProperty(SIZE, "-1")),
+                    properties.getProperty(ETAG));
+        } catch (IOException | NumberFormatException e) {
+            log.warn("[Herodotus] |- Read instant upload index [{}] catch error.", path, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String hash, ObjectHashReference reference) {
+        Path path = toPath(hash);
+        if (Files.exists(path)) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty(BUCKET_NAME, reference.getBucketName());
+        properties.setProperty(OBJECT_NAME, reference.getObjectName());
+        properties.setProperty(SIZE, String.valueOf(reference.getSize()));
+        properties.setProperty(ETAG, reference.getEtag());
+
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), hash, ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                properties.store(outputStream, null);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("[Herodotus] |- Write instant upload index [{}] catch error.", path, e);
+        }
+    }
+
+    @Override
+    public void remove(String hash) {
+        try {
+            Files.deleteIfExists(toPath(hash));
+        } catch (IOException e) {
+            log.warn("[Herodotus] |- Remove instant upload index [{}] catch error.", hash, e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.dedup;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * <p>Description: 基于内存的内容哈希索引 </p>
+ * <p>
+ * 仅适用于单实例部署，应用重启后索引丢失。条目数量超出上限后按最近最少使用淘汰，被淘汰的内容只是无法秒传，不影响正确性。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 15:32
+ */
+public class InMemoryObjectHashIndex implements ObjectHashIndex {
+
+    private final Cache<String, ObjectHashReference> storage;
+
+    public InMemoryObjectHashIndex(long maximumSize) {
+        this.storage = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    public ObjectHashReference get(String hash) {
+        return storage.getIfPresent(hash);
+    }
+
+    @Override
+    public void put(String hash, ObjectHashReference reference) {
+        storage.asMap().putIfAbsent(hash, reference);
+    }
+
+    @Override
+    public void remove(String hash) {
+        storage.invalidate(hash);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.dedup;
+
+/**
+ * <p>Description: 内容哈希索引 </p>
+ * <p>
+ * 秒传功能的扩展点，以内容的 SHA-256 哈希（小写十六进制）为键，记录已存储的对象。
+ * 默认提供内存和本地磁盘两种实现，如需使用 Redis 等共享存储，实现该接口并注册为 Bean 即可替换默认实现。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 15:25
+ */
+public interface ObjectHashIndex {
+
+    /**
+     * 根据内容哈希查找已存储的对象
+     *
+     * @param hash SHA-256 哈希值
+     * @return {@link ObjectHashReference}，不存在时返回 null
+     */
+    ObjectHashReference get(String hash);
+
+    /**
+     * 记录内容哈希对应的对象。已存在记录时，保留原有记录。
+     *
+     * @param hash      SHA-256 哈希值
+     * @param reference {@link ObjectHashReference}
+     */
+    void put(String hash, ObjectHashReference reference);
+
+    /**
+     * 删除内容哈希记录，通常在对象已经不存在或已被修改时调用
+     *
+     * @param hash SHA-256 哈希值
+     */
+    void remove(String hash);
+}
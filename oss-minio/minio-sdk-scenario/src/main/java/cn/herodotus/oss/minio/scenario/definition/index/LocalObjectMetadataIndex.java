@@ -0,0 +1,470 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.index;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * <p>Description: 基于本地磁盘的对象元数据索引 </p>
+ * <p>
+ * 每个存储桶在内存中维护一个按对象名称排序的主索引，以及按大小、最后修改时间、标签建立的二级索引。查询时根据条件选择候选集最小的索引，
+ * 再逐条过滤其余条件，结果始终按对象名称排序，可直接以最后一个对象名称作为下一页的分页标记。
+ * 标签索引本身按名称排序，直接作为候选集惰性遍历；大小和时间的范围索引按数值排序，命中数量不超过 {@value #RANGE_CANDIDATE_LIMIT} 时按名称重新排序后使用，
+ * 否则退化为按名称顺序扫描主索引，避免在内存中构建巨大的临时集合。
+ * <p>
+ * 索引数据全部常驻内存，磁盘仅用于持久化，内存占用与索引的对象数量成正比，适用于百万级以内的对象规模。
+ * 未引入 RocksDB 等嵌入式存储是为了不增加额外的本地库依赖，对象规模更大时可通过 {@link ObjectMetadataIndex} 接口替换为其它实现。
+ * <p>
+ * 持久化采用"快照 + 追加日志"：每次变更先修改内存索引，再追加一行日志；日志记录数超过阈值时切换到新的日志文件，
+ * 由后台线程将全部索引写成新的快照后删除旧日志，写入操作不会因生成快照而阻塞。
+ * 启动时依次加载快照、旧日志和当前日志，进程异常退出最多丢失最后一条未写完的日志，缺失的数据由下一次全量核对补齐。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 17:10
+ */
+public class LocalObjectMetadataIndex implements ObjectMetadataIndex, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalObjectMetadataIndex.class);
+
+    private static final String SNAPSHOT = "metadata.snapshot";
+    private static final String JOURNAL = "metadata.journal";
+    private static final String COMPACTING_JOURNAL = "metadata.journal.compacting";
+    private static final String CHECKPOINT = "checkpoint.properties";
+    private static final String PUT = "PUT";
+    private static final String REMOVE = "REMOVE";
+    private static final int RANGE_CANDIDATE_LIMIT = 10000;
+
+    private final Path directory;
+    private final int compactThreshold;
+    private final ObjectMapper objectMapper;
+    private final Map<String, BucketIndex> buckets = new ConcurrentHashMap<>();
+    private final Properties checkpoints = new Properties();
+    private final ExecutorService compactor;
+
+    private BufferedWriter journal;
+    private int journalSize;
+    private boolean compacting;
+
+    public LocalObjectMetadataIndex(Path directory, int compactThreshold) {
+        this.directory = directory;
+        this.compactThreshold = compactThreshold;
+        this.objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "herodotus-minio-metadata-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Files.createDirectories(directory);
+            load();
+            if (Files.exists(directory.resolve(COMPACTING_JOURNAL))) {
+                // 先完成上次未完成的快照，避免下次切换日志时覆盖旧日志
+                compact();
+            }
+            this.journal = Files.newBufferedWriter(directory.resolve(JOURNAL), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not open metadata index directory [" + directory + "].", e);
+        }
+    }
+
+    private void load() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT);
+        if (Files.exists(snapshot)) {
+            try (BufferedReader reader = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    ObjectMetadata metadata = objectMapper.readValue(line, ObjectMetadata.class);
+                    getOrCreate(metadata.getBucketName()).put(metadata);
+                }
+            }
+        }
+
+        // 上次生成快照时进程退出，旧日志还未删除，需要在当前日志之前重放
+        journalSize += replay(directory.resolve(COMPACTING_JOURNAL));
+        journalSize += replay(directory.resolve(JOURNAL));
+
+        Path checkpointPath = directory.resolve(CHECKPOINT);
+        if (Files.exists(checkpointPath)) {
+            try (InputStream inputStream = Files.newInputStream(checkpointPath)) {
+                checkpoints.load(inputStream);
+            }
+        }
+
+        log.debug("[Herodotus] |- Metadata index loaded [{}] buckets from [{}], journal size [{}].", buckets.size(), directory, journalSize);
+    }
+
+    private int replay(Path path) throws IOException {
+        int count = 0;
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    try {
+                        apply(objectMapper.readValue(line, JournalEntry.class));
+                        count++;
+                    } catch (JsonProcessingException e) {
+                        log.warn("[Herodotus] |- Skip broken metadata index journal entry at [{}] in [{}].", count, path, e);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private void apply(JournalEntry entry) {
+        ObjectMetadata metadata = entry.getMetadata();
+        if (PUT.equals(entry.getOperation())) {
+            getOrCreate(metadata.getBucketName()).put(metadata);
+        } else {
+            BucketIndex bucketIndex = buckets.get(metadata.getBucketName());
+            if (bucketIndex != null) {
+                bucketIndex.remove(metadata.getObjectName());
+            }
+        }
+    }
+
+    private BucketIndex getOrCreate(String bucketName) {
+        return buckets.computeIfAbsent(bucketName, key -> new BucketIndex());
+    }
+
+    @Override
+    public ObjectMetadata get(String bucketName, String objectName) {
+        BucketIndex bucketIndex = buckets.get(bucketName);
+        return bucketIndex != null ? bucketIndex.objects.get(objectName) : null;
+    }
+
+    @Override
+    public synchronized void put(ObjectMetadata metadata) {
+        getOrCreate(metadata.getBucketName()).put(metadata);
+        append(PUT, metadata);
+    }
+
+    @Override
+    public synchronized void remove(String bucketName, String objectName) {
+        BucketIndex bucketIndex = buckets.get(bucketName);
+        if (bucketIndex != null && bucketIndex.remove(objectName)) {
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setBucketName(bucketName);
+            metadata.setObjectName(objectName);
+            append(REMOVE, metadata);
+        }
+    }
+
+    @Override
+    public Iterator<String> objectNames(String bucketName) {
+        BucketIndex bucketIndex = buckets.get(bucketName);
+        return bucketIndex != null ? bucketIndex.objects.keySet().iterator() : Collections.emptyIterator();
+    }
+
+    @Override
+    public List<ObjectMetadata> query(ObjectMetadataCondition condition, int limit) {
+        BucketIndex bucketIndex = buckets.get(condition.getBucketName());
+        if (bucketIndex == null) {
+            return Collections.emptyList();
+        }
+
+        List<ObjectMetadata> result = new ArrayList<>();
+        Iterator<String> candidates = bucketIndex.candidates(condition);
+        while (candidates.hasNext() && result.size() < limit) {
+            ObjectMetadata metadata = bucketIndex.objects.get(candidates.next());
+            if (metadata != null && condition.matches(metadata)) {
+                result.add(metadata);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long count(String bucketName) {
+        BucketIndex bucketIndex = buckets.get(bucketName);
+        return bucketIndex != null ? bucketIndex.objects.size() : 0;
+    }
+
+    @Override
+    public Instant getCheckpoint(String bucketName) {
+        String value = checkpoints.getProperty(bucketName);
+        return StringUtils.isNotBlank(value) ? Instant.ofEpochMilli(Long.parseLong(value)) : null;
+    }
+
+    @Override
+    public synchronized void setCheckpoint(String bucketName, Instant checkpoint) {
+        checkpoints.setProperty(bucketName, String.valueOf(checkpoint.toEpochMilli()));
+        Path path = directory.resolve(CHECKPOINT);
+        try {
+            Path temp = Files.createTempFile(directory, CHECKPOINT, ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                checkpoints.store(outputStream, null);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("[Herodotus] |- Write metadata index checkpoint [{}] catch error.", path, e);
+        }
+    }
+
+    private void append(String operation, ObjectMetadata metadata) {
+        try {
+            journal.write(objectMapper.writeValueAsString(new JournalEntry(operation, metadata)));
+            journal.newLine();
+            journal.flush();
+            if (++journalSize >= compactThreshold && !compacting) {
+                rotate();
+            }
+        } catch (IOException e) {
+            log.warn("[Herodotus] |- Write metadata index journal catch error.", e);
+        }
+    }
+
+    /**
+     * 切换到新的日志文件，并在后台生成快照，调用方需持有当前对象的锁。
+     * <p>
+     * 切换之前的变更都已反映在内存索引中，因此会包含在快照中；生成快照期间的变更写入新日志，加载时在快照之后重放，重复应用不影响结果。
+     */
+    private void rotate() throws IOException {
+        journal.close();
+        Files.move(directory.resolve(JOURNAL), directory.resolve(COMPACTING_JOURNAL), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = Files.newBufferedWriter(directory.resolve(JOURNAL), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        journalSize = 0;
+        compacting = true;
+        compactor.execute(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                log.warn("[Herodotus] |- Compact metadata index catch error.", e);
+            } finally {
+                synchronized (this) {
+                    compacting = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * 将内存索引写成新的快照并删除旧日志。遍历的是并发容器，不需要持有当前对象的锁
+     */
+    private void compact() throws IOException {
+        Path temp = Files.createTempFile(directory, SNAPSHOT, ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (BucketIndex bucketIndex : buckets.values()) {
+                for (ObjectMetadata metadata : bucketIndex.objects.values()) {
+                    writer.write(objectMapper.writeValueAsString(metadata));
+                    writer.newLine();
+                }
+            }
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(directory.resolve(COMPACTING_JOURNAL));
+        log.debug("[Herodotus] |- Metadata index compacted to [{}].", directory);
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            if (!compactor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("[Herodotus] |- Metadata index compaction does not finish in time, it will be replayed on next start.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+    }
+
+    /**
+     * 单个存储桶的索引
+     */
+    private static class BucketIndex {
+
+        private static final char SEPARATOR = '\u0000';
+        private static final int RANGE_KEY_LENGTH = 20;
+
+        private final ConcurrentSkipListMap<String, ObjectMetadata> objects = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListSet<String> sizes = new ConcurrentSkipListSet<>();
+        private final ConcurrentSkipListSet<String> times = new ConcurrentSkipListSet<>();
+        private final Map<String, ConcurrentSkipListSet<String>> tags = new ConcurrentHashMap<>();
+
+        private static String rangeKey(long value, String objectName) {
+            return String.format("%020d", Math.max(0, value)) + SEPARATOR + objectName;
+        }
+
+        private static String tagKey(String key, String value) {
+            return key + "=" + value;
+        }
+
+        private synchronized void put(ObjectMetadata metadata) {
+            ObjectMetadata previous = objects.put(metadata.getObjectName(), metadata);
+            if (previous != null) {
+                unindex(previous);
+            }
+            sizes.add(rangeKey(metadata.getSize(), metadata.getObjectName()));
+            times.add(rangeKey(metadata.getLastModified(), metadata.getObjectName()));
+            if (MapUtils.isNotEmpty(metadata.getTags())) {
+                metadata.getTags().forEach((key, value) -> tags.computeIfAbsent(tagKey(key, value), k -> new ConcurrentSkipListSet<>()).add(metadata.getObjectName()));
+            }
+        }
+
+        private synchronized boolean remove(String objectName) {
+            ObjectMetadata previous = objects.remove(objectName);
+            if (previous != null) {
+                unindex(previous);
+                return true;
+            }
+            return false;
+        }
+
+        private void unindex(ObjectMetadata metadata) {
+            sizes.remove(rangeKey(metadata.getSize(), metadata.getObjectName()));
+            times.remove(rangeKey(metadata.getLastModified(), metadata.getObjectName()));
+            if (MapUtils.isNotEmpty(metadata.getTags())) {
+                metadata.getTags().forEach((key, value) -> {
+                    Set<String> names = tags.get(tagKey(key, value));
+                    if (names != null) {
+                        names.remove(metadata.getObjectName());
+                    }
+                });
+            }
+        }
+
+        /**
+         * 选择候选集。优先使用标签索引中最小的集合；有前缀或没有范围条件时扫描主索引；否则使用大小或时间的范围索引，
+         * 范围内命中过多时退化为扫描主索引。候选集中的其余条件由调用方逐条过滤。
+         */
+        private Iterator<String> candidates(ObjectMetadataCondition condition) {
+            if (MapUtils.isNotEmpty(condition.getTags())) {
+                NavigableSet<String> smallest = null;
+                for (Map.Entry<String, String> entry : condition.getTags().entrySet()) {
+                    NavigableSet<String> names = tags.get(tagKey(entry.getKey(), entry.getValue()));
+                    if (names == null) {
+                        return Collections.emptyIterator();
+                    }
+                    if (smallest == null || names.size() < smallest.size()) {
+                        smallest = names;
+                    }
+                }
+                return tail(smallest, condition);
+            }
+
+            boolean sizeRange = condition.getMinSize() != null || condition.getMaxSize() != null;
+            boolean timeRange = condition.getModifiedAfter() != null || condition.getModifiedBefore() != null;
+            if (StringUtils.isNotEmpty(condition.getPrefix()) || (!sizeRange && !timeRange)) {
+                return tail(objects.navigableKeySet(), condition);
+            }
+
+            NavigableSet<String> range;
+            if (sizeRange) {
+                long min = condition.getMinSize() != null ? condition.getMinSize() : 0;
+                range = sizes.subSet(rangeKey(min, ""), true, upperKey(condition.getMaxSize(), true), false);
+            } else {
+                long after = condition.getModifiedAfter() != null ? condition.getModifiedAfter() : 0;
+                range = times.subSet(rangeKey(after, ""), true, upperKey(condition.getModifiedBefore(), false), false);
+            }
+
+            // 范围索引按数值排序，需要按名称重新排序；只收集分页标记之后的名称，数量过多时不再收集
+            String marker = condition.getMarker();
+            TreeSet<String> names = new TreeSet<>();
+            for (String key : range) {
+                String name = key.substring(RANGE_KEY_LENGTH + 1);
+                if (StringUtils.isEmpty(marker) || name.compareTo(marker) > 0) {
+                    if (names.size() >= RANGE_CANDIDATE_LIMIT) {
+                        return tail(objects.navigableKeySet(), condition);
+                    }
+                    names.add(name);
+                }
+            }
+            return tail(names, condition);
+        }
+
+        private static String upperKey(Long value, boolean inclusive) {
+            if (value == null || (inclusive && value == Long.MAX_VALUE)) {
+                return "~";
+            }
+            return rangeKey(inclusive ? value + 1 : value, "");
+        }
+
+        private static Iterator<String> tail(NavigableSet<String> names, ObjectMetadataCondition condition) {
+            String prefix = StringUtils.defaultString(condition.getPrefix());
+            String marker = condition.getMarker();
+            NavigableSet<String> tail;
+            if (StringUtils.isNotEmpty(marker) && marker.compareTo(prefix) >= 0) {
+                tail = names.tailSet(marker, false);
+            } else {
+                tail = names.tailSet(prefix, true);
+            }
+            return tail.stream().takeWhile(name -> name.startsWith(prefix)).iterator();
+        }
+    }
+
+    /**
+     * 日志记录
+     */
+    static class JournalEntry {
+
+        private String operation;
+
+        private ObjectMetadata metadata;
+
+        JournalEntry() {
+        }
+
+        JournalEntry(String operation, ObjectMetadata metadata) {
+            this.operation = operation;
+            this.metadata = metadata;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public void setOperation(String operation) {
+            this.operation = operation;
+        }
+
+        public ObjectMetadata getMetadata() {
+            return metadata;
+        }
+
+        public void setMetadata(ObjectMetadata metadata) {
+            this.metadata = metadata;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.index;
+
+import com.google.common.base.MoreObjects;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>Description: 对象元数据索引记录 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 16:40
+ */
+public class ObjectMetadata implements Serializable {
+
+    private String bucketName;
+
+    private String objectName;
+
+    private long size;
+
+    /**
+     * 最后修改时间，毫秒时间戳
+     */
+    private long lastModified;
+
+    private String etag;
+
+    private Map<String, String> tags = new HashMap<>();
+
+    /**
+     * 记录写入索引的时间，毫秒时间戳。全量核对时用于判断记录是否在核对开始后由事件通知写入
+     */
+    private long indexedAt;
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public void setBucketName(String bucketName) {
+        this.bucketName = bucketName;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public void setObjectName(String objectName) {
+        this.objectName = objectName;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public void setTags(Map<String, String> tags) {
+        this.tags = tags;
+    }
+
+    public long getIndexedAt() {
+        return indexedAt;
+    }
+
+    public void setIndexedAt(long indexedAt) {
+        this.indexedAt = indexedAt;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("bucketName", bucketName)
+                .add("objectName", objectName)
+                .add("size", size)
+                .add("lastModified", lastModified)
+                .add("etag", etag)
+                .add("tags", tags)
+                .add("indexedAt", indexedAt)
+                .toString();
+    }
+}
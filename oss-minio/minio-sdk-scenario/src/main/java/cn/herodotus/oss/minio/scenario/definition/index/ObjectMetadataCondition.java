@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.index;
+
+import com.google.common.base.MoreObjects;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.collections4.MapUtils;
+
+import java.util.Map;
+
+/**
+ * <p>Description: 对象元数据查询条件 </p>
+ * <p>
+ * 所有条件之间为"与"关系，为空的条件不参与过滤。时间条件为毫秒时间戳，范围为左闭右开。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 16:45
+ */
+public class ObjectMetadataCondition {
+
+    private String bucketName;
+
+    private String prefix;
+
+    private String suffix;
+
+    private Long minSize;
+
+    private Long maxSize;
+
+    private Long modifiedAfter;
+
+    private Long modifiedBefore;
+
+    private Map<String, String> tags;
+
+    /**
+     * 分页标记，返回对象名称大于该值的记录
+     */
+    private String marker;
+
+    private int limit = 1000;
+
+    /**
+     * 判断记录是否满足所有条件
+     *
+     * @param metadata {@link ObjectMetadata}
+     * @return 是否满足
+     */
+    public boolean matches(ObjectMetadata metadata) {
+        if (StringUtils.isNotEmpty(prefix) && !metadata.getObjectName().startsWith(prefix)) {
+            return false;
+        }
+        if (StringUtils.isNotEmpty(suffix) && !metadata.getObjectName().endsWith(suffix)) {
+            return false;
+        }
+        if (minSize != null && metadata.getSize() < minSize) {
+            return false;
+        }
+        if (maxSize != null && metadata.getSize() > maxSize) {
+            return false;
+        }
+        if (modifiedAfter != null && metadata.getLastModified() < modifiedAfter) {
+            return false;
+        }
+        if (modifiedBefore != null && metadata.getLastModified() >= modifiedBefore) {
+            return false;
+        }
+        if (MapUtils.isNotEmpty(tags)) {
+            Map<String, String> objectTags = metadata.getTags();
+            for (Map.Entry<String, String> entry : tags.entrySet()) {
+                if (objectTags == null || !StringUtils.equals(objectTags.get(entry.getKey()), entry.getValue())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public void setBucketName(String bucketName) {
+        this.bucketName = bucketName;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public void setSuffix(String suffix) {
+        this.suffix = suffix;
+    }
+
+    public Long getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(Long minSize) {
+        this.minSize = minSize;
+    }
+
+    public Long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(Long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Long getModifiedAfter() {
+        return modifiedAfter;
+    }
+
+    public void setModifiedAfter(Long modifiedAfter) {
+        this.modifiedAfter = modifiedAfter;
+    }
+
+    public Long getModifiedBefore() {
+        return modifiedBefore;
+    }
+
+    public void setModifiedBefore(Long modifiedBefore) {
+        this.modifiedBefore = modifiedBefore;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public void setTags(Map<String, String> tags) {
+        this.tags = tags;
+    }
+
+    public String getMarker() {
+        return marker;
+    }
+
+    public void setMarker(String marker) {
+        this.marker = marker;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("bucketName", bucketName)
+                .add("prefix", prefix)
+                .add("suffix", suffix)
+                .add("minSize", minSize)
+                .add("maxSize", maxSize)
+                .add("modifiedAfter", modifiedAfter)
+                .add("modifiedBefore", modifiedBefore)
+                .add("tags", tags)
+                .add("marker", marker)
+                .add("limit", limit)
+                .toString();
+    }
+}
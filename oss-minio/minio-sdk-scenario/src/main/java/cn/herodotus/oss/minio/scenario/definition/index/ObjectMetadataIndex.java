@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.index;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * <p>Description: 对象元数据索引 </p>
+ * <p>
+ * 对象元数据查询的扩展点。索引由全量核对和存储桶事件通知共同维护，查询时无需访问 Minio。
+ * 默认提供本地磁盘实现，如需使用其它存储，实现该接口并注册为 Bean 即可替换默认实现。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 16:50
+ */
+public interface ObjectMetadataIndex {
+
+    /**
+     * 获取对象元数据
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @return {@link ObjectMetadata}，不存在时返回 null
+     */
+    ObjectMetadata get(String bucketName, String objectName);
+
+    /**
+     * 新增或更新对象元数据
+     *
+     * @param metadata {@link ObjectMetadata}
+     */
+    void put(ObjectMetadata metadata);
+
+    /**
+     * 删除对象元数据
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     */
+    void remove(String bucketName, String objectName);
+
+    /**
+     * 按对象名称顺序遍历存储桶中已索引的对象名称
+     *
+     * @param bucketName 存储桶名称
+     * @return 对象名称 {@link Iterator}
+     */
+    Iterator<String> objectNames(String bucketName);
+
+    /**
+     * 按条件查询对象元数据，结果按对象名称排序
+     *
+     * @param condition {@link ObjectMetadataCondition}
+     * @param limit     最多返回的记录数
+     * @return 满足条件的记录
+     */
+    List<ObjectMetadata> query(ObjectMetadataCondition condition, int limit);
+
+    /**
+     * 已索引的对象数量
+     *
+     * @param bucketName 存储桶名称
+     * @return 数量
+     */
+    long count(String bucketName);
+
+    /**
+     * 获取存储桶最近一次完成全量核对的时间
+     *
+     * @param bucketName 存储桶名称
+     * @return {@link Instant}，尚未核对过时返回 null
+     */
+    Instant getCheckpoint(String bucketName);
+
+    /**
+     * 记录存储桶完成全量核对的时间
+     *
+     * @param bucketName 存储桶名称
+     * @param checkpoint 核对开始时间
+     */
+    void setCheckpoint(String bucketName, Instant checkpoint);
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.notification;
+
+import com.google.common.base.MoreObjects;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.Instant;
+
+/**
+ * <p>Description: 存储桶事件通知 </p>
+ * <p>
+ * 由事件通知监听器从 Minio 接收后发布，可通过 {@link org.springframework.context.event.EventListener} 或
+ * {@link BucketNotificationHandler} 接收。事件在独立的分发线程中处理，同一对象的事件按接收顺序分发。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 10:10
+ */
+public class BucketNotificationEvent extends ApplicationEvent {
+
+    private final String bucketName;
+
+    private final String objectName;
+
+    /**
+     * 事件类型，例如：s3:ObjectCreated:Put
+     */
+    private final String eventType;
+
+    private final long size;
+
+    private final String etag;
+
+    private final Instant eventTime;
+
+    public BucketNotificationEvent(Object source, String bucketName, String objectName, String eventType, long size, String etag, Instant eventTime) {
+        super(source);
+        this.bucketName = bucketName;
+        this.objectName = objectName;
+        this.eventType = eventType;
+        this.size = size;
+        this.etag = etag;
+        this.eventTime = eventTime;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public Instant getEventTime() {
+        return eventTime;
+    }
+
+    /**
+     * 是否为对象创建或覆盖事件
+     *
+     * @return 是否为对象创建事件
+     */
+    public boolean isCreated() {
+        return eventType != null && eventType.startsWith("s3:ObjectCreated:");
+    }
+
+    /**
+     * 是否为对象删除事件
+     *
+     * @return 是否为对象删除事件
+     */
+    public boolean isRemoved() {
+        return eventType != null && eventType.startsWith("s3:ObjectRemoved:");
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("bucketName", bucketName)
+                .add("objectName", objectName)
+                .add("eventType", eventType)
+                .add("size", size)
+                .add("etag", etag)
+                .add("eventTime", eventTime)
+                .toString();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.notification;
+
+/**
+ * <p>Description: 存储桶事件通知处理器 </p>
+ * <p>
+ * 事件通知的回调扩展点，实现该接口并注册为 Bean 即可接收事件。缓存、索引等组件通过事件及时失效或更新数据，无需轮询。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 10:15
+ */
+public interface BucketNotificationHandler {
+
+    /**
+     * 处理事件
+     *
+     * @param event {@link BucketNotificationEvent}
+     */
+    void onEvent(BucketNotificationEvent event);
+
+    /**
+     * 监听连接断开后重新建立，或分发队列已满丢弃了事件。此时可能遗漏了部分事件，依赖事件维护的数据需要重新同步。
+     *
+     * @param bucketName 存储桶名称
+     */
+    default void onResync(String bucketName) {
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.session;
+
+import io.minio.messages.Part;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>Description: 分片上传会话 </p>
+ * <p>
+ * 记录一次分片上传的基本信息，以及已经接收到的分片。分片号从 1 开始，使用位图记录是否已接收，同时保存各分片的 ETag，用于合并分片时直接构建分片列表。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/12 9:15
+ */
+public class ChunkUploadSession {
+
+    private final String uploadId;
+    private final String bucketName;
+    private final String region;
+    private final String objectName;
+    private final int totalParts;
+    private final Long partSize;
+    private final Instant createdAt;
+    private final BitSet received;
+    private final Map<Integer, String> etags;
+
+    public ChunkUploadSession(String uploadId, String bucketName, String region, String objectName, int totalParts, Long partSize) {
+        this.uploadId = uploadId;
+        this.bucketName = bucketName;
+        this.region = region;
+        this.objectName = objectName;
+        this.totalParts = totalParts;
+        this.partSize = partSize;
+        this.createdAt = Instant.now();
+        this.received = new BitSet(totalParts + 1);
+        this.etags = new TreeMap<>();
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public int getTotalParts() {
+        return totalParts;
+    }
+
+    public Long getPartSize() {
+        return partSize;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * 记录已接收的分片
+     *
+     * @param partNumber 分片号
+     * @param etag       分片 ETag
+     */
+    public synchronized void receive(int partNumber, String etag) {
+        if (partNumber >= 1 && partNumber <= totalParts) {
+            received.set(partNumber);
+            etags.put(partNumber, etag);
+        }
+    }
+
+    /**
+     * 已接收的分片数量
+     *
+     * @return 分片数量
+     */
+    public synchronized int getReceivedCount() {
+        return received.cardinality();
+    }
+
+    /**
+     * 所有分片是否均已接收
+     *
+     * @return true 已全部接收
+     */
+    public synchronized boolean isCompleted() {
+        return received.cardinality() == totalParts;
+    }
+
+    /**
+     * 获取尚未接收的分片号
+     *
+     * @return 分片号列表
+     */
+    public synchronized List<Integer> getMissingParts() {
+        List<Integer> missing = new ArrayList<>(totalParts - received.cardinality());
+        for (int partNumber = received.nextClearBit(1); partNumber <= totalParts; partNumber = received.nextClearBit(partNumber + 1)) {
+            missing.add(partNumber);
+        }
+        return missing;
+    }
+
+    /**
+     * 按分片号顺序获取已接收的分片
+     *
+     * @return {@link Part} 数组
+     */
+    public synchronized Part[] getParts() {
+        return etags.entrySet().stream()
+                .map(entry -> new Part(entry.getKey(), entry.getValue()))
+                .toArray(Part[]::new);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.session;
+
+/**
+ * <p>Description: 分片上传会话存储 </p>
+ * <p>
+ * 默认提供基于内存的实现。多实例部署时，各实例之间的会话不共享，此时合并分片会回退到通过 listParts 获取分片信息。
+ * 如需共享会话，实现该接口并注册为 Bean 即可替换默认实现。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/12 9:40
+ */
+public interface ChunkUploadSessionStore {
+
+    /**
+     * 保存会话
+     *
+     * @param session {@link ChunkUploadSession}
+     */
+    void save(ChunkUploadSession session);
+
+    /**
+     * 根据 uploadId 获取会话
+     *
+     * @param uploadId 分片上传 UploadId
+     * @return {@link ChunkUploadSession}，不存在时返回 null
+     */
+    ChunkUploadSession get(String uploadId);
+
+    /**
+     * 记录已接收的分片
+     *
+     * @param uploadId   分片上传 UploadId
+     * @param partNumber 分片号
+     * @param etag       分片 ETag
+     */
+    void receive(String uploadId, int partNumber, String etag);
+
+    /**
+     * 删除会话
+     *
+     * @param uploadId 分片上传 UploadId
+     */
+    void remove(String uploadId);
+}
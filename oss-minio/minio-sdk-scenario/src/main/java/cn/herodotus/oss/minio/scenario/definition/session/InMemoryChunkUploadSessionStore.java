@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.commons.lang3.ObjectUtils;
+
+import java.time.Duration;
+
+/**
+ * <p>Description: 基于内存的分片上传会话存储 </p>
+ * <p>
+ * 会话在超过预上传地址有效期无人访问后过期，总数超过上限时按最近最少使用淘汰，避免废弃的上传一直占用内存。
+ * 会话丢失不影响正确性，合并分片时会回退到通过 listParts 获取分片信息。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/12 9:52
+ */
+public class InMemoryChunkUploadSessionStore implements ChunkUploadSessionStore {
+
+    private static final long MAXIMUM_SIZE = 100000L;
+
+    private final Cache<String, ChunkUploadSession> sessions;
+
+    public InMemoryChunkUploadSessionStore(Duration expiration) {
+        this.sessions = Caffeine.newBuilder()
+                // 按访问时间过期：分批获取预上传地址和上传分片都会访问会话，正在进行的长时间上传不会过期
+                .expireAfterAccess(expiration)
+                .maximumSize(MAXIMUM_SIZE)
+                .build();
+    }
+
+    @Override
+    public void save(ChunkUploadSession session) {
+        sessions.put(session.getUploadId(), session);
+    }
+
+    @Override
+    public ChunkUploadSession get(String uploadId) {
+        return sessions.getIfPresent(uploadId);
+    }
+
+    @Override
+    public void receive(String uploadId, int partNumber, String etag) {
+        ChunkUploadSession session = sessions.getIfPresent(uploadId);
+        if (ObjectUtils.isNotEmpty(session)) {
+            session.receive(partNumber, etag);
+        }
+    }
+
+    @Override
+    public void remove(String uploadId) {
+        sessions.invalidate(uploadId);
+    }
+}
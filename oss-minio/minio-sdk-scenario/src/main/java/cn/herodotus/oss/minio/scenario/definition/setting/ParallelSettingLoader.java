@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.setting;
+
+import cn.herodotus.oss.minio.scenario.properties.MinioScenarioProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * <p>Description: 并发获取存储桶和对象设置 </p>
+ * <p>
+ * 管理页面需要的各项设置互不依赖，逐个调用时总耗时是各次请求耗时之和。使用共享的线程池并发获取，总耗时接近最慢的一次请求。
+ * 同一批次的请求共享一个截止时间，超时或失败的部分返回空值并记录日志，不影响其它部分的结果。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 17:40
+ */
+public class ParallelSettingLoader implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelSettingLoader.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long timeout;
+
+    public ParallelSettingLoader(MinioScenarioProperties minioScenarioProperties) {
+        MinioScenarioProperties.Setting setting = minioScenarioProperties.getSetting();
+        this.timeout = setting.getTimeout().toNanos();
+        this.executor = new ThreadPoolExecutor(setting.getThreads(), setting.getThreads(), 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(setting.getThreads() * 16), createThreadFactory("herodotus-minio-setting-"), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    private ThreadFactory createThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger(0);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 开始一个批次，批次的截止时间从此时开始计算
+     *
+     * @param name 批次名称，用于日志
+     * @return {@link Batch}
+     */
+    public Batch batch(String name) {
+        return new Batch(name, System.nanoTime() + timeout);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 一次并发获取
+     */
+    public class Batch {
+
+        private final String name;
+        private final long deadline;
+        private boolean complete = true;
+
+        private Batch(String name, long deadline) {
+            this.name = name;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 提交一个获取任务
+         *
+         * @param supplier 获取方法
+         * @param <T>      结果类型
+         * @return {@link Future}
+         */
+        public <T> Future<T> submit(Supplier<T> supplier) {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        }
+
+        /**
+         * 等待任务结果。超时或失败时返回 null，并将批次标记为不完整
+         *
+         * @param future 任务
+         * @param item   设置项名称，用于日志
+         * @param <T>    结果类型
+         * @return 结果，超时或失败时为 null
+         */
+        public <T> T get(Future<T> future, String item) {
+            try {
+                return future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(false);
+                log.warn("[Herodotus] |- Load [{}] of [{}] timeout.", item, name);
+            } catch (ExecutionException e) {
+                log.warn("[Herodotus] |- Load [{}] of [{}] catch error.", item, name, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("[Herodotus] |- Load [{}] of [{}] is interrupted.", item, name);
+            }
+            complete = false;
+            return null;
+        }
+
+        /**
+         * 是否所有任务都成功返回
+         *
+         * @return 是否完整
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.index;
+
+import cn.herodotus.oss.minio.logic.service.BucketService;
+import cn.herodotus.oss.minio.logic.service.ObjectTagsService;
+import cn.herodotus.oss.minio.logic.service.ParallelListingService;
+import cn.herodotus.oss.minio.scenario.definition.index.ObjectMetadata;
+import cn.herodotus.oss.minio.scenario.definition.index.ObjectMetadataIndex;
+import cn.herodotus.oss.minio.scenario.definition.notification.BucketNotificationEvent;
+import cn.herodotus.oss.minio.scenario.definition.notification.BucketNotificationHandler;
+import cn.herodotus.oss.minio.scenario.properties.MinioScenarioProperties;
+import io.minio.messages.Bucket;
+import io.minio.messages.Item;
+import io.minio.messages.Tags;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * <p>Description: 对象元数据索引维护器 </p>
+ * <p>
+ * 启动后及之后每隔固定时间，按对象名称顺序并行查询存储桶中的全部对象，与索引中已有的记录做归并比对：
+ * 新增或 ETag、大小发生变化的对象重新获取标签后写入索引；索引中存在但存储桶中已不存在的对象从索引中删除。
+ * 未变化的对象不会再次获取标签，因此重启后只需处理停机期间发生变化的对象即可追上最新状态。
+ * <p>
+ * 只修改标签不会改变 ETag 和大小，核对时无法发现。索引时间超过标签刷新周期的对象即使未变化也会重新获取标签，
+ * 未开启事件通知时，标签变更最迟在一个刷新周期后反映到索引中。
+ * <p>
+ * 开启存储桶事件通知监听后，对象的创建、覆盖、标签变更和删除会通过事件实时更新索引；事件监听重连或丢弃事件后，会立即触发一次该存储桶的核对。
+ * 比对过程中，事件通知可能同时写入新的记录，这些记录的写入时间晚于本次核对的开始时间，不会被误删。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 17:40
+ */
+public class ObjectMetadataIndexer implements BucketNotificationHandler, InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ObjectMetadataIndexer.class);
+
+    private final ParallelListingService parallelListingService;
+    private final ObjectTagsService objectTagsService;
+    private final BucketService bucketService;
+    private final ObjectMetadataIndex objectMetadataIndex;
+    private final MinioScenarioProperties.MetadataIndex properties;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Set<String> pendingResyncs = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService executor;
+
+    public ObjectMetadataIndexer(ParallelListingService parallelListingService, ObjectTagsService objectTagsService, BucketService bucketService, ObjectMetadataIndex objectMetadataIndex, MinioScenarioProperties minioScenarioProperties) {
+        this.parallelListingService = parallelListingService;
+        this.objectTagsService = objectTagsService;
+        this.bucketService = bucketService;
+        this.objectMetadataIndex = objectMetadataIndex;
+        this.properties = minioScenarioProperties.getMetadataIndex();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        int concurrency = Math.max(1, properties.getConcurrency());
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(concurrency * 16), createThreadFactory("herodotus-minio-indexer-worker-"), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(createThreadFactory("herodotus-minio-indexer-"));
+        this.scheduler.scheduleWithFixedDelay(this::synchronize, properties.getInitialDelay().toMillis(), properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+        log.debug("[Herodotus] |- Minio object metadata indexer started with [{}].", properties);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private ThreadFactory createThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger(0);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 对所有需要索引的存储桶执行一次核对
+     */
+    public void synchronize() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            for (String bucketName : getBucketNames()) {
+                try {
+                    synchronize(bucketName);
+                } catch (RuntimeException e) {
+                    log.warn("[Herodotus] |- Synchronize metadata index of bucket [{}] catch error.", bucketName, e);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("[Herodotus] |- Synchronize metadata index catch error.", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 是否需要索引该存储桶
+     *
+     * @param bucketName 存储桶名称
+     * @return 是否需要索引
+     */
+    public boolean isIndexed(String bucketName) {
+        return CollectionUtils.isEmpty(properties.getBuckets()) || properties.getBuckets().contains(bucketName);
+    }
+
+    private List<String> getBucketNames() {
+        if (CollectionUtils.isNotEmpty(properties.getBuckets())) {
+            return properties.getBuckets();
+        }
+        return bucketService.listBuckets().stream().map(Bucket::name).toList();
+    }
+
+    private void synchronize(String bucketName) {
+        Instant startedAt = Instant.now();
+        long tagsExpiredAt = getTagsExpiredAt(startedAt);
+        // 执行中的任务数受线程池队列长度限制，不会超过 Phaser 的参与者上限
+        Phaser phaser = new Phaser(1);
+        long changed = 0;
+        long removed = 0;
+
+        Iterator<String> indexed = objectMetadataIndex.objectNames(bucketName);
+        String current = indexed.hasNext() ? indexed.next() : null;
+
+        try (Stream<Item> items = parallelListingService.listObjects(bucketName, null, properties.getParallelism(), true)) {
+            Iterator<Item> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                Item item = iterator.next();
+                if (item.isDir()) {
+                    continue;
+                }
+
+                String objectName = item.objectName();
+                while (current != null && current.compareTo(objectName) < 0) {
+                    removed += removeIfStale(bucketName, current, startedAt) ? 1 : 0;
+                    current = indexed.hasNext() ? indexed.next() : null;
+                }
+                if (current != null && current.equals(objectName)) {
+                    current = indexed.hasNext() ? indexed.next() : null;
+                }
+
+                ObjectMetadata existing = objectMetadataIndex.get(bucketName, objectName);
+                if (existing == null || existing.getSize() != item.size() || !StringUtils.equals(existing.getEtag(), item.etag()) || existing.getIndexedAt() < tagsExpiredAt) {
+                    changed++;
+                    phaser.register();
+                    executor.execute(() -> {
+                        try {
+                            index(bucketName, item);
+                        } catch (RuntimeException e) {
+                            log.warn("[Herodotus] |- Index object metadata [{}/{}] catch error.", bucketName, item.objectName(), e);
+                        } finally {
+                            phaser.arriveAndDeregister();
+                        }
+                    });
+                }
+            }
+        }
+
+        while (current != null) {
+            removed += removeIfStale(bucketName, current, startedAt) ? 1 : 0;
+            current = indexed.hasNext() ? indexed.next() : null;
+        }
+
+        try {
+            phaser.awaitAdvanceInterruptibly(phaser.arrive());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        objectMetadataIndex.setCheckpoint(bucketName, startedAt);
+        log.debug("[Herodotus] |- Metadata index of bucket [{}] synchronized, [{}] changed, [{}] removed.", bucketName, changed, removed);
+    }
+
+    /**
+     * 索引时间早于该时间的对象需要重新获取标签。未开启标签索引或刷新周期为 0 时不刷新
+     */
+    private long getTagsExpiredAt(Instant startedAt) {
+        Duration refreshInterval = properties.getTagsRefreshInterval();
+        if (!properties.getFetchTags() || refreshInterval == null || refreshInterval.isZero() || refreshInterval.isNegative()) {
+            return Long.MIN_VALUE;
+        }
+        return startedAt.minus(refreshInterval).toEpochMilli();
+    }
+
+    private boolean removeIfStale(String bucketName, String objectName, Instant startedAt) {
+        ObjectMetadata existing = objectMetadataIndex.get(bucketName, objectName);
+        if (existing != null && existing.getIndexedAt() < startedAt.toEpochMilli()) {
+            objectMetadataIndex.remove(bucketName, objectName);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void onEvent(BucketNotificationEvent event) {
+        if (!isIndexed(event.getBucketName())) {
+            return;
+        }
+
+        if (event.isCreated()) {
+            index(event.getBucketName(), event.getObjectName(), event.getSize(), event.getEtag(), event.getEventTime().toEpochMilli());
+        } else if (event.isRemoved()) {
+            objectMetadataIndex.remove(event.getBucketName(), event.getObjectName());
+        }
+    }
+
+    /**
+     * 只核对需要重新同步的存储桶。核对在定时任务线程中执行，与全量核对串行；同一存储桶尚未开始的核对不会重复提交
+     */
+    @Override
+    public void onResync(String bucketName) {
+        if (isIndexed(bucketName) && scheduler != null && pendingResyncs.add(bucketName)) {
+            scheduler.execute(() -> resync(bucketName));
+        }
+    }
+
+    private void resync(String bucketName) {
+        pendingResyncs.remove(bucketName);
+        try {
+            synchronize(bucketName);
+        } catch (RuntimeException e) {
+            log.warn("[Herodotus] |- Resync metadata index of bucket [{}] catch error.", bucketName, e);
+        }
+    }
+
+    private void index(String bucketName, Item item) {
+        long lastModified = item.lastModified() != null ? item.lastModified().toInstant().toEpochMilli() : 0;
+        index(bucketName, item.objectName(), item.size(), item.etag(), lastModified);
+    }
+
+    private void index(String bucketName, String objectName, long size, String etag, long lastModified) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setBucketName(bucketName);
+        metadata.setObjectName(objectName);
+        metadata.setSize(size);
+        metadata.setEtag(etag);
+        metadata.setLastModified(lastModified);
+        metadata.setTags(getTags(bucketName, objectName));
+        metadata.setIndexedAt(System.currentTimeMillis());
+        objectMetadataIndex.put(metadata);
+    }
+
+    private Map<String, String> getTags(String bucketName, String objectName) {
+        if (!properties.getFetchTags()) {
+            return new HashMap<>();
+        }
+        Tags tags = objectTagsService.getObjectTags(bucketName, objectName);
+        return tags != null && tags.get() != null ? new HashMap<>(tags.get()) : new HashMap<>();
+    }
+}
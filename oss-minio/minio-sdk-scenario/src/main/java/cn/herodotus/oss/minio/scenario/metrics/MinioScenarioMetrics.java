@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.metrics;
+
+import cn.herodotus.oss.minio.scenario.notification.BucketNotificationListenerContainer;
+import cn.herodotus.oss.minio.scenario.reaper.MultipartUploadReaper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Description: Minio 应用扩展模块指标 </p>
+ * <p>
+ * 记录未完成分片上传清理和存储桶事件通知监听的运行情况。对应组件未开启时不注册相关指标。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 10:40
+ */
+public class MinioScenarioMetrics implements MeterBinder {
+
+    private final ObjectProvider<MultipartUploadReaper> multipartUploadReaper;
+    private final ObjectProvider<BucketNotificationListenerContainer> bucketNotificationListenerContainer;
+
+    public MinioScenarioMetrics(ObjectProvider<MultipartUploadReaper> multipartUploadReaper, ObjectProvider<BucketNotificationListenerContainer> bucketNotificationListenerContainer) {
+        this.multipartUploadReaper = multipartUploadReaper;
+        this.bucketNotificationListenerContainer = bucketNotificationListenerContainer;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        multipartUploadReaper.ifAvailable(reaper -> {
+            FunctionCounter.builder("minio.reaper.aborted", reaper, MultipartUploadReaper::getAbortedUploads).register(registry);
+            FunctionCounter.builder("minio.reaper.failed", reaper, MultipartUploadReaper::getFailedUploads).register(registry);
+            FunctionCounter.builder("minio.reaper.skipped", reaper, MultipartUploadReaper::getActiveUploads).register(registry);
+            FunctionCounter.builder("minio.reaper.reclaimed", reaper, MultipartUploadReaper::getReclaimedBytes).baseUnit("bytes").register(registry);
+        });
+
+        bucketNotificationListenerContainer.ifAvailable(container -> {
+            FunctionCounter.builder("minio.notification.received", container, BucketNotificationListenerContainer::getReceivedEvents).register(registry);
+            FunctionCounter.builder("minio.notification.dispatched", container, BucketNotificationListenerContainer::getDispatchedEvents).register(registry);
+            FunctionCounter.builder("minio.notification.dropped", container, BucketNotificationListenerContainer::getDroppedEvents).register(registry);
+            FunctionCounter.builder("minio.notification.failed", container, BucketNotificationListenerContainer::getFailedEvents).register(registry);
+            FunctionCounter.builder("minio.notification.reconnects", container, BucketNotificationListenerContainer::getReconnects).register(registry);
+            Gauge.builder("minio.notification.connections", container, BucketNotificationListenerContainer::getActiveConnections).register(registry);
+            Gauge.builder("minio.notification.queue", container, BucketNotificationListenerContainer::getQueueSize).register(registry);
+            TimeGauge.builder("minio.notification.lag", container, TimeUnit.MILLISECONDS, BucketNotificationListenerContainer::getLag).register(registry);
+        });
+    }
+}
@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.notification;
+
+import cn.herodotus.oss.minio.logic.service.BucketNotificationService;
+import cn.herodotus.oss.minio.logic.service.BucketService;
+import cn.herodotus.oss.minio.scenario.definition.notification.BucketNotificationEvent;
+import cn.herodotus.oss.minio.scenario.definition.notification.BucketNotificationHandler;
+import cn.herodotus.oss.minio.scenario.properties.MinioScenarioProperties;
+import io.minio.CloseableIterator;
+import io.minio.Result;
+import io.minio.messages.Event;
+import io.minio.messages.NotificationRecords;
+import org.apache.commons.collections4.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Description: 存储桶事件通知监听容器 </p>
+ * <p>
+ * 为每个订阅建立一个 listenBucketNotification 长连接，连接断开后按指数退避自动重连。监听线程只负责解析事件并放入分发队列，
+ * 分发线程再依次调用 {@link BucketNotificationHandler} 并发布 {@link BucketNotificationEvent}，处理耗时不会阻塞事件接收。
+ * <p>
+ * 分发队列按对象名称分片，同一对象的事件始终由同一个分发线程按顺序处理。队列已满时监听线程最多等待指定时间，超时后丢弃事件并计数。
+ * Minio 的事件监听不支持从断点恢复，因此重连或丢弃事件后，会调用 {@link BucketNotificationHandler#onResync(String)}，由各处理器自行补齐数据。
+ * 重新同步同样经过分发队列：监听线程向每个队列放入一个重新同步标记，最后一个处理到标记的分发线程调用处理器，
+ * 此时之前接收的事件均已分发完毕，处理器不会在重新同步之后再收到更早的事件。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 10:30
+ */
+public class BucketNotificationListenerContainer implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BucketNotificationListenerContainer.class);
+
+    private final BucketNotificationService bucketNotificationService;
+    private final BucketService bucketService;
+    private final ObjectProvider<BucketNotificationHandler> handlerProvider;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final MinioScenarioProperties.Notification properties;
+
+    private final Map<MinioScenarioProperties.Subscription, CloseableIterator<Result<NotificationRecords>>> connections = new ConcurrentHashMap<>();
+    private final LongAdder receivedEvents = new LongAdder();
+    private final LongAdder dispatchedEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private volatile long lag;
+    private volatile boolean running;
+
+    private List<BucketNotificationHandler> handlers;
+    private List<BlockingQueue<Object>> queues;
+    private ExecutorService listeners;
+    private ExecutorService dispatchers;
+
+    public BucketNotificationListenerContainer(BucketNotificationService bucketNotificationService, BucketService bucketService, ObjectProvider<BucketNotificationHandler> handlerProvider, ApplicationEventPublisher applicationEventPublisher, MinioScenarioProperties minioScenarioProperties) {
+        this.bucketNotificationService = bucketNotificationService;
+        this.bucketService = bucketService;
+        this.handlerProvider = handlerProvider;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.properties = minioScenarioProperties.getNotification();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        this.handlers = handlerProvider.orderedStream().toList();
+        this.running = true;
+
+        int size = Math.max(1, properties.getDispatchers());
+        int capacity = Math.max(1, properties.getQueueCapacity() / size);
+        this.queues = new ArrayList<>(size);
+        this.dispatchers = Executors.newFixedThreadPool(size, createThreadFactory("herodotus-minio-notification-dispatcher-"));
+        for (int i = 0; i < size; i++) {
+            BlockingQueue<Object> queue = new LinkedBlockingQueue<>(capacity);
+            queues.add(queue);
+            dispatchers.execute(() -> dispatch(queue));
+        }
+
+        List<MinioScenarioProperties.Subscription> subscriptions = getSubscriptions();
+        this.listeners = Executors.newCachedThreadPool(createThreadFactory("herodotus-minio-notification-listener-"));
+        subscriptions.forEach(subscription -> listeners.execute(() -> listen(subscription)));
+        log.debug("[Herodotus] |- Minio bucket notification listener started with [{}] subscriptions and [{}] handlers.", subscriptions.size(), handlers.size());
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        connections.values().forEach(this::closeQuietly);
+        if (listeners != null) {
+            listeners.shutdownNow();
+        }
+        if (dispatchers != null) {
+            dispatchers.shutdownNow();
+        }
+    }
+
+    private ThreadFactory createThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger(0);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 未配置订阅时，监听启动时已存在的所有存储桶
+     */
+    private List<MinioScenarioProperties.Subscription> getSubscriptions() {
+        if (CollectionUtils.isNotEmpty(properties.getSubscriptions())) {
+            return properties.getSubscriptions();
+        }
+        return bucketService.listBuckets().stream().map(bucket -> {
+            MinioScenarioProperties.Subscription subscription = new MinioScenarioProperties.Subscription();
+            subscription.setBucketName(bucket.name());
+            return subscription;
+        }).toList();
+    }
+
+    private void listen(MinioScenarioProperties.Subscription subscription) {
+        String bucketName = subscription.getBucketName();
+        String[] events = subscription.getEvents().toArray(new String[0]);
+        Duration delay = properties.getReconnectDelay();
+        boolean connected = false;
+
+        while (running && !Thread.currentThread().isInterrupted()) {
+            CloseableIterator<Result<NotificationRecords>> iterator = null;
+            try {
+                iterator = bucketNotificationService.listenBucketNotification(bucketName, subscription.getPrefix(), subscription.getSuffix(), events);
+                connections.put(subscription, iterator);
+                if (connected) {
+                    reconnects.increment();
+                    resync(bucketName);
+                }
+                connected = true;
+                delay = properties.getReconnectDelay();
+                log.debug("[Herodotus] |- Listening bucket notification of [{}].", subscription);
+
+                boolean lost = false;
+                while (running && iterator.hasNext()) {
+                    NotificationRecords records = iterator.next().get();
+                    for (Event event : records.events()) {
+                        if (enqueue(toEvent(bucketName, event))) {
+                            if (lost) {
+                                lost = false;
+                                resync(bucketName);
+                            }
+                        } else {
+                            lost = true;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                if (running) {
+                    log.warn("[Herodotus] |- Bucket notification connection of [{}] lost, reconnect after [{}].", bucketName, delay, e);
+                }
+            } finally {
+                connections.remove(subscription);
+                closeQuietly(iterator);
+            }
+
+            if (!running || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            delay = delay.multipliedBy(2).compareTo(properties.getMaxReconnectDelay()) > 0 ? properties.getMaxReconnectDelay() : delay.multipliedBy(2);
+        }
+    }
+
+    private BucketNotificationEvent toEvent(String bucketName, Event event) {
+        // 事件中的对象名称经过 URL 编码
+        String objectName = URLDecoder.decode(event.objectName(), StandardCharsets.UTF_8);
+        Instant eventTime = event.eventTime() != null ? event.eventTime().toInstant() : Instant.now();
+        String eventType = event.eventType() != null ? event.eventType().toString() : null;
+        return new BucketNotificationEvent(this, bucketName, objectName, eventType, event.objectSize(), event.etag(), eventTime);
+    }
+
+    private boolean enqueue(BucketNotificationEvent event) throws InterruptedException {
+        receivedEvents.increment();
+        int index = Math.floorMod((event.getBucketName() + "/" + event.getObjectName()).hashCode(), queues.size());
+        if (queues.get(index).offer(event, properties.getOfferTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        droppedEvents.increment();
+        log.warn("[Herodotus] |- Bucket notification queue is full, drop event [{}].", event);
+        return false;
+    }
+
+    /**
+     * 向每个分发队列放入重新同步标记。标记不能丢弃，队列已满时等待分发线程腾出空间
+     *
+     * @param bucketName 存储桶名称
+     * @throws InterruptedException 等待时被中断
+     */
+    private void resync(String bucketName) throws InterruptedException {
+        Resync resync = new Resync(bucketName, new AtomicInteger(queues.size()));
+        for (BlockingQueue<Object> queue : queues) {
+            queue.put(resync);
+        }
+    }
+
+    private void dispatch(BlockingQueue<Object> queue) {
+        while (running) {
+            Object element;
+            try {
+                element = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (element instanceof Resync resync) {
+                if (resync.pending().decrementAndGet() == 0) {
+                    onResync(resync.bucketName());
+                }
+            } else if (element instanceof BucketNotificationEvent event) {
+                onEvent(event);
+            }
+        }
+    }
+
+    private void onEvent(BucketNotificationEvent event) {
+        lag = Math.max(0, System.currentTimeMillis() - event.getEventTime().toEpochMilli());
+        for (BucketNotificationHandler handler : handlers) {
+            try {
+                handler.onEvent(event);
+            } catch (RuntimeException e) {
+                failedEvents.increment();
+                log.warn("[Herodotus] |- Bucket notification handler [{}] catch error on [{}].", handler.getClass().getSimpleName(), event, e);
+            }
+        }
+        try {
+            applicationEventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            failedEvents.increment();
+            log.warn("[Herodotus] |- Publish bucket notification [{}] catch error.", event, e);
+        }
+        dispatchedEvents.increment();
+    }
+
+    private void onResync(String bucketName) {
+        for (BucketNotificationHandler handler : handlers) {
+            try {
+                handler.onResync(bucketName);
+            } catch (RuntimeException e) {
+                log.warn("[Herodotus] |- Bucket notification handler [{}] catch error on resync [{}].", handler.getClass().getSimpleName(), bucketName, e);
+            }
+        }
+    }
+
+    private void closeQuietly(CloseableIterator<Result<NotificationRecords>> iterator) {
+        if (iterator != null) {
+            try {
+                iterator.close();
+            } catch (IOException e) {
+                log.trace("[Herodotus] |- Close bucket notification connection catch error.", e);
+            }
+        }
+    }
+
+    /**
+     * 已接收的事件数量
+     *
+     * @return 数量
+     */
+    public long getReceivedEvents() {
+        return receivedEvents.sum();
+    }
+
+    /**
+     * 已分发的事件数量
+     *
+     * @return 数量
+     */
+    public long getDispatchedEvents() {
+        return dispatchedEvents.sum();
+    }
+
+    /**
+     * 因分发队列已满而丢弃的事件数量
+     *
+     * @return 数量
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    /**
+     * 处理器处理失败的次数
+     *
+     * @return 数量
+     */
+    public long getFailedEvents() {
+        return failedEvents.sum();
+    }
+
+    /**
+     * 断线重连次数
+     *
+     * @return 数量
+     */
+    public long getReconnects() {
+        return reconnects.sum();
+    }
+
+    /**
+     * 当前活跃的监听连接数
+     *
+     * @return 数量
+     */
+    public int getActiveConnections() {
+        return connections.size();
+    }
+
+    /**
+     * 分发队列中等待处理的事件数量
+     *
+     * @return 数量
+     */
+    public int getQueueSize() {
+        return queues != null ? queues.stream().mapToInt(BlockingQueue::size).sum() : 0;
+    }
+
+    /**
+     * 最近一次分发的事件从产生到开始分发的延迟，单位毫秒
+     *
+     * @return 延迟毫秒数
+     */
+    public long getLag() {
+        return lag;
+    }
+
+    /**
+     * 重新同步标记
+     *
+     * @param bucketName 存储桶名称
+     * @param pending    尚未处理到该标记的分发队列数量
+     */
+    private record Resync(String bucketName, AtomicInteger pending) {
+    }
+}
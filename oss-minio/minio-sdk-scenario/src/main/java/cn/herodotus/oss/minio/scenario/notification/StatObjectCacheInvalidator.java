@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.notification;
+
+import cn.herodotus.oss.minio.logic.definition.cache.StatObjectCache;
+import cn.herodotus.oss.minio.scenario.definition.notification.BucketNotificationEvent;
+import cn.herodotus.oss.minio.scenario.definition.notification.BucketNotificationHandler;
+
+/**
+ * <p>Description: 根据存储桶事件通知失效 statObject 缓存 </p>
+ * <p>
+ * 用于感知不经过本组件的对象修改，例如其它应用或 Minio 控制台直接上传、删除对象。可能遗漏事件时，失效整个存储桶的缓存。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 14:40
+ */
+public class StatObjectCacheInvalidator implements BucketNotificationHandler {
+
+    private final StatObjectCache statObjectCache;
+
+    public StatObjectCacheInvalidator(StatObjectCache statObjectCache) {
+        this.statObjectCache = statObjectCache;
+    }
+
+    @Override
+    public void onEvent(BucketNotificationEvent event) {
+        if (event.isCreated() || event.isRemoved()) {
+            statObjectCache.invalidate(event.getBucketName(), event.getObjectName());
+        }
+    }
+
+    @Override
+    public void onResync(String bucketName) {
+        statObjectCache.invalidateBucket(bucketName);
+    }
+}
@@ -0,0 +1,692 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.properties;
+
+import cn.herodotus.oss.minio.core.constants.MinioConstants;
+import com.google.common.base.MoreObjects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Description: Minio 应用扩展模块配置参数 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 15:06
+ */
+@ConfigurationProperties(prefix = MinioConstants.PROPERTY_OSS_MINIO_SCENARIO)
+public class MinioScenarioProperties {
+
+    /**
+     * 秒传配置
+     */
+    private InstantUpload instantUpload = new InstantUpload();
+
+    /**
+     * 未完成分片上传清理配置
+     */
+    private Reaper reaper = new Reaper();
+
+    /**
+     * 对象元数据索引配置
+     */
+    private MetadataIndex metadataIndex = new MetadataIndex();
+
+    /**
+     * 存储桶事件通知监听配置
+     */
+    private Notification notification = new Notification();
+
+    /**
+     * 存储桶和对象管理页面数据获取配置
+     */
+    private Setting setting = new Setting();
+
+    public InstantUpload getInstantUpload() {
+        return instantUpload;
+    }
+
+    public void setInstantUpload(InstantUpload instantUpload) {
+        this.instantUpload = instantUpload;
+    }
+
+    public Reaper getReaper() {
+        return reaper;
+    }
+
+    public void setReaper(Reaper reaper) {
+        this.reaper = reaper;
+    }
+
+    public MetadataIndex getMetadataIndex() {
+        return metadataIndex;
+    }
+
+    public void setMetadataIndex(MetadataIndex metadataIndex) {
+        this.metadataIndex = metadataIndex;
+    }
+
+    public Notification getNotification() {
+        return notification;
+    }
+
+    public void setNotification(Notification notification) {
+        this.notification = notification;
+    }
+
+    public Setting getSetting() {
+        return setting;
+    }
+
+    public void setSetting(Setting setting) {
+        this.setting = setting;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("instantUpload", instantUpload)
+                .add("reaper", reaper)
+                .add("metadataIndex", metadataIndex)
+                .add("notification", notification)
+                .add("setting", setting)
+                .toString();
+    }
+
+    public static class InstantUpload {
+
+        /**
+         * 是否开启秒传，默认关闭。开启后普通上传需要额外计算内容 SHA-256 值
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 是否允许跨存储桶秒传。开启后，只要知道内容的哈希值即可将其它存储桶中的对象复制到目标存储桶，存在越权获取内容的风险，默认关闭。
+         */
+        private Boolean crossBucket = false;
+
+        /**
+         * 内容哈希索引存储类型
+         */
+        private IndexType indexType = IndexType.MEMORY;
+
+        /**
+         * 内容哈希索引为 DISK 类型时的存储目录
+         */
+        private Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "herodotus", "oss", "instant-upload");
+
+        /**
+         * 内容哈希索引为 MEMORY 类型时的最大条目数，超出后按最近最少使用淘汰
+         */
+        private Long maximumSize = 100000L;
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Boolean getCrossBucket() {
+            return crossBucket;
+        }
+
+        public void setCrossBucket(Boolean crossBucket) {
+            this.crossBucket = crossBucket;
+        }
+
+        public IndexType getIndexType() {
+            return indexType;
+        }
+
+        public void setIndexType(IndexType indexType) {
+            this.indexType = indexType;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("enabled", enabled)
+                    .add("crossBucket", crossBucket)
+                    .add("indexType", indexType)
+                    .add("directory", directory)
+                    .add("maximumSize", maximumSize)
+                    .toString();
+        }
+    }
+
+    public static class Reaper {
+
+        /**
+         * 是否开启未完成分片上传清理，默认关闭
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 首次执行延迟时间
+         */
+        private Duration initialDelay = Duration.ofMinutes(5);
+
+        /**
+         * 执行间隔
+         */
+        private Duration interval = Duration.ofHours(1);
+
+        /**
+         * 分片上传创建后超过该时间仍未完成，即被视为已废弃
+         */
+        private Duration expiration = Duration.ofDays(1);
+
+        /**
+         * 需要清理的存储桶，为空时清理所有存储桶
+         */
+        private List<String> buckets = new ArrayList<>();
+
+        /**
+         * 并发终止分片上传的线程数，同时也是清理任务最多占用的 Client 数量
+         */
+        private Integer concurrency = 2;
+
+        /**
+         * 每秒最多终止的分片上传数量
+         */
+        private Double rate = 10D;
+
+        /**
+         * 每次查询未完成分片上传的数量
+         */
+        private Integer pageSize = 1000;
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInitialDelay() {
+            return initialDelay;
+        }
+
+        public void setInitialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getExpiration() {
+            return expiration;
+        }
+
+        public void setExpiration(Duration expiration) {
+            this.expiration = expiration;
+        }
+
+        public List<String> getBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(List<String> buckets) {
+            this.buckets = buckets;
+        }
+
+        public Integer getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(Integer concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public Double getRate() {
+            return rate;
+        }
+
+        public void setRate(Double rate) {
+            this.rate = rate;
+        }
+
+        public Integer getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(Integer pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("enabled", enabled)
+                    .add("initialDelay", initialDelay)
+                    .add("interval", interval)
+                    .add("expiration", expiration)
+                    .add("buckets", buckets)
+                    .add("concurrency", concurrency)
+                    .add("rate", rate)
+                    .add("pageSize", pageSize)
+                    .toString();
+        }
+    }
+
+    public static class MetadataIndex {
+
+        /**
+         * 是否开启对象元数据索引，默认关闭
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 索引存储目录
+         */
+        private Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "herodotus", "oss", "metadata-index");
+
+        /**
+         * 需要索引的存储桶，为空时索引所有存储桶
+         */
+        private List<String> buckets = new ArrayList<>();
+
+        /**
+         * 启动后首次同步的延迟时间
+         */
+        private Duration initialDelay = Duration.ofMinutes(1);
+
+        /**
+         * 全量核对间隔，用于修正遗漏的事件通知
+         */
+        private Duration interval = Duration.ofHours(6);
+
+        /**
+         * 并行查询对象的分片数量
+         */
+        private Integer parallelism = 8;
+
+        /**
+         * 并发获取对象标签的线程数
+         */
+        private Integer concurrency = 4;
+
+        /**
+         * 是否索引对象标签。开启后新增或变更的对象需要额外调用一次 getObjectTags
+         */
+        private Boolean fetchTags = true;
+
+        /**
+         * 标签刷新周期。只修改标签不会改变对象的 ETag 和大小，未开启事件通知时核对无法发现标签变更，
+         * 因此索引时间早于该时长的对象在核对时会重新获取标签。为 0 时不刷新，此时标签变更只能通过事件通知更新
+         */
+        private Duration tagsRefreshInterval = Duration.ofDays(7);
+
+        /**
+         * 日志文件记录数超过该值时合并为快照
+         */
+        private Integer compactThreshold = 100000;
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public List<String> getBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(List<String> buckets) {
+            this.buckets = buckets;
+        }
+
+        public Duration getInitialDelay() {
+            return initialDelay;
+        }
+
+        public void setInitialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Integer getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(Integer parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public Integer getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(Integer concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public Boolean getFetchTags() {
+            return fetchTags;
+        }
+
+        public void setFetchTags(Boolean fetchTags) {
+            this.fetchTags = fetchTags;
+        }
+
+        public Duration getTagsRefreshInterval() {
+            return tagsRefreshInterval;
+        }
+
+        public void setTagsRefreshInterval(Duration tagsRefreshInterval) {
+            this.tagsRefreshInterval = tagsRefreshInterval;
+        }
+
+        public Integer getCompactThreshold() {
+            return compactThreshold;
+        }
+
+        public void setCompactThreshold(Integer compactThreshold) {
+            this.compactThreshold = compactThreshold;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("enabled", enabled)
+                    .add("directory", directory)
+                    .add("buckets", buckets)
+                    .add("initialDelay", initialDelay)
+                    .add("interval", interval)
+                    .add("parallelism", parallelism)
+                    .add("concurrency", concurrency)
+                    .add("fetchTags", fetchTags)
+                    .add("tagsRefreshInterval", tagsRefreshInterval)
+                    .add("compactThreshold", compactThreshold)
+                    .toString();
+        }
+    }
+
+    public static class Notification {
+
+        /**
+         * 是否开启存储桶事件通知监听，默认关闭
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 监听订阅，为空时监听所有存储桶的对象创建和删除事件
+         */
+        private List<Subscription> subscriptions = new ArrayList<>();
+
+        /**
+         * 事件分发队列容量
+         */
+        private Integer queueCapacity = 10000;
+
+        /**
+         * 分发队列已满时，等待入队的最长时间，超时后丢弃该事件
+         */
+        private Duration offerTimeout = Duration.ofSeconds(1);
+
+        /**
+         * 事件分发线程数
+         */
+        private Integer dispatchers = 2;
+
+        /**
+         * 断线重连的初始等待时间，连续失败时逐次加倍
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(1);
+
+        /**
+         * 断线重连的最长等待时间
+         */
+        private Duration maxReconnectDelay = Duration.ofMinutes(1);
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<Subscription> getSubscriptions() {
+            return subscriptions;
+        }
+
+        public void setSubscriptions(List<Subscription> subscriptions) {
+            this.subscriptions = subscriptions;
+        }
+
+        public Integer getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(Integer queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getOfferTimeout() {
+            return offerTimeout;
+        }
+
+        public void setOfferTimeout(Duration offerTimeout) {
+            this.offerTimeout = offerTimeout;
+        }
+
+        public Integer getDispatchers() {
+            return dispatchers;
+        }
+
+        public void setDispatchers(Integer dispatchers) {
+            this.dispatchers = dispatchers;
+        }
+
+        public Duration getReconnectDelay() {
+            return reconnectDelay;
+        }
+
+        public void setReconnectDelay(Duration reconnectDelay) {
+            this.reconnectDelay = reconnectDelay;
+        }
+
+        public Duration getMaxReconnectDelay() {
+            return maxReconnectDelay;
+        }
+
+        public void setMaxReconnectDelay(Duration maxReconnectDelay) {
+            this.maxReconnectDelay = maxReconnectDelay;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("enabled", enabled)
+                    .add("subscriptions", subscriptions)
+                    .add("queueCapacity", queueCapacity)
+                    .add("offerTimeout", offerTimeout)
+                    .add("dispatchers", dispatchers)
+                    .add("reconnectDelay", reconnectDelay)
+                    .add("maxReconnectDelay", maxReconnectDelay)
+                    .toString();
+        }
+    }
+
+    public static class Subscription {
+
+        /**
+         * 存储桶名称
+         */
+        private String bucketName;
+
+        /**
+         * 对象名称前缀
+         */
+        private String prefix = "";
+
+        /**
+         * 对象名称后缀
+         */
+        private String suffix = "";
+
+        /**
+         * 事件类型
+         */
+        private List<String> events = new ArrayList<>(List.of("s3:ObjectCreated:*", "s3:ObjectRemoved:*"));
+
+        public String getBucketName() {
+            return bucketName;
+        }
+
+        public void setBucketName(String bucketName) {
+            this.bucketName = bucketName;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public void setPrefix(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String getSuffix() {
+            return suffix;
+        }
+
+        public void setSuffix(String suffix) {
+            this.suffix = suffix;
+        }
+
+        public List<String> getEvents() {
+            return events;
+        }
+
+        public void setEvents(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("bucketName", bucketName)
+                    .add("prefix", prefix)
+                    .add("suffix", suffix)
+                    .add("events", events)
+                    .toString();
+        }
+    }
+
+    public enum IndexType {
+        /**
+         * 内存存储，重启后丢失
+         */
+        MEMORY,
+        /**
+         * 本地磁盘存储
+         */
+        DISK
+    }
+
+    public static class Setting {
+
+        /**
+         * 并发获取设置的线程数
+         */
+        private Integer threads = 8;
+
+        /**
+         * 获取设置的超时时间，超时的部分返回空值，其余部分正常返回
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+
+        public Integer getThreads() {
+            return threads;
+        }
+
+        public void setThreads(Integer threads) {
+            this.threads = threads;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("threads", threads)
+                    .add("timeout", timeout)
+                    .toString();
+        }
+    }
+}
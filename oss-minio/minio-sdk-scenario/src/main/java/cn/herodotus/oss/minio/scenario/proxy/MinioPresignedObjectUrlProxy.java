@@ -25,25 +25,39 @@
 
 package cn.herodotus.oss.minio.scenario.proxy;
 
+import cn.herodotus.oss.minio.logic.definition.pool.MinioHttpClientFactory;
+import cn.herodotus.oss.minio.scenario.definition.session.ChunkUploadSessionStore;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import jakarta.servlet.http.HttpServletResponse;
+import okhttp3.*;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
-import org.springframework.util.MultiValueMap;
-import org.springframework.util.StreamUtils;
-import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URI;
-import java.net.URISyntaxException;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * <p>Description: Minio 请求代理 </p>
  * <p>
  * 解决 PresignedObjectUrl 脱离权限体系不受控，无法与微服务架构整合问题。
+ * <p>
+ * 请求体直接以流的方式从 Servlet 输入流转发至 Minio，响应体同样以流的方式写回，不在内存中缓存完整的分片数据。
+ * 转发使用的 OkHttpClient 均从 {@link MinioHttpClientFactory} 获取，与 Minio Client 使用相同的超时、TLS 设置和多节点负载均衡。
+ * 开启共享模式时，每次转发直接使用工厂当前的共享 OkHttpClient；未开启时，代理持有一个独立的 OkHttpClient 以复用连接，
+ * 在工厂刷新设置后重新获取。
  *
  * @author : gengwei.zheng
  * @date : 2023/6/3 9:48
@@ -51,28 +65,125 @@ import java.util.List;
 @Component
 public class MinioPresignedObjectUrlProxy {
 
+    private static final Logger log = LoggerFactory.getLogger(MinioPresignedObjectUrlProxy.class);
+
+    private static final String UPLOAD_ID = "uploadId";
+    private static final String PART_NUMBER = "partNumber";
+
+    /**
+     * 不能转发的请求头。Host 参与了预签名计算，必须由目标地址决定；其余为逐跳（hop-by-hop）请求头，由 HttpClient 自行处理。
+     */
+    private static final Set<String> EXCLUDED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        EXCLUDED_HEADERS.addAll(List.of(
+                HttpHeaders.HOST,
+                HttpHeaders.CONTENT_LENGTH,
+                HttpHeaders.TRANSFER_ENCODING,
+                HttpHeaders.CONNECTION,
+                HttpHeaders.UPGRADE,
+                HttpHeaders.TE,
+                HttpHeaders.PROXY_AUTHORIZATION,
+                "Keep-Alive",
+                "Proxy-Connection",
+                // TODO: 如果传递 OAuth2 Token 会导致转发上传失败。猜测是因为 Minio Server 也是采用 OAuth2 认证，体系不一致导致。
+                // 目前先临时将外部传入的 Token 取消，等摸清楚 Minio 认证体系集成方式后再行完善。
+                HttpHeaders.AUTHORIZATION
+        ));
+    }
+
     private final MinioProxyAddressConverter converter;
-    private final RestTemplate restTemplate;
+    private final ChunkUploadSessionStore chunkUploadSessionStore;
+    private final MinioHttpClientFactory minioHttpClientFactory;
+    private volatile DedicatedHttpClient dedicated;
 
-    public MinioPresignedObjectUrlProxy(MinioProxyAddressConverter converter) {
+    public MinioPresignedObjectUrlProxy(MinioProxyAddressConverter converter, ChunkUploadSessionStore chunkUploadSessionStore, MinioHttpClientFactory minioHttpClientFactory) {
         this.converter = converter;
-        this.restTemplate = createRestTemplate();
+        this.chunkUploadSessionStore = chunkUploadSessionStore;
+        this.minioHttpClientFactory = minioHttpClientFactory;
+    }
+
+    /**
+     * 获取本次转发使用的 OkHttpClient
+     *
+     * @return {@link OkHttpClient}
+     */
+    private OkHttpClient obtainHttpClient() {
+        if (minioHttpClientFactory.isShared()) {
+            return minioHttpClientFactory.getHttpClient();
+        }
+
+        long generation = minioHttpClientFactory.getGeneration();
+        DedicatedHttpClient current = dedicated;
+        if (current != null && current.generation() == generation) {
+            return current.httpClient();
+        }
+
+        synchronized (this) {
+            current = dedicated;
+            if (current == null || current.generation() != generation) {
+                dedicated = new DedicatedHttpClient(minioHttpClientFactory.obtainHttpClient(), generation);
+                if (current != null) {
+                    log.debug("[Herodotus] |- Minio settings refreshed, recreate presigned object url proxy http client.");
+                    shutdown(current.httpClient());
+                }
+                current = dedicated;
+            }
+            return current.httpClient();
+        }
     }
 
-    private RestTemplate createRestTemplate() {
-        return new RestTemplate(new SimpleClientHttpRequestFactory());
+    /**
+     * 关闭独立的 OkHttpClient。正在进行的同步请求不受影响，只释放空闲连接和 Dispatcher 线程池
+     */
+    private void shutdown(OkHttpClient httpClient) {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
     }
 
-    public ResponseEntity<String> delegate(HttpServletRequest request) {
+    /**
+     * 将请求转发至 Minio，并将 Minio 的响应以流的方式写回
+     *
+     * @param request  请求 {@link HttpServletRequest}
+     * @param response 响应 {@link HttpServletResponse}
+     */
+    public void delegate(HttpServletRequest request, HttpServletResponse response) {
         try {
             String target = converter.toPresignedObjectUrl(request);
-            RequestEntity<byte[]> requestEntity = createRequestEntity(request, target);
-            return restTemplate.exchange(requestEntity, String.class);
+            try (Response delegated = obtainHttpClient().newCall(createRequest(request, target)).execute()) {
+                if (delegated.isSuccessful()) {
+                    receivePart(delegated);
+                }
+                writeResponse(delegated, response);
+            }
         } catch (Exception e) {
-            return new ResponseEntity<>("Delegate ERROR", HttpStatus.INTERNAL_SERVER_ERROR);
+            log.error("[Herodotus] |- Delegate presigned object url request catch error.", e);
+            if (!response.isCommitted()) {
+                // 写回响应时可能已经复制了 Minio 的响应头并获取了输出流，先重置再发送错误，避免再获取 Writer 抛出 IllegalStateException
+                try {
+                    response.reset();
+                    response.sendError(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Delegate ERROR");
+                } catch (IOException | IllegalStateException ex) {
+                    log.error("[Herodotus] |- Write delegate error response catch error.", ex);
+                }
+            }
         }
     }
 
+    /**
+     * 分片上传成功后，在上传会话中记录该分片
+     *
+     * @param delegated Minio 响应
+     */
+    private void receivePart(Response delegated) {
+        HttpUrl url = delegated.request().url();
+        String uploadId = url.queryParameter(UPLOAD_ID);
+        String partNumber = url.queryParameter(PART_NUMBER);
+        String etag = delegated.header(HttpHeaders.ETAG);
+        if (StringUtils.isNoneBlank(uploadId, partNumber, etag) && StringUtils.isNumeric(partNumber)) {
+            chunkUploadSessionStore.receive(uploadId, Integer.parseInt(partNumber), etag);
+        }
+    }
 
     /**
      * 创建请求
@@ -80,27 +191,34 @@ public class MinioPresignedObjectUrlProxy {
      * @param request 请求 {@link HttpServletRequest}
      * @param url     请求地址
      * @return 具体请求
-     * @throws URISyntaxException uri语法错误
-     * @throws IOException        io错误
+     * @throws IOException io错误
      */
-    private RequestEntity<byte[]> createRequestEntity(HttpServletRequest request, String url) throws URISyntaxException, IOException {
+    private Request createRequest(HttpServletRequest request, String url) throws IOException {
         String method = request.getMethod();
-        HttpMethod httpMethod = method != null ? HttpMethod.valueOf(method) : null;
-        MultiValueMap<String, String> headers = readRequestHeader(request);
-        byte[] body = readRequestBody(request);
-        return new RequestEntity<>(body, headers, httpMethod, new URI(url));
+        return new Request.Builder()
+                .url(url)
+                .headers(readRequestHeader(request))
+                .method(method, readRequestBody(request, method))
+                .build();
     }
 
     /**
-     * 解析请求体
+     * 解析请求体。请求体不会被读取到内存，而是在发送时直接由 Servlet 输入流写入连接。
      *
      * @param request 请求 {@link HttpServletRequest}
+     * @param method  请求方法
      * @return request body
      * @throws IOException io错误
      */
-    private byte[] readRequestBody(HttpServletRequest request) throws IOException {
-        InputStream inputStream = request.getInputStream();
-        return StreamUtils.copyToByteArray(inputStream);
+    private RequestBody readRequestBody(HttpServletRequest request, String method) throws IOException {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength <= 0 && !StringUtils.equalsAnyIgnoreCase(method, "PUT", "POST", "PATCH")) {
+            return null;
+        }
+
+        String contentType = request.getContentType();
+        MediaType mediaType = StringUtils.isNotBlank(contentType) ? MediaType.parse(contentType) : null;
+        return new InputStreamRequestBody(request.getInputStream(), mediaType, contentLength);
     }
 
     /**
@@ -109,20 +227,100 @@ public class MinioPresignedObjectUrlProxy {
      * @param request 请求 {@link HttpServletRequest}
      * @return 请求头
      */
-    private MultiValueMap<String, String> readRequestHeader(HttpServletRequest request) {
-        HttpHeaders headers = new HttpHeaders();
+    private Headers readRequestHeader(HttpServletRequest request) {
+        Headers.Builder builder = new Headers.Builder();
         List<String> headerNames = Collections.list(request.getHeaderNames());
         for (String headerName : headerNames) {
+            if (EXCLUDED_HEADERS.contains(headerName)) {
+                continue;
+            }
             List<String> headerValues = Collections.list(request.getHeaders(headerName));
             for (String headerValue : headerValues) {
-                headers.add(headerName, headerValue);
+                builder.addUnsafeNonAscii(headerName, headerValue);
             }
         }
+        return builder.build();
+    }
 
-        // TODO: 如果传递 OAuth2 Token 会导致转发上传失败。猜测是因为 Minio Server 也是采用 OAuth2 认证，体系不一致导致。
-        // 目前先临时将外部传入的 Token 取消，等摸清楚 Minio 认证体系集成方式后再行完善。
-        headers.remove(HttpHeaders.AUTHORIZATION);
+    /**
+     * 将 Minio 响应写回客户端
+     *
+     * @param delegated Minio 响应
+     * @param response  响应 {@link HttpServletResponse}
+     * @throws IOException io错误
+     */
+    private void writeResponse(Response delegated, HttpServletResponse response) throws IOException {
+        response.setStatus(delegated.code());
+        Headers headers = delegated.headers();
+        for (String name : headers.names()) {
+            if (EXCLUDED_HEADERS.contains(name)) {
+                continue;
+            }
+            for (String value : headers.values(name)) {
+                response.addHeader(name, value);
+            }
+        }
+
+        ResponseBody body = delegated.body();
+        if (body != null) {
+            long contentLength = body.contentLength();
+            if (contentLength >= 0) {
+                response.setContentLengthLong(contentLength);
+            }
+            try (InputStream inputStream = body.byteStream()) {
+                OutputStream outputStream = response.getOutputStream();
+                inputStream.transferTo(outputStream);
+                outputStream.flush();
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void destroy() {
+        if (dedicated != null) {
+            shutdown(dedicated.httpClient());
+            dedicated = null;
+        }
+    }
 
-        return headers;
+    private record DedicatedHttpClient(OkHttpClient httpClient, long generation) {
+    }
+
+    /**
+     * 以 Servlet 输入流作为数据源的请求体，按固定长度流式写出。只能被写出一次，因此不支持重试。
+     */
+    private static class InputStreamRequestBody extends RequestBody {
+
+        private final InputStream inputStream;
+        private final MediaType mediaType;
+        private final long contentLength;
+
+        private InputStreamRequestBody(InputStream inputStream, MediaType mediaType, long contentLength) {
+            this.inputStream = inputStream;
+            this.mediaType = mediaType;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return mediaType;
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return true;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            try (Source source = Okio.source(inputStream)) {
+                sink.writeAll(source);
+            }
+        }
     }
 }
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.reaper;
+
+import cn.herodotus.oss.minio.logic.service.BucketService;
+import cn.herodotus.oss.minio.logic.service.MultipartUploadService;
+import cn.herodotus.oss.minio.scenario.definition.session.ChunkUploadSessionStore;
+import cn.herodotus.oss.minio.scenario.properties.MinioScenarioProperties;
+import com.google.common.util.concurrent.RateLimiter;
+import io.minio.messages.Bucket;
+import io.minio.messages.ListMultipartUploadsResult;
+import io.minio.messages.Part;
+import io.minio.messages.Upload;
+import org.apache.commons.collections4.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Description: 未完成分片上传清理器 </p>
+ * <p>
+ * 被放弃的分片上传会一直占用 Minio 存储空间，并拖慢 listMultipartUploads。清理器定期逐页查询各存储桶中未完成的分片上传，
+ * 终止超过指定时长没有任何活动的上传，并统计终止数量和释放的字节数。
+ * <p>
+ * 上传的最后活动时间取创建时间和最后一个分片的上传时间中较晚者。创建时间超过指定时长、但仍在持续上传分片的大文件不会被终止。
+ * 由于会话存储可能只保存在单个实例的内存中，且读取会话会延长其有效期，因此以 Minio 中记录的分片上传时间为准，而不依赖会话是否存在。
+ * <p>
+ * 清理任务运行在独立的有界线程池中，并发数即为最多同时占用的 Client 数量，同时通过限流控制终止频率，避免影响正常请求。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/12 15:20
+ */
+public class MultipartUploadReaper implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(MultipartUploadReaper.class);
+
+    private final MultipartUploadService multipartUploadService;
+    private final BucketService bucketService;
+    private final ChunkUploadSessionStore chunkUploadSessionStore;
+    private final MinioScenarioProperties.Reaper properties;
+    private final RateLimiter rateLimiter;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final LongAdder abortedUploads = new LongAdder();
+    private final LongAdder failedUploads = new LongAdder();
+    private final LongAdder activeUploads = new LongAdder();
+    private final LongAdder reclaimedBytes = new LongAdder();
+    private volatile Instant lastFinishedAt;
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService executor;
+
+    public MultipartUploadReaper(MultipartUploadService multipartUploadService, BucketService bucketService, ChunkUploadSessionStore chunkUploadSessionStore, MinioScenarioProperties minioScenarioProperties) {
+        this.multipartUploadService = multipartUploadService;
+        this.bucketService = bucketService;
+        this.chunkUploadSessionStore = chunkUploadSessionStore;
+        this.properties = minioScenarioProperties.getReaper();
+        this.rateLimiter = RateLimiter.create(properties.getRate());
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        int concurrency = Math.max(1, properties.getConcurrency());
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(concurrency * 4), createThreadFactory("herodotus-minio-reaper-worker-"), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(createThreadFactory("herodotus-minio-reaper-"));
+        this.scheduler.scheduleWithFixedDelay(this::reap, properties.getInitialDelay().toMillis(), properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+        log.debug("[Herodotus] |- Minio multipart upload reaper started with [{}].", properties);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private ThreadFactory createThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger(0);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 执行一次清理
+     */
+    public void reap() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            ZonedDateTime threshold = ZonedDateTime.now().minus(properties.getExpiration());
+            for (String bucketName : getBucketNames()) {
+                try {
+                    reap(bucketName, threshold);
+                } catch (RuntimeException e) {
+                    log.warn("[Herodotus] |- Reap multipart uploads of bucket [{}] catch error.", bucketName, e);
+                }
+            }
+            lastFinishedAt = Instant.now();
+        } catch (RuntimeException e) {
+            log.warn("[Herodotus] |- Reap multipart uploads catch error.", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<String> getBucketNames() {
+        if (CollectionUtils.isNotEmpty(properties.getBuckets())) {
+            return properties.getBuckets();
+        }
+        return bucketService.listBuckets().stream().map(Bucket::name).toList();
+    }
+
+    private void reap(String bucketName, ZonedDateTime threshold) {
+        List<Future<?>> futures = new ArrayList<>();
+        String keyMarker = null;
+        String uploadIdMarker = null;
+        boolean truncated;
+
+        do {
+            ListMultipartUploadsResult result = multipartUploadService.listMultipartUploads(bucketName, null, keyMarker, uploadIdMarker, properties.getPageSize()).result();
+            for (Upload upload : result.uploads()) {
+                if (upload.initiated() != null && upload.initiated().isBefore(threshold)) {
+                    futures.add(executor.submit(() -> abort(bucketName, upload, threshold)));
+                }
+            }
+            truncated = result.isTruncated();
+            keyMarker = result.nextKeyMarker();
+            uploadIdMarker = result.nextUploadIdMarker();
+        } while (truncated && !Thread.currentThread().isInterrupted());
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.warn("[Herodotus] |- Reap multipart upload catch error.", e.getCause());
+            }
+        }
+    }
+
+    private void abort(String bucketName, Upload upload, ZonedDateTime threshold) {
+        rateLimiter.acquire();
+        try {
+            List<Part> parts = multipartUploadService.listAllParts(bucketName, null, upload.objectName(), upload.uploadId());
+            ZonedDateTime lastPartUploaded = parts.stream()
+                    .map(Part::lastModified)
+                    .filter(Objects::nonNull)
+                    .max(Comparator.naturalOrder())
+                    .orElse(null);
+            if (lastPartUploaded != null && lastPartUploaded.isAfter(threshold)) {
+                activeUploads.increment();
+                log.debug("[Herodotus] |- Multipart upload [{}] of [{}/{}] received a part at [{}], skip it.", upload.uploadId(), bucketName, upload.objectName(), lastPartUploaded);
+                return;
+            }
+
+            long bytes = parts.stream()
+                    .mapToLong(Part::partSize)
+                    .sum();
+            multipartUploadService.abortMultipartUpload(bucketName, null, upload.objectName(), upload.uploadId());
+            chunkUploadSessionStore.remove(upload.uploadId());
+
+            abortedUploads.increment();
+            reclaimedBytes.add(bytes);
+            log.debug("[Herodotus] |- Abort stale multipart upload [{}] of [{}/{}], reclaimed [{}] bytes.", upload.uploadId(), bucketName, upload.objectName(), bytes);
+        } catch (RuntimeException e) {
+            failedUploads.increment();
+            log.warn("[Herodotus] |- Abort stale multipart upload [{}] of [{}/{}] catch error.", upload.uploadId(), bucketName, upload.objectName(), e);
+        }
+    }
+
+    /**
+     * 已终止的分片上传数量
+     *
+     * @return 数量
+     */
+    public long getAbortedUploads() {
+        return abortedUploads.sum();
+    }
+
+    /**
+     * 终止失败的分片上传数量
+     *
+     * @return 数量
+     */
+    public long getFailedUploads() {
+        return failedUploads.sum();
+    }
+
+    /**
+     * 创建时间已超过指定时长，但因仍在上传分片而跳过的分片上传数量
+     *
+     * @return 数量
+     */
+    public long getActiveUploads() {
+        return activeUploads.sum();
+    }
+
+    /**
+     * 已释放的字节数
+     *
+     * @return 字节数
+     */
+    public long getReclaimedBytes() {
+        return reclaimedBytes.sum();
+    }
+
+    /**
+     * 最近一次清理完成时间
+     *
+     * @return {@link Instant}，尚未执行过时为 null
+     */
+    public Instant getLastFinishedAt() {
+        return lastFinishedAt;
+    }
+}
@@ -42,6 +42,14 @@ public class ChunkUploadCreateRequest extends BaseDomain {
     @Schema(name = "分片数量")
     private Integer size;
 
+    @Min(value = 1, message = "分片大小不能小于1")
+    @Schema(name = "分片大小", title = "每个分片的字节数，仅用于记录上传状态，可以为空")
+    private Long partSize;
+
+    @Min(value = 1, message = "预上传地址生成数量不能小于1")
+    @Schema(name = "预上传地址生成数量", title = "为空时一次性生成所有分片的预上传地址，分片较多时可以只生成部分，其余通过接口按需获取")
+    private Integer window;
+
     public Integer getSize() {
         return size;
     }
@@ -49,4 +57,20 @@ public class ChunkUploadCreateRequest extends BaseDomain {
     public void setSize(Integer size) {
         this.size = size;
     }
+
+    public Long getPartSize() {
+        return partSize;
+    }
+
+    public void setPartSize(Long partSize) {
+        this.partSize = partSize;
+    }
+
+    public Integer getWindow() {
+        return window;
+    }
+
+    public void setWindow(Integer window) {
+        this.window = window;
+    }
 }
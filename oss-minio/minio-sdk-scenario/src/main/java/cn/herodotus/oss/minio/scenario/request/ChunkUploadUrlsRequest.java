@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.request;
+
+import cn.herodotus.oss.minio.core.domain.base.BaseDomain;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * <p>Description: 按需获取分片预上传地址 Dto </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 11:30
+ */
+@Schema(name = "获取分片预上传地址请求参数实体", title = "获取分片预上传地址请求参数实体")
+public class ChunkUploadUrlsRequest extends BaseDomain {
+
+    @NotBlank(message = "分片上传ID不能为空")
+    @Schema(name = "上传ID", title = "该ID通过CreateMultipartUpload获取")
+    private String uploadId;
+
+    @NotNull(message = "起始分片号不能为空")
+    @Min(value = 1, message = "起始分片号不能小于1")
+    @Schema(name = "起始分片号", title = "通常使用上一次返回结果中的 nextPartNumber")
+    private Integer startPartNumber;
+
+    @NotNull(message = "生成数量不能为空")
+    @Min(value = 1, message = "生成数量不能小于1")
+    @Schema(name = "生成数量")
+    private Integer size;
+
+    @NotNull(message = "分片数量不能为空")
+    @Min(value = 1, message = "分片数量不能小于1")
+    @Schema(name = "分片数量", title = "创建分片上传时指定的分片总数")
+    private Integer totalParts;
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public Integer getStartPartNumber() {
+        return startPartNumber;
+    }
+
+    public void setStartPartNumber(Integer startPartNumber) {
+        this.startPartNumber = startPartNumber;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public Integer getTotalParts() {
+        return totalParts;
+    }
+
+    public void setTotalParts(Integer totalParts) {
+        this.totalParts = totalParts;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.request;
+
+import cn.herodotus.oss.minio.core.domain.base.BaseDomain;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * <p>Description: 秒传请求 Dto </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 16:10
+ */
+@Schema(name = "秒传请求参数实体", title = "秒传请求参数实体")
+public class InstantUploadRequest extends BaseDomain {
+
+    @NotNull(message = "文件哈希值不能为空")
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "文件哈希值必须为 SHA-256 十六进制字符串")
+    @Schema(name = "文件哈希值", title = "文件内容的 SHA-256 值，十六进制字符串")
+    private String hash;
+
+    @NotNull(message = "文件大小不能为空")
+    @Min(value = 0, message = "文件大小不能小于0")
+    @Schema(name = "文件大小", title = "文件字节数")
+    private Long size;
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.request;
+
+import cn.herodotus.engine.assistant.core.definition.domain.Entity;
+import cn.herodotus.oss.minio.scenario.definition.index.ObjectMetadataCondition;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.Map;
+
+/**
+ * <p>Description: 对象元数据查询请求 Dto </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 18:15
+ */
+@Schema(name = "对象元数据查询请求参数实体", title = "对象元数据查询请求参数实体")
+public class ObjectQueryRequest implements Entity {
+
+    @NotBlank(message = "存储桶名称不能为空")
+    @Schema(name = "存储桶名称")
+    private String bucketName;
+
+    @Schema(name = "对象名称前缀")
+    private String prefix;
+
+    @Schema(name = "对象名称后缀", title = "例如：.pdf")
+    private String suffix;
+
+    @Min(value = 0, message = "最小文件大小不能小于0")
+    @Schema(name = "最小文件大小", title = "字节数，包含该值")
+    private Long minSize;
+
+    @Min(value = 0, message = "最大文件大小不能小于0")
+    @Schema(name = "最大文件大小", title = "字节数，包含该值")
+    private Long maxSize;
+
+    @Schema(name = "最后修改时间起始值", title = "毫秒时间戳，包含该值")
+    private Long modifiedAfter;
+
+    @Schema(name = "最后修改时间截止值", title = "毫秒时间戳，不包含该值")
+    private Long modifiedBefore;
+
+    @Schema(name = "对象标签", title = "需要全部匹配的标签")
+    private Map<String, String> tags;
+
+    @Schema(name = "分页标记", title = "使用上一页返回结果中的 nextMarker")
+    private String marker;
+
+    @Min(value = 1, message = "每页数量不能小于1")
+    @Max(value = 10000, message = "每页数量不能大于10000")
+    @Schema(name = "每页数量", title = "默认为1000")
+    private Integer limit = 1000;
+
+    public ObjectMetadataCondition build() {
+        ObjectMetadataCondition condition = new ObjectMetadataCondition();
+        condition.setBucketName(bucketName);
+        condition.setPrefix(prefix);
+        condition.setSuffix(suffix);
+        condition.setMinSize(minSize);
+        condition.setMaxSize(maxSize);
+        condition.setModifiedAfter(modifiedAfter);
+        condition.setModifiedBefore(modifiedBefore);
+        condition.setTags(tags);
+        condition.setMarker(marker);
+        condition.setLimit(limit);
+        return condition;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public void setBucketName(String bucketName) {
+        this.bucketName = bucketName;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public void setSuffix(String suffix) {
+        this.suffix = suffix;
+    }
+
+    public Long getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(Long minSize) {
+        this.minSize = minSize;
+    }
+
+    public Long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(Long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Long getModifiedAfter() {
+        return modifiedAfter;
+    }
+
+    public void setModifiedAfter(Long modifiedAfter) {
+        this.modifiedAfter = modifiedAfter;
+    }
+
+    public Long getModifiedBefore() {
+        return modifiedBefore;
+    }
+
+    public void setModifiedBefore(Long modifiedBefore) {
+        this.modifiedBefore = modifiedBefore;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public void setTags(Map<String, String> tags) {
+        this.tags = tags;
+    }
+
+    public String getMarker() {
+        return marker;
+    }
+
+    public void setMarker(String marker) {
+        this.marker = marker;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -32,15 +32,20 @@ import cn.herodotus.oss.minio.core.domain.ObjectLockConfigurationDomain;
 import cn.herodotus.oss.minio.core.domain.VersioningConfigurationDomain;
 import cn.herodotus.oss.minio.core.enums.PolicyEnums;
 import cn.herodotus.oss.minio.core.enums.SseConfigurationEnums;
+import cn.herodotus.oss.minio.logic.definition.cache.SettingCache;
 import cn.herodotus.oss.minio.logic.service.*;
 import cn.herodotus.oss.minio.scenario.bo.BucketSettingBusiness;
+import cn.herodotus.oss.minio.scenario.definition.setting.ParallelSettingLoader;
 import io.minio.messages.ObjectLockConfiguration;
 import io.minio.messages.SseConfiguration;
 import io.minio.messages.Tags;
 import io.minio.messages.VersioningConfiguration;
+import org.apache.commons.lang3.ObjectUtils;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.Future;
+
 /**
  * <p>Description: Bucket 管理页面数据获取 </p>
  *
@@ -60,14 +65,18 @@ public class BucketSettingService {
     private final BucketVersioningService bucketVersioningService;
     private final BucketQuotaService bucketQuotaService;
     private final ObjectLockConfigurationService objectLockConfigurationService;
+    private final SettingCache settingCache;
+    private final ParallelSettingLoader parallelSettingLoader;
 
-    public BucketSettingService(BucketEncryptionService bucketEncryptionService, BucketPolicyService bucketPolicyService, BucketTagsService bucketTagsService, BucketVersioningService bucketVersioningService, BucketQuotaService bucketQuotaService, ObjectLockConfigurationService objectLockConfigurationService) {
+    public BucketSettingService(BucketEncryptionService bucketEncryptionService, BucketPolicyService bucketPolicyService, BucketTagsService bucketTagsService, BucketVersioningService bucketVersioningService, BucketQuotaService bucketQuotaService, ObjectLockConfigurationService objectLockConfigurationService, SettingCache settingCache, ParallelSettingLoader parallelSettingLoader) {
         this.bucketEncryptionService = bucketEncryptionService;
         this.bucketPolicyService = bucketPolicyService;
         this.bucketTagsService = bucketTagsService;
         this.bucketVersioningService = bucketVersioningService;
         this.bucketQuotaService = bucketQuotaService;
         this.objectLockConfigurationService = objectLockConfigurationService;
+        this.settingCache = settingCache;
+        this.parallelSettingLoader = parallelSettingLoader;
         this.toSseConfigurationEnums = new SseConfigurationToEnumConverter();
         this.toObjectLockDomain = new ObjectLockConfigurationToDomainConverter();
         this.toVersioningDomain = new VersioningConfigurationToDomainConverter();
@@ -77,23 +86,46 @@ public class BucketSettingService {
         return get(bucketName, null);
     }
 
+    /**
+     * 获取存储桶设置。各项设置并发获取，获取失败的项为空值，不完整的结果不会被缓存
+     *
+     * @param bucketName 存储桶名称
+     * @param region     区域
+     * @return {@link BucketSettingBusiness}
+     */
     public BucketSettingBusiness get(String bucketName, String region) {
+        return settingCache.getBucketSetting(bucketName, () -> load(bucketName, region));
+    }
+
+    private SettingCache.Loaded<BucketSettingBusiness> load(String bucketName, String region) {
+        ParallelSettingLoader.Batch batch = parallelSettingLoader.batch(bucketName);
+
+        Future<SseConfiguration> sseConfigurationFuture = batch.submit(() -> bucketEncryptionService.getBucketEncryption(bucketName, region));
+        Future<Tags> tagsFuture = batch.submit(() -> bucketTagsService.getBucketTags(bucketName, region));
+        Future<PolicyEnums> policyFuture = batch.submit(() -> bucketPolicyService.getBucketPolicy(bucketName, region));
+        Future<ObjectLockConfiguration> objectLockConfigurationFuture = batch.submit(() -> objectLockConfigurationService.getObjectLockConfiguration(bucketName, region));
+        Future<VersioningConfiguration> versioningConfigurationFuture = batch.submit(() -> bucketVersioningService.getBucketVersioning(bucketName, region));
+        Future<Long> quotaFuture = batch.submit(() -> bucketQuotaService.getBucketQuota(bucketName));
 
-        SseConfiguration sseConfiguration = bucketEncryptionService.getBucketEncryption(bucketName, region);
-        Tags tags = bucketTagsService.getBucketTags(bucketName, region);
-        PolicyEnums policy = bucketPolicyService.getBucketPolicy(bucketName, region);
-        ObjectLockConfiguration objectLockConfiguration = objectLockConfigurationService.getObjectLockConfiguration(bucketName, region);
-        VersioningConfiguration versioningConfiguration = bucketVersioningService.getBucketVersioning(bucketName, region);
-        long quota = bucketQuotaService.getBucketQuota(bucketName);
+        SseConfiguration sseConfiguration = batch.get(sseConfigurationFuture, "encryption");
+        Tags tags = batch.get(tagsFuture, "tags");
+        PolicyEnums policy = batch.get(policyFuture, "policy");
+        ObjectLockConfiguration objectLockConfiguration = batch.get(objectLockConfigurationFuture, "objectLock");
+        VersioningConfiguration versioningConfiguration = batch.get(versioningConfigurationFuture, "versioning");
+        Long quota = batch.get(quotaFuture, "quota");
 
         BucketSettingBusiness entity = new BucketSettingBusiness();
-        entity.setSseConfiguration(toSseConfigurationEnums.convert(sseConfiguration));
-        entity.setTags(tags.get());
+        if (ObjectUtils.isNotEmpty(sseConfiguration)) {
+            entity.setSseConfiguration(toSseConfigurationEnums.convert(sseConfiguration));
+        }
+        if (ObjectUtils.isNotEmpty(tags)) {
+            entity.setTags(tags.get());
+        }
         entity.setPolicy(policy);
         entity.setQuota(quota);
         entity.setObjectLock(toObjectLockDomain.convert(objectLockConfiguration));
         entity.setVersioning(toVersioningDomain.convert(versioningConfiguration));
 
-        return entity;
+        return new SettingCache.Loaded<>(entity, batch.isComplete());
     }
 }
@@ -27,23 +27,25 @@ package cn.herodotus.oss.minio.scenario.service;
 
 import cn.herodotus.oss.minio.core.converter.ResponseToObjectWriteDomainConverter;
 import cn.herodotus.oss.minio.core.domain.ObjectWriteDomain;
+import cn.herodotus.oss.minio.logic.service.MultipartUploadAsyncService;
 import cn.herodotus.oss.minio.logic.service.PresignedObjectUrlService;
 import cn.herodotus.oss.minio.scenario.bo.ChunkUploadCreateBusiness;
+import cn.herodotus.oss.minio.scenario.bo.ChunkUploadStatusBusiness;
+import cn.herodotus.oss.minio.scenario.definition.session.ChunkUploadSession;
+import cn.herodotus.oss.minio.scenario.definition.session.ChunkUploadSessionStore;
 import cn.herodotus.oss.minio.scenario.proxy.MinioProxyAddressConverter;
 import io.minio.CreateMultipartUploadResponse;
-import io.minio.GetPresignedObjectUrlArgs;
-import io.minio.ListPartsResponse;
 import io.minio.ObjectWriteResponse;
-import io.minio.http.Method;
 import io.minio.messages.Part;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -55,14 +57,28 @@ import java.util.concurrent.TimeUnit;
 @Component
 public class ChunkUploadService {
 
+    /**
+     * 分片预上传地址的有效期，同时也是内存会话的空闲过期时间
+     */
+    public static final Duration PRESIGNED_PART_URL_EXPIRATION = Duration.ofHours(1);
+
+    /**
+     * S3 分片上传允许的最大分片号
+     */
+    private static final int MAX_PART_NUMBER = 10000;
+
     private final cn.herodotus.oss.minio.logic.service.MultipartUploadService multipartUploadService;
+    private final MultipartUploadAsyncService multipartUploadAsyncService;
     private final PresignedObjectUrlService presignedObjectUrlService;
     private final MinioProxyAddressConverter converter;
+    private final ChunkUploadSessionStore chunkUploadSessionStore;
 
-    public ChunkUploadService(cn.herodotus.oss.minio.logic.service.MultipartUploadService multipartUploadService, PresignedObjectUrlService presignedObjectUrlService, MinioProxyAddressConverter converter) {
+    public ChunkUploadService(cn.herodotus.oss.minio.logic.service.MultipartUploadService multipartUploadService, MultipartUploadAsyncService multipartUploadAsyncService, PresignedObjectUrlService presignedObjectUrlService, MinioProxyAddressConverter converter, ChunkUploadSessionStore chunkUploadSessionStore) {
         this.multipartUploadService = multipartUploadService;
+        this.multipartUploadAsyncService = multipartUploadAsyncService;
         this.presignedObjectUrlService = presignedObjectUrlService;
         this.converter = converter;
+        this.chunkUploadSessionStore = chunkUploadSessionStore;
     }
 
     /**
@@ -79,48 +95,50 @@ public class ChunkUploadService {
     }
 
     /**
-     * 第二步：创建文件预上传地址
+     * 第二步：批量创建文件预上传地址
      *
-     * @param bucketName 存储桶名称
-     * @param region     区域
-     * @param objectName 对象名称
-     * @param uploadId   第一步中创建的 UploadId
-     * @param partNumber 分片号
+     * @param bucketName      存储桶名称
+     * @param region          区域
+     * @param objectName      对象名称
+     * @param uploadId        第一步中创建的 UploadId
+     * @param startPartNumber 起始分片号，从 1 开始
+     * @param size            生成数量
      * @return 预上传地址
      */
-    private String createPresignedObjectUrl(String bucketName, String region, String objectName, String uploadId, int partNumber) {
-        Map<String, String> extraQueryParams = new HashMap<>();
-        extraQueryParams.put("partNumber", String.valueOf(partNumber));
-        extraQueryParams.put("uploadId", uploadId);
-
-        GetPresignedObjectUrlArgs args = GetPresignedObjectUrlArgs.builder()
-                .bucket(bucketName)
-                .region(region)
-                .object(objectName)
-                .method(Method.PUT)
-                .extraQueryParams(extraQueryParams)
-                .expiry(1, TimeUnit.HOURS)
-                .build();
-        return presignedObjectUrlService.getPresignedObjectUrl(args);
+    private List<String> createPresignedObjectUrls(String bucketName, String region, String objectName, String uploadId, int startPartNumber, int size) {
+        return presignedObjectUrlService.getPresignedPartUrls(bucketName, region, objectName, uploadId, startPartNumber, size, (int) PRESIGNED_PART_URL_EXPIRATION.toMinutes(), TimeUnit.MINUTES);
     }
 
     /**
      * 第三步：获取指定 uploadId 下所有的分片文件
+     * <p>
+     * 已知分片总数时，并发查询各页分片；否则逐页查询。
      *
      * @param bucketName 存储桶名称
      * @param region     区域
      * @param objectName 对象名称
      * @param uploadId   第一步中创建的 UploadId
+     * @param totalParts 预期的分片总数，未知时为空
      * @return uploadId 对应的所有分片
      */
-    private Part[] listParts(String bucketName, String region, String objectName, String uploadId) {
-        ListPartsResponse response = multipartUploadService.listParts(bucketName, region, objectName, uploadId);
-        List<Part> partList = response.result().partList();
+    private Part[] listParts(String bucketName, String region, String objectName, String uploadId, Integer totalParts) {
+        List<Part> partList;
+        if (ObjectUtils.isNotEmpty(totalParts)) {
+            try {
+                partList = multipartUploadAsyncService.listAllParts(bucketName, region, objectName, uploadId, totalParts).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException exception) {
+                    throw exception;
+                }
+                throw e;
+            }
+        } else {
+            partList = multipartUploadService.listAllParts(bucketName, region, objectName, uploadId);
+        }
         Part[] parts = new Part[partList.size()];
         return partList.toArray(parts);
     }
 
-
     /**
      * 创建大文件分片上传
      *
@@ -128,17 +146,15 @@ public class ChunkUploadService {
      * @param region     区域
      * @param objectName 对象名称
      * @param totalParts 分片总数
+     * @param partSize   分片大小
+     * @param window     本次生成的预上传地址数量，为空时一次性生成所有分片的地址
      * @return {@link ChunkUploadCreateBusiness}
      */
-    private ChunkUploadCreateBusiness createMultipartUpload(String bucketName, String region, String objectName, int totalParts) {
+    private ChunkUploadCreateBusiness createMultipartUpload(String bucketName, String region, String objectName, int totalParts, Long partSize, Integer window) {
         String uploadId = createUploadId(bucketName, region, objectName);
-        ChunkUploadCreateBusiness entity = new ChunkUploadCreateBusiness(uploadId);
-
-        for (int i = 0; i < totalParts; i++) {
-            String uploadUrl = createPresignedObjectUrl(bucketName, region, objectName, uploadId, i);
-            entity.appendChunk(converter.toServiceUrl(uploadUrl));
-        }
-        return entity;
+        chunkUploadSessionStore.save(new ChunkUploadSession(uploadId, bucketName, region, objectName, totalParts, partSize));
+        int size = ObjectUtils.isNotEmpty(window) ? Math.min(window, totalParts) : totalParts;
+        return createPresignedPartUrls(bucketName, region, objectName, uploadId, 1, size, totalParts);
     }
 
     /**
@@ -150,7 +166,62 @@ public class ChunkUploadService {
      * @return {@link ChunkUploadCreateBusiness}
      */
     public ChunkUploadCreateBusiness createMultipartUpload(String bucketName, String objectName, int totalParts) {
-        return createMultipartUpload(bucketName, null, objectName, totalParts);
+        return createMultipartUpload(bucketName, objectName, totalParts, null, null);
+    }
+
+    /**
+     * 创建大文件分片上传。分片数量较多时，可以只生成前 window 个分片的预上传地址，剩余地址通过 {@link #createPresignedPartUrls(String, String, String, int, int, int)} 按需获取。
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @param totalParts 分片总数
+     * @param partSize   分片大小，仅用于记录上传状态，可以为空
+     * @param window     本次生成的预上传地址数量，为空时一次性生成所有分片的地址
+     * @return {@link ChunkUploadCreateBusiness}
+     */
+    public ChunkUploadCreateBusiness createMultipartUpload(String bucketName, String objectName, int totalParts, Long partSize, Integer window) {
+        return createMultipartUpload(bucketName, null, objectName, totalParts, partSize, window);
+    }
+
+    private ChunkUploadCreateBusiness createPresignedPartUrls(String bucketName, String region, String objectName, String uploadId, int startPartNumber, int size, int totalParts) {
+        int actualSize = Math.max(Math.min(size, totalParts - startPartNumber + 1), 0);
+        ChunkUploadCreateBusiness entity = new ChunkUploadCreateBusiness(uploadId);
+        List<String> uploadUrls = createPresignedObjectUrls(bucketName, region, objectName, uploadId, startPartNumber, actualSize);
+        uploadUrls.forEach(uploadUrl -> entity.appendChunk(converter.toServiceUrl(uploadUrl)));
+
+        int nextPartNumber = startPartNumber + actualSize;
+        if (nextPartNumber <= totalParts) {
+            entity.setNextPartNumber(nextPartNumber);
+        }
+        return entity;
+    }
+
+    /**
+     * 按需获取后续分片的预上传地址
+     * <p>
+     * 存在上传会话时，uploadId 必须属于请求的存储桶和对象，分片总数以会话中记录的为准。
+     * 会话不存在时（例如多实例部署），先通过 listParts 确认该 uploadId 属于请求的对象，再使用请求中的分片总数，最多 {@value #MAX_PART_NUMBER} 个。
+     *
+     * @param bucketName      存储桶名称
+     * @param objectName      对象名称
+     * @param uploadId        第一步中创建的 UploadId
+     * @param startPartNumber 起始分片号，从 1 开始
+     * @param size            生成数量
+     * @param totalParts      分片总数
+     * @return {@link ChunkUploadCreateBusiness}
+     */
+    public ChunkUploadCreateBusiness createPresignedPartUrls(String bucketName, String objectName, String uploadId, int startPartNumber, int size, int totalParts) {
+        ChunkUploadSession session = chunkUploadSessionStore.get(uploadId);
+        if (ObjectUtils.isNotEmpty(session)) {
+            if (!StringUtils.equals(session.getBucketName(), bucketName) || !StringUtils.equals(session.getObjectName(), objectName)) {
+                throw new IllegalArgumentException("Upload [" + uploadId + "] does not belong to object [" + bucketName + "/" + objectName + "].");
+            }
+            return createPresignedPartUrls(bucketName, session.getRegion(), objectName, uploadId, startPartNumber, size, session.getTotalParts());
+        }
+
+        // uploadId 不存在或不属于该对象时，Minio 返回 NoSuchUpload
+        multipartUploadService.listParts(bucketName, null, objectName, 1, uploadId);
+        return createPresignedPartUrls(bucketName, null, objectName, uploadId, startPartNumber, size, Math.min(totalParts, MAX_PART_NUMBER));
     }
 
     /**
@@ -163,9 +234,10 @@ public class ChunkUploadService {
      * @return {@link ObjectWriteDomain}
      */
     private ObjectWriteDomain completeMultipartUpload(String bucketName, String region, String objectName, String uploadId) {
-        Part[] parts = listParts(bucketName, region, objectName, uploadId);
+        Part[] parts = getCompletedParts(bucketName, region, objectName, uploadId);
         if (ArrayUtils.isNotEmpty(parts)) {
             ObjectWriteResponse response = multipartUploadService.completeMultipartUpload(bucketName, region, objectName, uploadId, parts);
+            chunkUploadSessionStore.remove(uploadId);
             Converter<ObjectWriteResponse, ObjectWriteDomain> toDomain = new ResponseToObjectWriteDomainConverter();
             if (ObjectUtils.isNotEmpty(response)) {
                 return toDomain.convert(response);
@@ -175,6 +247,26 @@ public class ChunkUploadService {
         return null;
     }
 
+    /**
+     * 获取合并所需的分片列表。会话中已记录全部分片时直接使用，否则（例如未经过代理直传，或者多实例部署）回退到 listParts。
+     *
+     * @param bucketName 存储桶名称
+     * @param region     区域
+     * @param objectName 对象名称
+     * @param uploadId   第一步中创建的 UploadId
+     * @return 分片列表
+     */
+    private Part[] getCompletedParts(String bucketName, String region, String objectName, String uploadId) {
+        ChunkUploadSession session = chunkUploadSessionStore.get(uploadId);
+        if (ObjectUtils.isNotEmpty(session) && session.isCompleted()
+                && StringUtils.equals(session.getBucketName(), bucketName) && StringUtils.equals(session.getObjectName(), objectName)) {
+            return session.getParts();
+        }
+
+        Integer totalParts = ObjectUtils.isNotEmpty(session) ? session.getTotalParts() : null;
+        return listParts(bucketName, region, objectName, uploadId, totalParts);
+    }
+
     /**
      * 合并已经上传完成的分片
      *
@@ -186,4 +278,27 @@ public class ChunkUploadService {
     public ObjectWriteDomain completeMultipartUpload(String bucketName, String objectName, String uploadId) {
         return completeMultipartUpload(bucketName, null, objectName, uploadId);
     }
+
+    /**
+     * 获取分片上传状态
+     *
+     * @param uploadId 第一步中创建的 UploadId
+     * @return {@link ChunkUploadStatusBusiness}，会话不存在时返回 null
+     */
+    public ChunkUploadStatusBusiness getStatus(String uploadId) {
+        ChunkUploadSession session = chunkUploadSessionStore.get(uploadId);
+        if (ObjectUtils.isEmpty(session)) {
+            return null;
+        }
+
+        ChunkUploadStatusBusiness entity = new ChunkUploadStatusBusiness();
+        entity.setUploadId(session.getUploadId());
+        entity.setBucketName(session.getBucketName());
+        entity.setObjectName(session.getObjectName());
+        entity.setTotalParts(session.getTotalParts());
+        entity.setPartSize(session.getPartSize());
+        entity.setReceivedParts(session.getReceivedCount());
+        entity.setMissingParts(session.getMissingParts());
+        return entity;
+    }
 }
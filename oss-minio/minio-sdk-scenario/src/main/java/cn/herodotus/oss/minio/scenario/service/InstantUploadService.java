@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.service;
+
+import cn.herodotus.oss.minio.core.converter.ResponseToObjectWriteDomainConverter;
+import cn.herodotus.oss.minio.core.domain.ObjectWriteDomain;
+import cn.herodotus.oss.minio.core.exception.MinioErrorResponseException;
+import cn.herodotus.oss.minio.logic.service.ObjectService;
+import cn.herodotus.oss.minio.scenario.bo.InstantUploadBusiness;
+import cn.herodotus.oss.minio.scenario.definition.dedup.ObjectHashIndex;
+import cn.herodotus.oss.minio.scenario.definition.dedup.ObjectHashReference;
+import cn.herodotus.oss.minio.scenario.properties.MinioScenarioProperties;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.ObjectWriteResponse;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Service;
+
+/**
+ * <p>Description: 秒传服务 </p>
+ * <p>
+ * 客户端上传前先提交文件的 SHA-256 值和大小，如果相同内容已经存储过，则直接在服务端复制已有对象，无需再次上传文件内容。
+ * 内容哈希索引只记录服务端在上传过程中计算得到的哈希值，不接受客户端直接登记，避免伪造哈希污染索引。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 16:20
+ */
+@Service
+public class InstantUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(InstantUploadService.class);
+
+    private final ObjectService objectService;
+    private final ObjectHashIndex objectHashIndex;
+    private final MinioScenarioProperties.InstantUpload properties;
+    private final Converter<ObjectWriteResponse, ObjectWriteDomain> toObjectWriteDomain;
+
+    public InstantUploadService(ObjectService objectService, ObjectHashIndex objectHashIndex, MinioScenarioProperties minioScenarioProperties) {
+        this.objectService = objectService;
+        this.objectHashIndex = objectHashIndex;
+        this.properties = minioScenarioProperties.getInstantUpload();
+        this.toObjectWriteDomain = new ResponseToObjectWriteDomainConverter();
+    }
+
+    /**
+     * 尝试秒传
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @param hash       文件内容 SHA-256 值
+     * @param size       文件大小
+     * @return {@link InstantUploadBusiness}
+     */
+    public InstantUploadBusiness instantUpload(String bucketName, String objectName, String hash, long size) {
+        if (!isEnabled()) {
+            return new InstantUploadBusiness();
+        }
+
+        String key = StringUtils.lowerCase(hash);
+        ObjectHashReference reference = objectHashIndex.get(key);
+        if (ObjectUtils.isEmpty(reference) || reference.getSize() != size) {
+            return new InstantUploadBusiness();
+        }
+
+        if (BooleanUtils.isNotTrue(properties.getCrossBucket()) && !StringUtils.equals(bucketName, reference.getBucketName())) {
+            return new InstantUploadBusiness();
+        }
+
+        try {
+            objectService.statObject(reference.getBucketName(), null, reference.getObjectName(), reference.getEtag());
+        } catch (MinioErrorResponseException e) {
+            log.debug("[Herodotus] |- Instant upload reference [{}] is stale, remove it.", reference);
+            objectHashIndex.remove(key);
+            return new InstantUploadBusiness();
+        }
+
+        if (StringUtils.equals(bucketName, reference.getBucketName()) && StringUtils.equals(objectName, reference.getObjectName())) {
+            ObjectWriteDomain domain = new ObjectWriteDomain();
+            domain.setBucketName(bucketName);
+            domain.setObjectName(objectName);
+            domain.setEtag(reference.getEtag());
+            return new InstantUploadBusiness(true, domain);
+        }
+
+        ObjectWriteResponse response = objectService.copyObject(CopyObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .source(CopySource.builder()
+                        .bucket(reference.getBucketName())
+                        .object(reference.getObjectName())
+                        .matchETag(reference.getEtag())
+                        .build())
+                .build());
+
+        log.debug("[Herodotus] |- Instant upload [{}/{}] from [{}].", bucketName, objectName, reference);
+        return new InstantUploadBusiness(true, toObjectWriteDomain.convert(response));
+    }
+
+    /**
+     * 记录服务端计算得到的内容哈希
+     *
+     * @param hash       文件内容 SHA-256 值
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @param size       文件大小
+     * @param etag       对象 ETag
+     */
+    public void record(String hash, String bucketName, String objectName, long size, String etag) {
+        if (isEnabled() && StringUtils.isNotBlank(hash) && StringUtils.isNotBlank(etag)) {
+            objectHashIndex.put(StringUtils.lowerCase(hash), new ObjectHashReference(bucketName, objectName, size, etag));
+        }
+    }
+
+    public boolean isEnabled() {
+        return BooleanUtils.isTrue(properties.getEnabled());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.service;
+
+import cn.herodotus.oss.minio.core.constants.MinioConstants;
+import cn.herodotus.oss.minio.scenario.bo.ObjectQueryBusiness;
+import cn.herodotus.oss.minio.scenario.definition.index.ObjectMetadata;
+import cn.herodotus.oss.minio.scenario.definition.index.ObjectMetadataCondition;
+import cn.herodotus.oss.minio.scenario.definition.index.ObjectMetadataIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * <p>Description: 对象元数据查询服务 </p>
+ * <p>
+ * 基于本地对象元数据索引，按前缀、后缀、大小、最后修改时间和标签组合查询对象，无需遍历存储桶，也无需逐个获取对象标签。
+ * 查询结果来自索引，与 Minio 之间存在短暂延迟，延迟程度取决于事件通知和全量核对的及时性。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/13 18:20
+ */
+@Service
+@ConditionalOnProperty(name = MinioConstants.ITEM_MINIO_SCENARIO_METADATA_INDEX_ENABLED, havingValue = "true")
+public class ObjectQueryService {
+
+    private final ObjectMetadataIndex objectMetadataIndex;
+
+    public ObjectQueryService(ObjectMetadataIndex objectMetadataIndex) {
+        this.objectMetadataIndex = objectMetadataIndex;
+    }
+
+    /**
+     * 按条件分页查询对象元数据
+     *
+     * @param condition {@link ObjectMetadataCondition}
+     * @return {@link ObjectQueryBusiness}
+     */
+    public ObjectQueryBusiness query(ObjectMetadataCondition condition) {
+        int limit = Math.max(1, condition.getLimit());
+        // 多查询一条，用于判断是否还有下一页
+        List<ObjectMetadata> items = objectMetadataIndex.query(condition, limit + 1);
+        boolean truncated = items.size() > limit;
+        if (truncated) {
+            items = items.subList(0, limit);
+        }
+
+        ObjectQueryBusiness business = new ObjectQueryBusiness();
+        business.setItems(items);
+        business.setTruncated(truncated);
+        business.setNextMarker(truncated ? items.get(items.size() - 1).getObjectName() : null);
+        business.setCheckpoint(objectMetadataIndex.getCheckpoint(condition.getBucketName()));
+        return business;
+    }
+}
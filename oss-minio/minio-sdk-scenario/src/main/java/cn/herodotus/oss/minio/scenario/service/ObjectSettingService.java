@@ -27,14 +27,19 @@ package cn.herodotus.oss.minio.scenario.service;
 
 import cn.herodotus.oss.minio.core.converter.ResponseToStatObjectDomainConverter;
 import cn.herodotus.oss.minio.core.domain.StatObjectDomain;
+import cn.herodotus.oss.minio.logic.definition.cache.SettingCache;
 import cn.herodotus.oss.minio.logic.service.ObjectService;
 import cn.herodotus.oss.minio.logic.service.ObjectTagsService;
 import cn.herodotus.oss.minio.scenario.bo.ObjectSettingBusiness;
+import cn.herodotus.oss.minio.scenario.definition.setting.ParallelSettingLoader;
 import io.minio.StatObjectResponse;
 import io.minio.messages.Tags;
+import org.apache.commons.lang3.ObjectUtils;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.Future;
+
 /**
  * <p>Description: Object 管理页面数据获取 </p>
  *
@@ -48,21 +53,42 @@ public class ObjectSettingService {
 
     private final ObjectService objectService;
     private final ObjectTagsService objectTagsService;
+    private final SettingCache settingCache;
+    private final ParallelSettingLoader parallelSettingLoader;
 
-    public ObjectSettingService(ObjectService objectService, ObjectTagsService objectTagsService) {
+    public ObjectSettingService(ObjectService objectService, ObjectTagsService objectTagsService, SettingCache settingCache, ParallelSettingLoader parallelSettingLoader) {
         this.objectService = objectService;
         this.objectTagsService = objectTagsService;
+        this.settingCache = settingCache;
+        this.parallelSettingLoader = parallelSettingLoader;
         this.toStatObjectDomain = new ResponseToStatObjectDomainConverter();
     }
 
+    /**
+     * 获取对象设置。对象信息和标签并发获取，对象信息获取失败时抛出异常，标签获取失败时标签为空值，不完整的结果不会被缓存
+     *
+     * @param bucketName 存储桶名称
+     * @param region     区域
+     * @param objectName 对象名称
+     * @return {@link ObjectSettingBusiness}
+     */
     public ObjectSettingBusiness get(String bucketName, String region, String objectName) {
+        return settingCache.getObjectSetting(bucketName, objectName, () -> load(bucketName, region, objectName));
+    }
+
+    private SettingCache.Loaded<ObjectSettingBusiness> load(String bucketName, String region, String objectName) {
+        ParallelSettingLoader.Batch batch = parallelSettingLoader.batch(bucketName + "/" + objectName);
+        Future<Tags> tagsFuture = batch.submit(() -> objectTagsService.getObjectTags(bucketName, region, objectName));
+
         StatObjectResponse statObjectResponse = objectService.statObject(bucketName, region, objectName);
         StatObjectDomain statObjectDomain = toStatObjectDomain.convert(statObjectResponse);
 
-        Tags tags = objectTagsService.getObjectTags(bucketName, region, objectName);
+        Tags tags = batch.get(tagsFuture, "tags");
 
         ObjectSettingBusiness business = new ObjectSettingBusiness();
-        business.setTags(tags.get());
+        if (ObjectUtils.isNotEmpty(tags)) {
+            business.setTags(tags.get());
+        }
         business.setRetentionMode(statObjectDomain.getRetentionMode());
         business.setRetentionRetainUntilDate(statObjectDomain.getRetentionRetainUntilDate());
         business.setLegalHold(statObjectDomain.getLegalHold());
@@ -72,6 +98,6 @@ public class ObjectSettingService {
         business.setSize(statObjectDomain.getSize());
         business.setUserMetadata(statObjectDomain.getUserMetadata());
 
-        return business;
+        return new SettingCache.Loaded<>(business, batch.isComplete());
     }
 }
@@ -28,22 +28,41 @@ package cn.herodotus.oss.minio.scenario.service;
 import cn.herodotus.oss.minio.core.converter.ResponseToObjectWriteDomainConverter;
 import cn.herodotus.oss.minio.core.domain.ObjectWriteDomain;
 import cn.herodotus.oss.minio.core.exception.MinioIOException;
+import cn.herodotus.oss.minio.core.exception.MinioNoSuchAlgorithmException;
 import cn.herodotus.oss.minio.logic.service.ObjectService;
+import io.minio.GetObjectArgs;
 import io.minio.ObjectWriteResponse;
+import io.minio.StatObjectArgs;
 import io.minio.StatObjectResponse;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
 
 /**
  * <p>Description: Object 流式处理服务 </p>
@@ -59,10 +78,12 @@ public class ObjectStreamService {
     private static final Logger log = LoggerFactory.getLogger(ObjectStreamService.class);
 
     private final ObjectService objectService;
+    private final InstantUploadService instantUploadService;
     private final Converter<ObjectWriteResponse, ObjectWriteDomain> toObjectWriteDomain;
 
-    public ObjectStreamService(ObjectService objectService) {
+    public ObjectStreamService(ObjectService objectService, InstantUploadService instantUploadService) {
         this.objectService = objectService;
+        this.instantUploadService = instantUploadService;
         this.toObjectWriteDomain = new ResponseToObjectWriteDomainConverter();
     }
 
@@ -78,15 +99,165 @@ public class ObjectStreamService {
      * @throws IOException 输入输出错误。
      */
     public void download(String bucketName, String objectName, HttpServletResponse response) throws IOException {
-        StatObjectResponse statObject = objectService.statObject(bucketName, objectName);
+        download(bucketName, objectName, null, null, response);
+    }
+
+    /**
+     * 支持 HTTP Range 的文件下载
+     * <p>
+     * 支持视频拖动、断点续传、PDF 分段加载等场景。Range 有效时返回 206 Partial Content，仅传输请求的部分；多个 Range 以 multipart/byteranges 格式返回。
+     * 与 {@link HttpRange#toResourceRegions} 一致，多个 Range 的总长度不小于对象大小时返回 416；重叠或相邻的 Range 合并后再读取，避免重复请求同一部分内容。
+     * If-Range 与当前对象 ETag 或最后修改时间不一致时，忽略 Range 返回完整对象。
+     * 下载前总是重新获取对象信息，分段读取时使用其 ETag 作为 matchETag，避免对象在两次请求之间被修改。
+     *
+     * @param bucketName 存储桶名称
+     * @param objectName 存储对象名称
+     * @param range      请求头 Range 的值
+     * @param ifRange    请求头 If-Range 的值
+     * @param response   {@link HttpServletResponse}
+     * @throws IOException 输入输出错误。
+     */
+    public void download(String bucketName, String objectName, String range, String ifRange, HttpServletResponse response) throws IOException {
+        StatObjectResponse statObject = objectService.statObjectForRead(StatObjectArgs.builder().bucket(bucketName).object(objectName).build());
+        long length = statObject.size();
 
-        response.setContentType(statObject.contentType());
         response.setCharacterEncoding(StandardCharsets.UTF_8.name());
         response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + URLEncoder.encode(objectName, StandardCharsets.UTF_8));
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, "\"" + statObject.etag() + "\"");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, statObject.lastModified().toInstant().toEpochMilli());
+
+        if (StringUtils.isBlank(range) || !isIfRangeMatched(ifRange, statObject)) {
+            response.setContentType(statObject.contentType());
+            response.setContentLengthLong(length);
+            try (InputStream is = objectService.getObject(GetObjectArgs.builder().bucket(bucketName).object(objectName).build(), statObject)) {
+                IOUtils.copy(is, response.getOutputStream());
+            }
+            return;
+        }
+
+        List<ByteRange> ranges;
+        try {
+            ranges = toByteRanges(HttpRange.parseRanges(range), length);
+        } catch (IllegalArgumentException e) {
+            log.debug("[Herodotus] |- Invalid range [{}] for object [{}] with length [{}].", range, objectName, length);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            return;
+        }
+
+        // 在设置响应状态和写入内容之前打开第一个 Range，对象在 statObject 之后被修改时，Minio 返回的 412 可以正常转换为错误响应，而不是返回被截断的 206
+        try (InputStream first = openRange(bucketName, objectName, statObject, ranges.get(0))) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            OutputStream os = response.getOutputStream();
+
+            if (ranges.size() == 1) {
+                long start = ranges.get(0).start();
+                long end = ranges.get(0).end();
+                response.setContentType(statObject.contentType());
+                response.setContentLengthLong(end - start + 1);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, toContentRange(start, end, length));
+                IOUtils.copy(first, os);
+                return;
+            }
+
+            String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+            response.setContentType("multipart/byteranges; boundary=" + boundary);
+            for (int i = 0; i < ranges.size(); i++) {
+                long start = ranges.get(i).start();
+                long end = ranges.get(i).end();
+                os.write(("\r\n--" + boundary + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                os.write((HttpHeaders.CONTENT_TYPE + ": " + statObject.contentType() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                os.write((HttpHeaders.CONTENT_RANGE + ": " + toContentRange(start, end, length) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                if (i == 0) {
+                    IOUtils.copy(first, os);
+                } else {
+                    try (InputStream is = openRange(bucketName, objectName, statObject, ranges.get(i))) {
+                        IOUtils.copy(is, os);
+                    }
+                }
+            }
+            os.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * 校验并合并 Range。没有 Range、Range 超出对象范围、多个 Range 的总长度不小于对象大小时抛出 {@link IllegalArgumentException}
+     *
+     * @param httpRanges 请求的 Range
+     * @param length     对象大小
+     * @return 按起始位置排序并合并重叠和相邻部分后的 Range
+     */
+    static List<ByteRange> toByteRanges(List<HttpRange> httpRanges, long length) {
+        if (httpRanges.isEmpty()) {
+            throw new IllegalArgumentException("No range specified");
+        }
+
+        List<ByteRange> ranges = new ArrayList<>(httpRanges.size());
+        long total = 0;
+        for (HttpRange httpRange : httpRanges) {
+            ByteRange byteRange = new ByteRange(httpRange.getRangeStart(length), httpRange.getRangeEnd(length));
+            total += byteRange.end() - byteRange.start() + 1;
+            ranges.add(byteRange);
+        }
+        if (ranges.size() > 1 && total >= length) {
+            throw new IllegalArgumentException("The sum of all ranges (" + total + ") should be less than the resource length (" + length + ")");
+        }
+
+        ranges.sort(Comparator.comparingLong(ByteRange::start));
+        List<ByteRange> merged = new ArrayList<>(ranges.size());
+        for (ByteRange byteRange : ranges) {
+            ByteRange last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && byteRange.start() <= last.end() + 1) {
+                merged.set(merged.size() - 1, new ByteRange(last.start(), Math.max(last.end(), byteRange.end())));
+            } else {
+                merged.add(byteRange);
+            }
+        }
+        return merged;
+    }
+
+    private InputStream openRange(String bucketName, String objectName, StatObjectResponse statObject, ByteRange byteRange) {
+        return objectService.getObject(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .offset(byteRange.start())
+                .length(byteRange.end() - byteRange.start() + 1)
+                .matchETag(statObject.etag())
+                .build(), statObject);
+    }
+
+    private String toContentRange(long start, long end, long length) {
+        return "bytes " + start + "-" + end + "/" + length;
+    }
+
+    /**
+     * 判断 If-Range 条件是否满足。If-Range 可以是强 ETag 或者 HTTP 日期。
+     *
+     * @param ifRange    请求头 If-Range 的值
+     * @param statObject 对象信息
+     * @return true 满足，可以返回部分内容；false 不满足，需要返回完整对象
+     */
+    private boolean isIfRangeMatched(String ifRange, StatObjectResponse statObject) {
+        if (StringUtils.isBlank(ifRange)) {
+            return true;
+        }
+
+        String value = ifRange.trim();
+        if (value.startsWith("W/")) {
+            return false;
+        }
 
-        InputStream is = objectService.getObject(bucketName, objectName);
-        IOUtils.copy(is, response.getOutputStream());
-        IOUtils.closeQuietly(is);
+        if (value.startsWith("\"")) {
+            return StringUtils.equals(StringUtils.strip(value, "\""), statObject.etag());
+        }
+
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return statObject.lastModified().toEpochSecond() == date.toEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
     }
 
     /**
@@ -97,12 +268,30 @@ public class ObjectStreamService {
      * @return 上传结果实体 {@link ObjectWriteDomain}
      */
     public ObjectWriteDomain upload(String bucketName, MultipartFile file) {
-        try {
-            ObjectWriteResponse response = objectService.putObject(bucketName, file.getOriginalFilename(), file.getInputStream(), file.getSize(), file.getContentType());
+        try (InputStream inputStream = file.getInputStream()) {
+            // 开启秒传时，上传过程中同步计算内容哈希，用于秒传索引
+            DigestInputStream digestInputStream = instantUploadService.isEnabled() ? new DigestInputStream(inputStream, MessageDigest.getInstance("SHA-256")) : null;
+            ObjectWriteResponse response = objectService.putObject(bucketName, file.getOriginalFilename(), ObjectUtils.defaultIfNull(digestInputStream, inputStream), file.getSize(), file.getContentType());
+            if (digestInputStream != null) {
+                String hash = HexFormat.of().formatHex(digestInputStream.getMessageDigest().digest());
+                instantUploadService.record(hash, bucketName, response.object(), file.getSize(), response.etag());
+            }
             return toObjectWriteDomain.convert(response);
         } catch (IOException e) {
             log.error("[Herodotus] |- Minio upload catch IOException.", e);
             throw new MinioIOException(e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            log.error("[Herodotus] |- Minio upload catch NoSuchAlgorithmException.", e);
+            throw new MinioNoSuchAlgorithmException(e.getMessage());
         }
     }
+
+    /**
+     * 对象中的字节范围，包含起止位置
+     *
+     * @param start 起始位置
+     * @param end   结束位置
+     */
+    record ByteRange(long start, long end) {
+    }
 }
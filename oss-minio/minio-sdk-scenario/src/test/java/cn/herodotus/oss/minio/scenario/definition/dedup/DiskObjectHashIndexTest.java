@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.dedup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Description: 基于磁盘的内容哈希索引测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 16:00
+ */
+class DiskObjectHashIndexTest {
+
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void referenceSurvivesReopen() {
+        new DiskObjectHashIndex(directory).put(HASH, new ObjectHashReference("bucket", "a", 4, "e1"));
+        assertTrue(Files.exists(directory.resolve("9f").resolve(HASH)));
+
+        ObjectHashReference reference = new DiskObjectHashIndex(directory).get(HASH);
+        assertEquals("bucket", reference.getBucketName());
+        assertEquals("a", reference.getObjectName());
+        assertEquals(4, reference.getSize());
+        assertEquals("e1", reference.getEtag());
+    }
+
+    @Test
+    void firstReferenceIsKept() {
+        DiskObjectHashIndex index = new DiskObjectHashIndex(directory);
+        index.put(HASH, new ObjectHashReference("bucket", "a", 4, "e1"));
+        index.put(HASH, new ObjectHashReference("bucket", "b", 4, "e2"));
+        assertEquals("a", index.get(HASH).getObjectName());
+
+        index.remove(HASH);
+        assertNull(index.get(HASH));
+    }
+
+    @Test
+    void illegalHashIsRejected() {
+        DiskObjectHashIndex index = new DiskObjectHashIndex(directory);
+        // 哈希值作为文件名，不能包含路径
+        assertThrows(IllegalArgumentException.class, () -> index.get("../../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> index.put(HASH.toUpperCase(), new ObjectHashReference("bucket", "a", 4, "e1")));
+        assertThrows(IllegalArgumentException.class, () -> index.get(null));
+    }
+}
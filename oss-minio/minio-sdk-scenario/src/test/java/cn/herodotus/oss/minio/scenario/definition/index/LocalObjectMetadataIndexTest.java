@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Description: 基于本地磁盘的对象元数据索引测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 16:40
+ */
+class LocalObjectMetadataIndexTest {
+
+    private static final String BUCKET = "bucket";
+
+    @TempDir
+    Path directory;
+
+    private static ObjectMetadata metadata(String objectName, long size, long lastModified, String... tags) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setBucketName(BUCKET);
+        metadata.setObjectName(objectName);
+        metadata.setSize(size);
+        metadata.setLastModified(lastModified);
+        metadata.setEtag("etag-" + objectName + "-" + size);
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i + 1 < tags.length; i += 2) {
+            values.put(tags[i], tags[i + 1]);
+        }
+        metadata.setTags(values);
+        return metadata;
+    }
+
+    private static ObjectMetadataCondition condition() {
+        ObjectMetadataCondition condition = new ObjectMetadataCondition();
+        condition.setBucketName(BUCKET);
+        return condition;
+    }
+
+    private static List<String> names(List<ObjectMetadata> metadata) {
+        return metadata.stream().map(ObjectMetadata::getObjectName).toList();
+    }
+
+    private static List<String> names(Iterator<String> iterator) {
+        List<String> names = new ArrayList<>();
+        iterator.forEachRemaining(names::add);
+        return names;
+    }
+
+    private LocalObjectMetadataIndex open(int compactThreshold) {
+        return new LocalObjectMetadataIndex(directory, compactThreshold);
+    }
+
+    private void populate(LocalObjectMetadataIndex index) {
+        index.put(metadata("docs/b.pdf", 300, 2000, "type", "doc"));
+        index.put(metadata("docs/a.txt", 100, 1000, "type", "doc", "owner", "alice"));
+        index.put(metadata("images/c.png", 200, 3000, "type", "image", "owner", "alice"));
+        index.put(metadata("images/d.png", 400, 4000, "type", "image"));
+        index.put(metadata("readme.md", 50, 5000));
+    }
+
+    @Test
+    void queriesReturnMatchesInNameOrder() throws IOException {
+        try (LocalObjectMetadataIndex index = open(1000)) {
+            populate(index);
+
+            ObjectMetadataCondition prefix = condition();
+            prefix.setPrefix("images/");
+            assertEquals(List.of("images/c.png", "images/d.png"), names(index.query(prefix, 10)));
+
+            ObjectMetadataCondition tags = condition();
+            tags.setTags(Map.of("type", "doc", "owner", "alice"));
+            assertEquals(List.of("docs/a.txt"), names(index.query(tags, 10)));
+
+            ObjectMetadataCondition missingTag = condition();
+            missingTag.setTags(Map.of("type", "video"));
+            assertTrue(index.query(missingTag, 10).isEmpty());
+
+            ObjectMetadataCondition suffix = condition();
+            suffix.setSuffix(".png");
+            suffix.setTags(Map.of("owner", "alice"));
+            assertEquals(List.of("images/c.png"), names(index.query(suffix, 10)));
+
+            assertEquals(List.of("docs/a.txt", "docs/b.pdf", "images/c.png", "images/d.png", "readme.md"), names(index.objectNames(BUCKET)));
+            assertEquals(5, index.count(BUCKET));
+            assertTrue(index.query(condition(), 0).isEmpty());
+            assertEquals(0, index.count("other"));
+        }
+    }
+
+    @Test
+    void rangeQueriesAreSortedByName() throws IOException {
+        try (LocalObjectMetadataIndex index = open(1000)) {
+            populate(index);
+
+            ObjectMetadataCondition size = condition();
+            size.setMinSize(100L);
+            size.setMaxSize(300L);
+            assertEquals(List.of("docs/a.txt", "docs/b.pdf", "images/c.png"), names(index.query(size, 10)));
+
+            // modifiedBefore 不包含边界
+            ObjectMetadataCondition time = condition();
+            time.setModifiedAfter(2000L);
+            time.setModifiedBefore(4000L);
+            assertEquals(List.of("docs/b.pdf", "images/c.png"), names(index.query(time, 10)));
+
+            ObjectMetadataCondition unbounded = condition();
+            unbounded.setMaxSize(Long.MAX_VALUE);
+            assertEquals(5, index.query(unbounded, 10).size());
+        }
+    }
+
+    @Test
+    void markerContinuesFromLastName() throws IOException {
+        try (LocalObjectMetadataIndex index = open(1000)) {
+            populate(index);
+
+            ObjectMetadataCondition size = condition();
+            size.setMinSize(100L);
+            List<ObjectMetadata> first = index.query(size, 2);
+            assertEquals(List.of("docs/a.txt", "docs/b.pdf"), names(first));
+
+            size.setMarker(first.get(first.size() - 1).getObjectName());
+            assertEquals(List.of("images/c.png", "images/d.png"), names(index.query(size, 2)));
+
+            ObjectMetadataCondition prefix = condition();
+            prefix.setPrefix("images/");
+            prefix.setMarker("images/c.png");
+            assertEquals(List.of("images/d.png"), names(index.query(prefix, 10)));
+        }
+    }
+
+    @Test
+    void putReplacesSecondaryIndexes() throws IOException {
+        try (LocalObjectMetadataIndex index = open(1000)) {
+            index.put(metadata("a", 10, 1000, "state", "draft"));
+            index.put(metadata("a", 100, 2000, "state", "final"));
+
+            ObjectMetadataCondition oldTag = condition();
+            oldTag.setTags(Map.of("state", "draft"));
+            assertTrue(index.query(oldTag, 10).isEmpty());
+
+            ObjectMetadataCondition oldSize = condition();
+            oldSize.setMaxSize(50L);
+            assertTrue(index.query(oldSize, 10).isEmpty());
+
+            ObjectMetadataCondition oldTime = condition();
+            oldTime.setModifiedBefore(1500L);
+            assertTrue(index.query(oldTime, 10).isEmpty());
+
+            ObjectMetadataCondition newTag = condition();
+            newTag.setTags(Map.of("state", "final"));
+            assertEquals(List.of("a"), names(index.query(newTag, 10)));
+            assertEquals(100, index.get(BUCKET, "a").getSize());
+            assertEquals(1, index.count(BUCKET));
+        }
+    }
+
+    @Test
+    void removeDropsObjectFromAllIndexes() throws IOException {
+        try (LocalObjectMetadataIndex index = open(1000)) {
+            populate(index);
+            index.remove(BUCKET, "images/c.png");
+            index.remove(BUCKET, "missing");
+
+            assertNull(index.get(BUCKET, "images/c.png"));
+            ObjectMetadataCondition tags = condition();
+            tags.setTags(Map.of("owner", "alice"));
+            assertEquals(List.of("docs/a.txt"), names(index.query(tags, 10)));
+            ObjectMetadataCondition size = condition();
+            size.setMinSize(200L);
+            size.setMaxSize(200L);
+            assertTrue(index.query(size, 10).isEmpty());
+            assertEquals(4, index.count(BUCKET));
+        }
+    }
+
+    @Test
+    void reloadReplaysJournalAndCheckpoint() throws IOException {
+        Instant checkpoint = Instant.ofEpochMilli(123456789L);
+        try (LocalObjectMetadataIndex index = open(1000)) {
+            populate(index);
+            index.put(metadata("docs/a.txt", 150, 1500, "type", "text"));
+            index.remove(BUCKET, "readme.md");
+            index.setCheckpoint(BUCKET, checkpoint);
+        }
+
+        try (LocalObjectMetadataIndex index = open(1000)) {
+            assertEquals(List.of("docs/a.txt", "docs/b.pdf", "images/c.png", "images/d.png"), names(index.objectNames(BUCKET)));
+            assertEquals(150, index.get(BUCKET, "docs/a.txt").getSize());
+            assertEquals(Map.of("type", "text"), index.get(BUCKET, "docs/a.txt").getTags());
+            assertEquals(checkpoint, index.getCheckpoint(BUCKET));
+            assertNull(index.getCheckpoint("other"));
+
+            ObjectMetadataCondition tags = condition();
+            tags.setTags(Map.of("type", "doc"));
+            assertEquals(List.of("docs/b.pdf"), names(index.query(tags, 10)));
+        }
+    }
+
+    @Test
+    void reloadAfterCompaction() throws IOException {
+        try (LocalObjectMetadataIndex index = open(3)) {
+            IntStream.range(0, 20).forEach(i -> index.put(metadata(String.format("object-%02d", i), i, i)));
+            index.remove(BUCKET, "object-05");
+            index.put(metadata("object-06", 600, 6));
+        }
+
+        assertTrue(Files.exists(directory.resolve("metadata.snapshot")));
+        assertFalse(Files.exists(directory.resolve("metadata.journal.compacting")));
+
+        try (LocalObjectMetadataIndex index = open(3)) {
+            assertEquals(19, index.count(BUCKET));
+            assertNull(index.get(BUCKET, "object-05"));
+            assertEquals(600, index.get(BUCKET, "object-06").getSize());
+        }
+    }
+
+    @Test
+    void replaysLeftoverCompactingJournal() throws IOException {
+        try (LocalObjectMetadataIndex index = open(1000)) {
+            populate(index);
+        }
+        // 模拟切换日志后、快照完成前进程退出
+        Files.move(directory.resolve("metadata.journal"), directory.resolve("metadata.journal.compacting"));
+        Files.writeString(directory.resolve("metadata.journal"), "");
+
+        try (LocalObjectMetadataIndex index = open(1000)) {
+            assertEquals(5, index.count(BUCKET));
+            index.remove(BUCKET, "readme.md");
+        }
+        assertFalse(Files.exists(directory.resolve("metadata.journal.compacting")));
+
+        try (LocalObjectMetadataIndex index = open(1000)) {
+            assertEquals(4, index.count(BUCKET));
+            assertNull(index.get(BUCKET, "readme.md"));
+        }
+    }
+
+    @Test
+    void skipsBrokenJournalEntry() throws IOException {
+        try (LocalObjectMetadataIndex index = open(1000)) {
+            populate(index);
+        }
+        Files.writeString(directory.resolve("metadata.journal"), "{\"operation\":\"PUT\",\"metad\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (LocalObjectMetadataIndex index = open(1000)) {
+            assertEquals(5, index.count(BUCKET));
+        }
+    }
+
+    @Test
+    void largeRangeFallsBackToPrimaryIndex() throws IOException {
+        try (LocalObjectMetadataIndex index = open(Integer.MAX_VALUE)) {
+            // 数值顺序与名称顺序相反，且命中数量超过候选集上限
+            int total = 10050;
+            IntStream.range(0, total).forEach(i -> index.put(metadata(String.format("object-%05d", i), total - i, i)));
+            index.put(metadata("small", 1, 0));
+
+            ObjectMetadataCondition size = condition();
+            size.setMinSize(10L);
+            assertEquals(List.of("object-00000", "object-00001", "object-00002"), names(index.query(size, 3)));
+
+            size.setMarker("object-10030");
+            assertEquals(List.of("object-10031", "object-10032", "object-10033"), names(index.query(size, 3)));
+
+            ObjectMetadataCondition narrow = condition();
+            narrow.setMinSize(10L);
+            narrow.setMaxSize(12L);
+            assertEquals(List.of("object-10038", "object-10039", "object-10040"), names(index.query(narrow, 10)));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.session;
+
+import io.minio.messages.Part;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Description: 分片上传会话测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/12 9:30
+ */
+class ChunkUploadSessionTest {
+
+    private final ChunkUploadSession session = new ChunkUploadSession("u1", "bucket", null, "a", 4, 5L * 1024 * 1024);
+
+    @Test
+    void missingPartsStartAtOne() {
+        assertEquals(List.of(1, 2, 3, 4), session.getMissingParts());
+
+        session.receive(2, "e2");
+        session.receive(4, "e4");
+        assertEquals(List.of(1, 3), session.getMissingParts());
+        assertEquals(2, session.getReceivedCount());
+        assertFalse(session.isCompleted());
+    }
+
+    @Test
+    void partsOutOfRangeAreIgnored() {
+        session.receive(0, "e0");
+        session.receive(5, "e5");
+        assertEquals(0, session.getReceivedCount());
+        assertEquals(0, session.getParts().length);
+    }
+
+    @Test
+    void partsAreOrderedAndRetriedPartKeepsLatestEtag() {
+        session.receive(3, "e3");
+        session.receive(1, "e1");
+        session.receive(4, "e4");
+        session.receive(2, "e2");
+        session.receive(2, "e2-retry");
+
+        assertTrue(session.isCompleted());
+        assertTrue(session.getMissingParts().isEmpty());
+        Part[] parts = session.getParts();
+        assertEquals(List.of(1, 2, 3, 4), Arrays.stream(parts).map(Part::partNumber).toList());
+        assertEquals("e2-retry", parts[1].etag());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Description: 基于内存的分片上传会话存储测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/12 10:10
+ */
+class InMemoryChunkUploadSessionStoreTest {
+
+    @Test
+    void receiveUpdatesStoredSession() {
+        InMemoryChunkUploadSessionStore store = new InMemoryChunkUploadSessionStore(Duration.ofHours(1));
+        store.save(new ChunkUploadSession("u1", "bucket", null, "a", 2, null));
+
+        store.receive("u1", 1, "e1");
+        // 未知的 uploadId 直接忽略
+        store.receive("u2", 1, "e1");
+        assertEquals(1, store.get("u1").getReceivedCount());
+        assertNull(store.get("u2"));
+
+        store.remove("u1");
+        assertNull(store.get("u1"));
+    }
+
+    @Test
+    void idleSessionExpires() throws InterruptedException {
+        InMemoryChunkUploadSessionStore store = new InMemoryChunkUploadSessionStore(Duration.ofMillis(200));
+        store.save(new ChunkUploadSession("u1", "bucket", null, "a", 2, null));
+        store.save(new ChunkUploadSession("u2", "bucket", null, "b", 2, null));
+
+        // 持续接收分片的会话不会过期
+        for (int i = 0; i < 4; i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+            store.receive("u1", 1, "e1");
+        }
+        assertNotNull(store.get("u1"));
+        assertNull(store.get("u2"));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.definition.setting;
+
+import cn.herodotus.oss.minio.scenario.properties.MinioScenarioProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Description: 并发获取设置测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 17:55
+ */
+class ParallelSettingLoaderTest {
+
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private ParallelSettingLoader parallelSettingLoader;
+
+    @BeforeEach
+    void setUp() {
+        MinioScenarioProperties minioScenarioProperties = new MinioScenarioProperties();
+        minioScenarioProperties.getSetting().setThreads(4);
+        minioScenarioProperties.getSetting().setTimeout(Duration.ofMillis(300));
+        parallelSettingLoader = new ParallelSettingLoader(minioScenarioProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blocked.countDown();
+        parallelSettingLoader.destroy();
+    }
+
+    @Test
+    void completeBatch() {
+        ParallelSettingLoader.Batch batch = parallelSettingLoader.batch("bucket");
+        Future<String> tags = batch.submit(() -> "tags");
+        Future<String> policy = batch.submit(() -> "policy");
+
+        assertEquals("tags", batch.get(tags, "tags"));
+        assertEquals("policy", batch.get(policy, "policy"));
+        assertTrue(batch.isComplete());
+    }
+
+    @Test
+    void failedAndSlowItemsArePartial() {
+        ParallelSettingLoader.Batch batch = parallelSettingLoader.batch("bucket");
+        Future<String> tags = batch.submit(() -> "tags");
+        Future<String> policy = batch.submit(() -> {
+            throw new IllegalStateException("Access denied");
+        });
+        Future<String> quota = batch.submit(() -> {
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "quota";
+        });
+
+        long start = System.nanoTime();
+        assertEquals("tags", batch.get(tags, "tags"));
+        assertNull(batch.get(policy, "policy"));
+        assertNull(batch.get(quota, "quota"));
+        // 批次共享截止时间，慢请求不会拖长整个批次
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3));
+        assertFalse(batch.isComplete());
+    }
+}
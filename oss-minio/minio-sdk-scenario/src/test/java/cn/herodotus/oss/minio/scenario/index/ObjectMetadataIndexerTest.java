@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.index;
+
+import cn.herodotus.oss.minio.logic.service.BucketService;
+import cn.herodotus.oss.minio.logic.service.ObjectTagsService;
+import cn.herodotus.oss.minio.logic.service.ParallelListingService;
+import cn.herodotus.oss.minio.scenario.definition.index.LocalObjectMetadataIndex;
+import cn.herodotus.oss.minio.scenario.definition.index.ObjectMetadata;
+import cn.herodotus.oss.minio.scenario.properties.MinioScenarioProperties;
+import io.minio.messages.Item;
+import io.minio.messages.Tags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: 对象元数据索引维护器测试 </p>
+ * <p>
+ * 验证全量核对时索引与存储桶列表的归并：新增和变化的对象重新索引，未变化的对象不再获取标签，
+ * 核对开始前写入且已不存在的对象被删除，核对开始后由事件写入的对象被保留。超过标签刷新周期的对象重新获取标签，
+ * 重新同步只核对指定的存储桶。
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/15 16:50
+ */
+@Timeout(30)
+class ObjectMetadataIndexerTest {
+
+    private static final String BUCKET = "bucket";
+
+    @TempDir
+    Path directory;
+
+    private final List<Item> items = new ArrayList<>();
+    private LocalObjectMetadataIndex objectMetadataIndex;
+    private ObjectTagsService objectTagsService;
+    private ParallelListingService parallelListingService;
+    private MinioScenarioProperties.MetadataIndex properties;
+    private ObjectMetadataIndexer objectMetadataIndexer;
+
+    @BeforeEach
+    void setUp() {
+        objectMetadataIndex = new LocalObjectMetadataIndex(directory, 1000);
+        objectTagsService = mock(ObjectTagsService.class);
+        when(objectTagsService.getObjectTags(eq(BUCKET), anyString())).thenReturn(Tags.newObjectTags(Map.of("k", "v")));
+
+        parallelListingService = mock(ParallelListingService.class);
+        when(parallelListingService.listObjects(eq(BUCKET), isNull(), anyInt(), eq(true))).thenAnswer(invocation -> items.stream());
+
+        MinioScenarioProperties minioScenarioProperties = new MinioScenarioProperties();
+        properties = minioScenarioProperties.getMetadataIndex();
+        properties.setBuckets(List.of(BUCKET));
+        // 由测试直接触发核对
+        properties.setInitialDelay(Duration.ofHours(1));
+
+        objectMetadataIndexer = new ObjectMetadataIndexer(parallelListingService, objectTagsService, mock(BucketService.class), objectMetadataIndex, minioScenarioProperties);
+        objectMetadataIndexer.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        objectMetadataIndexer.destroy();
+        objectMetadataIndex.close();
+    }
+
+    private static ObjectMetadata metadata(String objectName, long size, String etag, long indexedAt) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setBucketName(BUCKET);
+        metadata.setObjectName(objectName);
+        metadata.setSize(size);
+        metadata.setEtag(etag);
+        metadata.setTags(Map.of("k", "old"));
+        metadata.setIndexedAt(indexedAt);
+        return metadata;
+    }
+
+    private void addItem(String objectName, long size, String etag, boolean dir) {
+        Item item = mock(Item.class);
+        when(item.objectName()).thenReturn(objectName);
+        when(item.isDir()).thenReturn(dir);
+        when(item.size()).thenReturn(size);
+        when(item.etag()).thenReturn(etag);
+        when(item.lastModified()).thenReturn(ZonedDateTime.of(2023, 7, 15, 0, 0, 0, 0, ZoneOffset.UTC));
+        items.add(item);
+    }
+
+    @Test
+    void synchronizeMergesListingWithIndex() {
+        long future = Instant.now().plus(Duration.ofHours(1)).toEpochMilli();
+        long recent = Instant.now().minus(Duration.ofMinutes(1)).toEpochMilli();
+        objectMetadataIndex.put(metadata("a", 10, "a1", 0));
+        objectMetadataIndex.put(metadata("c", 10, "c1", recent));
+        objectMetadataIndex.put(metadata("d", 10, "d1", 0));
+        objectMetadataIndex.put(metadata("x", 10, "x1", future));
+        objectMetadataIndex.put(metadata("z", 10, "z1", 0));
+
+        addItem("b", 20, "b1", false);
+        addItem("b/", 0, null, true);
+        addItem("c", 10, "c1", false);
+        addItem("d", 30, "d2", false);
+
+        Instant startedAt = Instant.now();
+        objectMetadataIndexer.synchronize();
+
+        // 索引中存在但存储桶中已不存在的对象被删除，位于列表之间和列表末尾的都会被处理
+        assertNull(objectMetadataIndex.get(BUCKET, "a"));
+        assertNull(objectMetadataIndex.get(BUCKET, "z"));
+        // 核对开始后写入的记录不会被误删
+        assertNotNull(objectMetadataIndex.get(BUCKET, "x"));
+        // 目录不会被索引
+        assertNull(objectMetadataIndex.get(BUCKET, "b/"));
+
+        ObjectMetadata added = objectMetadataIndex.get(BUCKET, "b");
+        assertEquals(20, added.getSize());
+        assertEquals(Map.of("k", "v"), added.getTags());
+        assertTrue(added.getIndexedAt() >= startedAt.toEpochMilli());
+
+        ObjectMetadata changed = objectMetadataIndex.get(BUCKET, "d");
+        assertEquals("d2", changed.getEtag());
+        assertEquals(30, changed.getSize());
+        assertEquals(Map.of("k", "v"), changed.getTags());
+
+        ObjectMetadata unchanged = objectMetadataIndex.get(BUCKET, "c");
+        assertEquals(Map.of("k", "old"), unchanged.getTags());
+        verify(objectTagsService, never()).getObjectTags(BUCKET, "c");
+
+        assertEquals(List.of("b", "c", "d", "x"), objectNames());
+        assertNotNull(objectMetadataIndex.getCheckpoint(BUCKET));
+        assertFalse(objectMetadataIndex.getCheckpoint(BUCKET).isBefore(startedAt.minusSeconds(1)));
+    }
+
+    @Test
+    void synchronizeIsIdempotent() {
+        addItem("a", 10, "a1", false);
+        addItem("b", 20, "b1", false);
+
+        objectMetadataIndexer.synchronize();
+        objectMetadataIndexer.synchronize();
+
+        assertEquals(List.of("a", "b"), objectNames());
+        verify(objectTagsService, times(1)).getObjectTags(BUCKET, "a");
+        verify(objectTagsService, times(1)).getObjectTags(BUCKET, "b");
+    }
+
+    @Test
+    void synchronizeEmptiesIndexOfEmptyBucket() {
+        objectMetadataIndex.put(metadata("a", 10, "a1", 0));
+        objectMetadataIndex.put(metadata("b", 10, "b1", 0));
+
+        objectMetadataIndexer.synchronize();
+
+        assertEquals(0, objectMetadataIndex.count(BUCKET));
+    }
+
+    @Test
+    void expiredTagsAreRefreshed() {
+        long recent = Instant.now().minus(Duration.ofDays(1)).toEpochMilli();
+        long expired = Instant.now().minus(Duration.ofDays(8)).toEpochMilli();
+        objectMetadataIndex.put(metadata("a", 10, "a1", recent));
+        objectMetadataIndex.put(metadata("b", 10, "b1", expired));
+        addItem("a", 10, "a1", false);
+        addItem("b", 10, "b1", false);
+
+        objectMetadataIndexer.synchronize();
+
+        // 只修改标签时 ETag 和大小不变，超过刷新周期后重新获取
+        assertEquals(Map.of("k", "old"), objectMetadataIndex.get(BUCKET, "a").getTags());
+        assertEquals(Map.of("k", "v"), objectMetadataIndex.get(BUCKET, "b").getTags());
+        verify(objectTagsService, never()).getObjectTags(BUCKET, "a");
+    }
+
+    @Test
+    void tagsAreNotRefreshedWhenDisabled() {
+        properties.setTagsRefreshInterval(Duration.ZERO);
+        objectMetadataIndex.put(metadata("a", 10, "a1", 0));
+        addItem("a", 10, "a1", false);
+
+        objectMetadataIndexer.synchronize();
+
+        assertEquals(Map.of("k", "old"), objectMetadataIndex.get(BUCKET, "a").getTags());
+        verify(objectTagsService, never()).getObjectTags(eq(BUCKET), anyString());
+    }
+
+    @Test
+    void resyncOnlySynchronizesThatBucket() {
+        properties.setBuckets(List.of(BUCKET, "other"));
+        addItem("a", 10, "a1", false);
+
+        objectMetadataIndexer.onResync(BUCKET);
+
+        verify(parallelListingService, timeout(5000)).listObjects(eq(BUCKET), isNull(), anyInt(), eq(true));
+        verify(objectTagsService, timeout(5000)).getObjectTags(BUCKET, "a");
+        verify(parallelListingService, never()).listObjects(eq("other"), any(), anyInt(), anyBoolean());
+    }
+
+    private List<String> objectNames() {
+        List<String> names = new ArrayList<>();
+        objectMetadataIndex.objectNames(BUCKET).forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.notification;
+
+import cn.herodotus.oss.minio.logic.service.BucketNotificationService;
+import cn.herodotus.oss.minio.logic.service.BucketService;
+import cn.herodotus.oss.minio.scenario.definition.notification.BucketNotificationEvent;
+import cn.herodotus.oss.minio.scenario.definition.notification.BucketNotificationHandler;
+import cn.herodotus.oss.minio.scenario.properties.MinioScenarioProperties;
+import io.minio.CloseableIterator;
+import io.minio.Result;
+import io.minio.messages.Event;
+import io.minio.messages.NotificationRecords;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: 存储桶事件通知监听容器重新同步顺序测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 11:20
+ */
+class BucketNotificationListenerContainerTest {
+
+    private static final String BUCKET = "bucket";
+    private static final int EVENTS = 8;
+
+    private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch reconnected = new CountDownLatch(1);
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private BucketNotificationListenerContainer container;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MinioScenarioProperties.Subscription subscription = new MinioScenarioProperties.Subscription();
+        subscription.setBucketName(BUCKET);
+        MinioScenarioProperties minioScenarioProperties = new MinioScenarioProperties();
+        minioScenarioProperties.getNotification().setSubscriptions(List.of(subscription));
+        minioScenarioProperties.getNotification().setDispatchers(3);
+        minioScenarioProperties.getNotification().setReconnectDelay(Duration.ofMillis(10));
+
+        // 第一次连接收到事件后断开，第二次连接保持到容器关闭
+        BrokenConnection brokenConnection = new BrokenConnection(records());
+        BucketNotificationService bucketNotificationService = mock(BucketNotificationService.class);
+        when(bucketNotificationService.listenBucketNotification(eq(BUCKET), any(), any(), any()))
+                .thenReturn(brokenConnection)
+                .thenAnswer(invocation -> {
+                    reconnected.countDown();
+                    return new IdleConnection();
+                });
+
+        BucketNotificationHandler handler = new BucketNotificationHandler() {
+            @Override
+            public void onEvent(BucketNotificationEvent event) {
+                // 重连之前不处理事件，保证重新同步时仍有事件在分发队列中
+                try {
+                    reconnected.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                calls.add(event.getObjectName());
+            }
+
+            @Override
+            public void onResync(String bucketName) {
+                calls.add("resync:" + bucketName);
+            }
+        };
+        ObjectProvider<BucketNotificationHandler> handlerProvider = mock(ObjectProvider.class);
+        when(handlerProvider.orderedStream()).thenReturn(Stream.of(handler));
+
+        container = new BucketNotificationListenerContainer(bucketNotificationService, mock(BucketService.class), handlerProvider, mock(ApplicationEventPublisher.class), minioScenarioProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        container.destroy();
+    }
+
+    private static NotificationRecords records() {
+        List<Event> events = IntStream.range(0, EVENTS).mapToObj(i -> {
+            Event event = mock(Event.class);
+            when(event.objectName()).thenReturn("object-" + i);
+            return event;
+        }).toList();
+        NotificationRecords records = mock(NotificationRecords.class);
+        when(records.events()).thenReturn(events);
+        return records;
+    }
+
+    @Test
+    void resyncIsDispatchedAfterQueuedEvents() throws InterruptedException {
+        container.afterPropertiesSet();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (calls.size() < EVENTS + 1 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+
+        List<String> snapshot = List.copyOf(calls);
+        assertEquals(EVENTS + 1, snapshot.size(), snapshot.toString());
+        assertEquals("resync:" + BUCKET, snapshot.get(EVENTS));
+        assertEquals(1, container.getReconnects());
+        assertEquals(EVENTS, container.getDispatchedEvents());
+        assertEquals(0, container.getQueueSize());
+    }
+
+    /**
+     * 返回一批事件后断开的连接
+     */
+    private static class BrokenConnection implements CloseableIterator<Result<NotificationRecords>> {
+
+        private NotificationRecords records;
+
+        private BrokenConnection(NotificationRecords records) {
+            this.records = records;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (records == null) {
+                throw new IllegalStateException("Connection reset");
+            }
+            return true;
+        }
+
+        @Override
+        public Result<NotificationRecords> next() {
+            Result<NotificationRecords> result = new Result<>(records);
+            records = null;
+            return result;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * 没有新事件的连接，关闭前一直等待
+     */
+    private class IdleConnection implements CloseableIterator<Result<NotificationRecords>> {
+
+        @Override
+        public boolean hasNext() {
+            try {
+                closed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        @Override
+        public Result<NotificationRecords> next() {
+            throw new IllegalStateException("No more notification");
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed.countDown();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.proxy;
+
+import cn.herodotus.oss.minio.logic.definition.pool.MinioHttpClientFactory;
+import cn.herodotus.oss.minio.scenario.definition.session.ChunkUploadSessionStore;
+import okhttp3.*;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: Minio 请求代理测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/6/3 10:20
+ */
+class MinioPresignedObjectUrlProxyTest {
+
+    private static final String TARGET = "http://minio:9000/bucket/a?uploadId=u1&partNumber=1";
+
+    private final AtomicReference<String> uploaded = new AtomicReference<>();
+    private final AtomicReference<Response.Builder> delegated = new AtomicReference<>();
+    private ChunkUploadSessionStore chunkUploadSessionStore;
+    private MinioPresignedObjectUrlProxy proxy;
+
+    @BeforeEach
+    void setUp() {
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    Request request = chain.request();
+                    Buffer buffer = new Buffer();
+                    if (request.body() != null) {
+                        request.body().writeTo(buffer);
+                    }
+                    uploaded.set(buffer.readUtf8());
+                    return delegated.get().request(request).protocol(Protocol.HTTP_1_1).message("OK").build();
+                })
+                .build();
+
+        MinioHttpClientFactory minioHttpClientFactory = mock(MinioHttpClientFactory.class);
+        when(minioHttpClientFactory.isShared()).thenReturn(true);
+        when(minioHttpClientFactory.getHttpClient()).thenReturn(httpClient);
+        MinioProxyAddressConverter converter = mock(MinioProxyAddressConverter.class);
+        when(converter.toPresignedObjectUrl(any())).thenReturn(TARGET);
+        chunkUploadSessionStore = mock(ChunkUploadSessionStore.class);
+        proxy = new MinioPresignedObjectUrlProxy(converter, chunkUploadSessionStore, minioHttpClientFactory);
+    }
+
+    private static MockHttpServletRequest uploadPart() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/presigned/bucket/a");
+        request.setQueryString("uploadId=u1&partNumber=1");
+        request.setContentType("application/octet-stream");
+        request.setContent("part".getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    @Test
+    void partIsForwardedAndReceived() {
+        delegated.set(new Response.Builder().code(200).header("ETag", "\"e1\"").header("Connection", "keep-alive")
+                .body(ResponseBody.create("done", MediaType.get("text/plain"))));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        proxy.delegate(uploadPart(), response);
+
+        assertEquals("part", uploaded.get());
+        assertEquals(200, response.getStatus());
+        assertEquals("\"e1\"", response.getHeader("ETag"));
+        assertNull(response.getHeader("Connection"));
+        assertEquals("done", new String(response.getContentAsByteArray(), StandardCharsets.UTF_8));
+        verify(chunkUploadSessionStore).receive("u1", 1, "\"e1\"");
+    }
+
+    @Test
+    void failedPartIsNotReceived() {
+        delegated.set(new Response.Builder().code(403).body(ResponseBody.create("denied", MediaType.get("application/xml"))));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        proxy.delegate(uploadPart(), response);
+
+        assertEquals(403, response.getStatus());
+        verify(chunkUploadSessionStore, never()).receive(anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    void errorWhileCopyingResponseBodySendsError() {
+        delegated.set(new Response.Builder().code(200).header("ETag", "\"e1\"").body(new BrokenResponseBody()));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        proxy.delegate(uploadPart(), response);
+
+        // 输出流已经被获取，错误响应不能再通过 Writer 写出
+        assertEquals(500, response.getStatus());
+        assertEquals("Delegate ERROR", response.getErrorMessage());
+        assertNull(response.getHeader("ETag"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    /**
+     * 读取时连接中断的响应体
+     */
+    private static class BrokenResponseBody extends ResponseBody {
+
+        @Override
+        public MediaType contentType() {
+            return null;
+        }
+
+        @Override
+        public long contentLength() {
+            return 1024;
+        }
+
+        @Override
+        public BufferedSource source() {
+            return Okio.buffer(new Source() {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    throw new IOException("Connection reset");
+                }
+
+                @Override
+                public Timeout timeout() {
+                    return Timeout.NONE;
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.reaper;
+
+import cn.herodotus.oss.minio.logic.service.BucketService;
+import cn.herodotus.oss.minio.logic.service.MultipartUploadService;
+import cn.herodotus.oss.minio.scenario.definition.session.ChunkUploadSessionStore;
+import cn.herodotus.oss.minio.scenario.properties.MinioScenarioProperties;
+import io.minio.ListMultipartUploadsResponse;
+import io.minio.messages.ListMultipartUploadsResult;
+import io.minio.messages.Part;
+import io.minio.messages.Upload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: 未完成分片上传清理器测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/12 17:10
+ */
+class MultipartUploadReaperTest {
+
+    private static final String BUCKET = "bucket";
+
+    private final List<Upload> uploads = new ArrayList<>();
+    private MultipartUploadService multipartUploadService;
+    private ChunkUploadSessionStore chunkUploadSessionStore;
+    private MultipartUploadReaper multipartUploadReaper;
+
+    @BeforeEach
+    void setUp() {
+        MinioScenarioProperties minioScenarioProperties = new MinioScenarioProperties();
+        // 测试中手动执行清理，避免定时任务干扰
+        minioScenarioProperties.getReaper().setInitialDelay(Duration.ofDays(1));
+        minioScenarioProperties.getReaper().setBuckets(List.of(BUCKET));
+
+        ListMultipartUploadsResult result = mock(ListMultipartUploadsResult.class);
+        when(result.uploads()).thenReturn(uploads);
+        when(result.isTruncated()).thenReturn(false);
+        ListMultipartUploadsResponse response = mock(ListMultipartUploadsResponse.class);
+        when(response.result()).thenReturn(result);
+
+        multipartUploadService = mock(MultipartUploadService.class);
+        when(multipartUploadService.listMultipartUploads(eq(BUCKET), any(), any(), any(), any())).thenReturn(response);
+        chunkUploadSessionStore = mock(ChunkUploadSessionStore.class);
+
+        multipartUploadReaper = new MultipartUploadReaper(multipartUploadService, mock(BucketService.class), chunkUploadSessionStore, minioScenarioProperties);
+        multipartUploadReaper.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        multipartUploadReaper.destroy();
+    }
+
+    private void upload(String uploadId, Duration initiatedAgo, Duration... partsUploadedAgo) {
+        Upload upload = mock(Upload.class);
+        when(upload.uploadId()).thenReturn(uploadId);
+        when(upload.objectName()).thenReturn(uploadId + ".bin");
+        when(upload.initiated()).thenReturn(ZonedDateTime.now().minus(initiatedAgo));
+        uploads.add(upload);
+
+        List<Part> parts = new ArrayList<>();
+        for (Duration ago : partsUploadedAgo) {
+            Part part = mock(Part.class);
+            when(part.lastModified()).thenReturn(ZonedDateTime.now().minus(ago));
+            when(part.partSize()).thenReturn(100L);
+            parts.add(part);
+        }
+        when(multipartUploadService.listAllParts(BUCKET, null, uploadId + ".bin", uploadId)).thenReturn(parts);
+    }
+
+    @Test
+    void staleUploadsAreAborted() {
+        upload("empty", Duration.ofDays(2));
+        upload("abandoned", Duration.ofDays(3), Duration.ofDays(3), Duration.ofDays(2));
+
+        multipartUploadReaper.reap();
+
+        verify(multipartUploadService).abortMultipartUpload(BUCKET, null, "empty.bin", "empty");
+        verify(multipartUploadService).abortMultipartUpload(BUCKET, null, "abandoned.bin", "abandoned");
+        verify(chunkUploadSessionStore).remove("empty");
+        verify(chunkUploadSessionStore).remove("abandoned");
+        assertEquals(2, multipartUploadReaper.getAbortedUploads());
+        assertEquals(200, multipartUploadReaper.getReclaimedBytes());
+    }
+
+    @Test
+    void uploadWithRecentPartIsKept() {
+        // 创建时间早于阈值，但最后一个分片刚刚上传，仍在进行中
+        upload("active", Duration.ofDays(2), Duration.ofDays(2), Duration.ofMinutes(1));
+
+        multipartUploadReaper.reap();
+
+        verify(multipartUploadService, never()).abortMultipartUpload(any(), any(), any(), any());
+        verify(chunkUploadSessionStore, never()).remove(any());
+        assertEquals(0, multipartUploadReaper.getAbortedUploads());
+        assertEquals(1, multipartUploadReaper.getActiveUploads());
+    }
+
+    @Test
+    void recentlyInitiatedUploadIsNotInspected() {
+        upload("recent", Duration.ofMinutes(5));
+
+        multipartUploadReaper.reap();
+
+        verify(multipartUploadService, never()).listAllParts(any(), any(), any(), any());
+        verify(multipartUploadService, never()).abortMultipartUpload(any(), any(), any(), any());
+    }
+}
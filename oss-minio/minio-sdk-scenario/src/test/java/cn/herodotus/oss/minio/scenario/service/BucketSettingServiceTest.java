@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.service;
+
+import cn.herodotus.oss.minio.core.enums.PolicyEnums;
+import cn.herodotus.oss.minio.core.exception.MinioErrorResponseException;
+import cn.herodotus.oss.minio.logic.definition.cache.SettingCache;
+import cn.herodotus.oss.minio.logic.properties.MinioProperties;
+import cn.herodotus.oss.minio.logic.service.*;
+import cn.herodotus.oss.minio.scenario.bo.BucketSettingBusiness;
+import cn.herodotus.oss.minio.scenario.definition.setting.ParallelSettingLoader;
+import cn.herodotus.oss.minio.scenario.properties.MinioScenarioProperties;
+import io.minio.messages.Tags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: 存储桶设置服务缓存测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/14 18:10
+ */
+class BucketSettingServiceTest {
+
+    private BucketTagsService bucketTagsService;
+    private BucketPolicyService bucketPolicyService;
+    private ParallelSettingLoader parallelSettingLoader;
+    private BucketSettingService bucketSettingService;
+
+    @BeforeEach
+    void setUp() {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.getSettingCache().setEnabled(true);
+        parallelSettingLoader = new ParallelSettingLoader(new MinioScenarioProperties());
+
+        bucketTagsService = mock(BucketTagsService.class);
+        bucketPolicyService = mock(BucketPolicyService.class);
+        when(bucketPolicyService.getBucketPolicy("bucket", null)).thenReturn(PolicyEnums.PRIVATE);
+        bucketSettingService = new BucketSettingService(mock(BucketEncryptionService.class), bucketPolicyService, bucketTagsService,
+                mock(BucketVersioningService.class), mock(BucketQuotaService.class), mock(ObjectLockConfigurationService.class), new SettingCache(minioProperties), parallelSettingLoader);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelSettingLoader.destroy();
+    }
+
+    @Test
+    void partialSettingIsReturnedButNotCached() {
+        when(bucketTagsService.getBucketTags("bucket", null))
+                .thenThrow(new MinioErrorResponseException("Access denied"))
+                .thenReturn(Tags.newBucketTags(Map.of("team", "oss")));
+
+        // 获取标签失败，其它设置正常返回
+        BucketSettingBusiness partial = bucketSettingService.get("bucket");
+        assertEquals(PolicyEnums.PRIVATE, partial.getPolicy());
+        assertNull(partial.getTags());
+
+        BucketSettingBusiness complete = bucketSettingService.get("bucket");
+        assertEquals(Map.of("team", "oss"), complete.getTags());
+        assertSame(complete, bucketSettingService.get("bucket"));
+        verify(bucketTagsService, times(2)).getBucketTags("bucket", null);
+        verify(bucketPolicyService, times(2)).getBucketPolicy("bucket", null);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.service;
+
+import cn.herodotus.oss.minio.core.exception.MinioErrorResponseException;
+import cn.herodotus.oss.minio.logic.service.MultipartUploadAsyncService;
+import cn.herodotus.oss.minio.logic.service.MultipartUploadService;
+import cn.herodotus.oss.minio.logic.service.PresignedObjectUrlService;
+import cn.herodotus.oss.minio.scenario.bo.ChunkUploadCreateBusiness;
+import cn.herodotus.oss.minio.scenario.bo.ChunkUploadStatusBusiness;
+import cn.herodotus.oss.minio.scenario.definition.session.ChunkUploadSessionStore;
+import cn.herodotus.oss.minio.scenario.definition.session.InMemoryChunkUploadSessionStore;
+import cn.herodotus.oss.minio.scenario.proxy.MinioProxyAddressConverter;
+import io.minio.CreateMultipartUploadResponse;
+import io.minio.ObjectWriteResponse;
+import io.minio.messages.InitiateMultipartUploadResult;
+import io.minio.messages.Part;
+import okhttp3.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: 大文件分片直传预上传地址测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 11:50
+ */
+class ChunkUploadServiceTest {
+
+    private MultipartUploadService multipartUploadService;
+    private PresignedObjectUrlService presignedObjectUrlService;
+    private ChunkUploadSessionStore chunkUploadSessionStore;
+    private ChunkUploadService chunkUploadService;
+
+    @BeforeEach
+    void setUp() {
+        InitiateMultipartUploadResult result = mock(InitiateMultipartUploadResult.class);
+        when(result.uploadId()).thenReturn("u1");
+        CreateMultipartUploadResponse response = mock(CreateMultipartUploadResponse.class);
+        when(response.result()).thenReturn(result);
+
+        multipartUploadService = mock(MultipartUploadService.class);
+        when(multipartUploadService.createMultipartUpload(eq("bucket"), any(), eq("a"), any(), any())).thenReturn(response);
+
+        presignedObjectUrlService = mock(PresignedObjectUrlService.class);
+        when(presignedObjectUrlService.getPresignedPartUrls(anyString(), any(), anyString(), anyString(), anyInt(), anyInt(), anyInt(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            int startPartNumber = invocation.getArgument(4);
+            int size = invocation.getArgument(5);
+            return IntStream.range(startPartNumber, startPartNumber + size).mapToObj(partNumber -> "part-" + partNumber).collect(Collectors.toList());
+        });
+
+        MinioProxyAddressConverter converter = mock(MinioProxyAddressConverter.class);
+        when(converter.toServiceUrl(anyString())).then(returnsFirstArg());
+
+        chunkUploadSessionStore = new InMemoryChunkUploadSessionStore(ChunkUploadService.PRESIGNED_PART_URL_EXPIRATION);
+        chunkUploadService = new ChunkUploadService(multipartUploadService, mock(MultipartUploadAsyncService.class), presignedObjectUrlService, converter, chunkUploadSessionStore);
+    }
+
+    @Test
+    void partNumbersStartAtOne() {
+        ChunkUploadCreateBusiness business = chunkUploadService.createMultipartUpload("bucket", "a", 5, null, 2);
+
+        assertEquals("u1", business.getUploadId());
+        assertEquals(List.of("part-1", "part-2"), business.getChunkUploadUrls());
+        assertEquals(3, business.getNextPartNumber());
+    }
+
+    @Test
+    void sessionTotalPartsLimitsUrls() {
+        chunkUploadService.createMultipartUpload("bucket", "a", 5, null, 2);
+
+        // 请求中的分片总数大于会话记录时，以会话为准
+        ChunkUploadCreateBusiness business = chunkUploadService.createPresignedPartUrls("bucket", "a", "u1", 3, 100, 10000);
+        assertEquals(List.of("part-3", "part-4", "part-5"), business.getChunkUploadUrls());
+        assertNull(business.getNextPartNumber());
+        verify(multipartUploadService, never()).listParts(anyString(), any(), anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    void uploadOfAnotherObjectIsRejected() {
+        chunkUploadService.createMultipartUpload("bucket", "a", 5, null, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> chunkUploadService.createPresignedPartUrls("bucket", "b", "u1", 3, 2, 5));
+        assertThrows(IllegalArgumentException.class, () -> chunkUploadService.createPresignedPartUrls("other", "a", "u1", 3, 2, 5));
+        verify(presignedObjectUrlService, times(1)).getPresignedPartUrls(anyString(), any(), anyString(), anyString(), anyInt(), anyInt(), anyInt(), any(TimeUnit.class));
+    }
+
+    @Test
+    void uploadWithoutSessionIsVerifiedBeforeSigning() {
+        ChunkUploadCreateBusiness business = chunkUploadService.createPresignedPartUrls("bucket", "a", "u2", 9999, 5, 20000);
+
+        verify(multipartUploadService).listParts("bucket", null, "a", 1, "u2");
+        // 请求中的分片总数不能超过 S3 允许的最大分片号
+        assertEquals(List.of("part-9999", "part-10000"), business.getChunkUploadUrls());
+        assertNull(business.getNextPartNumber());
+    }
+
+    @Test
+    void unknownUploadWithoutSessionIsRejected() {
+        when(multipartUploadService.listParts("bucket", null, "a", 1, "missing")).thenThrow(new MinioErrorResponseException("The specified multipart upload does not exist."));
+
+        assertThrows(MinioErrorResponseException.class, () -> chunkUploadService.createPresignedPartUrls("bucket", "a", "missing", 1, 5, 5));
+        verifyNoInteractions(presignedObjectUrlService);
+    }
+
+    @Test
+    void statusReportsMissingParts() {
+        chunkUploadService.createMultipartUpload("bucket", "a", 3, 1024L, null);
+        chunkUploadSessionStore.receive("u1", 2, "e2");
+
+        ChunkUploadStatusBusiness status = chunkUploadService.getStatus("u1");
+        assertEquals(1, status.getReceivedParts());
+        assertEquals(List.of(1, 3), status.getMissingParts());
+        assertNull(chunkUploadService.getStatus("missing"));
+    }
+
+    @Test
+    void completedSessionSkipsListParts() {
+        when(multipartUploadService.completeMultipartUpload(eq("bucket"), any(), eq("a"), eq("u1"), any(Part[].class))).thenReturn(new ObjectWriteResponse(Headers.of(), "bucket", null, "a", "e", null));
+        chunkUploadService.createMultipartUpload("bucket", "a", 2, null, null);
+        chunkUploadSessionStore.receive("u1", 2, "e2");
+        chunkUploadSessionStore.receive("u1", 1, "e1");
+
+        assertEquals("e", chunkUploadService.completeMultipartUpload("bucket", "a", "u1").getEtag());
+        ArgumentCaptor<Part[]> captor = ArgumentCaptor.forClass(Part[].class);
+        verify(multipartUploadService).completeMultipartUpload(eq("bucket"), any(), eq("a"), eq("u1"), captor.capture());
+        assertEquals(List.of(1, 2), Arrays.stream(captor.getValue()).map(Part::partNumber).toList());
+        verify(multipartUploadService, never()).listAllParts(any(), any(), any(), any());
+        assertNull(chunkUploadSessionStore.get("u1"));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.service;
+
+import cn.herodotus.oss.minio.core.exception.MinioErrorResponseException;
+import cn.herodotus.oss.minio.logic.service.ObjectService;
+import cn.herodotus.oss.minio.scenario.bo.InstantUploadBusiness;
+import cn.herodotus.oss.minio.scenario.definition.dedup.InMemoryObjectHashIndex;
+import cn.herodotus.oss.minio.scenario.definition.dedup.ObjectHashIndex;
+import cn.herodotus.oss.minio.scenario.properties.MinioScenarioProperties;
+import io.minio.CopyObjectArgs;
+import io.minio.ObjectWriteResponse;
+import okhttp3.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: 秒传服务测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 16:40
+ */
+class InstantUploadServiceTest {
+
+    private static final String HASH = "9F86D081884C7D659A2FEAA0C55AD015A3BF4F1B2B0B822CD15D6C15B0F00A08";
+
+    private MinioScenarioProperties minioScenarioProperties;
+    private ObjectService objectService;
+    private ObjectHashIndex objectHashIndex;
+    private InstantUploadService instantUploadService;
+
+    @BeforeEach
+    void setUp() {
+        minioScenarioProperties = new MinioScenarioProperties();
+        minioScenarioProperties.getInstantUpload().setEnabled(true);
+        objectService = mock(ObjectService.class);
+        objectHashIndex = new InMemoryObjectHashIndex(100);
+        instantUploadService = new InstantUploadService(objectService, objectHashIndex, minioScenarioProperties);
+        instantUploadService.record(HASH, "bucket", "source", 4, "e1");
+    }
+
+    @Test
+    void instantUploadIsDisabledByDefault() {
+        InstantUploadService disabled = new InstantUploadService(objectService, objectHashIndex, new MinioScenarioProperties());
+        disabled.record(HASH, "bucket", "other", 4, "e2");
+
+        assertFalse(disabled.instantUpload("bucket", "target", HASH, 4).getInstant());
+        assertEquals("source", objectHashIndex.get(HASH.toLowerCase()).getObjectName());
+        verifyNoInteractions(objectService);
+    }
+
+    @Test
+    void knownContentIsCopiedFromReference() {
+        when(objectService.copyObject(any(CopyObjectArgs.class))).thenReturn(new ObjectWriteResponse(Headers.of(), "bucket", null, "target", "e1", null));
+
+        InstantUploadBusiness business = instantUploadService.instantUpload("bucket", "target", HASH.toLowerCase(), 4);
+        assertTrue(business.getInstant());
+        assertEquals("target", business.getObject().getObjectName());
+
+        ArgumentCaptor<CopyObjectArgs> captor = ArgumentCaptor.forClass(CopyObjectArgs.class);
+        verify(objectService).statObject("bucket", null, "source", "e1");
+        verify(objectService).copyObject(captor.capture());
+        assertEquals("source", captor.getValue().source().object());
+        // 复制时校验源对象 ETag，避免复制到已被覆盖的内容
+        assertEquals("e1", captor.getValue().source().matchETag());
+    }
+
+    @Test
+    void sameObjectIsNotCopied() {
+        InstantUploadBusiness business = instantUploadService.instantUpload("bucket", "source", HASH, 4);
+
+        assertTrue(business.getInstant());
+        assertEquals("e1", business.getObject().getEtag());
+        verify(objectService, never()).copyObject(any(CopyObjectArgs.class));
+    }
+
+    @Test
+    void sizeMismatchIsNotInstant() {
+        assertFalse(instantUploadService.instantUpload("bucket", "target", HASH, 5).getInstant());
+        verifyNoInteractions(objectService);
+    }
+
+    @Test
+    void crossBucketReferenceRequiresOptIn() {
+        assertFalse(instantUploadService.instantUpload("other", "target", HASH, 4).getInstant());
+        verifyNoInteractions(objectService);
+
+        minioScenarioProperties.getInstantUpload().setCrossBucket(true);
+        when(objectService.copyObject(any(CopyObjectArgs.class))).thenReturn(new ObjectWriteResponse(Headers.of(), "other", null, "target", "e1", null));
+        assertTrue(instantUploadService.instantUpload("other", "target", HASH, 4).getInstant());
+    }
+
+    @Test
+    void staleReferenceIsRemoved() {
+        when(objectService.statObject("bucket", null, "source", "e1")).thenThrow(new MinioErrorResponseException("Object does not exist"));
+
+        assertFalse(instantUploadService.instantUpload("bucket", "target", HASH, 4).getInstant());
+        assertNull(objectHashIndex.get(HASH.toLowerCase()));
+        verify(objectService, never()).copyObject(any(CopyObjectArgs.class));
+    }
+}
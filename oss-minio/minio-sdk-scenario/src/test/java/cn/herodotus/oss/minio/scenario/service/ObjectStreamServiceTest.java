@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2020-2030 ZHENGGENGWEI(码匠君)<herodotus@aliyun.com>
+ *
+ * Dante Cloud licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * <http://www.apache.org/licenses/LICENSE-2.0>
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Dante OSS 采用APACHE LICENSE 2.0开源协议，您在使用过程中，需要注意以下几点：
+ *
+ * 1.请不要删除和修改根目录下的LICENSE文件。
+ * 2.请不要删除和修改 Dante Cloud 源码头部的版权声明。
+ * 3.请保留源码和相关描述文件的项目出处，作者声明等。
+ * 4.分发源码时候，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 5.在修改包名，模块名称，项目代码等时，请注明软件出处 <https://gitee.com/herodotus/dante-oss>
+ * 6.若您的项目无法满足以上几点，可申请商业授权
+ */
+
+package cn.herodotus.oss.minio.scenario.service;
+
+import cn.herodotus.oss.minio.core.exception.MinioErrorResponseException;
+import cn.herodotus.oss.minio.logic.service.ObjectService;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import okhttp3.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpRange;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * <p>Description: Object 流式处理服务 Range 下载测试 </p>
+ *
+ * @author : gengwei.zheng
+ * @date : 2023/7/11 16:20
+ */
+class ObjectStreamServiceTest {
+
+    private static final String BUCKET = "bucket";
+    private static final String OBJECT = "video.mp4";
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    private final List<GetObjectArgs> reads = new ArrayList<>();
+    private ObjectService objectService;
+    private StatObjectResponse statObject;
+    private ObjectStreamService objectStreamService;
+
+    @BeforeEach
+    void setUp() {
+        statObject = mock(StatObjectResponse.class);
+        when(statObject.size()).thenReturn((long) CONTENT.length);
+        when(statObject.etag()).thenReturn("e1");
+        when(statObject.contentType()).thenReturn("video/mp4");
+        when(statObject.lastModified()).thenReturn(ZonedDateTime.of(2023, 7, 11, 8, 0, 0, 0, ZoneOffset.UTC));
+
+        objectService = mock(ObjectService.class);
+        when(objectService.statObjectForRead(any(StatObjectArgs.class))).thenReturn(statObject);
+        when(objectService.getObject(any(GetObjectArgs.class), eq(statObject))).thenAnswer(invocation -> {
+            GetObjectArgs args = invocation.getArgument(0);
+            reads.add(args);
+            int offset = args.offset() != null ? args.offset().intValue() : 0;
+            int length = args.length() != null ? args.length().intValue() : CONTENT.length - offset;
+            return new GetObjectResponse(Headers.of(), args.bucket(), null, args.object(), new ByteArrayInputStream(CONTENT, offset, length));
+        });
+
+        objectStreamService = new ObjectStreamService(objectService, mock(InstantUploadService.class));
+    }
+
+    private static List<ObjectStreamService.ByteRange> toByteRanges(String range, long length) {
+        return ObjectStreamService.toByteRanges(HttpRange.parseRanges(range), length);
+    }
+
+    private static ObjectStreamService.ByteRange range(long start, long end) {
+        return new ObjectStreamService.ByteRange(start, end);
+    }
+
+    @Test
+    void singleRangeIsKept() {
+        assertEquals(List.of(range(0, 4)), toByteRanges("bytes=0-4", 100));
+        assertEquals(List.of(range(95, 99)), toByteRanges("bytes=95-", 100));
+        // 结束位置超出对象大小时截断
+        assertEquals(List.of(range(90, 99)), toByteRanges("bytes=90-200", 100));
+        // 单个 Range 可以覆盖整个对象
+        assertEquals(List.of(range(0, 99)), toByteRanges("bytes=0-99", 100));
+    }
+
+    @Test
+    void suffixRangeCountsFromEnd() {
+        assertEquals(List.of(range(90, 99)), toByteRanges("bytes=-10", 100));
+        assertEquals(List.of(range(0, 99)), toByteRanges("bytes=-200", 100));
+    }
+
+    @Test
+    void overlappingAndAdjacentRangesAreMergedInOrder() {
+        assertEquals(List.of(range(0, 4), range(10, 30)), toByteRanges("bytes=10-20,0-4,15-30", 100));
+        assertEquals(List.of(range(0, 9)), toByteRanges("bytes=5-9,0-4", 100));
+        assertEquals(List.of(range(0, 4), range(6, 9)), toByteRanges("bytes=6-9,0-4", 100));
+        // 被包含的 Range 不会缩短已有的 Range
+        assertEquals(List.of(range(0, 20)), toByteRanges("bytes=0-20,5-10", 110));
+    }
+
+    @Test
+    void unsatisfiableRangesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> toByteRanges("bytes=100-", 100));
+        assertThrows(IllegalArgumentException.class, () -> toByteRanges("bytes=100-200", 100));
+        // 多个 Range 的总长度不小于对象大小
+        assertThrows(IllegalArgumentException.class, () -> toByteRanges("bytes=0-60,50-99", 100));
+        assertThrows(IllegalArgumentException.class, () -> ObjectStreamService.toByteRanges(List.of(), 100));
+    }
+
+    @Test
+    void downloadWithoutRangeReturnsWholeObject() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        objectStreamService.download(BUCKET, OBJECT, null, null, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals("\"e1\"", response.getHeader("ETag"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertNull(reads.get(0).matchETag());
+    }
+
+    @Test
+    void downloadSingleRange() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        objectStreamService.download(BUCKET, OBJECT, "bytes=2-4", null, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("234", response.getContentAsString());
+        assertEquals("bytes 2-4/10", response.getHeader("Content-Range"));
+        assertEquals(3, response.getContentLengthLong());
+        assertEquals("e1", reads.get(0).matchETag());
+    }
+
+    @Test
+    void downloadMultipleRanges() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        objectStreamService.download(BUCKET, OBJECT, "bytes=7-8,0-1", null, response);
+
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String body = response.getContentAsString();
+        assertTrue(body.indexOf("Content-Range: bytes 0-1/10\r\n\r\n01") < body.indexOf("Content-Range: bytes 7-8/10\r\n\r\n78"));
+        assertEquals(2, reads.size());
+    }
+
+    @Test
+    void mismatchedIfRangeReturnsWholeObject() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        objectStreamService.download(BUCKET, OBJECT, "bytes=2-4", "\"e0\"", response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void unsatisfiableRangeReturns416() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        objectStreamService.download(BUCKET, OBJECT, "bytes=20-30", null, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+        assertTrue(reads.isEmpty());
+    }
+
+    @Test
+    void objectChangedAfterStatFailsBeforeResponseIsWritten() {
+        when(objectService.getObject(any(GetObjectArgs.class), eq(statObject))).thenThrow(new MinioErrorResponseException("At least one of the pre-conditions you specified did not hold"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThrows(MinioErrorResponseException.class, () -> objectStreamService.download(BUCKET, OBJECT, "bytes=0-1,5-6", null, response));
+        assertEquals(200, response.getStatus());
+        assertFalse(response.isCommitted());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}